@@ -6,6 +6,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mewebstudio.javaspringbootboilerplate.event.BoundedApplicationEventMulticaster;
 import io.swagger.v3.core.jackson.ModelResolver;
 import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.OpenAPI;
@@ -16,8 +17,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.event.ApplicationEventMulticaster;
-import org.springframework.context.event.SimpleApplicationEventMulticaster;
-import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.servlet.LocaleResolver;
@@ -33,6 +33,7 @@ import java.util.TimeZone;
 import static com.mewebstudio.javaspringbootboilerplate.util.Constants.SECURITY_SCHEME_NAME;
 
 @Configuration
+@EnableScheduling
 public class AppConfig {
     /**
      * Locale resolver bean.
@@ -96,16 +97,22 @@ public class AppConfig {
     }
 
     /**
-     * Simple application event multicaster bean.
+     * Application event multicaster bean, delivering events on a bounded pool.
      *
+     * @param threads            int threads delivering events
+     * @param perTypeConcurrency int listener calls of one event type running at a time
+     * @param capacity           int listener calls waiting before the publisher runs them
+     * @param drainTimeout       long milliseconds to wait for pending calls on shutdown
      * @return ApplicationEventMulticaster
      */
     @Bean(name = "applicationEventMulticaster")
-    public ApplicationEventMulticaster simpleApplicationEventMulticaster() {
-        SimpleApplicationEventMulticaster eventMulticaster = new SimpleApplicationEventMulticaster();
-        eventMulticaster.setTaskExecutor(new SimpleAsyncTaskExecutor());
-
-        return eventMulticaster;
+    public ApplicationEventMulticaster boundedApplicationEventMulticaster(
+        @Value("${app.event.threads}") final int threads,
+        @Value("${app.event.per-type-concurrency}") final int perTypeConcurrency,
+        @Value("${app.event.capacity}") final int capacity,
+        @Value("${app.event.drain-timeout}") final long drainTimeout
+    ) {
+        return new BoundedApplicationEventMulticaster(threads, perTypeConcurrency, capacity, drainTimeout);
     }
 
     /**
@@ -133,6 +140,7 @@ public class AppConfig {
         emailTemplateResolver.setSuffix(".html");
         emailTemplateResolver.setTemplateMode(TemplateMode.HTML);
         emailTemplateResolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        emailTemplateResolver.setCacheable(true);
 
         return emailTemplateResolver;
     }
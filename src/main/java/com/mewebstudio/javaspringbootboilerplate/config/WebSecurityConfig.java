@@ -58,6 +58,8 @@ public class WebSecurityConfig {
                     "/ws/**"
                 ).permitAll()
                 .requestMatchers("/admin/**").hasAuthority(Constants.RoleEnum.ADMIN.name())
+                .requestMatchers("/actuator/health/**", "/actuator/info").authenticated()
+                .requestMatchers("/actuator/**").hasAuthority(Constants.RoleEnum.ADMIN.name())
                 .anyRequest().authenticated()
             )
             .build();
@@ -1,5 +1,6 @@
 package com.mewebstudio.javaspringbootboilerplate.config;
 
+import com.mewebstudio.javaspringbootboilerplate.service.websocket.WebSocketCodec;
 import com.mewebstudio.javaspringbootboilerplate.service.websocket.WebSocketInterceptor;
 import com.mewebstudio.javaspringbootboilerplate.service.websocket.WebsocketChannelHandler;
 import lombok.RequiredArgsConstructor;
@@ -7,6 +8,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.web.socket.config.annotation.EnableWebSocket;
 import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
 import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
 
 @Configuration
 @EnableWebSocket
@@ -17,13 +19,16 @@ public class WebsocketConfig implements WebSocketConfigurer {
     private final WebSocketInterceptor webSocketInterceptor;
 
     /**
-     * Register websocket handlers.
+     * Register websocket handlers. Clients asking for the "cbor" sub-protocol get binary frames, all others JSON text.
      * @param registry WebSocketHandlerRegistry
      */
     @Override
     public void registerWebSocketHandlers(final WebSocketHandlerRegistry registry) {
+        DefaultHandshakeHandler handshakeHandler = new DefaultHandshakeHandler();
+        handshakeHandler.setSupportedProtocols(WebSocketCodec.CBOR_PROTOCOL, WebSocketCodec.JSON_PROTOCOL);
         registry
                 .addHandler(websocketChannelHandler, "/ws/{token}")
+                .setHandshakeHandler(handshakeHandler)
                 .addInterceptors(webSocketInterceptor)
                 .setAllowedOrigins("*");
     }
@@ -60,7 +60,7 @@ public class AccountController extends AbstractBaseController {
         }
     )
     public ResponseEntity<UserResponse> me() {
-        return ResponseEntity.ok(UserResponse.convert(userService.getUser()));
+        return ResponseEntity.ok(UserResponse.convert(userService.getUserView()));
     }
 
     @PostMapping("/password")
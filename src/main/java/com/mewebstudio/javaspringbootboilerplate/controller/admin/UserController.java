@@ -4,14 +4,20 @@ import com.mewebstudio.javaspringbootboilerplate.controller.AbstractBaseControll
 import com.mewebstudio.javaspringbootboilerplate.dto.request.user.CreateUserRequest;
 import com.mewebstudio.javaspringbootboilerplate.dto.request.user.UpdateUserRequest;
 import com.mewebstudio.javaspringbootboilerplate.dto.response.ErrorResponse;
+import com.mewebstudio.javaspringbootboilerplate.dto.response.user.UserImportResponse;
 import com.mewebstudio.javaspringbootboilerplate.dto.response.user.UserResponse;
+import com.mewebstudio.javaspringbootboilerplate.dto.response.user.UsersCursorPaginationResponse;
 import com.mewebstudio.javaspringbootboilerplate.dto.response.user.UsersPaginationResponse;
 import com.mewebstudio.javaspringbootboilerplate.entity.User;
+import com.mewebstudio.javaspringbootboilerplate.entity.specification.criteria.CursorPaginationCriteria;
 import com.mewebstudio.javaspringbootboilerplate.entity.specification.criteria.PaginationCriteria;
 import com.mewebstudio.javaspringbootboilerplate.entity.specification.criteria.UserCriteria;
+import com.mewebstudio.javaspringbootboilerplate.repository.projection.UserView;
 import com.mewebstudio.javaspringbootboilerplate.service.MessageSourceService;
+import com.mewebstudio.javaspringbootboilerplate.service.UserImportService;
 import com.mewebstudio.javaspringbootboilerplate.service.UserService;
 import com.mewebstudio.javaspringbootboilerplate.util.Constants;
+import com.mewebstudio.javaspringbootboilerplate.util.CursorPage;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.headers.Header;
@@ -25,6 +31,7 @@ import jakarta.validation.constraints.Pattern;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindException;
@@ -34,11 +41,14 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -54,8 +64,16 @@ public class UserController extends AbstractBaseController {
     private static final String[] SORT_COLUMNS = new String[]{"id", "email", "name", "lastName", "blockedAt",
         "createdAt", "updatedAt"};
 
+    /**
+     * Keyset pagination needs a non-null sort column, so blockedAt is left out.
+     */
+    private static final String[] CURSOR_SORT_COLUMNS = new String[]{"id", "email", "name", "lastName", "createdAt",
+        "updatedAt"};
+
     private final UserService userService;
 
+    private final UserImportService userImportService;
+
     private final MessageSourceService messageSourceService;
 
     @GetMapping
@@ -119,7 +137,7 @@ public class UserController extends AbstractBaseController {
     ) {
         sortColumnCheck(messageSourceService, SORT_COLUMNS, sortBy);
 
-        Page<User> users = userService.findAll(
+        Page<UserView> users = userService.findAll(
             UserCriteria.builder()
                 .roles(roles != null ? roles.stream().map(Constants.RoleEnum::get)
                     .collect(Collectors.toList()) : null)
@@ -143,6 +161,99 @@ public class UserController extends AbstractBaseController {
             .toList()));
     }
 
+    @GetMapping("/cursor")
+    @Operation(
+        summary = "Users list endpoint with cursor pagination",
+        description = "Keyset pagination: pass the nextCursor of the previous response to fetch the next page. "
+            + "Deep pages cost the same as the first one and the total is only computed when requested.",
+        security = @SecurityRequirement(name = SECURITY_SCHEME_NAME),
+        responses = {
+            @ApiResponse(
+                responseCode = "200",
+                description = "Success operation",
+                content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = UsersCursorPaginationResponse.class)
+                )
+            ),
+            @ApiResponse(
+                responseCode = "400",
+                description = "Bad Request",
+                content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ErrorResponse.class)
+                )
+            ),
+            @ApiResponse(
+                responseCode = "401",
+                description = "Full authentication is required to access this resource",
+                content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ErrorResponse.class)
+                )
+            )
+        }
+    )
+    public ResponseEntity<UsersCursorPaginationResponse> cursorList(
+        @Parameter(name = "roles", description = "Roles", example = "admin,user")
+        @RequestParam(required = false) final List<String> roles,
+        @Parameter(name = "createdAtStart", description = "Created date start", example = "2022-10-25T22:54:58")
+        @RequestParam(required = false)
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final LocalDateTime createdAtStart,
+        @Parameter(name = "createdAtEnd", description = "Created date end", example = "2022-10-25T22:54:58")
+        @RequestParam(required = false)
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) final LocalDateTime createdAtEnd,
+        @Parameter(name = "isAvatar", description = "Is avatar?", example = "true")
+        @RequestParam(required = false) final Boolean isAvatar,
+        @Parameter(name = "isBlocked", description = "Is blocked?", example = "true")
+        @RequestParam(required = false) final Boolean isBlocked,
+        @Parameter(name = "q", description = "Search keyword", example = "lorem")
+        @RequestParam(required = false) final String q,
+        @Parameter(name = "cursor", description = "Cursor returned as nextCursor by the previous page")
+        @RequestParam(required = false) final String cursor,
+        @Parameter(name = "size", description = "Page size, at most 2000", example = "20")
+        @RequestParam(defaultValue = "${spring.data.web.pageable.default-page-size}",
+            required = false) final Integer size,
+        @Parameter(name = "sortBy", description = "Sort by column", example = "createdAt",
+            schema = @Schema(type = "String", allowableValues = {"id", "email", "name", "lastName", "createdAt",
+                "updatedAt"}))
+        @RequestParam(defaultValue = "createdAt", required = false) final String sortBy,
+        @Parameter(name = "sort", description = "Sort direction", schema = @Schema(type = "string",
+            allowableValues = {"asc", "desc"}, defaultValue = "asc"))
+        @RequestParam(defaultValue = "asc", required = false) @Pattern(regexp = "asc|desc") final String sort,
+        @Parameter(name = "count", description = "Total count: none, exact or estimate (table-wide planner "
+            + "estimate, ignores filters)", schema = @Schema(type = "string",
+            allowableValues = {"none", "exact", "estimate"}, defaultValue = "none"))
+        @RequestParam(defaultValue = "none", required = false)
+        @Pattern(regexp = "none|exact|estimate") final String count
+    ) {
+        sortColumnCheck(messageSourceService, CURSOR_SORT_COLUMNS, sortBy);
+
+        CursorPaginationCriteria paginationCriteria = CursorPaginationCriteria.builder()
+            .cursor(cursor)
+            .size(size)
+            .sortBy(sortBy)
+            .sort(sort)
+            .columns(CURSOR_SORT_COLUMNS)
+            .count(count != null ? Constants.CountEnum.get(count) : null)
+            .build();
+        CursorPage<UserView> users = userService.findAll(
+            UserCriteria.builder()
+                .roles(roles != null ? roles.stream().map(Constants.RoleEnum::get)
+                    .collect(Collectors.toList()) : null)
+                .createdAtStart(createdAtStart)
+                .createdAtEnd(createdAtEnd)
+                .isAvatar(isAvatar)
+                .isBlocked(isBlocked)
+                .q(q)
+                .build(),
+            paginationCriteria
+        );
+
+        return ResponseEntity.ok(new UsersCursorPaginationResponse(users, paginationCriteria.getSize(),
+            users.getItems().stream().map(UserResponse::convert).toList()));
+    }
+
     @PostMapping
     @Operation(
         summary = "Create user endpoint",
@@ -203,6 +314,54 @@ public class UserController extends AbstractBaseController {
         return ResponseEntity.created(location).build();
     }
 
+    @PostMapping(value = "/import", consumes = {UserImportService.TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(
+        summary = "Bulk import users endpoint",
+        description = "Streams a CSV file with the header email,password,name,lastName,roles,isEmailVerified,isBlocked "
+            + "(roles separated by |) or NDJSON lines of the create user request body",
+        security = @SecurityRequirement(name = SECURITY_SCHEME_NAME),
+        requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+            required = true,
+            content = {
+                @Content(mediaType = UserImportService.TEXT_CSV_VALUE, schema = @Schema(type = "string")),
+                @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(type = "string"))
+            }
+        ),
+        responses = {
+            @ApiResponse(
+                responseCode = "200",
+                description = "Success operation",
+                content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = UserImportResponse.class)
+                )
+            ),
+            @ApiResponse(
+                responseCode = "401",
+                description = "Full authentication is required to access this resource",
+                content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ErrorResponse.class)
+                )
+            ),
+            @ApiResponse(
+                responseCode = "415",
+                description = "Unsupported media type",
+                content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ErrorResponse.class)
+                )
+            )
+        }
+    )
+    public ResponseEntity<UserImportResponse> importUsers(
+        @Parameter(hidden = true)
+        @RequestHeader(HttpHeaders.CONTENT_TYPE) final String contentType,
+        @Parameter(hidden = true) final InputStream inputStream
+    ) throws IOException {
+        return ResponseEntity.ok(userImportService.importUsers(inputStream, MediaType.parseMediaType(contentType)));
+    }
+
     @GetMapping("/{id}")
     @Operation(
         summary = "Show user endpoint",
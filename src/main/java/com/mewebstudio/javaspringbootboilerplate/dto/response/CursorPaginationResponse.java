@@ -0,0 +1,52 @@
+package com.mewebstudio.javaspringbootboilerplate.dto.response;
+
+import com.mewebstudio.javaspringbootboilerplate.util.CursorPage;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class CursorPaginationResponse<T> extends AbstractBaseResponse {
+    @Schema(
+        name = "size",
+        description = "size",
+        type = "Integer",
+        example = "20"
+    )
+    private Integer size;
+
+    @Schema(
+        name = "nextCursor",
+        description = "Cursor of the next page, null on the last page",
+        type = "String",
+        example = "Y3JlYXRlZEF0fGFzY3w5MWIyOTk5ZC1kMzI3LTRkYzgtOTk1Ni0yZmFkYzBkYzg3Nzh8MjAyMi0xMC0yNVQyMjo1NDo1OA"
+    )
+    private String nextCursor;
+
+    @Schema(
+        name = "total",
+        description = "Total number of items, only present when a count was requested",
+        type = "Long",
+        example = "10"
+    )
+    private Long total;
+
+    @ArraySchema(
+        schema = @Schema(
+            type = "T",
+            description = "items"
+        )
+    )
+    private List<T> items;
+
+    public CursorPaginationResponse(final CursorPage<?> cursorPage, final Integer size, final List<T> items) {
+        this.size = size;
+        this.nextCursor = cursorPage.getNextCursor();
+        this.total = cursorPage.getTotal();
+        this.items = items;
+    }
+}
@@ -0,0 +1,37 @@
+package com.mewebstudio.javaspringbootboilerplate.dto.response.user;
+
+import com.mewebstudio.javaspringbootboilerplate.dto.response.AbstractBaseResponse;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.SuperBuilder;
+
+@Getter
+@Setter
+@SuperBuilder
+public class UserImportErrorResponse extends AbstractBaseResponse {
+    @Schema(
+        name = "line",
+        description = "Line number of the row in the uploaded file",
+        type = "Long",
+        example = "12"
+    )
+    private Long line;
+
+    @Schema(
+        name = "email",
+        description = "E-mail of the row",
+        type = "String",
+        nullable = true,
+        example = "mail@example.com"
+    )
+    private String email;
+
+    @Schema(
+        name = "message",
+        description = "Error message",
+        type = "String",
+        example = "E-mail is already using"
+    )
+    private String message;
+}
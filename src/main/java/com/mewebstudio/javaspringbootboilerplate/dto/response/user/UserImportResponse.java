@@ -0,0 +1,45 @@
+package com.mewebstudio.javaspringbootboilerplate.dto.response.user;
+
+import com.mewebstudio.javaspringbootboilerplate.dto.response.AbstractBaseResponse;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.SuperBuilder;
+
+import java.util.List;
+
+@Getter
+@Setter
+@SuperBuilder
+public class UserImportResponse extends AbstractBaseResponse {
+    @Schema(
+        name = "total",
+        description = "Number of rows read",
+        type = "Long",
+        example = "200000"
+    )
+    private Long total;
+
+    @Schema(
+        name = "imported",
+        description = "Number of users created",
+        type = "Long",
+        example = "199990"
+    )
+    private Long imported;
+
+    @Schema(
+        name = "failed",
+        description = "Number of rows rejected",
+        type = "Long",
+        example = "10"
+    )
+    private Long failed;
+
+    @Schema(
+        name = "errors",
+        description = "Rejected rows, capped at app.user-import.max-errors",
+        type = "List"
+    )
+    private List<UserImportErrorResponse> errors;
+}
@@ -2,6 +2,7 @@ package com.mewebstudio.javaspringbootboilerplate.dto.response.user;
 
 import com.mewebstudio.javaspringbootboilerplate.dto.response.AbstractBaseResponse;
 import com.mewebstudio.javaspringbootboilerplate.entity.User;
+import com.mewebstudio.javaspringbootboilerplate.repository.projection.UserView;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Getter;
 import lombok.Setter;
@@ -104,4 +105,23 @@ public class UserResponse extends AbstractBaseResponse {
             .updatedAt(user.getUpdatedAt())
             .build();
     }
+
+    /**
+     * Convert UserView to UserResponse
+     * @param user UserView
+     * @return UserResponse
+     */
+    public static UserResponse convert(UserView user) {
+        return UserResponse.builder()
+            .id(user.id().toString())
+            .email(user.email())
+            .name(user.name())
+            .lastName(user.lastName())
+            .roles(user.roles())
+            .emailVerifiedAt(user.emailVerifiedAt())
+            .blockedAt(user.blockedAt())
+            .createdAt(user.createdAt())
+            .updatedAt(user.updatedAt())
+            .build();
+    }
 }
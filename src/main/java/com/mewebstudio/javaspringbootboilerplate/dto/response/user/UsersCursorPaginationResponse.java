@@ -0,0 +1,13 @@
+package com.mewebstudio.javaspringbootboilerplate.dto.response.user;
+
+import com.mewebstudio.javaspringbootboilerplate.dto.response.CursorPaginationResponse;
+import com.mewebstudio.javaspringbootboilerplate.util.CursorPage;
+
+import java.util.List;
+
+public class UsersCursorPaginationResponse extends CursorPaginationResponse<UserResponse> {
+    public UsersCursorPaginationResponse(final CursorPage<?> cursorPage, final Integer size,
+                                         final List<UserResponse> items) {
+        super(cursorPage, size, items);
+    }
+}
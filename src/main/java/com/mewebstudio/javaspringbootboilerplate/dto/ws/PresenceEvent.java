@@ -0,0 +1,31 @@
+package com.mewebstudio.javaspringbootboilerplate.dto.ws;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Presence frame sent to the websocket clients. A "presence-snapshot" carries one page of the online users at
+ * {@code version}; a "presence-delta" carries the users that joined and left in one batch, in version order. A client
+ * that sees a gap in the versions sends a "presence-sync" message with the last version it applied.
+ */
+@Getter
+@Builder
+public class PresenceEvent {
+    private String type;
+
+    private long version;
+
+    private Integer page;
+
+    private Integer pages;
+
+    private List<String> users;
+
+    private List<String> joined;
+
+    private List<String> left;
+
+    private long date;
+}
@@ -1,5 +1,6 @@
 package com.mewebstudio.javaspringbootboilerplate.dto.ws;
 
+import com.mewebstudio.javaspringbootboilerplate.service.websocket.WebSocketOutbound;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -7,6 +8,8 @@ import lombok.Setter;
 import lombok.ToString;
 import org.springframework.web.socket.WebSocketSession;
 
+import java.time.Instant;
+
 @Getter
 @Setter
 @ToString
@@ -17,8 +20,14 @@ public class WebsocketIdentifier implements Comparable<WebsocketIdentifier> {
 
     private String token;
 
+    private Instant expiresAt;
+
     private WebSocketSession session;
 
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private WebSocketOutbound outbound;
+
     @Override
     public int compareTo(WebsocketIdentifier otherIdentifier) {
         if ((this.hashCode() == otherIdentifier.hashCode()) && this.equals(otherIdentifier)) {
@@ -0,0 +1,53 @@
+package com.mewebstudio.javaspringbootboilerplate.entity;
+
+import com.mewebstudio.javaspringbootboilerplate.util.Constants;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Rendered e-mail waiting to be sent. Rows are written in the transaction of the action that triggers the mail and
+ * deleted once the SMTP server accepted the message.
+ */
+@Entity
+@Table(name = "mail_outbox")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MailOutbox extends AbstractBaseEntity {
+    @Column(name = "recipient", nullable = false)
+    private String recipient;
+
+    @Column(name = "recipient_name")
+    private String recipientName;
+
+    @Column(name = "subject", nullable = false)
+    private String subject;
+
+    @Column(name = "body", nullable = false, columnDefinition = "text")
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private Constants.MailOutboxStatusEnum status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", columnDefinition = "text")
+    private String lastError;
+}
@@ -17,6 +17,7 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -26,8 +27,10 @@ import java.util.List;
 @Table(name = "users", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"email"}, name = "uk_users_email")
 }, indexes = {
-    @Index(columnList = "name", name = "idx_users_name"),
-    @Index(columnList = "last_name", name = "idx_users_last_name")
+    @Index(columnList = "name, id", name = "idx_users_name_id"),
+    @Index(columnList = "last_name, id", name = "idx_users_last_name_id"),
+    @Index(columnList = "created_at, id", name = "idx_users_created_at_id"),
+    @Index(columnList = "updated_at, id", name = "idx_users_updated_at_id")
 })
 @Getter
 @Setter
@@ -35,6 +38,11 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 public class User extends AbstractBaseEntity {
+    /**
+     * Number of users whose roles are loaded by a single query, should cover the largest page size.
+     */
+    public static final int ROLES_BATCH_SIZE = 100;
+
     @Column(name = "email", nullable = false)
     private String email;
 
@@ -50,7 +58,8 @@ public class User extends AbstractBaseEntity {
     @Column(name = "avatar", columnDefinition = "text")
     private String avatar;
 
-    @ManyToMany(fetch = FetchType.EAGER, cascade = CascadeType.DETACH)
+    @ManyToMany(fetch = FetchType.LAZY, cascade = CascadeType.DETACH)
+    @BatchSize(size = ROLES_BATCH_SIZE)
     @JoinTable(name = "user_roles",
         joinColumns = @JoinColumn(
             name = "user_id",
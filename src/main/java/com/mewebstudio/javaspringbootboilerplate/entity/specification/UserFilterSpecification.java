@@ -8,15 +8,24 @@ import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.lang.NonNull;
+import org.springframework.util.StringUtils;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
 
 @RequiredArgsConstructor
 public final class UserFilterSpecification implements Specification<User> {
+    private static final Pattern UUID_PATTERN = Pattern.compile(
+        "^[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}$");
+
+    private static final char ESCAPE_CHAR = '\\';
+
     private final UserCriteria criteria;
 
     @Override
@@ -30,10 +39,7 @@ public final class UserFilterSpecification implements Specification<User> {
         List<Predicate> predicates = new ArrayList<>();
 
         if (criteria.getRoles() != null && !criteria.getRoles().isEmpty()) {
-            Join<User, Role> roleJoin = root.join("roles");
-            predicates.add(
-                builder.in(roleJoin.get("name")).value(criteria.getRoles())
-            );
+            predicates.add(hasAnyRole(root, query, builder));
         }
 
         if (criteria.getIsAvatar() != null) {
@@ -64,23 +70,76 @@ public final class UserFilterSpecification implements Specification<User> {
             }
         }
 
-        if (criteria.getQ() != null) {
-            String q = String.format("%%%s%%", criteria.getQ().toLowerCase());
-
-            predicates.add(
-                builder.or(
-                    builder.like(builder.lower(root.get("id").as(String.class)), q),
-                    builder.like(builder.lower(root.get("email")), q),
-                    builder.like(builder.lower(root.get("name")), q),
-                    builder.like(builder.lower(root.get("lastName")), q)
-                )
-            );
+        if (StringUtils.hasText(criteria.getQ())) {
+            predicates.add(search(root, builder, criteria.getQ().trim().toLowerCase()));
         }
 
         if (!predicates.isEmpty()) {
             query.where(predicates.toArray(new Predicate[0]));
         }
 
-        return query.distinct(true).getRestriction();
+        // No join fans the users out, so the rows are unique without a DISTINCT.
+        return query.getRestriction();
+    }
+
+    /**
+     * Role filter as a correlated EXISTS over user_roles. Unlike joining the roles, it neither multiplies a user
+     * having several matching roles nor needs a DISTINCT to collapse them again, which keeps both the page query and
+     * its count cheap.
+     *
+     * @param root    Root
+     * @param query   CriteriaQuery
+     * @param builder CriteriaBuilder
+     * @return Predicate
+     */
+    private Predicate hasAnyRole(final Root<User> root, final CriteriaQuery<?> query, final CriteriaBuilder builder) {
+        Subquery<Integer> subquery = query.subquery(Integer.class);
+        Join<User, Role> roleJoin = subquery.correlate(root).join("roles");
+        subquery.select(builder.literal(1))
+            .where(roleJoin.get("name").in(criteria.getRoles()));
+
+        return builder.exists(subquery);
+    }
+
+    /**
+     * Free-text search predicate. A full UUID is matched on the primary key and a keyword with a local part before
+     * its "@" is treated as the beginning of an e-mail address, both of which are answered by btree lookups.
+     * Everything else, including a domain such as "@example.com", is a substring match on lower(email), lower(name)
+     * and lower(last_name), served by the pg_trgm GIN indexes.
+     *
+     * @param root    Root
+     * @param builder CriteriaBuilder
+     * @param q       String lower-cased search keyword
+     * @return Predicate
+     */
+    private Predicate search(final Root<User> root, final CriteriaBuilder builder, final String q) {
+        if (UUID_PATTERN.matcher(q).matches()) {
+            return builder.equal(root.get("id"), UUID.fromString(q));
+        }
+
+        String escaped = escapeLike(q);
+        if (q.indexOf('@') > 0) {
+            return builder.like(builder.lower(root.get("email")), escaped + "%", ESCAPE_CHAR);
+        }
+
+        String pattern = String.format("%%%s%%", escaped);
+
+        return builder.or(
+            builder.like(builder.lower(root.get("email")), pattern, ESCAPE_CHAR),
+            builder.like(builder.lower(root.get("name")), pattern, ESCAPE_CHAR),
+            builder.like(builder.lower(root.get("lastName")), pattern, ESCAPE_CHAR)
+        );
+    }
+
+    /**
+     * Escape the LIKE wildcards so the keyword is matched literally.
+     *
+     * @param value String
+     * @return String
+     */
+    private static String escapeLike(final String value) {
+        return value.replace(String.valueOf(ESCAPE_CHAR), String.valueOf(ESCAPE_CHAR) + ESCAPE_CHAR)
+            .replace("%", ESCAPE_CHAR + "%")
+            .replace("_", ESCAPE_CHAR + "_");
     }
 }
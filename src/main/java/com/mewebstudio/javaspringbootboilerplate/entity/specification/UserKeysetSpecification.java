@@ -0,0 +1,60 @@
+package com.mewebstudio.javaspringbootboilerplate.entity.specification;
+
+import com.mewebstudio.javaspringbootboilerplate.entity.User;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.lang.NonNull;
+
+import java.util.UUID;
+
+/**
+ * Seek predicate selecting the rows after (sortBy, id) = (value, id) in the given direction, i.e.
+ * {@code sortBy > value OR (sortBy = value AND id > id)} for ascending order. Combined with an index on
+ * (sortBy, id) the database starts reading right at the cursor instead of skipping an offset.
+ */
+@RequiredArgsConstructor
+public final class UserKeysetSpecification implements Specification<User> {
+    private static final String ID_COLUMN = "id";
+
+    private final String sortBy;
+
+    private final Sort.Direction direction;
+
+    private final Comparable<?> value;
+
+    private final UUID id;
+
+    @Override
+    public Predicate toPredicate(@NonNull final Root<User> root,
+                                 @NonNull final CriteriaQuery<?> query,
+                                 @NonNull final CriteriaBuilder builder) {
+        Path<UUID> idPath = root.get(ID_COLUMN);
+        Predicate afterId = after(builder, idPath, id);
+        if (ID_COLUMN.equals(sortBy)) {
+            return afterId;
+        }
+
+        Path<?> column = root.get(sortBy);
+
+        return builder.or(
+            after(builder, column, value),
+            builder.and(builder.equal(column, value), afterId)
+        );
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate after(final CriteriaBuilder builder, final Expression expression, final Comparable comparable) {
+        if (direction.isAscending()) {
+            return builder.greaterThan(expression, comparable);
+        }
+
+        return builder.lessThan(expression, comparable);
+    }
+}
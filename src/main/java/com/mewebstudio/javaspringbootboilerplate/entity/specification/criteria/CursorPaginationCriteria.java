@@ -0,0 +1,25 @@
+package com.mewebstudio.javaspringbootboilerplate.entity.specification.criteria;
+
+import com.mewebstudio.javaspringbootboilerplate.util.Constants;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public final class CursorPaginationCriteria {
+    private String cursor;
+
+    private Integer size;
+
+    private String sortBy;
+
+    private String sort;
+
+    private String[] columns;
+
+    private Constants.CountEnum count;
+}
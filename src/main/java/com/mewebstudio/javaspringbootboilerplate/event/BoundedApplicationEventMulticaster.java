@@ -0,0 +1,265 @@
+package com.mewebstudio.javaspringbootboilerplate.event;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.SimpleApplicationEventMulticaster;
+import org.springframework.core.ResolvableType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.scheduling.support.TaskUtils;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Application event multicaster that delivers events on a fixed pool instead of a new thread per event, so a burst of
+ * registrations cannot exhaust the JVM's threads.
+ * <p>
+ * Every event type has its own lane: at most {@code perTypeConcurrency} listener calls of one type run at a time and
+ * the rest wait in the lane, so a slow listener cannot take every pool thread from the other event types. At most
+ * {@code capacity} calls wait over all lanes; beyond that the publisher runs the listener itself, which slows the
+ * burst down instead of dropping or buffering without bound. Listener exceptions are logged, as they were on the
+ * asynchronous executor, and never reach the publisher.
+ * <p>
+ * On shutdown the pending calls are drained for up to {@code drainTimeout} milliseconds; events published after that
+ * are delivered on the publishing thread. The drain runs as a {@link SmartLifecycle} in the last phase, so it stops
+ * first, while the schedulers, the Redis listener container and every bean a listener uses are still running; bean
+ * destruction, where a {@code @PreDestroy} drain would run, can destroy them before this bean.
+ */
+@Slf4j
+public class BoundedApplicationEventMulticaster extends SimpleApplicationEventMulticaster
+    implements MeterBinder, SmartLifecycle {
+    private static final String PREFIX = "event.multicaster.";
+
+    private static final String TYPE = "type";
+
+    private static final long DRAIN_POLL_MILLIS = 10;
+
+    private final int perTypeConcurrency;
+
+    private final int capacity;
+
+    private final long drainTimeout;
+
+    private final ExecutorService executor;
+
+    private final Map<Class<?>, Lane> lanes = new ConcurrentHashMap<>();
+
+    private final AtomicInteger pending = new AtomicInteger();
+
+    private final AtomicLong callerRuns = new AtomicLong();
+
+    private volatile boolean closed;
+
+    private volatile boolean running;
+
+    private volatile MeterRegistry meterRegistry;
+
+    /**
+     * Bounded application event multicaster constructor.
+     *
+     * @param threads            int threads delivering events
+     * @param perTypeConcurrency int listener calls of one event type running at a time
+     * @param capacity           int listener calls waiting over all event types before the publisher runs them
+     * @param drainTimeout       long milliseconds to wait for pending calls on shutdown
+     */
+    public BoundedApplicationEventMulticaster(final int threads, final int perTypeConcurrency, final int capacity,
+                                              final long drainTimeout) {
+        this.perTypeConcurrency = perTypeConcurrency;
+        this.capacity = capacity;
+        this.drainTimeout = drainTimeout;
+        this.executor = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("event-"));
+        setErrorHandler(TaskUtils.LOG_AND_SUPPRESS_ERROR_HANDLER);
+    }
+
+    @Override
+    public void multicastEvent(final ApplicationEvent event, final ResolvableType eventType) {
+        ResolvableType type = eventType != null ? eventType : ResolvableType.forInstance(event);
+        Lane lane = null;
+        for (ApplicationListener<?> listener : getApplicationListeners(event, type)) {
+            if (lane == null) {
+                lane = lanes.computeIfAbsent(laneKey(event), this::createLane);
+            }
+
+            if (closed || pending.incrementAndGet() > capacity) {
+                if (!closed) {
+                    pending.decrementAndGet();
+                    callerRuns.incrementAndGet();
+                }
+                invokeListener(listener, event);
+                continue;
+            }
+
+            lane.submit(() -> invokeListener(listener, event));
+        }
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        meterRegistry = registry;
+        Gauge.builder(PREFIX + "pending", pending, AtomicInteger::get)
+            .description("Listener calls waiting for a thread")
+            .register(registry);
+        FunctionCounter.builder(PREFIX + "caller.runs", callerRuns, AtomicLong::get)
+            .description("Listener calls run on the publishing thread because the lanes were full")
+            .register(registry);
+        lanes.values().forEach(lane -> lane.bindTo(registry));
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    /**
+     * Drain the pending calls before the other lifecycle beans stop.
+     */
+    @Override
+    public void stop() {
+        drain();
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Stop the pool, draining first when the context did not stop this bean, e.g. when it was never started.
+     */
+    @PreDestroy
+    public void shutdown() {
+        drain();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Stop taking new calls and wait for the pending ones.
+     */
+    private void drain() {
+        closed = true;
+        long deadline = System.currentTimeMillis() + drainTimeout;
+        try {
+            while (pending.get() > 0 || running() > 0) {
+                if (System.currentTimeMillis() >= deadline) {
+                    log.warn("Event multicaster drain timed out, {} listener calls dropped", pending.get());
+                    break;
+                }
+                TimeUnit.MILLISECONDS.sleep(DRAIN_POLL_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int running() {
+        return lanes.values().stream().mapToInt(lane -> lane.running.get()).sum();
+    }
+
+    private Lane createLane(final Class<?> type) {
+        Lane lane = new Lane(type);
+        MeterRegistry registry = meterRegistry;
+        if (registry != null) {
+            lane.bindTo(registry);
+        }
+
+        return lane;
+    }
+
+    private static Class<?> laneKey(final ApplicationEvent event) {
+        return event instanceof PayloadApplicationEvent<?> payloadEvent
+            ? payloadEvent.getPayload().getClass() : event.getClass();
+    }
+
+    /**
+     * Listener calls of one event type, started on the pool while fewer than the per-type limit are running.
+     */
+    private final class Lane {
+        private final Class<?> type;
+
+        private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+
+        private final AtomicInteger queued = new AtomicInteger();
+
+        private final AtomicInteger running = new AtomicInteger();
+
+        /**
+         * Lane constructor.
+         *
+         * @param type Class event type
+         */
+        Lane(final Class<?> type) {
+            this.type = type;
+        }
+
+        void submit(final Runnable call) {
+            queue.add(call);
+            queued.incrementAndGet();
+            schedule();
+        }
+
+        void bindTo(final MeterRegistry registry) {
+            Gauge.builder(PREFIX + "lane.pending", queued, AtomicInteger::get)
+                .description("Listener calls of an event type waiting for a thread")
+                .tag(TYPE, type.getSimpleName())
+                .register(registry);
+            Gauge.builder(PREFIX + "lane.running", running, AtomicInteger::get)
+                .description("Listener calls of an event type running")
+                .tag(TYPE, type.getSimpleName())
+                .register(registry);
+        }
+
+        /**
+         * Start waiting calls while the lane is under its limit. Every call added and every call finished schedules
+         * again, so no call is left waiting while a slot is free.
+         */
+        private void schedule() {
+            while (!queue.isEmpty()) {
+                int current = running.get();
+                if (current >= perTypeConcurrency) {
+                    return;
+                }
+                if (!running.compareAndSet(current, current + 1)) {
+                    continue;
+                }
+
+                Runnable call = queue.poll();
+                if (call == null) {
+                    running.decrementAndGet();
+                    continue;
+                }
+
+                queued.decrementAndGet();
+                executor.execute(() -> {
+                    try {
+                        call.run();
+                    } finally {
+                        pending.decrementAndGet();
+                        running.decrementAndGet();
+                        schedule();
+                    }
+                });
+            }
+        }
+    }
+}
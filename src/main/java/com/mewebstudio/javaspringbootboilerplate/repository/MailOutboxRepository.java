@@ -0,0 +1,30 @@
+package com.mewebstudio.javaspringbootboilerplate.repository;
+
+import com.mewebstudio.javaspringbootboilerplate.entity.MailOutbox;
+import com.mewebstudio.javaspringbootboilerplate.util.Constants;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface MailOutboxRepository extends JpaRepository<MailOutbox, UUID> {
+    /**
+     * Lock the due messages that no other worker has locked; rows locked by another worker are skipped instead of
+     * waited for, so workers on any number of nodes claim disjoint batches.
+     *
+     * @param now   LocalDateTime
+     * @param limit int
+     * @return List of MailOutbox
+     */
+    @Query(value = "SELECT * FROM mail_outbox WHERE status = 'PENDING' AND next_attempt_at <= :now "
+        + "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<MailOutbox> findDueForUpdate(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    long countByStatus(Constants.MailOutboxStatusEnum status);
+
+    @Query("SELECT MIN(m.createdAt) FROM MailOutbox m WHERE m.status = :status")
+    LocalDateTime findOldestCreatedAtByStatus(@Param("status") Constants.MailOutboxStatusEnum status);
+}
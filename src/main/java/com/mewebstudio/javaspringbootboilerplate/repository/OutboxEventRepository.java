@@ -0,0 +1,36 @@
+package com.mewebstudio.javaspringbootboilerplate.repository;
+
+import com.mewebstudio.javaspringbootboilerplate.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID> {
+    /**
+     * Lock the due events that no other relay has locked. Events of transactions still in flight are not visible yet,
+     * and rows locked by another relay are skipped instead of waited for.
+     *
+     * @param now   LocalDateTime
+     * @param limit int
+     * @return List of OutboxEvent
+     */
+    @Query(value = "SELECT * FROM outbox_events WHERE next_attempt_at <= :now ORDER BY next_attempt_at LIMIT :limit "
+        + "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> findDueForUpdate(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Delete a claimed event, unless another relay claimed it again after the lease ran out.
+     *
+     * @param id       UUID
+     * @param attempts int attempts of the event when it was claimed
+     * @return int number of deleted events
+     */
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.id = :id AND e.attempts = :attempts")
+    int deleteClaimed(@Param("id") UUID id, @Param("attempts") int attempts);
+}
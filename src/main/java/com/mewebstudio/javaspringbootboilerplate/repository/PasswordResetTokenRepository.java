@@ -1,6 +1,7 @@
 package com.mewebstudio.javaspringbootboilerplate.repository;
 
 import com.mewebstudio.javaspringbootboilerplate.entity.PasswordResetToken;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -12,6 +13,7 @@ import java.util.UUID;
 public interface PasswordResetTokenRepository extends JpaRepository<PasswordResetToken, UUID> {
     Optional<PasswordResetToken> findByUserId(UUID userId);
 
+    @EntityGraph(attributePaths = "user.roles")
     Optional<PasswordResetToken> findByToken(String token);
 
     @Modifying
@@ -1,14 +1,31 @@
 package com.mewebstudio.javaspringbootboilerplate.repository;
 
 import com.mewebstudio.javaspringbootboilerplate.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
-public interface UserRepository extends JpaRepository<User, UUID>, JpaSpecificationExecutor<User> {
+public interface UserRepository extends JpaRepository<User, UUID>, JpaSpecificationExecutor<User>,
+    UserViewRepository {
+    @Override
+    @EntityGraph(attributePaths = "roles")
+    Optional<User> findById(UUID id);
+
+    @EntityGraph(attributePaths = "roles")
     Optional<User> findByEmail(String email);
 
     boolean existsByEmailAndIdNot(String email, UUID id);
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    Set<String> findEmailsByEmailIn(@Param("emails") Collection<String> emails);
+
+    @Query(value = "SELECT CAST(reltuples AS BIGINT) FROM pg_class WHERE relname = 'users'", nativeQuery = true)
+    Long estimateCount();
 }
@@ -0,0 +1,20 @@
+package com.mewebstudio.javaspringbootboilerplate.repository;
+
+import com.mewebstudio.javaspringbootboilerplate.entity.User;
+import com.mewebstudio.javaspringbootboilerplate.repository.projection.UserView;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface UserViewRepository {
+    Optional<UserView> findViewById(UUID id);
+
+    Page<UserView> findAllViews(Specification<User> specification, Pageable pageable);
+
+    List<UserView> findAllViews(Specification<User> specification, Sort sort, int limit);
+}
@@ -0,0 +1,132 @@
+package com.mewebstudio.javaspringbootboilerplate.repository;
+
+import com.mewebstudio.javaspringbootboilerplate.entity.User;
+import com.mewebstudio.javaspringbootboilerplate.repository.projection.UserView;
+import com.mewebstudio.javaspringbootboilerplate.util.Constants;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Selects {@link UserView} projections with the criteria API: one query for the user columns and one for the role
+ * names of all returned users, whatever the page size.
+ */
+@RequiredArgsConstructor
+public class UserViewRepositoryImpl implements UserViewRepository {
+    private static final String[] COLUMNS = new String[]{"id", "email", "name", "lastName", "emailVerifiedAt",
+        "blockedAt", "createdAt", "updatedAt"};
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Optional<UserView> findViewById(final UUID id) {
+        Specification<User> byId = (root, query, builder) -> builder.equal(root.get("id"), id);
+
+        return findViews(byId, Sort.unsorted(), 0, 1).stream().findFirst();
+    }
+
+    @Override
+    public Page<UserView> findAllViews(final Specification<User> specification, final Pageable pageable) {
+        List<UserView> views = findViews(specification, pageable.getSort(), (int) pageable.getOffset(),
+            pageable.getPageSize());
+
+        return PageableExecutionUtils.getPage(views, pageable, () -> count(specification));
+    }
+
+    @Override
+    public List<UserView> findAllViews(final Specification<User> specification, final Sort sort, final int limit) {
+        return findViews(specification, sort, 0, limit);
+    }
+
+    private List<UserView> findViews(final Specification<User> specification, final Sort sort, final int offset,
+                                     final int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<User> root = query.from(User.class);
+        query.multiselect(Arrays.stream(COLUMNS)
+            .<Selection<?>>map(column -> root.get(column).alias(column))
+            .toList());
+        applySpecification(specification, root, query, builder);
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, builder));
+        }
+
+        List<Tuple> rows = entityManager.createQuery(query)
+            .setFirstResult(offset)
+            .setMaxResults(limit)
+            .getResultList();
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+
+        Map<UUID, List<String>> roles = findRoleNames(rows.stream().map(row -> row.get("id", UUID.class)).toList());
+
+        return rows.stream()
+            .map(row -> {
+                UUID id = row.get("id", UUID.class);
+                return new UserView(
+                    id,
+                    row.get("email", String.class),
+                    row.get("name", String.class),
+                    row.get("lastName", String.class),
+                    roles.getOrDefault(id, List.of()),
+                    row.get("emailVerifiedAt", LocalDateTime.class),
+                    row.get("blockedAt", LocalDateTime.class),
+                    row.get("createdAt", LocalDateTime.class),
+                    row.get("updatedAt", LocalDateTime.class)
+                );
+            })
+            .toList();
+    }
+
+    private Map<UUID, List<String>> findRoleNames(final List<UUID> ids) {
+        List<Tuple> rows = entityManager.createQuery(
+                "SELECT u.id AS id, r.name AS name FROM User u JOIN u.roles r WHERE u.id IN :ids", Tuple.class)
+            .setParameter("ids", ids)
+            .getResultList();
+
+        Map<UUID, List<String>> roles = new HashMap<>();
+        rows.forEach(row -> roles.computeIfAbsent(row.get("id", UUID.class), key -> new ArrayList<>())
+            .add(row.get("name", Constants.RoleEnum.class).name()));
+
+        return roles;
+    }
+
+    private long count(final Specification<User> specification) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = builder.createQuery(Long.class);
+        Root<User> root = query.from(User.class);
+        query.select(builder.count(root));
+        applySpecification(specification, root, query, builder);
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static void applySpecification(final Specification<User> specification, final Root<User> root,
+                                           final CriteriaQuery<?> query, final CriteriaBuilder builder) {
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+}
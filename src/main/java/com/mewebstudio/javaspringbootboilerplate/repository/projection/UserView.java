@@ -0,0 +1,22 @@
+package com.mewebstudio.javaspringbootboilerplate.repository.projection;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Read-only projection of a user carrying only the columns the user responses render. It is not managed by the
+ * persistence context, so reading it costs no dirty checking and loads none of the user's associations.
+ */
+public record UserView(
+    UUID id,
+    String email,
+    String name,
+    String lastName,
+    List<String> roles,
+    LocalDateTime emailVerifiedAt,
+    LocalDateTime blockedAt,
+    LocalDateTime createdAt,
+    LocalDateTime updatedAt
+) {
+}
@@ -1,5 +1,6 @@
 package com.mewebstudio.javaspringbootboilerplate.security;
 
+import com.mewebstudio.javaspringbootboilerplate.service.PrincipalCacheService;
 import com.mewebstudio.javaspringbootboilerplate.service.UserService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -9,8 +10,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Profile;
 import org.springframework.lang.NonNull;
-import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -28,7 +29,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final UserService userService;
 
-    private final AuthenticationManager authenticationManager;
+    private final PrincipalCacheService principalCacheService;
 
     @Override
     protected final void doFilterInternal(@NonNull final HttpServletRequest request,
@@ -36,13 +37,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                           @NonNull final FilterChain filterChain) throws ServletException, IOException {
         String token = jwtTokenProvider.extractJwtFromRequest(request);
         if (StringUtils.hasText(token) && jwtTokenProvider.validateToken(token, request)) {
-            String id = jwtTokenProvider.getUserIdFromToken(token);
-            UserDetails user = userService.loadUserById(id);
+            String id = jwtTokenProvider.getUserIdFromRequest(request);
+            // The lookup stays outside the transactional UserService, so a cache hit needs no connection.
+            UserDetails user = principalCacheService.get(id, userService::loadUserById);
 
             if (Objects.nonNull(user)) {
                 UsernamePasswordAuthenticationToken auth =
-                    new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
-                authenticationManager.authenticate(auth);
+                    UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities());
+                SecurityContextHolder.getContext().setAuthentication(auth);
             }
         }
 
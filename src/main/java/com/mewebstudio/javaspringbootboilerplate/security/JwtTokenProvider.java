@@ -4,10 +4,12 @@ import com.mewebstudio.javaspringbootboilerplate.entity.JwtToken;
 import com.mewebstudio.javaspringbootboilerplate.entity.User;
 import com.mewebstudio.javaspringbootboilerplate.exception.NotFoundException;
 import com.mewebstudio.javaspringbootboilerplate.service.JwtTokenService;
+import com.mewebstudio.javaspringbootboilerplate.service.TokenRevocationService;
 import com.mewebstudio.javaspringbootboilerplate.service.UserService;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
-import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -23,6 +25,9 @@ import org.springframework.util.StringUtils;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 import static com.mewebstudio.javaspringbootboilerplate.util.Constants.TOKEN_HEADER;
 import static com.mewebstudio.javaspringbootboilerplate.util.Constants.TOKEN_TYPE;
@@ -30,9 +35,13 @@ import static com.mewebstudio.javaspringbootboilerplate.util.Constants.TOKEN_TYP
 @Component
 @Slf4j
 public class JwtTokenProvider {
+    private static final String CLAIMS_ATTRIBUTE = JwtTokenProvider.class.getName() + ".CLAIMS";
+
     private final UserService userService;
 
-    private final String appSecret;
+    private final Key signingKey;
+
+    private final JwtParser jwtParser;
 
     @Getter
     private final Long tokenExpiresIn;
@@ -42,8 +51,12 @@ public class JwtTokenProvider {
 
     private final Long rememberMeTokenExpiresIn;
 
+    private final boolean stateless;
+
     private final JwtTokenService jwtTokenService;
 
+    private final TokenRevocationService tokenRevocationService;
+
     private final HttpServletRequest httpServletRequest;
 
     public JwtTokenProvider(
@@ -51,16 +64,21 @@ public class JwtTokenProvider {
         @Value("${app.jwt.token.expires-in}") final Long tokenExpiresIn,
         @Value("${app.jwt.refresh-token.expires-in}") final Long refreshTokenExpiresIn,
         @Value("${app.jwt.remember-me.expires-in}") final Long rememberMeTokenExpiresIn,
+        @Value("${app.jwt.stateless}") final boolean stateless,
         final UserService userService,
         final JwtTokenService jwtTokenService,
+        final TokenRevocationService tokenRevocationService,
         final HttpServletRequest httpServletRequest
     ) {
         this.userService = userService;
-        this.appSecret = appSecret;
+        this.signingKey = Keys.hmacShaKeyFor(appSecret.getBytes());
+        this.jwtParser = Jwts.parserBuilder().setSigningKey(signingKey).build();
         this.tokenExpiresIn = tokenExpiresIn;
         this.refreshTokenExpiresIn = refreshTokenExpiresIn;
         this.rememberMeTokenExpiresIn = rememberMeTokenExpiresIn;
+        this.stateless = stateless;
         this.jwtTokenService = jwtTokenService;
+        this.tokenRevocationService = tokenRevocationService;
         this.httpServletRequest = httpServletRequest;
     }
 
@@ -73,10 +91,11 @@ public class JwtTokenProvider {
      */
     public String generateTokenByUserId(final String id, final Long expires) {
         String token = Jwts.builder()
+            .setId(UUID.randomUUID().toString())
             .setSubject(id)
             .setIssuedAt(new Date())
             .setExpiration(getExpireDate(expires))
-            .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+            .signWith(signingKey, SignatureAlgorithm.HS256)
             .compact();
         log.trace("Token is added to the local cache for userID: {}, ttl: {}", id, expires);
 
@@ -120,9 +139,22 @@ public class JwtTokenProvider {
      * @return String
      */
     public String getUserIdFromToken(final String token) {
-        Claims claims = parseToken(token).getBody();
+        return parseToken(token).getSubject();
+    }
+
+    /**
+     * Get user ID from the claims that validated for the current request.
+     *
+     * @param request HttpServletRequest
+     * @return String user ID or null when the request has no validated token
+     */
+    public String getUserIdFromRequest(final HttpServletRequest request) {
+        Object claims = request.getAttribute(CLAIMS_ATTRIBUTE);
+        if (claims instanceof Claims) {
+            return ((Claims) claims).getSubject();
+        }
 
-        return claims.getSubject();
+        return null;
     }
 
     /**
@@ -156,19 +188,7 @@ public class JwtTokenProvider {
      * @return boolean
      */
     public boolean validateToken(final String token, final boolean isHttp) {
-        parseToken(token);
-        try {
-            JwtToken jwtToken = jwtTokenService.findByTokenOrRefreshToken(token);
-            if (isHttp && !httpServletRequest.getHeader("User-agent").equals(jwtToken.getUserAgent())) {
-                log.error("[JWT] User-agent is not matched");
-                return false;
-            }
-        } catch (NotFoundException e) {
-            log.error("[JWT] Token could not found in Redis");
-            return false;
-        }
-
-        return !isTokenExpired(token);
+        return validateAndGetClaims(token, isHttp) != null;
     }
 
     /**
@@ -180,12 +200,14 @@ public class JwtTokenProvider {
      */
     public boolean validateToken(final String token, final HttpServletRequest httpServletRequest) {
         try {
-            boolean isTokenValid = validateToken(token);
-            if (!isTokenValid) {
+            Claims claims = validateAndGetClaims(token, true);
+            if (claims == null) {
                 log.error("[JWT] Token could not found in local cache");
                 httpServletRequest.setAttribute("notfound", "Token is not found in cache");
+                return false;
             }
-            return isTokenValid;
+            httpServletRequest.setAttribute(CLAIMS_ATTRIBUTE, claims);
+            return true;
         } catch (UnsupportedJwtException e) {
             log.error("[JWT] Unsupported JWT token!");
             httpServletRequest.setAttribute("unsupported", "Unsupported JWT token!");
@@ -203,6 +225,50 @@ public class JwtTokenProvider {
         return false;
     }
 
+    /**
+     * Verify the token signature once and check it against the token store. In stateless mode tokens carrying an id
+     * are only checked against the revocation filter.
+     *
+     * @param token  String token
+     * @param isHttp boolean whether the user-agent of the current request should be checked
+     * @return Claims of the token or null when the token is not valid
+     */
+    public Claims validateAndGetClaims(final String token, final boolean isHttp) {
+        Claims claims = parseToken(token);
+        if (stateless && claims.getId() != null) {
+            if (tokenRevocationService.isRevoked(claims.getId())) {
+                log.error("[JWT] Token is revoked");
+                return null;
+            }
+
+            return isTokenExpired(claims) ? null : claims;
+        }
+
+        try {
+            JwtToken jwtToken = jwtTokenService.findByTokenOrRefreshToken(token);
+            if (isHttp && !httpServletRequest.getHeader("User-agent").equals(jwtToken.getUserAgent())) {
+                log.error("[JWT] User-agent is not matched");
+                return null;
+            }
+        } catch (NotFoundException e) {
+            log.error("[JWT] Token could not found in Redis");
+            return null;
+        }
+
+        return isTokenExpired(claims) ? null : claims;
+    }
+
+    /**
+     * Revoke the access and refresh tokens of a session until they expire.
+     *
+     * @param jwtToken JwtToken
+     */
+    public void revoke(final JwtToken jwtToken) {
+        Stream.of(jwtToken.getToken(), jwtToken.getRefreshToken())
+            .filter(Objects::nonNull)
+            .forEach(this::revokeToken);
+    }
+
     /**
      * Set jwt refresh token for remember me option.
      */
@@ -238,20 +304,38 @@ public class JwtTokenProvider {
      * Parsing token.
      *
      * @param token String jwt token to parse
-     * @return Jws object
+     * @return Claims object
      */
-    private Jws<Claims> parseToken(final String token) {
-        return Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(token);
+    private Claims parseToken(final String token) {
+        return jwtParser.parseClaimsJws(token).getBody();
+    }
+
+    /**
+     * Revoke a single token. Expired tokens and tokens without an id need no revocation.
+     *
+     * @param token String
+     */
+    private void revokeToken(final String token) {
+        try {
+            Claims claims = parseToken(token);
+            if (claims.getId() != null) {
+                tokenRevocationService.revoke(claims.getId(), claims.getExpiration());
+            }
+        } catch (ExpiredJwtException e) {
+            log.trace("[JWT] Token is already expired, revocation is skipped");
+        } catch (JwtException | IllegalArgumentException e) {
+            log.error("[JWT] Token could not be revoked: {}", e.getMessage());
+        }
     }
 
     /**
      * Check token is expired or not.
      *
-     * @param token String jwt token to get expiration date
+     * @param claims Claims of the parsed token
      * @return True or False
      */
-    private boolean isTokenExpired(final String token) {
-        return parseToken(token).getBody().getExpiration().before(new Date());
+    private boolean isTokenExpired(final Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 
     /**
@@ -262,13 +346,4 @@ public class JwtTokenProvider {
     private Date getExpireDate(final Long expires) {
         return new Date(new Date().getTime() + expires);
     }
-
-    /**
-     * Get signing key.
-     *
-     * @return Key
-     */
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(appSecret.getBytes());
-    }
 }
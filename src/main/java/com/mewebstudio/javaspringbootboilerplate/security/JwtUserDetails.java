@@ -1,7 +1,9 @@
 package com.mewebstudio.javaspringbootboilerplate.security;
 
 import com.mewebstudio.javaspringbootboilerplate.entity.User;
-import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -10,17 +12,19 @@ import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
-@Data
+@Getter
+@EqualsAndHashCode
+@ToString(exclude = "password")
 public final class JwtUserDetails implements UserDetails {
-    private String id;
+    private final String id;
 
-    private String email;
+    private final String email;
 
-    private String username;
+    private final String username;
 
-    private String password;
+    private final String password;
 
-    private Collection<? extends GrantedAuthority> authorities;
+    private final Collection<? extends GrantedAuthority> authorities;
 
     /**
      * JwtUserDetails constructor.
@@ -36,11 +40,11 @@ public final class JwtUserDetails implements UserDetails {
         this.email = email;
         this.username = email;
         this.password = password;
-        this.authorities = authorities;
+        this.authorities = List.copyOf(authorities);
     }
 
     /**
-     * Create JwtUserDetails from User.
+     * Create an immutable JwtUserDetails snapshot from User, safe to share between requests.
      *
      * @param user User
      * @return JwtUserDetails
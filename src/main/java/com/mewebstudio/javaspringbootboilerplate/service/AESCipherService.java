@@ -4,6 +4,14 @@ import com.mewebstudio.javaspringbootboilerplate.util.AESCipher;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
 @Service
 @Slf4j
 public class AESCipherService {
@@ -14,4 +22,95 @@ public class AESCipherService {
     public String decrypt(String encryptedText, String secretKey) throws Exception {
         return AESCipher.decrypt(encryptedText, secretKey);
     }
+
+    /**
+     * Encrypt plain text with AES/GCM, tagged with the version of the key.
+     *
+     * @param plainText  String
+     * @param secretKey  String (256 bit)
+     * @param keyVersion int version of the secret key, greater than zero
+     * @return String
+     * @throws Exception Encrypting exception
+     */
+    public String encryptVersioned(String plainText, String secretKey, int keyVersion) throws Exception {
+        return AESCipher.encryptGcm(plainText, secretKey, keyVersion);
+    }
+
+    /**
+     * Decrypt cipher text with the key of the version in its header. A text without a header is decrypted in the
+     * legacy mode with the key of {@link AESCipher#LEGACY_KEY_VERSION}, so values written before a rotation keep
+     * working.
+     *
+     * @param encryptedText String
+     * @param secretKeys    IntFunction secret key of a key version
+     * @return String
+     * @throws Exception Decrypting exception
+     */
+    public String decryptVersioned(String encryptedText, IntFunction<String> secretKeys) throws Exception {
+        int keyVersion = AESCipher.keyVersion(encryptedText);
+        String secretKey = secretKey(secretKeys, keyVersion);
+        if (keyVersion == AESCipher.LEGACY_KEY_VERSION) {
+            return AESCipher.decrypt(encryptedText, secretKey);
+        }
+
+        return AESCipher.decryptGcm(encryptedText, secretKey);
+    }
+
+    /**
+     * Encrypt plain texts with AES/GCM in one pass.
+     *
+     * @param plainTexts Collection of String
+     * @param secretKey  String (256 bit)
+     * @param keyVersion int version of the secret key, greater than zero
+     * @return List of String in the order of the plain texts
+     * @throws Exception Encrypting exception
+     */
+    public List<String> encryptAll(Collection<String> plainTexts, String secretKey, int keyVersion) throws Exception {
+        return AESCipher.encryptGcm(plainTexts, secretKey, keyVersion);
+    }
+
+    /**
+     * Decrypt cipher texts, grouped by key version so every key is resolved once.
+     *
+     * @param encryptedTexts Collection of String
+     * @param secretKeys     IntFunction secret key of a key version
+     * @return List of String in the order of the cipher texts
+     * @throws Exception Decrypting exception
+     */
+    public List<String> decryptAll(Collection<String> encryptedTexts, IntFunction<String> secretKeys)
+        throws Exception {
+        List<String> texts = new ArrayList<>(encryptedTexts);
+        Map<Integer, List<Integer>> indexesByVersion = new HashMap<>();
+        for (int i = 0; i < texts.size(); i++) {
+            indexesByVersion.computeIfAbsent(AESCipher.keyVersion(texts.get(i)), k -> new ArrayList<>()).add(i);
+        }
+
+        String[] plainTexts = new String[texts.size()];
+        for (Map.Entry<Integer, List<Integer>> entry : indexesByVersion.entrySet()) {
+            String secretKey = secretKey(secretKeys, entry.getKey());
+            List<Integer> indexes = entry.getValue();
+            if (entry.getKey() == AESCipher.LEGACY_KEY_VERSION) {
+                for (int i : indexes) {
+                    plainTexts[i] = AESCipher.decrypt(texts.get(i), secretKey);
+                }
+                continue;
+            }
+
+            List<String> decrypted = AESCipher.decryptGcm(indexes.stream().map(texts::get).toList(), secretKey);
+            for (int i = 0; i < indexes.size(); i++) {
+                plainTexts[indexes.get(i)] = decrypted.get(i);
+            }
+        }
+
+        return Arrays.asList(plainTexts);
+    }
+
+    private static String secretKey(IntFunction<String> secretKeys, int keyVersion) {
+        String secretKey = secretKeys.apply(keyVersion);
+        if (secretKey == null) {
+            throw new IllegalArgumentException("No secret key for key version " + keyVersion);
+        }
+
+        return secretKey;
+    }
 }
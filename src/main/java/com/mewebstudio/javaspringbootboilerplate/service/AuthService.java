@@ -107,6 +107,7 @@ public class AuthService {
         }
 
         jwtTokenService.delete(jwtToken);
+        jwtTokenProvider.revoke(jwtToken);
     }
 
     /**
@@ -142,6 +143,7 @@ public class AuthService {
         if (oldToken != null) {
             rememberMe = oldToken.getRememberMe();
             jwtTokenService.delete(oldToken);
+            jwtTokenProvider.revoke(oldToken);
         }
 
         return generateTokens(user.getId(), rememberMe);
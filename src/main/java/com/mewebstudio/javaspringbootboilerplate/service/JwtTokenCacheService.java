@@ -0,0 +1,189 @@
+package com.mewebstudio.javaspringbootboilerplate.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.mewebstudio.javaspringbootboilerplate.entity.JwtToken;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+@Slf4j
+public class JwtTokenCacheService implements MessageListener {
+    private static final String KEYSPACE = "jwtTokens";
+
+    private static final String INVALIDATION_CHANNEL = KEYSPACE + ":invalidate";
+
+    private static final String SEPARATOR = ",";
+
+    private final Long expiresIn;
+
+    private final Cache<String, JwtToken> cache;
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * JWT token near-cache constructor.
+     *
+     * @param maxSize                       Long maximum number of cached tokens
+     * @param expiresIn                     Long upper bound of an entry lifetime in milliseconds
+     * @param stringRedisTemplate           StringRedisTemplate
+     * @param redisMessageListenerContainer RedisMessageListenerContainer
+     * @param meterRegistry                 MeterRegistry
+     */
+    public JwtTokenCacheService(
+        @Value("${app.jwt.near-cache.max-size}") final Long maxSize,
+        @Value("${app.jwt.near-cache.expires-in}") final Long expiresIn,
+        final StringRedisTemplate stringRedisTemplate,
+        final RedisMessageListenerContainer redisMessageListenerContainer,
+        final MeterRegistry meterRegistry
+    ) {
+        this.expiresIn = expiresIn;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfter(new Expiry<String, JwtToken>() {
+                @Override
+                public long expireAfterCreate(@NonNull final String key, @NonNull final JwtToken value,
+                                              final long currentTime) {
+                    return TimeUnit.MILLISECONDS.toNanos(getTimeToLive(value));
+                }
+
+                @Override
+                public long expireAfterUpdate(@NonNull final String key, @NonNull final JwtToken value,
+                                              final long currentTime, final long currentDuration) {
+                    return currentDuration;
+                }
+
+                @Override
+                public long expireAfterRead(@NonNull final String key, @NonNull final JwtToken value,
+                                            final long currentTime, final long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .recordStats()
+            .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, KEYSPACE);
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    /**
+     * Get a JWT token from the near-cache by token or refresh token.
+     *
+     * @param token String
+     * @return Optional of JwtToken
+     */
+    public Optional<JwtToken> get(final String token) {
+        return Optional.ofNullable(cache.getIfPresent(hash(token)));
+    }
+
+    /**
+     * Put a JWT token to the near-cache. The entry never outlives the Redis key of the token.
+     *
+     * @param token    String token or refresh token used for lookup
+     * @param jwtToken JwtToken
+     */
+    public void put(final String token, final JwtToken jwtToken) {
+        Long remaining = stringRedisTemplate.getExpire(String.format("%s:%s", KEYSPACE, jwtToken.getId()),
+            TimeUnit.MILLISECONDS);
+        long ttl = remaining == null || remaining == -1
+            ? getTimeToLive(jwtToken) : Math.min(getTimeToLive(jwtToken), remaining);
+
+        if (ttl <= 0) {
+            log.trace("Token is not cached because it is about to expire: {}", jwtToken.getId());
+            return;
+        }
+
+        cache.policy().expireVariably()
+            .ifPresent(policy -> policy.put(hash(token), jwtToken, ttl, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Evict a JWT token on every node.
+     *
+     * @param jwtToken JwtToken
+     */
+    public void evict(final JwtToken jwtToken) {
+        String hashes = Stream.of(jwtToken.getToken(), jwtToken.getRefreshToken())
+            .filter(Objects::nonNull)
+            .map(JwtTokenCacheService::hash)
+            .collect(Collectors.joining(SEPARATOR));
+        if (hashes.isEmpty()) {
+            return;
+        }
+
+        evictLocal(hashes);
+        stringRedisTemplate.convertAndSend(INVALIDATION_CHANNEL, hashes);
+    }
+
+    /**
+     * Evict the tokens published by another node.
+     *
+     * @param message Message
+     * @param pattern byte[]
+     */
+    @Override
+    public void onMessage(@NonNull final Message message, final byte[] pattern) {
+        evictLocal(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Evict comma separated token hashes from the local cache.
+     *
+     * @param hashes String
+     */
+    private void evictLocal(final String hashes) {
+        cache.invalidateAll(Arrays.asList(hashes.split(SEPARATOR)));
+    }
+
+    /**
+     * Lifetime of a cache entry in milliseconds.
+     *
+     * @param jwtToken JwtToken
+     * @return long
+     */
+    private long getTimeToLive(final JwtToken jwtToken) {
+        if (jwtToken.getTokenTimeToLive() == null) {
+            return expiresIn;
+        }
+
+        return Math.min(expiresIn, jwtToken.getTokenTimeToLive());
+    }
+
+    /**
+     * SHA-256 hash of the token, so the raw token is never used as a cache key.
+     *
+     * @param token String
+     * @return String
+     */
+    private static String hash(final String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -15,6 +15,8 @@ import java.util.UUID;
 public class JwtTokenService {
     private final JwtTokenRepository jwtTokenRepository;
 
+    private final JwtTokenCacheService jwtTokenCacheService;
+
     private final MessageSourceService messageSourceService;
 
     /**
@@ -31,15 +33,21 @@ public class JwtTokenService {
     }
 
     /**
-     * Find a JWT token by token or refresh token.
+     * Find a JWT token by token or refresh token, near-cache first.
      *
      * @param token String
      * @return JwtToken
      */
     public JwtToken findByTokenOrRefreshToken(String token) {
-        return jwtTokenRepository.findByTokenOrRefreshToken(token, token)
-            .orElseThrow(() -> new NotFoundException(messageSourceService.get("not_found_with_param",
-                new String[]{messageSourceService.get("token")})));
+        return jwtTokenCacheService.get(token)
+            .orElseGet(() -> {
+                JwtToken jwtToken = jwtTokenRepository.findByTokenOrRefreshToken(token, token)
+                    .orElseThrow(() -> new NotFoundException(messageSourceService.get("not_found_with_param",
+                        new String[]{messageSourceService.get("token")})));
+                jwtTokenCacheService.put(token, jwtToken);
+
+                return jwtToken;
+            });
     }
 
     /**
@@ -58,6 +66,7 @@ public class JwtTokenService {
      */
     public void delete(JwtToken jwtToken) {
         jwtTokenRepository.delete(jwtToken);
+        jwtTokenCacheService.evict(jwtToken);
         log.info("Deleted token: {}", jwtToken);
     }
 }
@@ -0,0 +1,372 @@
+package com.mewebstudio.javaspringbootboilerplate.service;
+
+import com.mewebstudio.javaspringbootboilerplate.entity.MailOutbox;
+import com.mewebstudio.javaspringbootboilerplate.repository.MailOutboxRepository;
+import com.mewebstudio.javaspringbootboilerplate.util.Constants;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UnsupportedEncodingException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Durable outbound mail queue. Mails are rendered and stored in the {@code mail_outbox} table by the event listeners,
+ * so the listener threads never wait for the SMTP server and no mail is lost when the server is down or the node
+ * restarts.
+ * <p>
+ * Workers claim due rows with {@code FOR UPDATE SKIP LOCKED}, so any number of workers on any number of nodes drain
+ * disjoint batches, and send each batch over a single SMTP connection. A claimed row is leased: its next attempt is
+ * pushed past the lease before the transaction commits, so the rows of a crashed worker become due again on their
+ * own. Sent rows are deleted; failed rows are retried with exponential backoff until they run out of attempts.
+ */
+@Service
+@Slf4j
+public class MailOutboxService {
+    private static final String PREFIX = "mail.outbox.";
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private static final int MAX_BACKOFF_DOUBLINGS = 16;
+
+    private final int batchSize;
+
+    private final long maxPerSecond;
+
+    private final int maxAttempts;
+
+    private final long retryBackoff;
+
+    private final long lease;
+
+    private final InternetAddress from;
+
+    private final MailOutboxRepository mailOutboxRepository;
+
+    private final JavaMailSender mailSender;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ExecutorService executor;
+
+    private final Semaphore workers;
+
+    private final AtomicLong pending = new AtomicLong();
+
+    private final AtomicLong lag = new AtomicLong();
+
+    private final Counter sent;
+
+    private final Counter failed;
+
+    private final Counter dead;
+
+    private long nextSendAt = System.nanoTime();
+
+    /**
+     * Mail outbox service constructor.
+     *
+     * @param threads              int workers draining the outbox, at most one SMTP connection each
+     * @param batchSize            int messages claimed and sent over one SMTP connection
+     * @param maxPerSecond         long messages sent per second over all workers of the node, 0 for no limit
+     * @param maxAttempts          int attempts before a message is marked failed
+     * @param retryBackoff         long milliseconds before the first retry, doubled on every further attempt
+     * @param lease                long milliseconds a claimed message stays invisible to other workers
+     * @param appName              String name of the application, sender name
+     * @param senderAddress        String email address of the sender
+     * @param mailOutboxRepository MailOutboxRepository
+     * @param mailSender           JavaMailSender
+     * @param transactionManager   PlatformTransactionManager
+     * @param meterRegistry        MeterRegistry
+     * @throws UnsupportedEncodingException when the sender name cannot be encoded
+     */
+    public MailOutboxService(
+        @Value("${app.mail.outbox.threads}") final int threads,
+        @Value("${app.mail.outbox.batch-size}") final int batchSize,
+        @Value("${app.mail.outbox.max-per-second}") final long maxPerSecond,
+        @Value("${app.mail.outbox.max-attempts}") final int maxAttempts,
+        @Value("${app.mail.outbox.retry-backoff}") final long retryBackoff,
+        @Value("${app.mail.outbox.lease}") final long lease,
+        @Value("${spring.application.name}") final String appName,
+        @Value("${spring.mail.username}") final String senderAddress,
+        final MailOutboxRepository mailOutboxRepository,
+        final JavaMailSender mailSender,
+        final PlatformTransactionManager transactionManager,
+        final MeterRegistry meterRegistry
+    ) throws UnsupportedEncodingException {
+        this.batchSize = batchSize;
+        this.maxPerSecond = maxPerSecond;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+        this.lease = lease;
+        this.from = new InternetAddress(senderAddress, appName);
+        this.mailOutboxRepository = mailOutboxRepository;
+        this.mailSender = mailSender;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executor = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("mail-outbox-"));
+        this.workers = new Semaphore(threads);
+
+        meterRegistry.gauge(PREFIX + "pending", pending);
+        meterRegistry.gauge(PREFIX + "lag", lag);
+        sent = Counter.builder(PREFIX + "sent")
+            .description("Mails accepted by the SMTP server")
+            .register(meterRegistry);
+        failed = Counter.builder(PREFIX + "failed")
+            .description("Failed mail send attempts")
+            .register(meterRegistry);
+        dead = Counter.builder(PREFIX + "dead")
+            .description("Mails given up on after the last attempt")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Queue a rendered mail. Joins the caller's transaction when there is one.
+     *
+     * @param recipient     String email address of the recipient
+     * @param recipientName String name of the recipient
+     * @param subject       String subject
+     * @param body          String HTML body
+     * @return MailOutbox
+     */
+    public MailOutbox enqueue(final String recipient, final String recipientName, final String subject,
+                              final String body) {
+        return mailOutboxRepository.save(MailOutbox.builder()
+            .recipient(recipient)
+            .recipientName(recipientName)
+            .subject(subject)
+            .body(body)
+            .status(Constants.MailOutboxStatusEnum.PENDING)
+            .nextAttemptAt(LocalDateTime.now())
+            .build());
+    }
+
+    /**
+     * Refresh the queue metrics and start a worker for every idle thread. A worker keeps draining until the outbox has
+     * no due message left.
+     */
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-interval}")
+    public void poll() {
+        pending.set(mailOutboxRepository.countByStatus(Constants.MailOutboxStatusEnum.PENDING));
+        LocalDateTime oldest = mailOutboxRepository.findOldestCreatedAtByStatus(Constants.MailOutboxStatusEnum.PENDING);
+        lag.set(oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis()));
+        if (pending.get() == 0) {
+            return;
+        }
+
+        while (workers.tryAcquire()) {
+            executor.execute(() -> {
+                try {
+                    int claimed;
+                    do {
+                        claimed = drain();
+                    } while (claimed == batchSize);
+                } catch (Exception e) {
+                    log.error("Mail outbox worker failed: {}", ExceptionUtils.getMessage(e));
+                } finally {
+                    workers.release();
+                }
+            });
+        }
+    }
+
+    /**
+     * Claim one batch of due messages, send it over one SMTP connection and record the outcome.
+     *
+     * @return int number of messages claimed
+     */
+    int drain() {
+        List<MailOutbox> batch = claim();
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Map<MimeMessage, MailOutbox> messages = new LinkedHashMap<>(batch.size());
+        Map<UUID, String> errors = new HashMap<>();
+        for (MailOutbox mail : batch) {
+            try {
+                messages.put(createMessage(mail), mail);
+            } catch (MessagingException | UnsupportedEncodingException e) {
+                errors.put(mail.getId(), ExceptionUtils.getMessage(e));
+            }
+        }
+
+        if (!messages.isEmpty()) {
+            throttle(messages.size());
+            try {
+                mailSender.send(messages.keySet().toArray(MimeMessage[]::new));
+            } catch (MailSendException e) {
+                e.getFailedMessages().forEach((message, cause) -> {
+                    MailOutbox mail = message instanceof MimeMessage mimeMessage ? messages.get(mimeMessage) : null;
+                    if (mail != null) {
+                        errors.put(mail.getId(), ExceptionUtils.getMessage(cause));
+                    }
+                });
+                if (e.getFailedMessages().isEmpty()) {
+                    messages.values().forEach(mail -> errors.put(mail.getId(), ExceptionUtils.getMessage(e)));
+                }
+            } catch (MailException e) {
+                messages.values().forEach(mail -> errors.put(mail.getId(), ExceptionUtils.getMessage(e)));
+            }
+        }
+
+        complete(batch, errors);
+        sent.increment(batch.size() - errors.size());
+        failed.increment(errors.size());
+
+        return batch.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Lock the next due messages and lease them to this worker. A message that is due again after its last attempt
+     * had its worker die before recording the outcome; it is marked failed instead of being sent once more.
+     *
+     * @return List of MailOutbox
+     */
+    private List<MailOutbox> claim() {
+        List<MailOutbox> batch = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<MailOutbox> due = mailOutboxRepository.findDueForUpdate(now, batchSize);
+            List<MailOutbox> leased = new ArrayList<>(due.size());
+            for (MailOutbox mail : due) {
+                if (mail.getAttempts() >= maxAttempts) {
+                    giveUp(mail);
+                    continue;
+                }
+
+                mail.setAttempts(mail.getAttempts() + 1);
+                mail.setNextAttemptAt(now.plus(Duration.ofMillis(lease)));
+                leased.add(mail);
+            }
+
+            mailOutboxRepository.saveAll(due);
+
+            return leased;
+        });
+
+        return batch == null ? List.of() : batch;
+    }
+
+    private void giveUp(final MailOutbox mail) {
+        log.error("Giving up on mail {} to {} after {} attempts: {}", mail.getId(), mail.getRecipient(),
+            mail.getAttempts(), mail.getLastError());
+        mail.setStatus(Constants.MailOutboxStatusEnum.FAILED);
+        dead.increment();
+    }
+
+    /**
+     * Delete the sent messages and schedule the failed ones for another attempt, or give up on them.
+     *
+     * @param batch  List of MailOutbox claimed messages
+     * @param errors Map of failed message ids to the error
+     */
+    private void complete(final List<MailOutbox> batch, final Map<UUID, String> errors) {
+        List<UUID> done = new ArrayList<>(batch.size());
+        List<MailOutbox> retried = new ArrayList<>(errors.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (MailOutbox mail : batch) {
+            String error = errors.get(mail.getId());
+            if (error == null) {
+                done.add(mail.getId());
+                continue;
+            }
+
+            log.warn("Failed to send mail {} to {}, attempt {}: {}", mail.getId(), mail.getRecipient(),
+                mail.getAttempts(), error);
+            mail.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+            if (mail.getAttempts() >= maxAttempts) {
+                giveUp(mail);
+            } else {
+                long backoff = retryBackoff << Math.min(mail.getAttempts() - 1, MAX_BACKOFF_DOUBLINGS);
+                mail.setNextAttemptAt(now.plus(Duration.ofMillis(backoff)));
+            }
+            retried.add(mail);
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!done.isEmpty()) {
+                mailOutboxRepository.deleteAllByIdInBatch(done);
+            }
+            if (!retried.isEmpty()) {
+                mailOutboxRepository.saveAll(retried);
+            }
+        });
+    }
+
+    /**
+     * Build the MIME message of a queued mail.
+     *
+     * @param mail MailOutbox
+     * @return MimeMessage
+     * @throws MessagingException           when the message cannot be built
+     * @throws UnsupportedEncodingException when the recipient name cannot be encoded
+     */
+    private MimeMessage createMessage(final MailOutbox mail) throws MessagingException, UnsupportedEncodingException {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        MimeMessageHelper mimeMessageHelper = new MimeMessageHelper(mimeMessage, true);
+        mimeMessageHelper.setFrom(from);
+        mimeMessageHelper.setTo(new InternetAddress(mail.getRecipient(), mail.getRecipientName()));
+        mimeMessageHelper.setSubject(mail.getSubject());
+        mimeMessageHelper.setText(mail.getBody(), true);
+
+        return mimeMessage;
+    }
+
+    /**
+     * Wait until the given number of messages fits the send rate of the node. Every caller reserves its slots up front,
+     * so concurrent workers queue behind each other instead of bursting together.
+     *
+     * @param messages int messages about to be sent
+     */
+    private void throttle(final int messages) {
+        if (maxPerSecond <= 0) {
+            return;
+        }
+
+        long start;
+        synchronized (this) {
+            start = Math.max(nextSendAt, System.nanoTime());
+            nextSendAt = start + messages * TimeUnit.SECONDS.toNanos(1) / maxPerSecond;
+        }
+
+        long wait = start - System.nanoTime();
+        if (wait > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
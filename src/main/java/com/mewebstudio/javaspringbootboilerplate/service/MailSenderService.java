@@ -1,20 +1,16 @@
 package com.mewebstudio.javaspringbootboilerplate.service;
 
 import com.mewebstudio.javaspringbootboilerplate.entity.User;
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.InternetAddress;
-import jakarta.mail.internet.MimeMessage;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.context.i18n.LocaleContextHolder;
-import org.springframework.mail.MailException;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.context.Context;
-import org.thymeleaf.spring6.SpringTemplateEngine;
 
-import java.io.UnsupportedEncodingException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 @Service
 @Slf4j
@@ -23,146 +19,102 @@ public class MailSenderService {
 
     private static final String LAST_NAME = "lastName";
 
+    private static final String FULL_NAME = "fullName";
+
     private static final String URL = "url";
 
-    private final String appName;
+    private static final String EMAIL_VERIFICATION_TEMPLATE = "mail/user-email-verification";
 
-    private final String appUrl;
+    private static final String PASSWORD_RESET_TEMPLATE = "mail/user-reset-password";
 
-    private final String frontendUrl;
+    private static final List<String> USER_VARIABLES = List.of(NAME, LAST_NAME, FULL_NAME, URL);
 
-    private final String senderAddress;
+    private final String frontendUrl;
 
     private final MessageSourceService messageSourceService;
 
-    private final JavaMailSender mailSender;
+    private final MailTemplateService mailTemplateService;
 
-    private final SpringTemplateEngine templateEngine;
+    private final MailOutboxService mailOutboxService;
 
     /**
      * Mail sender service constructor.
      *
-     * @param appName              String name of the application name
-     * @param appUrl               String url of the application url
      * @param frontendUrl          String url of the frontend url
-     * @param senderAddress        String email address of the sender
      * @param messageSourceService MessageSourceService
-     * @param mailSender           JavaMailSender
-     * @param templateEngine       SpringTemplateEngine
+     * @param mailTemplateService  MailTemplateService
+     * @param mailOutboxService    MailOutboxService
      */
     public MailSenderService(
-        @Value("${spring.application.name}") String appName,
-        @Value("${app.url}") String appUrl,
         @Value("${app.frontend-url}") String frontendUrl,
-        @Value("${spring.mail.username}") String senderAddress,
         MessageSourceService messageSourceService,
-        JavaMailSender mailSender,
-        SpringTemplateEngine templateEngine
+        MailTemplateService mailTemplateService,
+        MailOutboxService mailOutboxService
     ) {
-        this.appName = appName;
-        this.appUrl = appUrl;
         this.frontendUrl = frontendUrl;
-        this.senderAddress = senderAddress;
         this.messageSourceService = messageSourceService;
-        this.mailSender = mailSender;
-        this.templateEngine = templateEngine;
+        this.mailTemplateService = mailTemplateService;
+        this.mailOutboxService = mailOutboxService;
     }
 
     /**
-     * Send user email verification link.
-     *
-     * @param user User
+     * Compile the mail templates once the application is ready.
      */
-    public void sendUserEmailVerification(User user) {
-        try {
-            log.info(String.format("[EmailService] Sending verification e-mail: %s - %s - %s",
-                user.getId(), user.getEmail(), user.getEmailVerificationToken().getToken()));
-
-            String url = String.format("%s/auth/email-verification/%s", frontendUrl,
-                user.getEmailVerificationToken().getToken());
-
-            final Context ctx = createContext();
-            ctx.setVariable(NAME, user.getName());
-            ctx.setVariable(LAST_NAME, user.getLastName());
-            ctx.setVariable("fullName", user.getFullName());
-            ctx.setVariable(URL, url);
-
-            String subject = messageSourceService.get("email_verification");
-            send(new InternetAddress(senderAddress, appName), new InternetAddress(user.getEmail(), user.getName()),
-                subject, templateEngine.process("mail/user-email-verification", ctx));
-
-            log.info(String.format("[EmailService] Sent verification e-mail: %s - %s",
-                user.getId(), user.getEmail()));
-        } catch (UnsupportedEncodingException | MessagingException | MailException e) {
-            log.error(String.format("[EmailService] Failed to send verification e-mail: %s", e.getMessage()));
-        }
+    @EventListener(ApplicationReadyEvent.class)
+    public void precompileTemplates() {
+        mailTemplateService.precompile(EMAIL_VERIFICATION_TEMPLATE, USER_VARIABLES);
+        mailTemplateService.precompile(PASSWORD_RESET_TEMPLATE, USER_VARIABLES);
     }
 
     /**
-     * Send user password reset link.
+     * Queue user email verification link. The mail is rendered now and sent later by {@link MailOutboxService}.
      *
      * @param user User
      */
-    public void sendUserPasswordReset(User user) {
-        try {
-            log.info(String.format("[EmailService] Sending reset password e-mail: %s - %s - %s",
-                user.getId(), user.getEmail(), user.getPasswordResetToken().getToken()));
-
-            String url = String.format("%s/auth/password/%s", frontendUrl,
-                user.getPasswordResetToken().getToken());
-
-            final Context ctx = createContext();
-            ctx.setVariable(NAME, user.getName());
-            ctx.setVariable(LAST_NAME, user.getLastName());
-            ctx.setVariable("fullName", user.getFullName());
-            ctx.setVariable(URL, url);
-
-            String subject = messageSourceService.get("password_reset");
-            send(new InternetAddress(senderAddress, appName), new InternetAddress(user.getEmail(), user.getName()),
-                subject, templateEngine.process("mail/user-reset-password", ctx));
-
-            log.info(String.format("[EmailService] Sent reset password e-mail: %s - %s",
-                user.getId(), user.getEmail()));
-        } catch (UnsupportedEncodingException | MessagingException | MailException e) {
-            log.error(String.format("[EmailService] Failed to send reset password e-mail: %s", e.getMessage()));
-        }
+    public void sendUserEmailVerification(User user) {
+        log.info(String.format("[EmailService] Queueing verification e-mail: %s - %s - %s",
+            user.getId(), user.getEmail(), user.getEmailVerificationToken().getToken()));
+
+        String url = String.format("%s/auth/email-verification/%s", frontendUrl,
+            user.getEmailVerificationToken().getToken());
+
+        String subject = messageSourceService.get("email_verification");
+        mailOutboxService.enqueue(user.getEmail(), user.getName(), subject,
+            render(EMAIL_VERIFICATION_TEMPLATE, user, url));
     }
 
     /**
-     * Create context for template engine.
+     * Queue user password reset link.
      *
-     * @return Context
+     * @param user User
      */
-    private Context createContext() {
-        final Context ctx = new Context(LocaleContextHolder.getLocale());
-        ctx.setVariable("SENDER_ADDRESS", senderAddress);
-        ctx.setVariable("APP_NAME", appName);
-        ctx.setVariable("APP_URL", appUrl);
-        ctx.setVariable("FRONTEND_URL", frontendUrl);
-
-        return ctx;
+    public void sendUserPasswordReset(User user) {
+        log.info(String.format("[EmailService] Queueing reset password e-mail: %s - %s - %s",
+            user.getId(), user.getEmail(), user.getPasswordResetToken().getToken()));
+
+        String url = String.format("%s/auth/password/%s", frontendUrl,
+            user.getPasswordResetToken().getToken());
+
+        String subject = messageSourceService.get("password_reset");
+        mailOutboxService.enqueue(user.getEmail(), user.getName(), subject,
+            render(PASSWORD_RESET_TEMPLATE, user, url));
     }
 
     /**
-     * Send an e-mail to the specified address.
+     * Render a mail template with the variables of a user.
      *
-     * @param from    Address who sent
-     * @param to      Address who receive
-     * @param subject String subject
-     * @param text    String message
-     * @throws MessagingException when sending fails
+     * @param template String template name
+     * @param user     User
+     * @param url      String link of the mail
+     * @return String HTML
      */
-    private void send(InternetAddress from,
-                      InternetAddress to,
-                      String subject,
-                      String text) throws MessagingException, MailException {
-        MimeMessage mimeMessage = mailSender.createMimeMessage();
-        MimeMessageHelper mimeMessageHelper = new MimeMessageHelper(mimeMessage, true);
-        mimeMessageHelper.setFrom(from);
-        mimeMessageHelper.setTo(to);
-        mimeMessageHelper.setSubject(subject);
-        mimeMessageHelper.setText(text, true);
-
-        mailSender.send(mimeMessage);
+    private String render(String template, User user, String url) {
+        Map<String, String> variables = new HashMap<>();
+        variables.put(NAME, user.getName());
+        variables.put(LAST_NAME, user.getLastName());
+        variables.put(FULL_NAME, user.getFullName());
+        variables.put(URL, url);
+
+        return mailTemplateService.render(template, LocaleContextHolder.getLocale(), variables);
     }
 }
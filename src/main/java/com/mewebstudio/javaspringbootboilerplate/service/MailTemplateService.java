@@ -0,0 +1,239 @@
+package com.mewebstudio.javaspringbootboilerplate.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.unbescape.html.HtmlEscape;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Renders mail templates without running Thymeleaf for every mail.
+ * <p>
+ * A template is rendered once per locale with a marker in place of every per-user variable. Everything else, the
+ * markup, the fragments, the translated messages and the application variables, is already resolved in that output,
+ * which is split at the markers into static parts. Rendering a mail then only joins the static parts with the
+ * HTML-escaped variable values. The first render of a compiled template is checked against Thymeleaf with values that
+ * need escaping; a template that uses a variable in any other way than printing it, such as a condition, fails the
+ * check and keeps being rendered by Thymeleaf.
+ * <p>
+ * The locale of a mail comes from the {@code Accept-Language} header of the request that caused it, so it is
+ * narrowed to the closest configured locale, or the default locale, before it picks a template. Any number of tags
+ * sent by clients therefore maps onto a fixed set of compiled templates.
+ */
+@Service
+@Slf4j
+public class MailTemplateService {
+    private static final String PROBE = "<a href=\"x\">&'</a>";
+
+    private static final int VARIABLE_LENGTH_HINT = 64;
+
+    private final String appName;
+
+    private final String appUrl;
+
+    private final String frontendUrl;
+
+    private final String senderAddress;
+
+    private final List<Locale> locales;
+
+    private final Locale defaultLocale;
+
+    private final SpringTemplateEngine templateEngine;
+
+    private final String marker = "mailvar" + UUID.randomUUID().toString().replace("-", "");
+
+    private final Pattern markerPattern = Pattern.compile(marker + "([A-Za-z0-9]+)_");
+
+    private final Map<String, CompiledTemplate> compiled = new ConcurrentHashMap<>();
+
+    /**
+     * Mail template service constructor.
+     *
+     * @param appName        String name of the application name
+     * @param appUrl         String url of the application url
+     * @param frontendUrl    String url of the frontend url
+     * @param senderAddress  String email address of the sender
+     * @param locales        String[] locales the templates are compiled for at startup
+     * @param defaultLocale  String locale of the mails whose locale matches none of the configured ones
+     * @param templateEngine SpringTemplateEngine
+     */
+    public MailTemplateService(
+        @Value("${spring.application.name}") final String appName,
+        @Value("${app.url}") final String appUrl,
+        @Value("${app.frontend-url}") final String frontendUrl,
+        @Value("${spring.mail.username}") final String senderAddress,
+        @Value("${app.mail.template.locales}") final String[] locales,
+        @Value("${app.default-locale}") final String defaultLocale,
+        final SpringTemplateEngine templateEngine
+    ) {
+        this.appName = appName;
+        this.appUrl = appUrl;
+        this.frontendUrl = frontendUrl;
+        this.senderAddress = senderAddress;
+        this.locales = Arrays.stream(locales).map(Locale::forLanguageTag).toList();
+        this.defaultLocale = Locale.forLanguageTag(defaultLocale);
+        this.templateEngine = templateEngine;
+    }
+
+    /**
+     * Compile a template for every configured locale, so the first mails do not pay for it.
+     *
+     * @param template  String template name
+     * @param variables Collection of String names of the per-user variables
+     */
+    public void precompile(final String template, final Collection<String> variables) {
+        for (Locale locale : locales) {
+            compiled.computeIfAbsent(key(template, locale), k -> compile(template, locale, variables));
+        }
+        log.info("Mail template {} is compiled for {}", template, locales);
+    }
+
+    /**
+     * Render a template in the closest configured locale. A template not compiled for that locale yet is compiled
+     * with the given variables first.
+     *
+     * @param template        String template name
+     * @param requestedLocale Locale of the request that caused the mail
+     * @param variables       Map of the per-user variables, null values render as empty text
+     * @return String HTML
+     */
+    public String render(final String template, final Locale requestedLocale, final Map<String, String> variables) {
+        Locale locale = resolve(requestedLocale);
+        CompiledTemplate compiledTemplate = compiled.computeIfAbsent(key(template, locale),
+            k -> compile(template, locale, variables.keySet()));
+        if (compiledTemplate.parts == null) {
+            Context ctx = createContext(locale);
+            variables.forEach(ctx::setVariable);
+
+            return templateEngine.process(template, ctx);
+        }
+
+        return compiledTemplate.render(variables);
+    }
+
+    /**
+     * Narrow a locale to the configured one it falls back to, e.g. tr-TR to tr, or to the default locale.
+     *
+     * @param locale Locale
+     * @return Locale
+     */
+    private Locale resolve(final Locale locale) {
+        if (locale == null) {
+            return defaultLocale;
+        }
+
+        Locale resolved = Locale.lookup(List.of(new Locale.LanguageRange(locale.toLanguageTag())), locales);
+
+        return resolved == null ? defaultLocale : resolved;
+    }
+
+    /**
+     * Render a template once with markers for the variables, split the output at the markers and check the result.
+     *
+     * @param template  String template name
+     * @param locale    Locale
+     * @param variables Collection of String names of the per-user variables
+     * @return CompiledTemplate, without parts when the template has to be rendered by Thymeleaf
+     */
+    private CompiledTemplate compile(final String template, final Locale locale, final Collection<String> variables) {
+        Context ctx = createContext(locale);
+        variables.forEach(variable -> ctx.setVariable(variable, marker + variable + "_"));
+        String html = templateEngine.process(template, ctx);
+
+        List<String> parts = new ArrayList<>();
+        List<String> slots = new ArrayList<>();
+        Matcher matcher = markerPattern.matcher(html);
+        int last = 0;
+        while (matcher.find()) {
+            parts.add(html.substring(last, matcher.start()));
+            slots.add(matcher.group(1));
+            last = matcher.end();
+        }
+        parts.add(html.substring(last));
+        CompiledTemplate compiledTemplate = new CompiledTemplate(parts.toArray(String[]::new),
+            slots.toArray(String[]::new));
+
+        Map<String, String> probe = new HashMap<>();
+        Context probeCtx = createContext(locale);
+        variables.forEach(variable -> {
+            probe.put(variable, PROBE + variable);
+            probeCtx.setVariable(variable, PROBE + variable);
+        });
+        if (!compiledTemplate.render(probe).equals(templateEngine.process(template, probeCtx))) {
+            log.warn("Mail template {} uses its variables beyond printing them, rendering it with Thymeleaf", template);
+            return new CompiledTemplate(null, null);
+        }
+
+        return compiledTemplate;
+    }
+
+    /**
+     * Create context for template engine.
+     *
+     * @param locale Locale
+     * @return Context
+     */
+    private Context createContext(final Locale locale) {
+        final Context ctx = new Context(locale);
+        ctx.setVariable("SENDER_ADDRESS", senderAddress);
+        ctx.setVariable("APP_NAME", appName);
+        ctx.setVariable("APP_URL", appUrl);
+        ctx.setVariable("FRONTEND_URL", frontendUrl);
+
+        return ctx;
+    }
+
+    private static String key(final String template, final Locale locale) {
+        return template + '|' + locale.toLanguageTag();
+    }
+
+    /**
+     * Static parts of a rendered template and the variables printed between them.
+     */
+    private static final class CompiledTemplate {
+        private final String[] parts;
+
+        private final String[] slots;
+
+        private final int length;
+
+        /**
+         * Compiled template constructor.
+         *
+         * @param parts String[] static parts, one more than slots, null when Thymeleaf renders the template
+         * @param slots String[] variable printed after each part but the last
+         */
+        CompiledTemplate(final String[] parts, final String[] slots) {
+            this.parts = parts;
+            this.slots = slots;
+            this.length = parts == null ? 0 : Arrays.stream(parts).mapToInt(String::length).sum();
+        }
+
+        String render(final Map<String, String> variables) {
+            StringBuilder html = new StringBuilder(length + VARIABLE_LENGTH_HINT * slots.length);
+            for (int i = 0; i < slots.length; i++) {
+                html.append(parts[i]);
+                String value = variables.get(slots[i]);
+                if (value != null) {
+                    html.append(HtmlEscape.escapeHtml4Xml(value));
+                }
+            }
+
+            return html.append(parts[parts.length - 1]).toString();
+        }
+    }
+}
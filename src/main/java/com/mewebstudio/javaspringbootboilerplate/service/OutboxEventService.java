@@ -0,0 +1,321 @@
+package com.mewebstudio.javaspringbootboilerplate.service;
+
+import com.mewebstudio.javaspringbootboilerplate.entity.OutboxEvent;
+import com.mewebstudio.javaspringbootboilerplate.entity.User;
+import com.mewebstudio.javaspringbootboilerplate.event.Listener;
+import com.mewebstudio.javaspringbootboilerplate.event.UserEmailVerificationSendEvent;
+import com.mewebstudio.javaspringbootboilerplate.event.UserPasswordResetSendEvent;
+import com.mewebstudio.javaspringbootboilerplate.repository.OutboxEventRepository;
+import com.mewebstudio.javaspringbootboilerplate.repository.UserRepository;
+import com.mewebstudio.javaspringbootboilerplate.util.Constants;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Transactional outbox of the user lifecycle events.
+ * <p>
+ * An event is stored in the {@code outbox_events} table by the transaction that causes it, so it exists exactly when
+ * that transaction commits, and the listener never sees a user or token that is not committed yet. The relay claims
+ * the due events in batches with {@code FOR UPDATE SKIP LOCKED}: a claim counts an attempt and leases the event, so
+ * no other relay picks it up until the lease runs out. Each event is then handed to the {@link Listener} in a
+ * transaction of its own that also deletes it. Whatever the listener writes, the queued mail, commits together with
+ * the deletion, and the deletion only matches the attempt that was claimed, so every event is handled exactly once
+ * even with several relays on several nodes. Listeners only write to the database; SMTP is left to
+ * {@link MailOutboxService}, so no connection is held during mail I/O.
+ * <p>
+ * A failing event, even one whose insert only fails at flush, rolls back alone; its error is recorded in another
+ * transaction and it is retried on the next poll. Since attempts are counted when claiming, an event that fails or
+ * kills its relay is dropped after its last attempt instead of blocking the head of the table.
+ */
+@Service
+@Slf4j
+public class OutboxEventService {
+    private static final String PREFIX = "outbox.events.";
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final int batchSize;
+
+    private final int maxAttempts;
+
+    private final long lease;
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    private final UserRepository userRepository;
+
+    private final Listener listener;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TransactionTemplate eventTemplate;
+
+    private final Counter relayed;
+
+    private final Counter failed;
+
+    private final Counter dead;
+
+    /**
+     * Outbox event service constructor.
+     *
+     * @param batchSize             int events claimed per transaction
+     * @param maxAttempts           int attempts before a failing event is dropped
+     * @param lease                 long milliseconds a claimed event stays invisible to other relays
+     * @param outboxEventRepository OutboxEventRepository
+     * @param userRepository        UserRepository
+     * @param listener              Listener
+     * @param transactionManager    PlatformTransactionManager
+     * @param meterRegistry         MeterRegistry
+     */
+    public OutboxEventService(
+        @Value("${app.outbox.batch-size}") final int batchSize,
+        @Value("${app.outbox.max-attempts}") final int maxAttempts,
+        @Value("${app.outbox.lease}") final long lease,
+        final OutboxEventRepository outboxEventRepository,
+        final UserRepository userRepository,
+        final Listener listener,
+        final PlatformTransactionManager transactionManager,
+        final MeterRegistry meterRegistry
+    ) {
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.lease = lease;
+        this.outboxEventRepository = outboxEventRepository;
+        this.userRepository = userRepository;
+        this.listener = listener;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventTemplate = new TransactionTemplate(transactionManager);
+        this.eventTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        relayed = Counter.builder(PREFIX + "relayed")
+            .description("Outbox events handed to their listener")
+            .register(meterRegistry);
+        failed = Counter.builder(PREFIX + "failed")
+            .description("Outbox events whose listener failed")
+            .register(meterRegistry);
+        dead = Counter.builder(PREFIX + "dead")
+            .description("Outbox events dropped after the last attempt")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Store an event in the caller's transaction, with the locale of the current request.
+     *
+     * @param type        OutboxEventTypeEnum
+     * @param aggregateId UUID id of the user
+     * @return OutboxEvent
+     */
+    public OutboxEvent add(final Constants.OutboxEventTypeEnum type, final UUID aggregateId) {
+        return outboxEventRepository.save(OutboxEvent.builder()
+            .type(type)
+            .aggregateId(aggregateId)
+            .locale(LocaleContextHolder.getLocale().toLanguageTag())
+            .nextAttemptAt(LocalDateTime.now())
+            .build());
+    }
+
+    /**
+     * Relay the committed events, batch after batch, until a batch comes back short or with a failure.
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval}")
+    public void relay() {
+        try {
+            int handled;
+            do {
+                handled = relayBatch();
+            } while (handled == batchSize);
+        } catch (Exception e) {
+            log.error("Outbox relay failed: {}", ExceptionUtils.getMessage(e));
+        }
+    }
+
+    /**
+     * Claim one batch of events and hand each of them to the listener in its own transaction.
+     *
+     * @return int number of events handled
+     */
+    int relayBatch() {
+        List<OutboxEvent> events = claim();
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        Map<UUID, User> users = userRepository.findAllById(events.stream().map(OutboxEvent::getAggregateId)
+            .distinct().toList()).stream().collect(Collectors.toMap(User::getId, Function.identity()));
+        int handled = 0;
+        for (OutboxEvent event : events) {
+            if (relayEvent(event, users.get(event.getAggregateId()))) {
+                handled++;
+            }
+        }
+
+        return handled;
+    }
+
+    /**
+     * Lock the due events, drop the ones that ran out of attempts and lease the others to this relay.
+     *
+     * @return List of OutboxEvent claimed events
+     */
+    private List<OutboxEvent> claim() {
+        List<OutboxEvent> claimed = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxEvent> leased = new ArrayList<>();
+            List<OutboxEvent> exhausted = new ArrayList<>();
+            for (OutboxEvent event : outboxEventRepository.findDueForUpdate(now, batchSize)) {
+                if (event.getAttempts() >= maxAttempts) {
+                    exhausted.add(event);
+                    continue;
+                }
+
+                event.setAttempts(event.getAttempts() + 1);
+                event.setNextAttemptAt(now.plus(Duration.ofMillis(lease)));
+                leased.add(event);
+            }
+
+            dropAll(exhausted);
+
+            return outboxEventRepository.saveAll(leased);
+        });
+
+        return claimed == null ? List.of() : claimed;
+    }
+
+    /**
+     * Delete a claimed event and hand it to the listener, in a transaction of its own. The listener's writes are
+     * flushed inside it, so a write that fails late still fails this event only.
+     *
+     * @param event OutboxEvent claimed event
+     * @param user  User, null when the user was deleted meanwhile
+     * @return boolean true when the event is handled
+     */
+    private boolean relayEvent(final OutboxEvent event, final User user) {
+        try {
+            Boolean handled = eventTemplate.execute(status -> {
+                if (outboxEventRepository.deleteClaimed(event.getId(), event.getAttempts()) == 0) {
+                    log.info("Skipping outbox event {} {}, claimed again by another relay", event.getId(),
+                        event.getType());
+                    return false;
+                }
+
+                dispatch(event, user);
+                outboxEventRepository.flush();
+
+                return true;
+            });
+            if (!Boolean.TRUE.equals(handled)) {
+                return false;
+            }
+
+            relayed.increment();
+
+            return true;
+        } catch (RuntimeException e) {
+            failed.increment();
+            recordFailure(event, ExceptionUtils.getMessage(e));
+
+            return false;
+        }
+    }
+
+    /**
+     * Keep the error of a failed attempt and make the event due again, or drop it after its last attempt. Runs in a
+     * new transaction, as the one of the attempt is rolled back.
+     *
+     * @param event OutboxEvent
+     * @param error String
+     */
+    private void recordFailure(final OutboxEvent event, final String error) {
+        event.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        if (event.getAttempts() < maxAttempts) {
+            log.warn("Outbox event {} {} of {} failed, attempt {}: {}", event.getId(), event.getType(),
+                event.getAggregateId(), event.getAttempts(), error);
+        }
+
+        try {
+            eventTemplate.executeWithoutResult(status -> {
+                if (event.getAttempts() >= maxAttempts) {
+                    drop(event);
+                    outboxEventRepository.deleteClaimed(event.getId(), event.getAttempts());
+                    return;
+                }
+
+                outboxEventRepository.findById(event.getId())
+                    .filter(current -> current.getAttempts() == event.getAttempts())
+                    .ifPresent(current -> {
+                        current.setLastError(event.getLastError());
+                        current.setNextAttemptAt(LocalDateTime.now());
+                    });
+            });
+        } catch (RuntimeException e) {
+            log.error("Recording the failure of outbox event {} failed: {}", event.getId(),
+                ExceptionUtils.getMessage(e));
+        }
+    }
+
+    private void dropAll(final List<OutboxEvent> events) {
+        if (!events.isEmpty()) {
+            events.forEach(this::drop);
+            outboxEventRepository.deleteAllInBatch(events);
+        }
+    }
+
+    private void drop(final OutboxEvent event) {
+        log.error("Dropping outbox event {} {} of {} after {} attempts: {}", event.getId(), event.getType(),
+            event.getAggregateId(), event.getAttempts(), event.getLastError());
+        dead.increment();
+    }
+
+    /**
+     * Hand an event to its listener in the locale of the request that caused it.
+     *
+     * @param event OutboxEvent
+     * @param user  User, null when the user was deleted meanwhile
+     */
+    private void dispatch(final OutboxEvent event, final User user) {
+        if (user == null) {
+            log.info("Skipping outbox event {} {}, user {} no longer exists", event.getId(), event.getType(),
+                event.getAggregateId());
+            return;
+        }
+
+        LocaleContextHolder.setLocale(event.getLocale() == null ? null : Locale.forLanguageTag(event.getLocale()));
+        try {
+            switch (event.getType()) {
+                case USER_EMAIL_VERIFICATION_SEND -> {
+                    if (user.getEmailVerificationToken() != null) {
+                        listener.onUserEmailVerificationSendEvent(new UserEmailVerificationSendEvent(this, user));
+                    }
+                }
+                case USER_PASSWORD_RESET_SEND -> {
+                    if (user.getPasswordResetToken() != null) {
+                        listener.onUserPasswordResetSendEvent(new UserPasswordResetSendEvent(this, user));
+                    }
+                }
+                default -> log.warn("Unknown outbox event type: {}", event.getType());
+            }
+        } finally {
+            LocaleContextHolder.resetLocaleContext();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.mewebstudio.javaspringbootboilerplate.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mewebstudio.javaspringbootboilerplate.security.JwtUserDetails;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.function.Function;
+
+@Service
+@Slf4j
+public class PrincipalCacheService implements MessageListener {
+    private static final String NAME = "principals";
+
+    private static final String INVALIDATION_CHANNEL = NAME + ":invalidate";
+
+    private final Cache<String, JwtUserDetails> cache;
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * Authenticated principal cache constructor.
+     *
+     * @param maxSize                       Long maximum number of cached principals
+     * @param expiresIn                     Long lifetime of an entry in milliseconds
+     * @param stringRedisTemplate           StringRedisTemplate
+     * @param redisMessageListenerContainer RedisMessageListenerContainer
+     * @param meterRegistry                 MeterRegistry
+     */
+    public PrincipalCacheService(
+        @Value("${app.jwt.principal-cache.max-size}") final Long maxSize,
+        @Value("${app.jwt.principal-cache.expires-in}") final Long expiresIn,
+        final StringRedisTemplate stringRedisTemplate,
+        final RedisMessageListenerContainer redisMessageListenerContainer,
+        final MeterRegistry meterRegistry
+    ) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofMillis(expiresIn))
+            .recordStats()
+            .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    /**
+     * Get a principal by user id, loading it on a miss. Failed loads are not cached.
+     *
+     * @param id     String
+     * @param loader Function to load the principal from the database
+     * @return JwtUserDetails
+     */
+    public JwtUserDetails get(final String id, final Function<String, JwtUserDetails> loader) {
+        return cache.get(id, loader);
+    }
+
+    /**
+     * Evict a principal on every node. Inside a transaction the eviction runs after commit, so a concurrent request
+     * cannot cache the old row again before the change is visible.
+     *
+     * @param id String
+     */
+    public void evict(final String id) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publishEviction(id);
+                }
+            });
+
+            return;
+        }
+
+        publishEviction(id);
+    }
+
+    /**
+     * Evict the principal published by another node.
+     *
+     * @param message Message
+     * @param pattern byte[]
+     */
+    @Override
+    public void onMessage(@NonNull final Message message, final byte[] pattern) {
+        cache.invalidate(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Evict a principal locally and notify the other nodes.
+     *
+     * @param id String
+     */
+    private void publishEviction(final String id) {
+        cache.invalidate(id);
+        stringRedisTemplate.convertAndSend(INVALIDATION_CHANNEL, id);
+        log.trace("Evicted principal: {}", id);
+    }
+}
@@ -0,0 +1,154 @@
+package com.mewebstudio.javaspringbootboilerplate.service;
+
+import com.mewebstudio.javaspringbootboilerplate.util.BloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Set;
+
+@Service
+@Slf4j
+public class TokenRevocationService implements MessageListener {
+    private static final String REVOKED_KEY = "jwtTokens:revoked";
+
+    private static final String REVOKED_CHANNEL = "jwtTokens:revoke";
+
+    private final int expectedInsertions;
+
+    private final double falsePositiveRate;
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private volatile BloomFilter filter;
+
+    private BloomFilter rebuilding;
+
+    private volatile boolean loaded;
+
+    /**
+     * Token revocation service constructor.
+     *
+     * @param expectedInsertions            int number of revoked tokens the filter is sized for
+     * @param falsePositiveRate             double false positive probability of the filter
+     * @param stringRedisTemplate           StringRedisTemplate
+     * @param redisMessageListenerContainer RedisMessageListenerContainer
+     */
+    public TokenRevocationService(
+        @Value("${app.jwt.revocation.expected-insertions}") final int expectedInsertions,
+        @Value("${app.jwt.revocation.false-positive-rate}") final double falsePositiveRate,
+        final StringRedisTemplate stringRedisTemplate,
+        final RedisMessageListenerContainer redisMessageListenerContainer
+    ) {
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.filter = new BloomFilter(expectedInsertions, falsePositiveRate);
+
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(REVOKED_CHANNEL));
+    }
+
+    /**
+     * Revoke a token id until the token expires.
+     *
+     * @param jti        String token id
+     * @param expiration Date token expiration
+     */
+    public void revoke(final String jti, final Date expiration) {
+        stringRedisTemplate.opsForZSet().add(REVOKED_KEY, jti, expiration.getTime());
+        add(jti);
+        stringRedisTemplate.convertAndSend(REVOKED_CHANNEL, jti);
+        log.info("Revoked token id: {}", jti);
+    }
+
+    /**
+     * Whether a token id is revoked. Only ids that hit the filter are confirmed against Redis.
+     *
+     * @param jti String token id
+     * @return boolean
+     */
+    public boolean isRevoked(final String jti) {
+        if (loaded && !filter.mightContain(jti)) {
+            return false;
+        }
+
+        return stringRedisTemplate.opsForZSet().score(REVOKED_KEY, jti) != null;
+    }
+
+    /**
+     * Add a token id revoked on another node.
+     *
+     * @param message Message
+     * @param pattern byte[]
+     */
+    @Override
+    public void onMessage(@NonNull final Message message, final byte[] pattern) {
+        add(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Load the revoked token ids once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    /**
+     * Drop expired token ids and rebuild the filter, since Bloom filter entries cannot be removed. Ids published
+     * while the rebuild reads Redis are added to both filters. Starting the rebuild and swapping the filters hold the
+     * same lock as {@link #add(String)}, so an id is either added before the swap, to both filters, or after it, to
+     * the new one; the Redis read in between runs without the lock.
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.revocation.rebuild-interval}",
+        initialDelayString = "${app.jwt.revocation.rebuild-interval}")
+    public void rebuild() {
+        BloomFilter next = new BloomFilter(expectedInsertions, falsePositiveRate);
+        synchronized (this) {
+            rebuilding = next;
+        }
+
+        try {
+            stringRedisTemplate.opsForZSet().removeRangeByScore(REVOKED_KEY, 0, System.currentTimeMillis());
+            Set<String> revoked = stringRedisTemplate.opsForZSet().range(REVOKED_KEY, 0, -1);
+            if (revoked != null) {
+                revoked.forEach(next::put);
+            }
+
+            synchronized (this) {
+                filter = next;
+                rebuilding = null;
+            }
+            loaded = true;
+            log.info("Token revocation filter is rebuilt with {} ids", revoked == null ? 0 : revoked.size());
+        } catch (Exception e) {
+            log.error("Token revocation filter could not be rebuilt: {}", e.getMessage());
+            synchronized (this) {
+                rebuilding = null;
+            }
+        }
+    }
+
+    /**
+     * Add a token id to the current filter and to the one being rebuilt.
+     *
+     * @param jti String
+     */
+    private synchronized void add(final String jti) {
+        filter.put(jti);
+        if (rebuilding != null) {
+            rebuilding.put(jti);
+        }
+    }
+}
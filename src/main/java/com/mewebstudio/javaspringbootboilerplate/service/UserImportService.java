@@ -0,0 +1,440 @@
+package com.mewebstudio.javaspringbootboilerplate.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mewebstudio.javaspringbootboilerplate.dto.request.user.CreateUserRequest;
+import com.mewebstudio.javaspringbootboilerplate.dto.response.user.UserImportErrorResponse;
+import com.mewebstudio.javaspringbootboilerplate.dto.response.user.UserImportResponse;
+import com.mewebstudio.javaspringbootboilerplate.entity.Role;
+import com.mewebstudio.javaspringbootboilerplate.entity.User;
+import com.mewebstudio.javaspringbootboilerplate.exception.NotFoundException;
+import com.mewebstudio.javaspringbootboilerplate.repository.UserRepository;
+import com.mewebstudio.javaspringbootboilerplate.util.Constants;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class UserImportService {
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
+    private static final String ROLE_SEPARATOR = "\\|";
+
+    private final int batchSize;
+
+    private final int maxErrors;
+
+    private final UserRepository userRepository;
+
+    private final RoleService roleService;
+
+    private final PasswordEncoder passwordEncoder;
+
+    private final Validator validator;
+
+    private final ObjectMapper objectMapper;
+
+    private final MessageSourceService messageSourceService;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ExecutorService hashExecutor;
+
+    /**
+     * User import service constructor.
+     *
+     * @param batchSize            int rows per transaction and JDBC batch
+     * @param hashThreads          int threads hashing passwords
+     * @param maxErrors            int maximum number of row errors in the response
+     * @param userRepository       UserRepository
+     * @param roleService          RoleService
+     * @param passwordEncoder      PasswordEncoder
+     * @param validator            Validator
+     * @param objectMapper         ObjectMapper
+     * @param messageSourceService MessageSourceService
+     * @param entityManager        EntityManager
+     * @param transactionManager   PlatformTransactionManager
+     */
+    public UserImportService(
+        @Value("${app.user-import.batch-size}") final int batchSize,
+        @Value("${app.user-import.hash-threads}") final int hashThreads,
+        @Value("${app.user-import.max-errors}") final int maxErrors,
+        final UserRepository userRepository,
+        final RoleService roleService,
+        final PasswordEncoder passwordEncoder,
+        final Validator validator,
+        final ObjectMapper objectMapper,
+        final MessageSourceService messageSourceService,
+        final EntityManager entityManager,
+        final PlatformTransactionManager transactionManager
+    ) {
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+        this.userRepository = userRepository;
+        this.roleService = roleService;
+        this.passwordEncoder = passwordEncoder;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.messageSourceService = messageSourceService;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.hashExecutor = Executors.newFixedThreadPool(hashThreads, new CustomizableThreadFactory("user-import-"));
+    }
+
+    /**
+     * Import users from a CSV (header row required) or NDJSON stream. Rows are read lazily and written in batches,
+     * so memory use does not grow with the file size.
+     *
+     * @param inputStream InputStream
+     * @param contentType MediaType text/csv or application/x-ndjson
+     * @return UserImportResponse
+     * @throws IOException when the stream cannot be read
+     */
+    public UserImportResponse importUsers(final InputStream inputStream, final MediaType contentType)
+        throws IOException {
+        boolean json = MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType);
+        ImportReport report = new ImportReport(maxErrors);
+        Map<Constants.RoleEnum, Role> roles = new EnumMap<>(Constants.RoleEnum.class);
+        log.info("User import started, format: {}", contentType);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            Map<String, Integer> columns = json ? Map.of() : readCsvHeader(reader.readLine());
+            long line = json ? 0 : 1;
+            List<ImportRow> batch = new ArrayList<>(batchSize);
+            String text;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                if (!StringUtils.hasText(text)) {
+                    continue;
+                }
+
+                report.total++;
+                try {
+                    batch.add(new ImportRow(line, json ? fromJson(text) : fromCsv(columns, text)));
+                } catch (JsonProcessingException | IllegalArgumentException e) {
+                    report.fail(line, null, messageSourceService.get("invalid_import_row"));
+                }
+
+                if (batch.size() == batchSize) {
+                    importBatch(batch, roles, report);
+                    batch.clear();
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                importBatch(batch, roles, report);
+            }
+        }
+
+        log.info("User import finished, total: {}, imported: {}, failed: {}",
+            report.total, report.imported, report.failed);
+
+        return report.toResponse();
+    }
+
+    /**
+     * Stop the password hashing pool.
+     */
+    @PreDestroy
+    public void shutdown() {
+        hashExecutor.shutdown();
+    }
+
+    /**
+     * Validate, de-duplicate, hash and insert one batch of rows.
+     *
+     * @param batch  List of ImportRow
+     * @param roles  Map of roles resolved so far
+     * @param report ImportReport
+     */
+    private void importBatch(final List<ImportRow> batch, final Map<Constants.RoleEnum, Role> roles,
+                             final ImportReport report) {
+        Set<String> emails = new HashSet<>();
+        List<ImportRow> rows = new ArrayList<>(batch.size());
+        for (ImportRow row : batch) {
+            Set<ConstraintViolation<CreateUserRequest>> violations = validator.validate(row.request());
+            if (!violations.isEmpty()) {
+                report.fail(row.line(), row.request().getEmail(), violations.stream()
+                    .map(violation -> String.format("%s: %s", violation.getPropertyPath(), violation.getMessage()))
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+            } else if (!emails.add(row.request().getEmail())) {
+                report.fail(row.line(), row.request().getEmail(), messageSourceService.get("duplicate_email_in_import"));
+            } else {
+                rows.add(row);
+            }
+        }
+
+        if (!rows.isEmpty()) {
+            Set<String> existing = userRepository.findEmailsByEmailIn(emails);
+            rows.removeIf(row -> {
+                if (existing.contains(row.request().getEmail())) {
+                    report.fail(row.line(), row.request().getEmail(), messageSourceService.get("unique_email"));
+                    return true;
+                }
+
+                return false;
+            });
+        }
+
+        List<CompletableFuture<String>> passwords = rows.stream()
+            .map(row -> CompletableFuture.supplyAsync(() -> passwordEncoder.encode(row.request().getPassword()),
+                hashExecutor))
+            .toList();
+
+        List<ImportRow> importRows = new ArrayList<>(rows.size());
+        List<User> users = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            ImportRow row = rows.get(i);
+            try {
+                users.add(toUser(row.request(), passwords.get(i).join(), roles));
+                importRows.add(row);
+            } catch (NotFoundException e) {
+                report.fail(row.line(), row.request().getEmail(), e.getMessage());
+            }
+        }
+
+        save(importRows, users, report);
+        log.info("User import progress, total: {}, imported: {}, failed: {}",
+            report.total, report.imported, report.failed);
+    }
+
+    /**
+     * Insert users in a single transaction. When a row still violates a constraint (e.g. an e-mail inserted after the
+     * uniqueness check), the batch is retried row by row so only the offending rows are rejected.
+     *
+     * @param rows   List of ImportRow
+     * @param users  List of User in the same order as rows
+     * @param report ImportReport
+     */
+    private void save(final List<ImportRow> rows, final List<User> users, final ImportReport report) {
+        if (users.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> users.forEach(entityManager::persist));
+            report.imported += users.size();
+        } catch (DataIntegrityViolationException e) {
+            log.warn("User import batch is rejected, retrying row by row: {}", e.getMessage());
+            for (int i = 0; i < users.size(); i++) {
+                User user = users.get(i);
+                user.setId(null);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> entityManager.persist(user));
+                    report.imported++;
+                } catch (DataIntegrityViolationException ex) {
+                    report.fail(rows.get(i).line(), user.getEmail(), messageSourceService.get("unique_email"));
+                }
+            }
+        }
+    }
+
+    /**
+     * Build a user entity from an import row.
+     *
+     * @param request  CreateUserRequest
+     * @param password String encoded password
+     * @param roles    Map of roles resolved so far
+     * @return User
+     */
+    private User toUser(final CreateUserRequest request, final String password,
+                        final Map<Constants.RoleEnum, Role> roles) {
+        LocalDateTime now = LocalDateTime.now();
+
+        return User.builder()
+            .email(request.getEmail())
+            .password(password)
+            .name(request.getName())
+            .lastName(request.getLastName())
+            .roles(request.getRoles().stream()
+                .map(role -> roles.computeIfAbsent(Constants.RoleEnum.get(role), roleService::findByName))
+                .collect(Collectors.toList()))
+            .emailVerifiedAt(Boolean.TRUE.equals(request.getIsEmailVerified()) ? now : null)
+            .blockedAt(Boolean.TRUE.equals(request.getIsBlocked()) ? now : null)
+            .build();
+    }
+
+    /**
+     * Parse an NDJSON line.
+     *
+     * @param text String
+     * @return CreateUserRequest
+     * @throws JsonProcessingException when the line is not a JSON object
+     */
+    private CreateUserRequest fromJson(final String text) throws JsonProcessingException {
+        CreateUserRequest request = objectMapper.readValue(text, CreateUserRequest.class);
+        if (request.getPasswordConfirm() == null) {
+            request.setPasswordConfirm(request.getPassword());
+        }
+
+        return request;
+    }
+
+    /**
+     * Parse a CSV line. Roles are separated by "|".
+     *
+     * @param columns Map of header name to column index
+     * @param text    String
+     * @return CreateUserRequest
+     */
+    private CreateUserRequest fromCsv(final Map<String, Integer> columns, final String text) {
+        List<String> values = splitCsvLine(text);
+        if (values.size() != columns.size()) {
+            throw new IllegalArgumentException("Column count does not match the header");
+        }
+
+        String password = csvValue(columns, values, "password");
+        String roles = csvValue(columns, values, "roles");
+
+        return CreateUserRequest.builder()
+            .email(csvValue(columns, values, "email"))
+            .password(password)
+            .passwordConfirm(password)
+            .name(csvValue(columns, values, "name"))
+            .lastName(csvValue(columns, values, "lastName"))
+            .roles(StringUtils.hasText(roles) ? Arrays.asList(roles.split(ROLE_SEPARATOR)) : List.of())
+            .isEmailVerified(Boolean.parseBoolean(csvValue(columns, values, "isEmailVerified")))
+            .isBlocked(Boolean.parseBoolean(csvValue(columns, values, "isBlocked")))
+            .build();
+    }
+
+    /**
+     * Read the CSV header.
+     *
+     * @param header String
+     * @return Map of header name to column index
+     */
+    private static Map<String, Integer> readCsvHeader(final String header) {
+        Map<String, Integer> columns = new HashMap<>();
+        if (header == null) {
+            return columns;
+        }
+
+        List<String> names = splitCsvLine(header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim(), i);
+        }
+
+        return columns;
+    }
+
+    /**
+     * Value of a CSV column or null when the header does not have it.
+     *
+     * @param columns Map of header name to column index
+     * @param values  List of String
+     * @param name    String
+     * @return String
+     */
+    private static String csvValue(final Map<String, Integer> columns, final List<String> values, final String name) {
+        Integer index = columns.get(name);
+
+        return index == null ? null : values.get(index);
+    }
+
+    /**
+     * Split a CSV line, supporting double-quoted values with "" as an escaped quote.
+     *
+     * @param line String
+     * @return List of String
+     */
+    private static List<String> splitCsvLine(final String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (i < line.length()) {
+            char c = line.charAt(i++);
+            if (quoted) {
+                if (c == '"' && i < line.length() && line.charAt(i) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+
+        values.add(value.toString());
+
+        return values;
+    }
+
+    private record ImportRow(long line, CreateUserRequest request) {
+    }
+
+    private static final class ImportReport {
+        private final int maxErrors;
+
+        private final List<UserImportErrorResponse> errors = new ArrayList<>();
+
+        private long total;
+
+        private long imported;
+
+        private long failed;
+
+        private ImportReport(final int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        private void fail(final long line, final String email, final String message) {
+            failed++;
+            if (errors.size() < maxErrors) {
+                errors.add(UserImportErrorResponse.builder().line(line).email(email).message(message).build());
+            }
+        }
+
+        private UserImportResponse toResponse() {
+            return UserImportResponse.builder()
+                .total(total)
+                .imported(imported)
+                .failed(failed)
+                .errors(errors)
+                .build();
+        }
+    }
+}
@@ -9,21 +9,26 @@ import com.mewebstudio.javaspringbootboilerplate.dto.request.user.UpdatePassword
 import com.mewebstudio.javaspringbootboilerplate.dto.request.user.UpdateUserRequest;
 import com.mewebstudio.javaspringbootboilerplate.entity.User;
 import com.mewebstudio.javaspringbootboilerplate.entity.specification.UserFilterSpecification;
+import com.mewebstudio.javaspringbootboilerplate.entity.specification.UserKeysetSpecification;
+import com.mewebstudio.javaspringbootboilerplate.entity.specification.criteria.CursorPaginationCriteria;
 import com.mewebstudio.javaspringbootboilerplate.entity.specification.criteria.PaginationCriteria;
 import com.mewebstudio.javaspringbootboilerplate.entity.specification.criteria.UserCriteria;
-import com.mewebstudio.javaspringbootboilerplate.event.UserEmailVerificationSendEvent;
-import com.mewebstudio.javaspringbootboilerplate.event.UserPasswordResetSendEvent;
 import com.mewebstudio.javaspringbootboilerplate.exception.BadRequestException;
 import com.mewebstudio.javaspringbootboilerplate.exception.NotFoundException;
 import com.mewebstudio.javaspringbootboilerplate.repository.UserRepository;
+import com.mewebstudio.javaspringbootboilerplate.repository.projection.UserView;
 import com.mewebstudio.javaspringbootboilerplate.security.JwtUserDetails;
 import com.mewebstudio.javaspringbootboilerplate.util.Constants;
+import com.mewebstudio.javaspringbootboilerplate.util.CursorPage;
+import com.mewebstudio.javaspringbootboilerplate.util.KeysetCursor;
+import com.mewebstudio.javaspringbootboilerplate.util.KeysetRequestBuilder;
 import com.mewebstudio.javaspringbootboilerplate.util.PageRequestBuilder;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -38,6 +43,7 @@ import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -57,7 +63,9 @@ public class UserService {
 
     private final PasswordResetTokenService passwordResetTokenService;
 
-    private final ApplicationEventPublisher eventPublisher;
+    private final PrincipalCacheService principalCacheService;
+
+    private final OutboxEventService outboxEventService;
 
     private final MessageSourceService messageSourceService;
 
@@ -90,6 +98,26 @@ public class UserService {
         }
     }
 
+    /**
+     * Return the authenticated user as a read-only view.
+     *
+     * @return UserView
+     */
+    public UserView getUserView() {
+        Authentication authentication = getAuthentication();
+        if (authentication.isAuthenticated()) {
+            try {
+                return findViewById(getPrincipal(authentication).getId());
+            } catch (ClassCastException | NotFoundException e) {
+                log.warn("[JWT] User details not found!");
+                throw new BadCredentialsException(messageSourceService.get("bad_credentials"));
+            }
+        } else {
+            log.warn("[JWT] User not authenticated!");
+            throw new BadCredentialsException(messageSourceService.get("bad_credentials"));
+        }
+    }
+
     /**
      * Count users.
      *
@@ -106,11 +134,46 @@ public class UserService {
      * @param paginationCriteria PaginationCriteria
      * @return Page
      */
-    public Page<User> findAll(UserCriteria criteria, PaginationCriteria paginationCriteria) {
-        return userRepository.findAll(new UserFilterSpecification(criteria),
+    public Page<UserView> findAll(UserCriteria criteria, PaginationCriteria paginationCriteria) {
+        return userRepository.findAllViews(new UserFilterSpecification(criteria),
             PageRequestBuilder.build(paginationCriteria));
     }
 
+    /**
+     * Find all users with keyset pagination. Seeks past the cursor on (sortBy, id) instead of skipping an offset, so
+     * deep pages cost the same as the first one, and only counts when asked to.
+     *
+     * @param criteria           UserCriteria
+     * @param paginationCriteria CursorPaginationCriteria
+     * @return CursorPage
+     */
+    public CursorPage<UserView> findAll(UserCriteria criteria, CursorPaginationCriteria paginationCriteria) {
+        Sort sort = KeysetRequestBuilder.build(paginationCriteria);
+        Sort.Order order = sort.iterator().next();
+        String sortBy = order.getProperty();
+        String direction = order.getDirection().name().toLowerCase();
+
+        Specification<User> filter = new UserFilterSpecification(criteria);
+        Specification<User> specification = filter;
+        if (paginationCriteria.getCursor() != null) {
+            KeysetCursor cursor = decodeCursor(paginationCriteria.getCursor(), sortBy, direction);
+            specification = specification.and(new UserKeysetSpecification(sortBy, order.getDirection(),
+                parseKeyValue(sortBy, cursor.getValue()), cursor.getId()));
+        }
+
+        int size = paginationCriteria.getSize();
+        List<UserView> users = userRepository.findAllViews(specification, sort, size + 1);
+
+        String nextCursor = null;
+        if (users.size() > size) {
+            users = users.subList(0, size);
+            UserView last = users.get(size - 1);
+            nextCursor = new KeysetCursor(sortBy, direction, last.id(), getKeyValue(sortBy, last)).encode();
+        }
+
+        return new CursorPage<>(users, nextCursor, total(filter, paginationCriteria.getCount()));
+    }
+
     /**
      * Find a user by id.
      *
@@ -133,6 +196,18 @@ public class UserService {
         return findById(UUID.fromString(id));
     }
 
+    /**
+     * Find a read-only view of a user by id.
+     *
+     * @param id String
+     * @return UserView
+     */
+    public UserView findViewById(String id) {
+        return userRepository.findViewById(UUID.fromString(id))
+            .orElseThrow(() -> new NotFoundException(messageSourceService.get("not_found_with_param",
+                new String[]{messageSourceService.get("user")})));
+    }
+
     /**
      * Find a user by email.
      *
@@ -164,9 +239,9 @@ public class UserService {
      * Loads user details by UUID string.
      *
      * @param id String
-     * @return UserDetails
+     * @return JwtUserDetails
      */
-    public UserDetails loadUserById(final String id) {
+    public JwtUserDetails loadUserById(final String id) {
         User user = userRepository.findById(UUID.fromString(id))
             .orElseThrow(() -> new NotFoundException(messageSourceService.get("not_found_with_param",
                 new String[]{messageSourceService.get("user")})));
@@ -241,6 +316,7 @@ public class UserService {
      */
     public User update(UUID id, UpdateUserRequest request) throws BindException {
         User user = findById(id);
+        principalCacheService.evict(id.toString());
         user.setEmail(request.getEmail());
         user.setName(request.getName());
         user.setLastName(request.getLastName());
@@ -303,6 +379,7 @@ public class UserService {
 
         user.setPassword(passwordEncoder.encode(request.getPassword()));
         userRepository.save(user);
+        principalCacheService.evict(user.getId().toString());
         log.info("Password updated for user with email: {}", user.getEmail());
 
         return user;
@@ -320,6 +397,7 @@ public class UserService {
         user.setPassword(passwordEncoder.encode(request.getPassword()));
 
         userRepository.save(user);
+        principalCacheService.evict(user.getId().toString());
         passwordResetTokenService.deleteByUserId(user.getId());
         log.info("Password reset for user with email: {}", user.getEmail());
     }
@@ -374,7 +452,9 @@ public class UserService {
      * @param id UUID
      */
     public void delete(String id) {
-        userRepository.delete(findById(id));
+        User user = findById(id);
+        userRepository.delete(user);
+        principalCacheService.evict(user.getId().toString());
     }
 
     /**
@@ -454,7 +534,7 @@ public class UserService {
      */
     protected void emailVerificationEventPublisher(User user) {
         user.setEmailVerificationToken(emailVerificationTokenService.create(user));
-        eventPublisher.publishEvent(new UserEmailVerificationSendEvent(this, user));
+        outboxEventService.add(Constants.OutboxEventTypeEnum.USER_EMAIL_VERIFICATION_SEND, user.getId());
     }
 
     /**
@@ -464,6 +544,88 @@ public class UserService {
      */
     private void passwordResetEventPublisher(User user) {
         user.setPasswordResetToken(passwordResetTokenService.create(user));
-        eventPublisher.publishEvent(new UserPasswordResetSendEvent(this, user));
+        outboxEventService.add(Constants.OutboxEventTypeEnum.USER_PASSWORD_RESET_SEND, user.getId());
+    }
+
+    /**
+     * Decode a keyset cursor and make sure it was issued for the requested order.
+     *
+     * @param token     String
+     * @param sortBy    String
+     * @param direction String
+     * @return KeysetCursor
+     */
+    private KeysetCursor decodeCursor(String token, String sortBy, String direction) {
+        try {
+            KeysetCursor cursor = KeysetCursor.decode(token);
+            if (cursor.getSortBy().equals(sortBy) && cursor.getSort().equals(direction)) {
+                return cursor;
+            }
+        } catch (IllegalArgumentException e) {
+            log.warn("Cursor could not be decoded: {}", e.getMessage());
+        }
+
+        throw new BadRequestException(messageSourceService.get("invalid_cursor"));
+    }
+
+    /**
+     * Sort value of the user used as the keyset position.
+     *
+     * @param sortBy String
+     * @param user   UserView
+     * @return String
+     */
+    private String getKeyValue(String sortBy, UserView user) {
+        return switch (sortBy) {
+            case "email" -> user.email();
+            case "name" -> user.name();
+            case "lastName" -> user.lastName();
+            case "createdAt" -> user.createdAt().toString();
+            case "updatedAt" -> user.updatedAt().toString();
+            default -> user.id().toString();
+        };
+    }
+
+    /**
+     * Parse a keyset position back into the type of the sort column.
+     *
+     * @param sortBy String
+     * @param value  String
+     * @return Comparable
+     */
+    private Comparable<?> parseKeyValue(String sortBy, String value) {
+        try {
+            return switch (sortBy) {
+                case "createdAt", "updatedAt" -> LocalDateTime.parse(value);
+                case "id" -> UUID.fromString(value);
+                default -> value;
+            };
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            log.warn("Cursor value could not be parsed: {}", e.getMessage());
+            throw new BadRequestException(messageSourceService.get("invalid_cursor"));
+        }
+    }
+
+    /**
+     * Total of a keyset page. The estimate is the planner's row count of the whole table, which is free to read but
+     * ignores the filters; it falls back to an exact count while the table has not been analyzed yet.
+     *
+     * @param specification Specification
+     * @param count         Constants.CountEnum
+     * @return Long
+     */
+    private Long total(Specification<User> specification, Constants.CountEnum count) {
+        if (count == null || count == Constants.CountEnum.NONE) {
+            return null;
+        }
+
+        if (count == Constants.CountEnum.ESTIMATE) {
+            Long estimate = userRepository.estimateCount();
+            if (estimate != null && estimate >= 0) {
+                return estimate;
+            }
+        }
+
+        return userRepository.count(specification);
     }
 }
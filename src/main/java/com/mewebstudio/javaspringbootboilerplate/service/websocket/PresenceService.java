@@ -0,0 +1,233 @@
+package com.mewebstudio.javaspringbootboilerplate.service.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mewebstudio.javaspringbootboilerplate.dto.ws.PresenceEvent;
+import com.mewebstudio.javaspringbootboilerplate.dto.ws.WebsocketIdentifier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Presence protocol of the websocket clients. A new session receives a paged snapshot of the online users; after
+ * that only versioned deltas are broadcast. Joins and leaves are collected for one flush interval and coalesced per
+ * user, so a login storm costs one broadcast per interval instead of one per login. Versions come from one Redis
+ * counter shared by all nodes, and the recent deltas are kept in Redis so a client can resync from its last version.
+ * Taking the version, logging the delta and publishing it are one script, so deltas reach every node in version order
+ * and the log has no holes.
+ */
+@Service
+@Slf4j
+public class PresenceService {
+    private static final String NAME = "websockets:presence";
+
+    private static final String VERSION_KEY = NAME + ":version";
+
+    private static final String DELTAS_KEY = NAME + ":deltas";
+
+    private static final String SNAPSHOT_TYPE = "presence-snapshot";
+
+    private static final String DELTA_TYPE = "presence-delta";
+
+    /**
+     * Version of a delta before the router stamps it; never a real version.
+     */
+    private static final long VERSION_PLACEHOLDER = Long.MIN_VALUE;
+
+    private final int snapshotPageSize;
+
+    private final int retainedDeltas;
+
+    private final WebSocketCacheService webSocketCacheService;
+
+    private final WebSocketRouter webSocketRouter;
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, Boolean> pending = new LinkedHashMap<>();
+
+    /**
+     * Presence service constructor.
+     *
+     * @param snapshotPageSize      int users per snapshot frame
+     * @param retainedDeltas        int deltas kept for resync
+     * @param webSocketCacheService WebSocketCacheService
+     * @param webSocketRouter       WebSocketRouter
+     * @param stringRedisTemplate   StringRedisTemplate
+     * @param objectMapper          ObjectMapper
+     */
+    public PresenceService(
+        @Value("${app.websocket.presence.snapshot-page-size}") final int snapshotPageSize,
+        @Value("${app.websocket.presence.retained-deltas}") final int retainedDeltas,
+        final WebSocketCacheService webSocketCacheService,
+        final WebSocketRouter webSocketRouter,
+        final StringRedisTemplate stringRedisTemplate,
+        final ObjectMapper objectMapper
+    ) {
+        this.snapshotPageSize = snapshotPageSize;
+        this.retainedDeltas = retainedDeltas;
+        this.webSocketCacheService = webSocketCacheService;
+        this.webSocketRouter = webSocketRouter;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * The first session of a user connected to this node: queue the join.
+     *
+     * @param userId String
+     */
+    public void join(final String userId) {
+        change(userId, true);
+    }
+
+    /**
+     * The last session of a user disconnected from this node.
+     *
+     * @param userId String
+     */
+    public void leave(final String userId) {
+        change(userId, false);
+    }
+
+    /**
+     * Send the deltas after the given version to the session asking for them, or a new snapshot when they do not
+     * follow on from it without a gap, e.g. because they are no longer retained.
+     *
+     * @param session WebsocketIdentifier
+     * @param version long last version the client applied
+     */
+    public void resync(final WebsocketIdentifier session, final long version) {
+        if (version >= currentVersion()) {
+            return;
+        }
+
+        Set<ZSetOperations.TypedTuple<String>> deltas = stringRedisTemplate.opsForZSet()
+            .rangeByScoreWithScores(DELTAS_KEY, version + 1, Double.MAX_VALUE);
+        if (!contiguous(deltas, version + 1)) {
+            sendSnapshot(session);
+            return;
+        }
+
+        deltas.forEach(delta -> webSocketCacheService.sendFrame(session, delta.getValue(), null));
+    }
+
+    /**
+     * Send the online users page by page. The version is read before the users, so every delta after it can be
+     * applied on top; joins and leaves are idempotent, so a delta already contained in the snapshot does no harm.
+     * Pages are keyed, so a newer snapshot replaces the pages of an older one still waiting in the outbound queue.
+     * Only the given session receives it; the other sessions of the user are already up to date.
+     *
+     * @param session WebsocketIdentifier
+     */
+    public void sendSnapshot(final WebsocketIdentifier session) {
+        try {
+            long version = currentVersion();
+            List<String> users = new ArrayList<>(webSocketRouter.getOnlineUsers());
+            int pages = Math.max(1, (users.size() + snapshotPageSize - 1) / snapshotPageSize);
+            for (int page = 0; page < pages; page++) {
+                List<String> slice = users.subList(page * snapshotPageSize,
+                    Math.min((page + 1) * snapshotPageSize, users.size()));
+                webSocketCacheService.sendFrame(session, encode(PresenceEvent.builder()
+                    .type(SNAPSHOT_TYPE)
+                    .version(version)
+                    .page(page + 1)
+                    .pages(pages)
+                    .users(slice)
+                    .date(Instant.now().toEpochMilli())
+                    .build()), SNAPSHOT_TYPE + ":" + (page + 1));
+            }
+        } catch (Exception e) {
+            log.error("Presence snapshot could not be sent to {}: {}", session.getUserId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Publish the joins and leaves collected since the last flush as one versioned delta.
+     */
+    @Scheduled(fixedDelayString = "${app.websocket.presence.flush-interval}")
+    public void flush() {
+        List<String> joined = new ArrayList<>();
+        List<String> left = new ArrayList<>();
+        synchronized (pending) {
+            if (pending.isEmpty()) {
+                return;
+            }
+
+            pending.forEach((userId, online) -> (online ? joined : left).add(userId));
+            pending.clear();
+        }
+
+        try {
+            String template = encode(PresenceEvent.builder()
+                .type(DELTA_TYPE)
+                .version(VERSION_PLACEHOLDER)
+                .joined(joined)
+                .left(left)
+                .date(Instant.now().toEpochMilli())
+                .build());
+            webSocketCacheService.broadcastVersionedFrame(VERSION_KEY, DELTAS_KEY, retainedDeltas, template,
+                String.valueOf(VERSION_PLACEHOLDER));
+        } catch (Exception e) {
+            log.error("Presence delta could not be published: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Record the latest state of a user for the next flush; a join and a leave in the same window coalesce.
+     *
+     * @param userId String
+     * @param online boolean
+     */
+    private void change(final String userId, final boolean online) {
+        synchronized (pending) {
+            pending.remove(userId);
+            pending.put(userId, online);
+        }
+    }
+
+    private long currentVersion() {
+        String version = stringRedisTemplate.opsForValue().get(VERSION_KEY);
+
+        return version == null ? 0 : Long.parseLong(version);
+    }
+
+    /**
+     * Whether the deltas are the versions from the given one on, without a gap.
+     *
+     * @param deltas Set of deltas scored by version, in version order
+     * @param from   long version the first delta must have
+     * @return boolean
+     */
+    private static boolean contiguous(final Set<ZSetOperations.TypedTuple<String>> deltas, final long from) {
+        if (deltas == null || deltas.isEmpty()) {
+            return false;
+        }
+
+        long expected = from;
+        for (ZSetOperations.TypedTuple<String> delta : deltas) {
+            if (delta.getScore() == null || delta.getScore().longValue() != expected) {
+                return false;
+            }
+            expected++;
+        }
+
+        return true;
+    }
+
+    private String encode(final PresenceEvent event) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(event);
+    }
+}
@@ -0,0 +1,328 @@
+package com.mewebstudio.javaspringbootboilerplate.service.websocket;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * {@link WebSocketRouter} on Redis. A user may have sessions on several nodes, e.g. a phone and a browser behind
+ * different load balancer targets, so every connected user has a set of the nodes it is connected to; the presence
+ * hash holds the online users with the size of that set. Each node subscribes to its own route channel, so a private
+ * frame costs one lookup and one publish per other node of the user. Registering and unregistering are scripts, so
+ * concurrent connects and disconnects on different nodes agree on who was first and who was last. Nodes refresh a
+ * heartbeat key; the users of a node whose heartbeat expired are removed by the sweep of any other node. A node that
+ * was only paused, e.g. by a long GC or a stalled scheduler, finds its heartbeat key gone on its next beat and
+ * registers its connected users again.
+ */
+@Service
+@Slf4j
+public class RedisWebSocketRouter implements WebSocketRouter, MessageListener {
+    private static final String NAME = "websockets";
+
+    private static final String PRESENCE_KEY = NAME + ":presence";
+
+    private static final String NODES_KEY = NAME + ":nodes";
+
+    private static final String BROADCAST_CHANNEL = NAME + ":broadcast";
+
+    private static final int HEARTBEATS_TO_EXPIRE = 3;
+
+    /**
+     * Add the node to the nodes of the user and return how many nodes the user is connected to now.
+     */
+    private static final RedisScript<Long> REGISTER_SCRIPT = new DefaultRedisScript<>(
+        "redis.call('SADD', KEYS[3], ARGV[2]) redis.call('SADD', KEYS[2], ARGV[1]) "
+            + "local nodes = redis.call('SCARD', KEYS[3]) redis.call('HSET', KEYS[1], ARGV[1], nodes) "
+            + "return nodes", Long.class);
+
+    /**
+     * Remove the node from the nodes of the user and return how many are left; the user leaves the presence hash
+     * only with its last node, so the sessions on the other nodes keep it online.
+     */
+    private static final RedisScript<Long> UNREGISTER_SCRIPT = new DefaultRedisScript<>(
+        "redis.call('SREM', KEYS[3], ARGV[2]) redis.call('SREM', KEYS[2], ARGV[1]) "
+            + "local nodes = redis.call('SCARD', KEYS[3]) if nodes == 0 then redis.call('HDEL', KEYS[1], ARGV[1]) "
+            + "else redis.call('HSET', KEYS[1], ARGV[1], nodes) end return nodes", Long.class);
+
+    /**
+     * Refresh the heartbeat key of the node and add it to the nodes; returns 0 when the key had expired or had been
+     * removed by another node.
+     */
+    private static final RedisScript<Long> HEARTBEAT_SCRIPT = new DefaultRedisScript<>(
+        "local alive = redis.call('EXISTS', KEYS[1]) redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2]) "
+            + "redis.call('SADD', KEYS[2], ARGV[1]) return alive", Long.class);
+
+    /**
+     * Take the next version, stamp the frame with it, log it and publish it as a broadcast envelope. Redis runs the
+     * script alone, so the publish order of all nodes is the version order.
+     */
+    private static final RedisScript<String> VERSIONED_BROADCAST_SCRIPT = new DefaultRedisScript<>(
+        "local version = redis.call('INCR', KEYS[1]) local first, last = string.find(ARGV[1], ARGV[2], 1, true) "
+            + "local frame = string.sub(ARGV[1], 1, first - 1) .. version .. string.sub(ARGV[1], last + 1) "
+            + "redis.call('ZADD', KEYS[2], version, frame) "
+            + "redis.call('ZREMRANGEBYRANK', KEYS[2], 0, -(tonumber(ARGV[3]) + 1)) "
+            + "redis.call('PUBLISH', KEYS[3], cjson.encode({origin = ARGV[4], payload = frame})) return frame",
+        String.class);
+
+    @Getter
+    private final String nodeId;
+
+    private final Duration heartbeatTtl;
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private volatile Delivery delivery = (userId, payload, key) -> {
+    };
+
+    private volatile Supplier<Set<String>> localUsers = Set::of;
+
+    /**
+     * Redis websocket router constructor.
+     *
+     * @param nodeId                        String id of this node
+     * @param heartbeatInterval             long milliseconds between heartbeats
+     * @param stringRedisTemplate           StringRedisTemplate
+     * @param objectMapper                  ObjectMapper
+     * @param redisMessageListenerContainer RedisMessageListenerContainer
+     */
+    public RedisWebSocketRouter(
+        @Value("${app.websocket.router.node-id}") final String nodeId,
+        @Value("${app.websocket.router.heartbeat-interval}") final long heartbeatInterval,
+        final StringRedisTemplate stringRedisTemplate,
+        final ObjectMapper objectMapper,
+        final RedisMessageListenerContainer redisMessageListenerContainer
+    ) {
+        this.nodeId = nodeId;
+        this.heartbeatTtl = Duration.ofMillis(heartbeatInterval * HEARTBEATS_TO_EXPIRE);
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.objectMapper = objectMapper;
+
+        redisMessageListenerContainer.addMessageListener(this,
+            List.of(new ChannelTopic(routeChannel(nodeId)), new ChannelTopic(BROADCAST_CHANNEL)));
+    }
+
+    @Override
+    public void setDelivery(final Delivery delivery) {
+        this.delivery = delivery;
+    }
+
+    @Override
+    public void setLocalUsers(final Supplier<Set<String>> localUsers) {
+        this.localUsers = localUsers;
+    }
+
+    @Override
+    public boolean register(final String userId) {
+        Long nodes = stringRedisTemplate.execute(REGISTER_SCRIPT,
+            List.of(PRESENCE_KEY, usersKey(nodeId), nodesKey(userId)), userId, nodeId);
+
+        return nodes == null || nodes <= 1;
+    }
+
+    @Override
+    public boolean unregister(final String userId) {
+        return unregisterFrom(userId, nodeId);
+    }
+
+    @Override
+    public Set<String> getOnlineUsers() {
+        Set<Object> users = stringRedisTemplate.opsForHash().keys(PRESENCE_KEY);
+        Set<String> online = new HashSet<>(users.size());
+        users.forEach(user -> online.add(user.toString()));
+
+        return online;
+    }
+
+    @Override
+    public boolean forward(final String userId, final String payload, final String key) {
+        Set<String> nodes = stringRedisTemplate.opsForSet().members(nodesKey(userId));
+        if (nodes == null) {
+            return false;
+        }
+
+        boolean forwarded = false;
+        for (String node : nodes) {
+            if (nodeId.equals(node)) {
+                continue;
+            }
+
+            Long receivers = publish(routeChannel(node), new Envelope(nodeId, userId, key, payload));
+            if (receivers != null && receivers == 0) {
+                log.warn("Websocket node {} of user {} is gone", node, userId);
+                unregisterFrom(userId, node);
+                continue;
+            }
+
+            forwarded = true;
+        }
+
+        return forwarded;
+    }
+
+    @Override
+    public void broadcast(final String payload, final String key) {
+        publish(BROADCAST_CHANNEL, new Envelope(nodeId, null, key, payload));
+    }
+
+    @Override
+    public String broadcastVersioned(final String versionKey, final String logKey, final int retained,
+                                     final String template, final String placeholder) {
+        return stringRedisTemplate.execute(VERSIONED_BROADCAST_SCRIPT, List.of(versionKey, logKey, BROADCAST_CHANNEL),
+            template, placeholder, String.valueOf(retained), nodeId);
+    }
+
+    /**
+     * Deliver a frame routed to this node. Broadcasts published by this node were already delivered locally.
+     *
+     * @param message Message
+     * @param pattern byte[]
+     */
+    @Override
+    public void onMessage(@NonNull final Message message, final byte[] pattern) {
+        try {
+            Envelope envelope = objectMapper.readValue(message.getBody(), Envelope.class);
+            if (envelope.to() == null && nodeId.equals(envelope.origin())) {
+                return;
+            }
+
+            delivery.deliver(envelope.to(), envelope.payload(), envelope.key());
+        } catch (Exception e) {
+            log.error("Routed websocket frame could not be delivered: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Refresh the heartbeat of this node and remove the users of nodes whose heartbeat expired. When the heartbeat of
+     * this node had expired itself, another node may have removed its users, so they are registered again. A sweep
+     * still running on another node may remove them once more; it deletes the heartbeat key too, so the next beat
+     * repairs that as well.
+     */
+    @Scheduled(fixedDelayString = "${app.websocket.router.heartbeat-interval}")
+    public void heartbeat() {
+        try {
+            Long alive = stringRedisTemplate.execute(HEARTBEAT_SCRIPT, List.of(aliveKey(nodeId), NODES_KEY), nodeId,
+                String.valueOf(heartbeatTtl.toMillis()));
+            if (alive != null && alive == 0) {
+                reregister();
+            }
+
+            Set<String> nodes = stringRedisTemplate.opsForSet().members(NODES_KEY);
+            if (nodes == null) {
+                return;
+            }
+
+            for (String node : nodes) {
+                if (!Boolean.TRUE.equals(stringRedisTemplate.hasKey(aliveKey(node)))) {
+                    log.warn("Websocket node {} missed its heartbeat, removing its users", node);
+                    remove(node);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Websocket node heartbeat failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Remove the users of this node when it shuts down gracefully.
+     */
+    @PreDestroy
+    public void shutdown() {
+        try {
+            remove(nodeId);
+        } catch (Exception e) {
+            log.error("Websocket node {} could not be removed: {}", nodeId, e.getMessage());
+        }
+    }
+
+    /**
+     * Remove a user from a node.
+     *
+     * @param userId String
+     * @param node   String
+     * @return boolean true when the user is not connected to any node any more
+     */
+    private boolean unregisterFrom(final String userId, final String node) {
+        Long nodes = stringRedisTemplate.execute(UNREGISTER_SCRIPT,
+            List.of(PRESENCE_KEY, usersKey(node), nodesKey(userId)), userId, node);
+
+        return nodes == null || nodes == 0;
+    }
+
+    /**
+     * Register the users connected to this node again, after its heartbeat expired.
+     */
+    private void reregister() {
+        Set<String> users = localUsers.get();
+        if (!users.isEmpty()) {
+            log.warn("Websocket node {} was taken for dead, registering its {} users again", nodeId, users.size());
+            users.forEach(this::register);
+        }
+    }
+
+    private void remove(final String node) {
+        Set<String> users = stringRedisTemplate.opsForSet().members(usersKey(node));
+        if (users != null) {
+            users.forEach(userId -> unregisterFrom(userId, node));
+        }
+
+        stringRedisTemplate.delete(List.of(usersKey(node), aliveKey(node)));
+        stringRedisTemplate.opsForSet().remove(NODES_KEY, node);
+    }
+
+    private Long publish(final String channel, final Envelope envelope) {
+        try {
+            return stringRedisTemplate.convertAndSend(channel, objectMapper.writeValueAsString(envelope));
+        } catch (JsonProcessingException e) {
+            log.error("Websocket frame could not be routed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static String routeChannel(final String node) {
+        return NAME + ":route:" + node;
+    }
+
+    private static String usersKey(final String node) {
+        return NAME + ":node:" + node + ":users";
+    }
+
+    private static String nodesKey(final String userId) {
+        return NAME + ":user:" + userId + ":nodes";
+    }
+
+    private static String aliveKey(final String node) {
+        return NAME + ":node:" + node + ":alive";
+    }
+
+    /**
+     * Frame travelling between nodes.
+     *
+     * @param origin  String node that published the frame
+     * @param to      String recipient, null for a broadcast
+     * @param key     String coalescing key, may be null
+     * @param payload String encoded frame
+     */
+    record Envelope(String origin, String to, String key, String payload) {
+    }
+}
@@ -0,0 +1,125 @@
+package com.mewebstudio.javaspringbootboilerplate.service.websocket;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.Collection;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Creates the outbound queues of the websocket sessions and fans pre-encoded frames out to them. Offering a frame
+ * only queues it, so a broadcast to many sessions returns at once; the writes run in parallel on a small worker pool
+ * where every session is drained by one task at a time. Sessions are closed on a pool of their own, as a close waits
+ * behind a stuck write.
+ */
+@Slf4j
+@Component
+public class WebSocketBroadcaster {
+    private final int capacity;
+
+    private final int drainBatchSize;
+
+    private final long sendTimeLimit;
+
+    private final WebSocketOutbound.OverflowPolicy overflowPolicy;
+
+    private final ExecutorService executor;
+
+    private final ExecutorService closeExecutor;
+
+    private final WebSocketCodec codec;
+
+    @Getter
+    private final WebSocketOutboundMetrics metrics;
+
+    /**
+     * WebSocket broadcaster constructor.
+     *
+     * @param threads        int threads writing to the sessions
+     * @param closeThreads   int threads closing the sessions
+     * @param capacity       int frames queued per session
+     * @param drainBatchSize int frames written to one session before its task yields the worker
+     * @param sendTimeLimit  long milliseconds a single write may take before the session is closed
+     * @param overflowPolicy String drop-oldest, coalesce or disconnect
+     * @param meterRegistry  MeterRegistry
+     * @param codec          WebSocketCodec
+     */
+    public WebSocketBroadcaster(
+        @Value("${app.websocket.outbound.threads}") final int threads,
+        @Value("${app.websocket.outbound.close-threads}") final int closeThreads,
+        @Value("${app.websocket.outbound.capacity}") final int capacity,
+        @Value("${app.websocket.outbound.drain-batch-size}") final int drainBatchSize,
+        @Value("${app.websocket.outbound.send-time-limit}") final long sendTimeLimit,
+        @Value("${app.websocket.outbound.overflow-policy}") final String overflowPolicy,
+        final MeterRegistry meterRegistry,
+        final WebSocketCodec codec
+    ) {
+        this.capacity = capacity;
+        this.drainBatchSize = drainBatchSize;
+        this.sendTimeLimit = sendTimeLimit;
+        this.overflowPolicy = WebSocketOutbound.OverflowPolicy.valueOf(overflowPolicy.toUpperCase().replace('-', '_'));
+        this.executor = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("ws-outbound-"));
+        this.closeExecutor = Executors.newFixedThreadPool(closeThreads, new CustomizableThreadFactory("ws-close-"));
+        this.metrics = new WebSocketOutboundMetrics(meterRegistry);
+        this.codec = codec;
+    }
+
+    /**
+     * Create the outbound queue of a new session.
+     *
+     * @param session WebSocketSession
+     * @return WebSocketOutbound
+     */
+    public WebSocketOutbound open(final WebSocketSession session) {
+        return new WebSocketOutbound(session, capacity, drainBatchSize, sendTimeLimit, overflowPolicy, executor,
+            closeExecutor, metrics, codec);
+    }
+
+    /**
+     * Queue the same frame for all sessions without blocking the caller.
+     *
+     * @param outbounds Collection of WebSocketOutbound
+     * @param frame     Frame encoded once by the caller
+     */
+    public void broadcast(final Collection<WebSocketOutbound> outbounds, final WebSocketOutbound.Frame frame) {
+        outbounds.forEach(outbound -> outbound.offer(frame));
+    }
+
+    /**
+     * Close a session that has no outbound queue on the close pool, so the caller does not wait for the close frame.
+     *
+     * @param session WebSocketSession
+     * @param status  CloseStatus
+     */
+    public void close(final WebSocketSession session, final CloseStatus status) {
+        try {
+            closeExecutor.execute(() -> closeSession(session, status));
+        } catch (RejectedExecutionException e) {
+            closeSession(session, status);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        closeExecutor.shutdown();
+    }
+
+    private static void closeSession(final WebSocketSession session, final CloseStatus status) {
+        try {
+            session.close(status);
+        } catch (Exception e) {
+            log.error("Exception while closing session {}: {}", session.getId(), ExceptionUtils.getMessage(e));
+        }
+    }
+}
@@ -3,109 +3,188 @@ package com.mewebstudio.javaspringbootboilerplate.service.websocket;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mewebstudio.javaspringbootboilerplate.dto.ws.WebsocketIdentifier;
 import com.mewebstudio.javaspringbootboilerplate.dto.ws.WsRequestBody;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
 import java.io.IOException;
 import java.time.Instant;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class WebSocketCacheService {
-    private static final Map<String, WebsocketIdentifier> USER_SESSION_CACHE = new ConcurrentHashMap<>();
+    private static final WebSocketSessionRegistry USER_SESSION_CACHE = new WebSocketSessionRegistry();
 
     private static final String EXCEPTION_MESSAGE = "Exception while sending message: {}";
 
     private final ObjectMapper objectMapper;
 
+    private final WebSocketBroadcaster webSocketBroadcaster;
+
+    private final WebSocketRouter webSocketRouter;
+
+    /**
+     * Deliver the frames other nodes route to this one, and tell the router which users are connected here.
+     */
+    @PostConstruct
+    public void init() {
+        webSocketRouter.setDelivery(this::deliverLocal);
+        webSocketRouter.setLocalUsers(() -> getAllWebSocketSession().stream()
+                .map(WebsocketIdentifier::getUserId)
+                .collect(Collectors.toSet()));
+    }
+
     /**
      * Get all websocket session cache.
-     * @return map of websocket session cache.
+     * @return every session of every user connected to this node.
      */
-    public Map<String, WebsocketIdentifier> getAllWebSocketSession() {
-        return USER_SESSION_CACHE;
+    public List<WebsocketIdentifier> getAllWebSocketSession() {
+        return USER_SESSION_CACHE.all();
     }
 
     /**
-     * Add websocket session cache.
+     * Add websocket session cache. The other sessions of the user, e.g. another tab or device, are kept.
      * @param data websocket session cache.
+     * @return true when this is the first session of the user in the cluster.
      */
-    public void put(WebsocketIdentifier data) {
-        USER_SESSION_CACHE.put(data.getUserId(), data);
-        broadCastMessage(data.getUserId(), "login");
-        broadCastAllUserList(data.getUserId());
+    public boolean put(WebsocketIdentifier data) {
+        data.setOutbound(webSocketBroadcaster.open(data.getSession()));
+        List<WebsocketIdentifier> current = getSessions(data.getUserId());
+        WebsocketIdentifier previous = USER_SESSION_CACHE.add(data);
+        if (previous != null && previous.getOutbound() != null) {
+            previous.getOutbound().release();
+        }
+        if (!current.isEmpty()) {
+            return false;
+        }
+        return webSocketRouter.register(data.getUserId());
     }
 
     /**
-     * Get or default websocket session cache.
-     * @param key key of websocket session cache.
-     * @return websocket session cache.
+     * Get the sessions of a user.
+     * @param userId user of the sessions.
+     * @return sessions of the user on this node, empty when there is none.
      */
-    public WebsocketIdentifier getOrDefault(String key) {
-        return USER_SESSION_CACHE.getOrDefault(key, null);
+    public List<WebsocketIdentifier> getSessions(String userId) {
+        return USER_SESSION_CACHE.get(userId);
     }
 
     /**
-     * Remove websocket session cache.
-     * @param key key of websocket session cache.
+     * Get one session of a user.
+     * @param userId user of the session.
+     * @param session websocket session.
+     * @return websocket session cache, null when the session is not cached.
      */
-    public void deleteSession(String key) {
-        WebsocketIdentifier websocketIdentifier = getOrDefault(key);
-        if (websocketIdentifier == null || websocketIdentifier.getSession() == null){
-            log.error("Unable to remove the websocket session; serious error!");
-            return;
+    public WebsocketIdentifier getSession(String userId, WebSocketSession session) {
+        return USER_SESSION_CACHE.get(userId, session);
+    }
+
+    /**
+     * Remove one session of a user; the other sessions of the user are left alone.
+     * @param data websocket session cache.
+     * @return true when it was the last session of the user in the cluster.
+     */
+    public boolean deleteSession(WebsocketIdentifier data) {
+        WebsocketIdentifier cached = getSession(data.getUserId(), data.getSession());
+        if (cached == null) {
+            return false;
         }
-        USER_SESSION_CACHE.remove(key);
-        broadCastMessage(websocketIdentifier.getUserId(), "logout");
-    }
-
-    /**
-     * Broadcast message to all websocket session cache.
-     * @param message message to broadcast.
-     */
-    private void broadCastMessage(String message, String type) {
-        WsRequestBody wsRequestBody = new WsRequestBody();
-        wsRequestBody.setContent(message);
-        wsRequestBody.setDate(Instant.now().toEpochMilli());
-        wsRequestBody.setType(type);
-        Map<String, WebsocketIdentifier> allWebSocketSession = getAllWebSocketSession();
-        for (Map.Entry<String, WebsocketIdentifier> entry : allWebSocketSession.entrySet()) {
-            try {
-                entry.getValue().getSession()
-                        .sendMessage(new TextMessage(objectMapper.writeValueAsString(wsRequestBody)));
-            } catch (Exception e) {
-                log.error("Exception while broadcasting: {}", ExceptionUtils.getMessage(e));
-            }
+        boolean last = USER_SESSION_CACHE.remove(cached);
+        if (cached.getOutbound() != null) {
+            cached.getOutbound().release();
+        }
+        return last && webSocketRouter.unregister(data.getUserId());
+    }
+
+    /**
+     * Close the local sessions whose token has expired. The token is only verified at handshake, so this sweep is
+     * what ends a session once its token runs out; closing it unregisters the session through the handler. The
+     * sweep only queues the closes.
+     */
+    @Scheduled(fixedDelayString = "${app.websocket.expiry-sweep-interval}")
+    public void closeExpired() {
+        Instant now = Instant.now();
+        getAllWebSocketSession().stream()
+                .filter(identifier -> identifier.getExpiresAt() != null && !identifier.getExpiresAt().isAfter(now))
+                .forEach(this::close);
+    }
+
+    /**
+     * Broadcast a frame stamped with the next version of a cluster-wide counter. The router versions, logs and
+     * publishes it in one step, so all nodes see the frames in version order; the stamped frame is then handed to the
+     * local sessions.
+     * @param versionKey key of the counter.
+     * @param logKey key of the log of the latest frames.
+     * @param retained frames kept in the log.
+     * @param template encoded frame.
+     * @param placeholder part of the template replaced with the version.
+     */
+    public void broadcastVersionedFrame(final String versionKey, final String logKey, final int retained,
+                                        final String template, final String placeholder) {
+        String payload = webSocketRouter.broadcastVersioned(versionKey, logKey, retained, template, placeholder);
+        if (payload != null) {
+            broadcastLocal(payload, null);
+        }
+    }
+
+    /**
+     * Send an encoded frame to every session of a user on any node.
+     * @param to recipient user.
+     * @param payload encoded frame.
+     * @param key coalescing key, null when the frame must not be coalesced.
+     */
+    public void sendFrame(final String to, final String payload, final String key) {
+        route(to, payload, key);
+    }
+
+    /**
+     * Send an encoded frame to one local session only, e.g. the presence snapshot of a new tab.
+     * @param to recipient session.
+     * @param payload encoded frame.
+     * @param key coalescing key, null when the frame must not be coalesced.
+     */
+    public void sendFrame(final WebsocketIdentifier to, final String payload, final String key) {
+        if (!offer(to, new TextMessage(payload), key)) {
+            log.warn("Frame for a session of {} arrived after the session was closed", to.getUserId());
         }
     }
 
+    /**
+     * Hand one frame to every session connected to this node.
+     * @param payload encoded frame.
+     * @param key coalescing key.
+     */
+    private void broadcastLocal(final String payload, final String key) {
+        webSocketBroadcaster.broadcast(getAllWebSocketSession().stream()
+                .map(WebsocketIdentifier::getOutbound)
+                .filter(Objects::nonNull)
+                .toList(), new WebSocketOutbound.Frame(new TextMessage(payload), key));
+    }
+
     /**
      * Broadcast message to specific websocket session cache.
      * @param requestBody message to send.
      */
     @Transactional
     public void sendPrivateMessage(WsRequestBody requestBody) {
-        WebsocketIdentifier userTo = getOrDefault(requestBody.getTo());
-        if (userTo == null) {
-            log.error("User or Session not found in cache for user: {}, returning...", requestBody.getTo());
-            return;
-        }
         requestBody.setType("private");
         Instant now = Instant.now();
         requestBody.setDate(now.toEpochMilli());
         String payload;
         try {
             payload = objectMapper.writeValueAsString(requestBody);
-            if (userTo.getSession() != null) {
-                userTo.getSession().sendMessage(new TextMessage(payload));
-                log.info("Message successfully send to {}", userTo);
+            if (route(requestBody.getTo(), payload, null)) {
+                log.info("Message successfully queued for {}", requestBody.getTo());
             }
         } catch (Exception e) {
             log.error(EXCEPTION_MESSAGE, ExceptionUtils.getMessage(e));
@@ -118,11 +197,11 @@ public class WebSocketCacheService {
      * @param payload message to send.
      */
     public void sendMessage(final String from, final String to, final String type, final String payload) {
-        WebsocketIdentifier userTo = getOrDefault(to);
-        if (userTo == null || userTo.getSession() == null) {
-            log.error("User or Session not found in cache for user: {}, returning...", to);
-            return;
-        }
+        sendMessage(from, to, type, payload, null);
+    }
+
+    private void sendMessage(final String from, final String to, final String type, final String payload,
+                             final String key) {
         WsRequestBody requestBody = new WsRequestBody();
         requestBody.setFrom(from);
         requestBody.setTo(to);
@@ -130,17 +209,100 @@ public class WebSocketCacheService {
         requestBody.setContent(payload);
         requestBody.setType(type);
         try {
-            userTo.getSession().sendMessage(new TextMessage(objectMapper.writeValueAsString(requestBody)));
+            route(to, objectMapper.writeValueAsString(requestBody), key);
         } catch (IOException e) {
             log.error(EXCEPTION_MESSAGE, ExceptionUtils.getMessage(e));
         }
     }
 
     /**
-     * Broadcast message to all websocket session cache.
-     * @param user user to broadcast.
+     * Reply to the sender of an inbound message through its outbound queue, so the reply does not race with the
+     * frames the writer is sending. Falls back to the session itself when it is not cached.
+     * @param session session the inbound message arrived on.
+     * @param userId user of the session.
+     * @param text text to reply with.
+     */
+    public void reply(final WebSocketSession session, final String userId, final String text) throws IOException {
+        WebsocketIdentifier identifier = getSession(userId, session);
+        if (identifier == null || !offer(identifier, new TextMessage(text), null)) {
+            session.sendMessage(new TextMessage(text));
+        }
+    }
+
+    /**
+     * Queue a frame for every session of a user connected to this node and forward it to the other nodes the user is
+     * connected to, so every tab and device of the user receives it.
+     * @param to recipient user.
+     * @param payload encoded frame.
+     * @param key coalescing key, null when the frame must not be coalesced.
+     * @return true when the frame was queued or forwarded.
+     */
+    private boolean route(final String to, final String payload, final String key) {
+        boolean queued = offer(getSessions(to), payload, key);
+        boolean forwarded = webSocketRouter.forward(to, payload, key);
+        boolean routed = queued || forwarded;
+        if (!routed) {
+            log.error("User or Session not found in cluster for user: {}, returning...", to);
+        }
+        return routed;
+    }
+
+    /**
+     * Deliver a frame routed from another node.
+     * @param to recipient user, null for all local sessions.
+     * @param payload encoded frame.
+     * @param key coalescing key.
      */
-    private void broadCastAllUserList(final String user) {
-        sendMessage("server", user, "online", StringUtils.join(USER_SESSION_CACHE.keySet(), ','));
+    private void deliverLocal(final String to, final String payload, final String key) {
+        if (to == null) {
+            broadcastLocal(payload, key);
+            return;
+        }
+        if (!offer(getSessions(to), payload, key)) {
+            log.warn("Routed frame for user {} arrived after the session was closed", to);
+        }
+    }
+
+    /**
+     * Queue one frame on the outbound queues of the sessions of a user; the frame is shared by the sessions.
+     * @param sessions cached sessions of the user.
+     * @param payload encoded frame.
+     * @param key coalescing key, null when the frame must not be coalesced.
+     * @return true when the frame was queued for at least one session.
+     */
+    private boolean offer(final List<WebsocketIdentifier> sessions, final String payload, final String key) {
+        WebSocketOutbound.Frame frame = new WebSocketOutbound.Frame(new TextMessage(payload), key);
+        boolean queued = false;
+        for (WebsocketIdentifier identifier : sessions) {
+            WebSocketOutbound outbound = identifier.getOutbound();
+            queued |= outbound != null && outbound.offer(frame);
+        }
+        return queued;
+    }
+
+    /**
+     * Queue a frame on the outbound queue of a cached session.
+     * @param identifier cached session.
+     * @param message encoded frame.
+     * @param key coalescing key, null when the frame must not be coalesced.
+     * @return true when the frame was queued.
+     */
+    private boolean offer(final WebsocketIdentifier identifier, final TextMessage message, final String key) {
+        WebSocketOutbound outbound = identifier.getOutbound();
+        return outbound != null && outbound.offer(new WebSocketOutbound.Frame(message, key));
+    }
+
+    /**
+     * Close an expired session on the close pool of the broadcaster, so a close stuck behind a write does not hold
+     * the scheduler thread.
+     * @param identifier cached session.
+     */
+    private void close(final WebsocketIdentifier identifier) {
+        log.info("Closing websocket session of {}, the token has expired", identifier.getUserId());
+        if (identifier.getOutbound() != null) {
+            identifier.getOutbound().close(CloseStatus.POLICY_VIOLATION);
+            return;
+        }
+        webSocketBroadcaster.close(identifier.getSession(), CloseStatus.POLICY_VIOLATION);
     }
 }
@@ -0,0 +1,90 @@
+package com.mewebstudio.javaspringbootboilerplate.service.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.mewebstudio.javaspringbootboilerplate.dto.ws.WsRequestBody;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Wire format of the websocket frames. Clients that negotiate the {@value #CBOR_PROTOCOL} sub-protocol at handshake
+ * exchange CBOR binary frames with the same fields as the JSON ones; every other client keeps JSON text frames.
+ * Frames are built, routed and queued as JSON, and only transcoded for binary sessions when they are written.
+ */
+@Component
+public class WebSocketCodec {
+    public static final String JSON_PROTOCOL = "json";
+
+    public static final String CBOR_PROTOCOL = "cbor";
+
+    private final ObjectMapper objectMapper;
+
+    private final CBORMapper cborMapper = new CBORMapper();
+
+    /**
+     * WebSocket codec constructor.
+     *
+     * @param objectMapper ObjectMapper
+     */
+    public WebSocketCodec(final ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Whether the session negotiated binary frames.
+     *
+     * @param session WebSocketSession
+     * @return boolean
+     */
+    public boolean isBinary(final WebSocketSession session) {
+        return CBOR_PROTOCOL.equals(session.getAcceptedProtocol());
+    }
+
+    /**
+     * Decode an inbound text frame.
+     *
+     * @param message TextMessage
+     * @return WsRequestBody
+     * @throws IOException when the frame is not a valid request
+     */
+    public WsRequestBody decode(final TextMessage message) throws IOException {
+        return objectMapper.readValue(message.getPayload(), WsRequestBody.class);
+    }
+
+    /**
+     * Decode an inbound binary frame.
+     *
+     * @param message BinaryMessage
+     * @return WsRequestBody
+     * @throws IOException when the frame is not a valid request
+     */
+    public WsRequestBody decode(final BinaryMessage message) throws IOException {
+        ByteBuffer buffer = message.getPayload();
+        if (buffer.hasArray()) {
+            return cborMapper.readValue(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining(),
+                WsRequestBody.class);
+        }
+
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+
+        return cborMapper.readValue(bytes, WsRequestBody.class);
+    }
+
+    /**
+     * Transcode a JSON frame to its CBOR form without binding it to a type, so every frame the server sends can be
+     * written to binary sessions.
+     *
+     * @param json String
+     * @return BinaryMessage
+     * @throws IOException when the frame is not valid JSON
+     */
+    public BinaryMessage toBinary(final String json) throws IOException {
+        return new BinaryMessage(cborMapper.writeValueAsBytes(objectMapper.readTree(json)));
+    }
+}
@@ -0,0 +1,213 @@
+package com.mewebstudio.javaspringbootboilerplate.service.websocket;
+
+import com.mewebstudio.javaspringbootboilerplate.dto.ws.WebsocketIdentifier;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Pings the local websocket sessions and reaps the ones that stopped answering. Without it a half-open connection or
+ * a crashed client keeps its cache entry, outbound queue and socket buffers until the operating system gives up on
+ * the connection, which can take hours.
+ * <p>
+ * Sessions sit on a hashed timing wheel with one slot per tick and one rotation per ping interval. Every tick visits
+ * a single slot: the sessions in it get their ping, or are reaped when nothing arrived from them within the timeout.
+ * A tick therefore touches only the sessions due in it, whatever the total number of sessions, and registering or
+ * removing a session is a set operation on its slot. Reaped sessions are closed at most {@code evictBatchSize} per
+ * tick, so a network partition does not close every session in one pass. The closes run on the close pool of the
+ * {@link WebSocketBroadcaster}: a half-open peer's close waits behind its stuck write, which must not hold the
+ * scheduler thread.
+ */
+@Slf4j
+@Component
+public class WebSocketHeartbeat {
+    private static final String PREFIX = "websocket.heartbeat.";
+
+    private final long timeout;
+
+    private final int evictBatchSize;
+
+    private final WebSocketLifecycleDispatcher webSocketLifecycleDispatcher;
+
+    private final WebSocketBroadcaster webSocketBroadcaster;
+
+    private final Set<Entry>[] wheel;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final Queue<Entry> dead = new ConcurrentLinkedQueue<>();
+
+    private final Counter pings;
+
+    private final Counter evicted;
+
+    private int cursor;
+
+    /**
+     * WebSocket heartbeat constructor.
+     *
+     * @param tick                         long milliseconds between two ticks of the wheel
+     * @param pingInterval                 long milliseconds between two pings of a session
+     * @param timeout                      long milliseconds without any inbound frame before a session is reaped
+     * @param evictBatchSize               int sessions closed per tick at most
+     * @param webSocketLifecycleDispatcher WebSocketLifecycleDispatcher
+     * @param webSocketBroadcaster         WebSocketBroadcaster
+     * @param meterRegistry                MeterRegistry
+     */
+    @SuppressWarnings("unchecked")
+    public WebSocketHeartbeat(
+        @Value("${app.websocket.heartbeat.tick}") final long tick,
+        @Value("${app.websocket.heartbeat.ping-interval}") final long pingInterval,
+        @Value("${app.websocket.heartbeat.timeout}") final long timeout,
+        @Value("${app.websocket.heartbeat.evict-batch-size}") final int evictBatchSize,
+        final WebSocketLifecycleDispatcher webSocketLifecycleDispatcher,
+        final WebSocketBroadcaster webSocketBroadcaster,
+        final MeterRegistry meterRegistry
+    ) {
+        this.timeout = timeout;
+        this.evictBatchSize = evictBatchSize;
+        this.webSocketLifecycleDispatcher = webSocketLifecycleDispatcher;
+        this.webSocketBroadcaster = webSocketBroadcaster;
+        this.wheel = new Set[(int) Math.max(1, pingInterval / tick)];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = ConcurrentHashMap.newKeySet();
+        }
+
+        meterRegistry.gaugeMapSize(PREFIX + "sessions", Tags.empty(), entries);
+        pings = Counter.builder(PREFIX + "pings")
+            .description("Pings queued to websocket sessions")
+            .register(meterRegistry);
+        evicted = Counter.builder(PREFIX + "evicted")
+            .description("Websocket sessions closed for not answering")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Start tracking a session. Its first ping goes out one full rotation from now.
+     *
+     * @param identifier WebsocketIdentifier
+     */
+    public void register(final WebsocketIdentifier identifier) {
+        int slot;
+        synchronized (wheel) {
+            slot = cursor;
+        }
+
+        Entry entry = new Entry(identifier, slot);
+        Entry previous = entries.put(identifier.getSession().getId(), entry);
+        if (previous != null) {
+            wheel[previous.slot].remove(previous);
+        }
+        wheel[slot].add(entry);
+    }
+
+    /**
+     * Stop tracking a closed session and drop its slot entry right away.
+     *
+     * @param session WebSocketSession
+     */
+    public void unregister(final WebSocketSession session) {
+        Entry entry = entries.remove(session.getId());
+        if (entry != null) {
+            wheel[entry.slot].remove(entry);
+        }
+    }
+
+    /**
+     * Record that something arrived on a session: a pong, or any other frame, which proves the connection as well.
+     *
+     * @param session WebSocketSession
+     */
+    public void touch(final WebSocketSession session) {
+        Entry entry = entries.get(session.getId());
+        if (entry != null) {
+            entry.lastSeen = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Advance the wheel by one slot, ping or reap the sessions in it, then close one batch of the reaped sessions.
+     */
+    @Scheduled(fixedRateString = "${app.websocket.heartbeat.tick}")
+    public void tick() {
+        Set<Entry> slot;
+        synchronized (wheel) {
+            cursor = (cursor + 1) % wheel.length;
+            slot = wheel[cursor];
+        }
+
+        long now = System.currentTimeMillis();
+        for (Entry entry : slot) {
+            if (now - entry.lastSeen >= timeout) {
+                slot.remove(entry);
+                entries.remove(entry.identifier.getSession().getId(), entry);
+                dead.add(entry);
+                continue;
+            }
+
+            WebSocketOutbound outbound = entry.identifier.getOutbound();
+            if (outbound != null && outbound.ping()) {
+                pings.increment();
+            }
+        }
+
+        evict();
+    }
+
+    /**
+     * Close up to one batch of reaped sessions and remove them from the cache without waiting for the container to
+     * notice the connection is gone. Only the closes are queued here; none of them is waited for.
+     */
+    private void evict() {
+        for (int i = 0; i < evictBatchSize; i++) {
+            Entry entry = dead.poll();
+            if (entry == null) {
+                return;
+            }
+
+            WebsocketIdentifier identifier = entry.identifier;
+            log.info("Closing websocket session of {}, no answer for {} ms", identifier.getUserId(), timeout);
+            if (identifier.getOutbound() != null) {
+                identifier.getOutbound().close(CloseStatus.SESSION_NOT_RELIABLE);
+            } else {
+                webSocketBroadcaster.close(identifier.getSession(), CloseStatus.SESSION_NOT_RELIABLE);
+            }
+            webSocketLifecycleDispatcher.disconnected(identifier);
+            evicted.increment();
+        }
+    }
+
+    /**
+     * Tracked session with the time anything last arrived from it.
+     */
+    private static final class Entry {
+        private final WebsocketIdentifier identifier;
+
+        private final int slot;
+
+        private volatile long lastSeen = System.currentTimeMillis();
+
+        /**
+         * Entry constructor.
+         *
+         * @param identifier WebsocketIdentifier
+         * @param slot       int wheel slot the session is pinged in
+         */
+        Entry(final WebsocketIdentifier identifier, final int slot) {
+            this.identifier = identifier;
+            this.slot = slot;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.mewebstudio.javaspringbootboilerplate.service.websocket;
 
 import com.mewebstudio.javaspringbootboilerplate.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -17,18 +19,36 @@ import static com.mewebstudio.javaspringbootboilerplate.util.Constants.getTokenF
 @Service
 @RequiredArgsConstructor
 public class WebSocketInterceptor extends HttpSessionHandshakeInterceptor {
+    public static final String USER_ID_ATTRIBUTE = "userId";
+
+    public static final String TOKEN_ATTRIBUTE = "token";
+
+    public static final String EXPIRES_AT_ATTRIBUTE = "expiresAt";
 
     private final JwtTokenProvider jwtTokenProvider;
 
+    /**
+     * Validate the token once and keep the identity in the session attributes for the handler; expired sessions are
+     * closed by {@link WebSocketCacheService#closeExpired()}.
+     */
     @Override
     public boolean beforeHandshake(@NonNull ServerHttpRequest request, @NonNull ServerHttpResponse response,
                                    @NonNull WebSocketHandler wsHandler, @NonNull Map<String, Object> attributes) {
         log.debug("Received an incoming websocket channel request");
         String token = getTokenFromPath(request.getURI().getPath());
-        if (token == null || !jwtTokenProvider.validateToken(token, false)) {
+        Claims claims = null;
+        try {
+            claims = token == null ? null : jwtTokenProvider.validateAndGetClaims(token, false);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.error("Unable to parse the WebSocket token: {}", e.getMessage());
+        }
+        if (claims == null) {
             log.error("Invalid token or token not present in WebSocket request");
             return false;
         }
+        attributes.put(USER_ID_ATTRIBUTE, claims.getSubject());
+        attributes.put(TOKEN_ATTRIBUTE, token);
+        attributes.put(EXPIRES_AT_ATTRIBUTE, claims.getExpiration().toInstant());
         return true;
     }
 
@@ -0,0 +1,227 @@
+package com.mewebstudio.javaspringbootboilerplate.service.websocket;
+
+import com.mewebstudio.javaspringbootboilerplate.dto.ws.WebsocketIdentifier;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the connect and disconnect work of the websocket sessions off the container threads. Registering a session
+ * touches Redis and sends the presence snapshot, which grows with the number of online users; doing it on the thread
+ * that completed the handshake made every handshake of a reconnect storm wait for the ones before it.
+ * <p>
+ * Users are spread over a fixed number of stripes by id. A stripe keeps at most one pending event per session and is
+ * drained by one task at a time, so the events of a user are applied in order while different stripes run in
+ * parallel. A disconnect cancels a pending connect of the same session, so a client that gives up during a storm
+ * costs nothing. When a stripe is full, new connects are refused with SERVICE_OVERLOAD and the client is expected to
+ * retry with backoff.
+ */
+@Slf4j
+@Component
+public class WebSocketLifecycleDispatcher {
+    private static final String PREFIX = "websocket.lifecycle.";
+
+    private final WebSocketCacheService webSocketCacheService;
+
+    private final PresenceService presenceService;
+
+    private final Stripe[] stripes;
+
+    private final int stripeCapacity;
+
+    private final ExecutorService executor;
+
+    private final AtomicLong pending = new AtomicLong();
+
+    private final Counter coalesced;
+
+    private final Counter rejected;
+
+    /**
+     * WebSocket lifecycle dispatcher constructor.
+     *
+     * @param threads               int stripes, each drained by at most one worker at a time
+     * @param capacity              int pending events over all stripes before connects are refused
+     * @param webSocketCacheService WebSocketCacheService
+     * @param presenceService       PresenceService
+     * @param meterRegistry         MeterRegistry
+     */
+    public WebSocketLifecycleDispatcher(
+        @Value("${app.websocket.lifecycle.threads}") final int threads,
+        @Value("${app.websocket.lifecycle.capacity}") final int capacity,
+        final WebSocketCacheService webSocketCacheService,
+        final PresenceService presenceService,
+        final MeterRegistry meterRegistry
+    ) {
+        this.webSocketCacheService = webSocketCacheService;
+        this.presenceService = presenceService;
+        this.stripes = new Stripe[threads];
+        for (int i = 0; i < threads; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.stripeCapacity = Math.max(1, capacity / threads);
+        this.executor = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("ws-lifecycle-"));
+
+        meterRegistry.gauge(PREFIX + "pending", pending);
+        coalesced = Counter.builder(PREFIX + "coalesced")
+            .description("Lifecycle events merged with a pending event of the same user")
+            .register(meterRegistry);
+        rejected = Counter.builder(PREFIX + "rejected")
+            .description("Connections refused because the lifecycle queue was full")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Queue the registration of a new session.
+     *
+     * @param identifier WebsocketIdentifier
+     */
+    public void connected(final WebsocketIdentifier identifier) {
+        if (!stripe(identifier).offer(new Event(true, identifier))) {
+            log.warn("Lifecycle queue is full, refusing the session of {}", identifier.getUserId());
+            rejected.increment();
+            try {
+                identifier.getSession().close(CloseStatus.SERVICE_OVERLOAD);
+            } catch (Exception e) {
+                log.error("Exception while refusing session: {}", ExceptionUtils.getMessage(e));
+            }
+        }
+    }
+
+    /**
+     * Queue the removal of a closed session. Never refused: it is bounded by the sessions already registered.
+     *
+     * @param identifier WebsocketIdentifier
+     */
+    public void disconnected(final WebsocketIdentifier identifier) {
+        stripe(identifier).offer(new Event(false, identifier));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private Stripe stripe(final WebsocketIdentifier identifier) {
+        return stripes[Math.floorMod(identifier.getUserId().hashCode(), stripes.length)];
+    }
+
+    /**
+     * Apply one event. Presence only changes with the first and the last session of a user in the cluster; every new
+     * session gets its own snapshot.
+     *
+     * @param event Event
+     */
+    private void apply(final Event event) {
+        WebsocketIdentifier identifier = event.identifier();
+        String userId = identifier.getUserId();
+        try {
+            if (event.connect()) {
+                if (webSocketCacheService.put(identifier)) {
+                    presenceService.join(userId);
+                }
+                presenceService.sendSnapshot(identifier);
+                return;
+            }
+
+            if (webSocketCacheService.deleteSession(identifier)) {
+                presenceService.leave(userId);
+            }
+        } catch (Exception e) {
+            log.error("Lifecycle event of {} failed: {}", userId, ExceptionUtils.getMessage(e));
+        }
+    }
+
+    /**
+     * Connect or disconnect of a session.
+     *
+     * @param connect    boolean true for a new session
+     * @param identifier WebsocketIdentifier
+     */
+    private record Event(boolean connect, WebsocketIdentifier identifier) {
+    }
+
+    /**
+     * Pending events of a share of the users, at most one per session, in arrival order.
+     */
+    private final class Stripe {
+        private final Map<String, Event> events = new LinkedHashMap<>();
+
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        /**
+         * Queue or merge an event.
+         *
+         * @param event Event
+         * @return boolean false when a connect found the stripe full
+         */
+        boolean offer(final Event event) {
+            String sessionId = event.identifier().getSession().getId();
+            synchronized (events) {
+                Event previous = events.get(sessionId);
+                if (previous == null) {
+                    if (event.connect() && events.size() >= stripeCapacity) {
+                        return false;
+                    }
+                    events.put(sessionId, event);
+                    pending.incrementAndGet();
+                } else {
+                    coalesced.increment();
+                    if (!event.connect() && previous.connect()) {
+                        events.remove(sessionId);
+                        pending.decrementAndGet();
+                    }
+                }
+            }
+
+            if (draining.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+
+            return true;
+        }
+
+        /**
+         * Apply the pending events, then hand the worker back. Re-checks after clearing the flag so an event queued
+         * in between is not left behind.
+         */
+        private void drain() {
+            while (true) {
+                Event event;
+                synchronized (events) {
+                    Iterator<Event> iterator = events.values().iterator();
+                    if (!iterator.hasNext()) {
+                        break;
+                    }
+                    event = iterator.next();
+                    iterator.remove();
+                }
+
+                pending.decrementAndGet();
+                apply(event);
+            }
+
+            draining.set(false);
+            synchronized (events) {
+                if (events.isEmpty() || !draining.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+            executor.execute(this::drain);
+        }
+    }
+}
@@ -0,0 +1,377 @@
+package com.mewebstudio.javaspringbootboilerplate.service.websocket;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.PingMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bounded outbound queue of one websocket session. Any thread may offer frames; a single drain task on the shared
+ * executor is the only writer of the session, so {@link WebSocketSession#sendMessage} is never called concurrently.
+ * What happens when the queue is full is decided by the {@link OverflowPolicy}.
+ * <p>
+ * A write that blocks on a client which stopped reading holds its worker until the container's blocking send timeout,
+ * so every write has a shorter deadline: the next offer, a heartbeat ping at the latest, closes the session once the
+ * write in progress took longer than the send time limit. Closing a session sends a close frame, which waits behind
+ * the stuck write, so the queue is marked closed and cleared inline and the close itself runs on the close executor;
+ * an offer never blocks the thread that makes it.
+ */
+@Slf4j
+public class WebSocketOutbound {
+    private final WebSocketSession session;
+
+    private final int capacity;
+
+    private final int drainBatchSize;
+
+    private final long sendTimeLimit;
+
+    private final OverflowPolicy overflowPolicy;
+
+    private final Executor executor;
+
+    private final Executor closeExecutor;
+
+    private final WebSocketOutboundMetrics metrics;
+
+    private final WebSocketCodec codec;
+
+    private final boolean binary;
+
+    private final Deque<Slot> queue = new ArrayDeque<>();
+
+    private final Map<String, Slot> keyed = new HashMap<>();
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    private volatile long sendStartedAt;
+
+    @Getter
+    private volatile boolean closed;
+
+    /**
+     * WebSocket outbound constructor.
+     *
+     * @param session        WebSocketSession
+     * @param capacity       int maximum number of queued frames
+     * @param drainBatchSize int frames written before the drain task yields the worker
+     * @param sendTimeLimit  long milliseconds a single write may take before the session is closed
+     * @param overflowPolicy OverflowPolicy
+     * @param executor       Executor running the drain task
+     * @param closeExecutor  Executor closing the session
+     * @param metrics        WebSocketOutboundMetrics
+     * @param codec          WebSocketCodec writing binary frames when the session negotiated them
+     */
+    public WebSocketOutbound(final WebSocketSession session, final int capacity, final int drainBatchSize,
+                             final long sendTimeLimit, final OverflowPolicy overflowPolicy, final Executor executor,
+                             final Executor closeExecutor, final WebSocketOutboundMetrics metrics,
+                             final WebSocketCodec codec) {
+        this.session = session;
+        this.capacity = capacity;
+        this.drainBatchSize = drainBatchSize;
+        this.sendTimeLimit = sendTimeLimit;
+        this.overflowPolicy = overflowPolicy;
+        this.executor = executor;
+        this.closeExecutor = closeExecutor;
+        this.metrics = metrics;
+        this.codec = codec;
+        this.binary = codec.isBinary(session);
+    }
+
+    /**
+     * Queue a frame and make sure a drain task is scheduled. Closes the session instead when the write in progress
+     * passed the send time limit.
+     *
+     * @param frame Frame
+     * @return boolean false when the frame was not queued
+     */
+    public boolean offer(final Frame frame) {
+        if (closed) {
+            return false;
+        }
+
+        long startedAt = sendStartedAt;
+        if (startedAt != 0 && System.currentTimeMillis() - startedAt > sendTimeLimit) {
+            log.warn("Write to session {} takes longer than {} ms, closing", session.getId(), sendTimeLimit);
+            metrics.timedOut();
+            close(CloseStatus.SESSION_NOT_RELIABLE);
+            return false;
+        }
+
+        boolean disconnect = false;
+        synchronized (queue) {
+            if (closed) {
+                return false;
+            }
+
+            Slot queued = overflowPolicy == OverflowPolicy.COALESCE && frame.key() != null
+                ? keyed.get(frame.key()) : null;
+            if (queued != null) {
+                queued.frame = frame;
+                metrics.coalesced();
+            } else if (queue.size() < capacity) {
+                add(frame);
+                metrics.queued(1);
+            } else if (overflowPolicy == OverflowPolicy.DISCONNECT) {
+                disconnect = true;
+            } else {
+                poll();
+                add(frame);
+                metrics.dropped();
+            }
+        }
+
+        if (disconnect) {
+            log.warn("Outbound queue of session {} is full, disconnecting", session.getId());
+            metrics.disconnected();
+            close(CloseStatus.SESSION_NOT_RELIABLE);
+            return false;
+        }
+
+        schedule();
+
+        return true;
+    }
+
+    /**
+     * Queue a ping behind the frames already waiting, so it is written by the drain task like any other frame. A
+     * session whose queue does not move does not get its ping out and is reaped by the heartbeat.
+     *
+     * @return boolean false when the ping was not queued
+     */
+    public boolean ping() {
+        return offer(Frame.PING);
+    }
+
+    /**
+     * Number of frames waiting to be written.
+     *
+     * @return int
+     */
+    public int size() {
+        synchronized (queue) {
+            return queue.size();
+        }
+    }
+
+    /**
+     * Drop the queued frames and close the session on the close executor, without waiting for the close frame to be
+     * written. Closes inline once the executor is shut down.
+     *
+     * @param status CloseStatus
+     */
+    public void close(final CloseStatus status) {
+        clear();
+        try {
+            closeExecutor.execute(() -> closeSession(status));
+        } catch (RejectedExecutionException e) {
+            closeSession(status);
+        }
+    }
+
+    /**
+     * Release the queue of a session that is already closed.
+     */
+    public void release() {
+        clear();
+    }
+
+    private void closeSession(final CloseStatus status) {
+        try {
+            session.close(status);
+        } catch (Exception e) {
+            log.error("Exception while closing session {}: {}", session.getId(), ExceptionUtils.getMessage(e));
+        }
+    }
+
+    /**
+     * Mark the queue closed and give its frames back to the gauge. Both happen under the lock, so an offer racing
+     * with it either lands before and is cleared, or sees the queue closed.
+     */
+    private void clear() {
+        synchronized (queue) {
+            closed = true;
+            metrics.queued(-queue.size());
+            queue.clear();
+            keyed.clear();
+        }
+    }
+
+    /**
+     * Append a frame; under {@link OverflowPolicy#COALESCE} a keyed frame is indexed, so a later frame with the same
+     * key replaces it in place without a scan of the queue.
+     *
+     * @param frame Frame
+     */
+    private void add(final Frame frame) {
+        Slot slot = new Slot(frame);
+        queue.addLast(slot);
+        if (overflowPolicy == OverflowPolicy.COALESCE && frame.key() != null) {
+            keyed.put(frame.key(), slot);
+        }
+    }
+
+    /**
+     * Take the oldest frame off the queue and out of the index.
+     *
+     * @return Frame or null when the queue is empty
+     */
+    private Frame poll() {
+        Slot slot = queue.pollFirst();
+        if (slot == null) {
+            return null;
+        }
+
+        if (slot.frame.key() != null) {
+            keyed.remove(slot.frame.key(), slot);
+        }
+
+        return slot.frame;
+    }
+
+    private void schedule() {
+        if (draining.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    /**
+     * Write up to one batch of frames, then hand the worker back. Re-checks the queue after clearing the flag so a
+     * frame offered in between is not left behind.
+     */
+    private void drain() {
+        for (int i = 0; i < drainBatchSize && !closed; i++) {
+            Frame frame;
+            synchronized (queue) {
+                frame = poll();
+            }
+            if (frame == null) {
+                break;
+            }
+
+            metrics.queued(-1);
+            send(frame);
+        }
+
+        draining.set(false);
+        if (!closed && size() > 0) {
+            schedule();
+        }
+    }
+
+    private void send(final Frame frame) {
+        sendStartedAt = System.currentTimeMillis();
+        try {
+            if (frame == Frame.PING) {
+                session.sendMessage(new PingMessage());
+            } else {
+                session.sendMessage(binary ? frame.binary(codec) : frame.message());
+            }
+        } catch (Exception e) {
+            log.error("Exception while sending to session {}: {}", session.getId(), ExceptionUtils.getMessage(e));
+        } finally {
+            sendStartedAt = 0;
+        }
+    }
+
+    /**
+     * Queue position of a frame. Coalescing swaps the frame of a slot, so the newer frame keeps the older one's place.
+     */
+    private static final class Slot {
+        private Frame frame;
+
+        /**
+         * Slot constructor.
+         *
+         * @param frame Frame
+         */
+        Slot(final Frame frame) {
+            this.frame = frame;
+        }
+    }
+
+    /**
+     * What to do with a frame offered to a full queue.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Drop the oldest queued frame to make room.
+         */
+        DROP_OLDEST,
+        /**
+         * Replace a queued frame with the same key, e.g. an older presence update of the same user, and drop the
+         * oldest frame when there is none.
+         */
+        COALESCE,
+        /**
+         * Close the session; the client is expected to reconnect and resync.
+         */
+        DISCONNECT
+    }
+
+    /**
+     * Encoded frame with an optional coalescing key. The binary form is built by the first binary session that
+     * writes the frame and shared by the others; two sessions racing on it only transcode twice.
+     */
+    public static final class Frame {
+        /**
+         * Ping control frame. Its key lets a queued ping be replaced by the next one instead of piling up.
+         */
+        static final Frame PING = new Frame(null, "ping");
+
+        private final TextMessage message;
+
+        private final String key;
+
+        private volatile BinaryMessage binary;
+
+        /**
+         * Frame constructor.
+         *
+         * @param message TextMessage shared by all receivers
+         * @param key     String frames with the same key supersede each other, null when they never do
+         */
+        public Frame(final TextMessage message, final String key) {
+            this.message = message;
+            this.key = key;
+        }
+
+        public TextMessage message() {
+            return message;
+        }
+
+        public String key() {
+            return key;
+        }
+
+        /**
+         * Binary form of the frame.
+         *
+         * @param codec WebSocketCodec
+         * @return BinaryMessage
+         * @throws IOException when the frame can not be transcoded
+         */
+        public BinaryMessage binary(final WebSocketCodec codec) throws IOException {
+            BinaryMessage encoded = binary;
+            if (encoded == null) {
+                encoded = codec.toBinary(message.getPayload());
+                binary = encoded;
+            }
+
+            return encoded;
+        }
+    }
+}
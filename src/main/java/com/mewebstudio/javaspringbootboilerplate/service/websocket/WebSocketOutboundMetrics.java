@@ -0,0 +1,83 @@
+package com.mewebstudio.javaspringbootboilerplate.service.websocket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Aggregated metrics of all outbound queues. Per-session meters would grow with the number of connections, so the
+ * queues report into shared meters instead.
+ */
+public class WebSocketOutboundMetrics {
+    private static final String PREFIX = "websocket.outbound.";
+
+    private final AtomicLong queued = new AtomicLong();
+
+    private final Counter dropped;
+
+    private final Counter coalesced;
+
+    private final Counter disconnected;
+
+    private final Counter timedOut;
+
+    /**
+     * WebSocket outbound metrics constructor.
+     *
+     * @param meterRegistry MeterRegistry
+     */
+    public WebSocketOutboundMetrics(final MeterRegistry meterRegistry) {
+        meterRegistry.gauge(PREFIX + "queued", queued);
+        dropped = Counter.builder(PREFIX + "dropped")
+            .description("Frames dropped because an outbound queue was full")
+            .register(meterRegistry);
+        coalesced = Counter.builder(PREFIX + "coalesced")
+            .description("Frames that replaced a queued frame with the same key")
+            .register(meterRegistry);
+        disconnected = Counter.builder(PREFIX + "disconnected")
+            .description("Sessions closed because their outbound queue was full")
+            .register(meterRegistry);
+        timedOut = Counter.builder(PREFIX + "timed-out")
+            .description("Sessions closed because a write took longer than the send time limit")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Frames waiting in all outbound queues.
+     *
+     * @return long
+     */
+    public long getQueued() {
+        return queued.get();
+    }
+
+    /**
+     * Frames dropped so far.
+     *
+     * @return double
+     */
+    public double getDropped() {
+        return dropped.count();
+    }
+
+    void queued(final int delta) {
+        queued.addAndGet(delta);
+    }
+
+    void dropped() {
+        dropped.increment();
+    }
+
+    void coalesced() {
+        coalesced.increment();
+    }
+
+    void disconnected() {
+        disconnected.increment();
+    }
+
+    void timedOut() {
+        timedOut.increment();
+    }
+}
@@ -0,0 +1,97 @@
+package com.mewebstudio.javaspringbootboilerplate.service.websocket;
+
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Cluster-wide presence registry and message router of the websocket nodes. Every node registers the users connected
+ * to it, and a user may be connected to several nodes at once; frames for a user are forwarded to each of its other
+ * nodes in one hop.
+ */
+public interface WebSocketRouter {
+    /**
+     * Set the callback that writes frames received from other nodes to the local sessions.
+     *
+     * @param delivery Delivery
+     */
+    void setDelivery(Delivery delivery);
+
+    /**
+     * Set the source of the users connected to this node, which the router registers again when the cluster dropped
+     * them, e.g. after this node was taken for dead.
+     *
+     * @param localUsers Supplier of the user ids with a session on this node
+     */
+    void setLocalUsers(Supplier<Set<String>> localUsers);
+
+    /**
+     * Record that a user is connected to this node.
+     *
+     * @param userId String
+     * @return boolean true when the user was not connected to any other node, i.e. it just came online
+     */
+    boolean register(String userId);
+
+    /**
+     * Remove a user from this node; its registrations on other nodes are kept.
+     *
+     * @param userId String
+     * @return boolean true when the user is not connected to any node any more, i.e. it just went offline
+     */
+    boolean unregister(String userId);
+
+    /**
+     * Users connected to any node.
+     *
+     * @return Set of user ids
+     */
+    Set<String> getOnlineUsers();
+
+    /**
+     * Forward a frame to every other node the user is connected to; the caller delivers it to its own sessions.
+     *
+     * @param userId  String
+     * @param payload String encoded frame
+     * @param key     String coalescing key, may be null
+     * @return boolean false when the user is not connected to any other live node
+     */
+    boolean forward(String userId, String payload, String key);
+
+    /**
+     * Send a frame to the sessions of all other nodes; the caller delivers it to its own sessions.
+     *
+     * @param payload String encoded frame
+     * @param key     String coalescing key, may be null
+     */
+    void broadcast(String payload, String key);
+
+    /**
+     * Stamp a frame with the next version of a cluster-wide counter, append it to a log of the latest frames and send
+     * it to the sessions of all other nodes, in one atomic step. Frames therefore reach every node in version order,
+     * and a version is never taken without its frame being logged. The caller delivers the stamped frame to its own
+     * sessions.
+     *
+     * @param versionKey  String key of the counter
+     * @param logKey      String key of the log, scored by version
+     * @param retained    int frames kept in the log
+     * @param template    String encoded frame
+     * @param placeholder String first occurrence in the template is replaced with the version
+     * @return String stamped frame
+     */
+    String broadcastVersioned(String versionKey, String logKey, int retained, String template, String placeholder);
+
+    /**
+     * Writes a routed frame to the local sessions.
+     */
+    @FunctionalInterface
+    interface Delivery {
+        /**
+         * Deliver a frame.
+         *
+         * @param userId  String recipient, null for all local sessions
+         * @param payload String encoded frame
+         * @param key     String coalescing key, may be null
+         */
+        void deliver(String userId, String payload, String key);
+    }
+}
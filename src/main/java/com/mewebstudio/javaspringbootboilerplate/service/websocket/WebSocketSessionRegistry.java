@@ -0,0 +1,126 @@
+package com.mewebstudio.javaspringbootboilerplate.service.websocket;
+
+import com.mewebstudio.javaspringbootboilerplate.dto.ws.WebsocketIdentifier;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local websocket sessions grouped by user. Each user maps to an immutable array of its sessions that is replaced
+ * atomically on every change, so reads take no lock and a user with one session costs one map entry and a one-element
+ * array. Users rarely have more than a handful of sessions, so scanning the array is cheaper than a set per user,
+ * which would cost a hash table and a node per session.
+ */
+public final class WebSocketSessionRegistry {
+    private static final WebsocketIdentifier[] EMPTY = new WebsocketIdentifier[0];
+
+    private final Map<String, WebsocketIdentifier[]> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * Add a session, or replace the entry of the same session.
+     *
+     * @param identifier WebsocketIdentifier
+     * @return WebsocketIdentifier replaced entry of the same session, null when the session was new
+     */
+    public WebsocketIdentifier add(final WebsocketIdentifier identifier) {
+        WebsocketIdentifier[] replaced = new WebsocketIdentifier[1];
+        sessions.compute(identifier.getUserId(), (userId, current) -> {
+            if (current == null) {
+                return new WebsocketIdentifier[]{identifier};
+            }
+
+            int index = indexOf(current, identifier.getSession());
+            WebsocketIdentifier[] updated = Arrays.copyOf(current, index < 0 ? current.length + 1 : current.length);
+            if (index >= 0) {
+                replaced[0] = current[index];
+                updated[index] = identifier;
+            } else {
+                updated[current.length] = identifier;
+            }
+
+            return updated;
+        });
+
+        return replaced[0];
+    }
+
+    /**
+     * Remove a session; the other sessions of the user are kept.
+     *
+     * @param identifier WebsocketIdentifier
+     * @return boolean true when the session was the last one of the user
+     */
+    public boolean remove(final WebsocketIdentifier identifier) {
+        boolean[] last = new boolean[1];
+        sessions.computeIfPresent(identifier.getUserId(), (userId, current) -> {
+            int index = indexOf(current, identifier.getSession());
+            if (index < 0) {
+                return current;
+            }
+
+            if (current.length == 1) {
+                last[0] = true;
+                return null;
+            }
+
+            WebsocketIdentifier[] updated = new WebsocketIdentifier[current.length - 1];
+            System.arraycopy(current, 0, updated, 0, index);
+            System.arraycopy(current, index + 1, updated, index, current.length - index - 1);
+
+            return updated;
+        });
+
+        return last[0];
+    }
+
+    /**
+     * Sessions of a user.
+     *
+     * @param userId String
+     * @return read-only List over the sessions, empty when the user has none
+     */
+    public List<WebsocketIdentifier> get(final String userId) {
+        return Collections.unmodifiableList(Arrays.asList(sessions.getOrDefault(userId, EMPTY)));
+    }
+
+    /**
+     * Entry of one session of a user.
+     *
+     * @param userId  String
+     * @param session WebSocketSession
+     * @return WebsocketIdentifier, null when the session is not registered
+     */
+    public WebsocketIdentifier get(final String userId, final WebSocketSession session) {
+        WebsocketIdentifier[] current = sessions.getOrDefault(userId, EMPTY);
+        int index = indexOf(current, session);
+
+        return index < 0 ? null : current[index];
+    }
+
+    /**
+     * All sessions of all users.
+     *
+     * @return List
+     */
+    public List<WebsocketIdentifier> all() {
+        List<WebsocketIdentifier> all = new ArrayList<>(sessions.size());
+        sessions.values().forEach(current -> all.addAll(Arrays.asList(current)));
+
+        return all;
+    }
+
+    private static int indexOf(final WebsocketIdentifier[] current, final WebSocketSession session) {
+        for (int i = 0; i < current.length; i++) {
+            if (current[i].getSession() == session) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+}
@@ -1,21 +1,23 @@
 package com.mewebstudio.javaspringbootboilerplate.service.websocket;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mewebstudio.javaspringbootboilerplate.dto.ws.WebsocketIdentifier;
 import com.mewebstudio.javaspringbootboilerplate.dto.ws.WsRequestBody;
 import com.mewebstudio.javaspringbootboilerplate.exception.BadRequestException;
-import com.mewebstudio.javaspringbootboilerplate.security.JwtTokenProvider;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.springframework.stereotype.Controller;
+import org.springframework.web.socket.BinaryMessage;
 import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.PongMessage;
 import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
 import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.handler.AbstractWebSocketHandler;
-import java.net.URI;
-import static com.mewebstudio.javaspringbootboilerplate.util.Constants.getTokenFromPath;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Map;
 
 @Slf4j
 @Controller
@@ -23,9 +25,13 @@ import static com.mewebstudio.javaspringbootboilerplate.util.Constants.getTokenF
 public class WebsocketChannelHandler extends AbstractWebSocketHandler {
     private final WebSocketCacheService webSocketCacheService;
 
-    private final ObjectMapper objectMapper;
+    private final WebSocketCodec webSocketCodec;
 
-    private final JwtTokenProvider jwtTokenProvider;
+    private final PresenceService presenceService;
+
+    private final WebSocketLifecycleDispatcher webSocketLifecycleDispatcher;
+
+    private final WebSocketHeartbeat webSocketHeartbeat;
 
     /**
      * A method that is called when a new WebSocket session is created.
@@ -34,18 +40,13 @@ public class WebsocketChannelHandler extends AbstractWebSocketHandler {
     @Override
     public void afterConnectionEstablished(@NonNull final WebSocketSession session) {
         try {
-            final String uri = getUri(session);
-            if (uri == null) {
-                session.close(CloseStatus.BAD_DATA);
-                return;
-            }
-            final WebsocketIdentifier websocketIdentifier = generateWebsocketIdentifier(uri);
+            final WebsocketIdentifier websocketIdentifier = getWebsocketIdentifier(session);
             if (websocketIdentifier == null) {
                 session.close(CloseStatus.NOT_ACCEPTABLE);
                 return;
             }
-            websocketIdentifier.setSession(session);
-            webSocketCacheService.put(websocketIdentifier);
+            webSocketLifecycleDispatcher.connected(websocketIdentifier);
+            webSocketHeartbeat.register(websocketIdentifier);
             log.info("Websocket session established: {}", websocketIdentifier);
         } catch (Throwable ex) {
             log.error("A serious error has occurred with websocket post-connection handling. Exception is: {}", ex.getMessage());
@@ -60,17 +61,13 @@ public class WebsocketChannelHandler extends AbstractWebSocketHandler {
     @Override
     public void afterConnectionClosed(@NonNull final WebSocketSession session, @NonNull final CloseStatus status) {
         try {
-            final String uri = getUri(session);
-            if (uri == null) {
-                session.close(CloseStatus.BAD_DATA);
-                return;
-            }
-            final WebsocketIdentifier websocketIdentifier = generateWebsocketIdentifier(uri);
+            webSocketHeartbeat.unregister(session);
+            final WebsocketIdentifier websocketIdentifier = getWebsocketIdentifier(session);
             if (websocketIdentifier == null) {
                 session.close(CloseStatus.NOT_ACCEPTABLE);
                 return;
             }
-            webSocketCacheService.deleteSession(websocketIdentifier.getUserId());
+            webSocketLifecycleDispatcher.disconnected(websocketIdentifier);
             log.info("Websocket channel {} has been closed", websocketIdentifier);
         } catch (Throwable ex) {
             log.error("Error occurred while closing websocket channel:{}", ExceptionUtils.getMessage(ex));
@@ -78,63 +75,99 @@ public class WebsocketChannelHandler extends AbstractWebSocketHandler {
     }
 
     /**
-     * A method that is called when a WebSocket session receives a message.
+     * A method that is called when a WebSocket session receives a text message.
      * @param session The WebSocket session that received the message.
      * @param message The message received.
      */
     @Override
     public void handleTextMessage(@NonNull final WebSocketSession session, @NonNull final TextMessage message) {
         try {
-            final String uri = getUri(session);
-            if (uri == null) {
-                session.close(CloseStatus.BAD_DATA);
-                return;
-            }
-            final WebsocketIdentifier websocketIdentifier = generateWebsocketIdentifier(uri);
-            if (websocketIdentifier == null) {
-                session.close(CloseStatus.NOT_ACCEPTABLE);
-                return;
-            }
-            WsRequestBody requestBody = objectMapper.readValue(message.getPayload(), WsRequestBody.class);
-            requestBody.setFrom(websocketIdentifier.getUserId());
-            if (requestBody.getType() == null) {
-                String messageTypeShouldBeProvided = "Message type should be provided";
-                log.error(messageTypeShouldBeProvided);
-                session.sendMessage(new TextMessage(messageTypeShouldBeProvided));
-                throw new BadRequestException(messageTypeShouldBeProvided);
-            }
-            if (requestBody.getType().equals("private")) {
-                webSocketCacheService.sendPrivateMessage(requestBody);
-            } else {
-                String messageTypeShouldBeProvided = "Invalid ws message type: " + requestBody.getType();
-                log.error(messageTypeShouldBeProvided);
-                session.sendMessage(new TextMessage(messageTypeShouldBeProvided));
-                throw new BadRequestException("invalid type");
-            }
+            handleRequest(session, message);
             log.info("Websocket message sent: {}", message.getPayload());
         } catch (Throwable ex) {
             log.error("A serious error has occurred with incoming websocket text message handling. Exception is: ", ex);
         }
     }
 
-    private String getUri(final WebSocketSession session) {
-        URI uri = session.getUri();
-        if (uri == null) {
-            log.error("Unable to retrieve the websocket session; serious error!");
-            return null;
+    /**
+     * A method that is called when a WebSocket session that negotiated the binary sub-protocol receives a message.
+     * @param session The WebSocket session that received the message.
+     * @param message The message received.
+     */
+    @Override
+    public void handleBinaryMessage(@NonNull final WebSocketSession session, @NonNull final BinaryMessage message) {
+        try {
+            handleRequest(session, message);
+            log.info("Websocket binary message sent: {} bytes", message.getPayloadLength());
+        } catch (Throwable ex) {
+            log.error("A serious error has occurred with incoming websocket binary message handling. Exception is: ", ex);
         }
-        return uri.getPath();
     }
 
-    private WebsocketIdentifier generateWebsocketIdentifier(final String uri) {
-        final WebsocketIdentifier websocketIdentifier = new WebsocketIdentifier();
-        final String token = getTokenFromPath(uri);
-        if (token == null) {
+    /**
+     * A method that is called when a WebSocket session receives the answer to a heartbeat ping.
+     * @param session The WebSocket session that received the pong.
+     * @param message The pong received.
+     */
+    @Override
+    protected void handlePongMessage(@NonNull final WebSocketSession session, @NonNull final PongMessage message) {
+        webSocketHeartbeat.touch(session);
+    }
+
+    /**
+     * Decode and dispatch an inbound message.
+     * @param session The WebSocket session that received the message.
+     * @param message The text or binary message received.
+     * @throws IOException when the message can not be decoded or the session can not be closed.
+     */
+    private void handleRequest(final WebSocketSession session, final WebSocketMessage<?> message) throws IOException {
+        webSocketHeartbeat.touch(session);
+        final WebsocketIdentifier websocketIdentifier = getWebsocketIdentifier(session);
+        if (websocketIdentifier == null) {
+            session.close(CloseStatus.NOT_ACCEPTABLE);
+            return;
+        }
+        WsRequestBody requestBody = message instanceof BinaryMessage binaryMessage
+                ? webSocketCodec.decode(binaryMessage) : webSocketCodec.decode((TextMessage) message);
+        requestBody.setFrom(websocketIdentifier.getUserId());
+        if (requestBody.getType() == null) {
+            String messageTypeShouldBeProvided = "Message type should be provided";
+            log.error(messageTypeShouldBeProvided);
+            webSocketCacheService.reply(session, websocketIdentifier.getUserId(), messageTypeShouldBeProvided);
+            throw new BadRequestException(messageTypeShouldBeProvided);
+        }
+        if (requestBody.getType().equals("private")) {
+            webSocketCacheService.sendPrivateMessage(requestBody);
+        } else if (requestBody.getType().equals("presence-sync")) {
+            WebsocketIdentifier cached = webSocketCacheService.getSession(websocketIdentifier.getUserId(), session);
+            if (cached != null) {
+                presenceService.resync(cached, Long.parseLong(requestBody.getContent()));
+            }
+        } else {
+            String messageTypeShouldBeProvided = "Invalid ws message type: " + requestBody.getType();
+            log.error(messageTypeShouldBeProvided);
+            webSocketCacheService.reply(session, websocketIdentifier.getUserId(), messageTypeShouldBeProvided);
+            throw new BadRequestException("invalid type");
+        }
+    }
+
+    /**
+     * Build the identifier from the identity the handshake interceptor resolved, so the token is parsed once per
+     * session instead of once per frame.
+     * @param session The WebSocket session.
+     * @return The identifier, or null when the session was not authenticated at handshake.
+     */
+    private WebsocketIdentifier getWebsocketIdentifier(final WebSocketSession session) {
+        final Map<String, Object> attributes = session.getAttributes();
+        if (!(attributes.get(WebSocketInterceptor.USER_ID_ATTRIBUTE) instanceof String userId)) {
             log.error("Unable to extract the websocketIdentifier; serious error!");
             return null;
         }
-        websocketIdentifier.setToken(token);
-        websocketIdentifier.setUserId(jwtTokenProvider.getUserIdFromToken(token));
+        final WebsocketIdentifier websocketIdentifier = new WebsocketIdentifier();
+        websocketIdentifier.setUserId(userId);
+        websocketIdentifier.setToken((String) attributes.get(WebSocketInterceptor.TOKEN_ATTRIBUTE));
+        websocketIdentifier.setExpiresAt((Instant) attributes.get(WebSocketInterceptor.EXPIRES_AT_ATTRIBUTE));
+        websocketIdentifier.setSession(session);
         return websocketIdentifier;
     }
 }
\ No newline at end of file
@@ -1,15 +1,57 @@
 package com.mewebstudio.javaspringbootboilerplate.util;
 
 import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * AES encryption in two modes.
+ * <p>
+ * The legacy mode, {@link #encrypt(String, String)}, is AES/ECB with the output of earlier releases, so stored values
+ * keep decrypting. The authenticated mode, {@link #encryptGcm(String, String, int)}, is AES/GCM with a random IV per
+ * value and a {@code v<keyVersion>:} header in front of the Base64 text, which tells which key to decrypt it with
+ * while keys are rotated. {@code Cipher} instances are cached per thread and keys once per secret, so a call only pays
+ * for {@code init} and the block operations.
+ */
 public final class AESCipher {
+    /**
+     * Key version of a value without a header, i.e. encrypted in the legacy mode.
+     */
+    public static final int LEGACY_KEY_VERSION = 0;
+
     private static final String ALGORITHM = "AES";
 
     private static final String TRANSFORMATION = "AES/ECB/PKCS5Padding";
 
+    private static final String GCM_TRANSFORMATION = "AES/GCM/NoPadding";
+
+    private static final int GCM_IV_LENGTH = 12;
+
+    private static final int GCM_TAG_LENGTH = 128;
+
+    private static final char VERSION_PREFIX = 'v';
+
+    private static final char VERSION_SEPARATOR = ':';
+
+    private static final int MAX_CACHED_KEYS = 64;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static final Map<String, SecretKeySpec> KEYS = new ConcurrentHashMap<>();
+
+    private static final ThreadLocal<Cipher> ECB_CIPHER = ThreadLocal.withInitial(() -> newCipher(TRANSFORMATION));
+
+    private static final ThreadLocal<Cipher> GCM_CIPHER = ThreadLocal.withInitial(() -> newCipher(GCM_TRANSFORMATION));
+
     private AESCipher() {
         throw new UnsupportedOperationException("This is a utility class and cannot be instantiated!");
     }
@@ -22,9 +64,8 @@ public final class AESCipher {
      * @return Base64 encoded string of the encrypted text.
      */
     public static String encrypt(String plainText, String secretKey) throws Exception {
-        SecretKeySpec keySpec = generateKey(secretKey);
-        Cipher cipher = Cipher.getInstance(TRANSFORMATION);
-        cipher.init(Cipher.ENCRYPT_MODE, keySpec);
+        Cipher cipher = ECB_CIPHER.get();
+        cipher.init(Cipher.ENCRYPT_MODE, generateKey(secretKey));
         byte[] encryptedBytes = cipher.doFinal(plainText.getBytes(StandardCharsets.UTF_8));
 
         return Base64.getEncoder().encodeToString(encryptedBytes);
@@ -38,9 +79,8 @@ public final class AESCipher {
      * @return String decrypted text.
      */
     public static String decrypt(String encryptedText, String secretKey) throws Exception {
-        SecretKeySpec keySpec = generateKey(secretKey);
-        Cipher cipher = Cipher.getInstance(TRANSFORMATION);
-        cipher.init(Cipher.DECRYPT_MODE, keySpec);
+        Cipher cipher = ECB_CIPHER.get();
+        cipher.init(Cipher.DECRYPT_MODE, generateKey(secretKey));
         byte[] encryptedBytes = Base64.getDecoder().decode(encryptedText);
         byte[] decryptedBytes = cipher.doFinal(encryptedBytes);
 
@@ -48,14 +88,145 @@ public final class AESCipher {
     }
 
     /**
-     * Generates a secret key to be used for encryption and decryption.
+     * Encrypts plain text using AES/GCM with a random IV.
+     *
+     * @param plainText  The text that will be encrypted.
+     * @param secretKey  The key (256 bit) that will be used for encryption.
+     * @param keyVersion The version of the key, written to the header, greater than zero.
+     * @return String header followed by the Base64 encoded IV, encrypted text and tag.
+     */
+    public static String encryptGcm(String plainText, String secretKey, int keyVersion) throws Exception {
+        return seal(GCM_CIPHER.get(), generateKey(secretKey), header(keyVersion), plainText);
+    }
+
+    /**
+     * Encrypts plain texts using AES/GCM, resolving the cipher and the key once for all of them.
+     *
+     * @param plainTexts The texts that will be encrypted.
+     * @param secretKey  The key (256 bit) that will be used for encryption.
+     * @param keyVersion The version of the key, written to the header, greater than zero.
+     * @return List of String encrypted texts in the order of the plain texts.
+     */
+    public static List<String> encryptGcm(Collection<String> plainTexts, String secretKey, int keyVersion)
+        throws Exception {
+        Cipher cipher = GCM_CIPHER.get();
+        SecretKeySpec keySpec = generateKey(secretKey);
+        String header = header(keyVersion);
+        List<String> encryptedTexts = new ArrayList<>(plainTexts.size());
+        for (String plainText : plainTexts) {
+            encryptedTexts.add(seal(cipher, keySpec, header, plainText));
+        }
+
+        return encryptedTexts;
+    }
+
+    /**
+     * Decrypts text encrypted by {@link #encryptGcm(String, String, int)}. A tampered text fails the tag check.
+     *
+     * @param encryptedText The text that will be decrypted.
+     * @param secretKey     The key (256 bit) of the version in the header.
+     * @return String decrypted text.
+     */
+    public static String decryptGcm(String encryptedText, String secretKey) throws Exception {
+        return open(GCM_CIPHER.get(), generateKey(secretKey), encryptedText);
+    }
+
+    /**
+     * Decrypts texts encrypted with the same key, resolving the cipher and the key once for all of them.
+     *
+     * @param encryptedTexts The texts that will be decrypted.
+     * @param secretKey      The key (256 bit) of the version in the headers.
+     * @return List of String decrypted texts in the order of the encrypted texts.
+     */
+    public static List<String> decryptGcm(Collection<String> encryptedTexts, String secretKey) throws Exception {
+        Cipher cipher = GCM_CIPHER.get();
+        SecretKeySpec keySpec = generateKey(secretKey);
+        List<String> plainTexts = new ArrayList<>(encryptedTexts.size());
+        for (String encryptedText : encryptedTexts) {
+            plainTexts.add(open(cipher, keySpec, encryptedText));
+        }
+
+        return plainTexts;
+    }
+
+    /**
+     * Reads the key version from the header of an encrypted text.
+     *
+     * @param encryptedText The encrypted text.
+     * @return int key version, {@link #LEGACY_KEY_VERSION} when the text has no header.
+     */
+    public static int keyVersion(String encryptedText) {
+        int separator = encryptedText.indexOf(VERSION_SEPARATOR);
+        if (separator < 2 || encryptedText.charAt(0) != VERSION_PREFIX) {
+            return LEGACY_KEY_VERSION;
+        }
+
+        return Integer.parseInt(encryptedText.substring(1, separator));
+    }
+
+    private static String seal(Cipher cipher, SecretKeySpec keySpec, String header, String plainText)
+        throws GeneralSecurityException {
+        byte[] plainBytes = plainText.getBytes(StandardCharsets.UTF_8);
+        byte[] output = new byte[GCM_IV_LENGTH + plainBytes.length + GCM_TAG_LENGTH / Byte.SIZE];
+        byte[] iv = new byte[GCM_IV_LENGTH];
+        RANDOM.nextBytes(iv);
+        System.arraycopy(iv, 0, output, 0, GCM_IV_LENGTH);
+        cipher.init(Cipher.ENCRYPT_MODE, keySpec, new GCMParameterSpec(GCM_TAG_LENGTH, iv));
+        cipher.doFinal(plainBytes, 0, plainBytes.length, output, GCM_IV_LENGTH);
+
+        return header + Base64.getEncoder().encodeToString(output);
+    }
+
+    private static String open(Cipher cipher, SecretKeySpec keySpec, String encryptedText)
+        throws GeneralSecurityException {
+        int separator = encryptedText.indexOf(VERSION_SEPARATOR);
+        if (separator < 0) {
+            throw new GeneralSecurityException("Encrypted text has no version header");
+        }
+
+        byte[] input = Base64.getDecoder().decode(encryptedText.substring(separator + 1));
+        if (input.length < GCM_IV_LENGTH + GCM_TAG_LENGTH / Byte.SIZE) {
+            throw new GeneralSecurityException("Encrypted text is too short");
+        }
+
+        cipher.init(Cipher.DECRYPT_MODE, keySpec, new GCMParameterSpec(GCM_TAG_LENGTH, input, 0, GCM_IV_LENGTH));
+        byte[] decryptedBytes = cipher.doFinal(input, GCM_IV_LENGTH, input.length - GCM_IV_LENGTH);
+
+        return new String(decryptedBytes, StandardCharsets.UTF_8);
+    }
+
+    private static String header(int keyVersion) {
+        if (keyVersion <= LEGACY_KEY_VERSION) {
+            throw new IllegalArgumentException("Key version must be greater than " + LEGACY_KEY_VERSION);
+        }
+
+        return VERSION_PREFIX + Integer.toString(keyVersion) + VERSION_SEPARATOR;
+    }
+
+    /**
+     * Generates a secret key to be used for encryption and decryption. Keys are cached per secret, up to a limit, so
+     * a caller passing ever new secrets cannot grow the cache.
      *
      * @param secretKey The key that will be used for encryption and decryption.
      * @return SecretKeySpec
      */
     private static SecretKeySpec generateKey(String secretKey) {
-        byte[] keyBytes = secretKey.getBytes(StandardCharsets.UTF_8);
+        SecretKeySpec keySpec = KEYS.get(secretKey);
+        if (keySpec == null) {
+            keySpec = new SecretKeySpec(secretKey.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+            if (KEYS.size() < MAX_CACHED_KEYS) {
+                KEYS.putIfAbsent(secretKey, keySpec);
+            }
+        }
+
+        return keySpec;
+    }
 
-        return new SecretKeySpec(keyBytes, ALGORITHM);
+    private static Cipher newCipher(String transformation) {
+        try {
+            return Cipher.getInstance(transformation);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cipher " + transformation + " is not available", e);
+        }
     }
 }
@@ -0,0 +1,117 @@
+package com.mewebstudio.javaspringbootboilerplate.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter of strings. {@link #mightContain(String)} never returns a false negative, false positives
+ * happen with roughly the probability the filter was sized for as long as no more than the expected number of
+ * elements are added. Elements cannot be removed, callers rebuild the filter instead.
+ */
+public final class BloomFilter {
+    private static final double LN2 = Math.log(2);
+
+    private static final int WORD_SHIFT = 6;
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static final int MIX_SHIFT = 33;
+
+    private static final long MIX_MULTIPLIER_1 = 0xff51afd7ed558ccdL;
+
+    private static final long MIX_MULTIPLIER_2 = 0xc4ceb9fe1a85ec53L;
+
+    private final AtomicLongArray bits;
+
+    private final long bitSize;
+
+    private final int hashFunctions;
+
+    /**
+     * BloomFilter constructor.
+     *
+     * @param expectedInsertions int number of elements the filter is sized for
+     * @param falsePositiveRate  double target false positive probability, between 0 and 1
+     */
+    public BloomFilter(final int expectedInsertions, final double falsePositiveRate) {
+        if (expectedInsertions < 1) {
+            throw new IllegalArgumentException("Expected insertions must be positive");
+        }
+
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1");
+        }
+
+        long size = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (LN2 * LN2));
+        this.bits = new AtomicLongArray((int) ((size + Long.SIZE - 1) / Long.SIZE));
+        this.bitSize = (long) bits.length() * Long.SIZE;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * LN2));
+    }
+
+    /**
+     * Add an element.
+     *
+     * @param value String
+     */
+    public void put(final String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> Integer.SIZE);
+        for (int i = 1; i <= hashFunctions; i++) {
+            long index = Integer.toUnsignedLong(h1 + i * h2) % bitSize;
+            int word = (int) (index >>> WORD_SHIFT);
+            long mask = 1L << index;
+            long current;
+            do {
+                current = bits.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    /**
+     * Whether the element might have been added.
+     *
+     * @param value String
+     * @return false when the element was definitely never added
+     */
+    public boolean mightContain(final String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> Integer.SIZE);
+        for (int i = 1; i <= hashFunctions; i++) {
+            long index = Integer.toUnsignedLong(h1 + i * h2) % bitSize;
+            if ((bits.get((int) (index >>> WORD_SHIFT)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes, finished with the MurmurHash3 mixer so both halves are well distributed.
+     *
+     * @param value String
+     * @return long
+     */
+    private static long hash(final String value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= FNV_PRIME;
+        }
+
+        hash ^= hash >>> MIX_SHIFT;
+        hash *= MIX_MULTIPLIER_1;
+        hash ^= hash >>> MIX_SHIFT;
+        hash *= MIX_MULTIPLIER_2;
+        hash ^= hash >>> MIX_SHIFT;
+
+        return hash;
+    }
+}
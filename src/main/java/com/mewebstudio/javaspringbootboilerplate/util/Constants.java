@@ -39,6 +39,41 @@ public final class Constants {
         }
     }
 
+    @Getter
+    @AllArgsConstructor
+    public enum CountEnum {
+        NONE("none"),
+        EXACT("exact"),
+        ESTIMATE("estimate");
+
+        private final String value;
+
+        public static CountEnum get(final String name) {
+            return Stream.of(CountEnum.values())
+                .filter(p -> p.getValue().equalsIgnoreCase(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(String.format("Invalid count type: %s", name)));
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public enum MailOutboxStatusEnum {
+        PENDING("pending"),
+        FAILED("failed");
+
+        private final String value;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public enum OutboxEventTypeEnum {
+        USER_EMAIL_VERIFICATION_SEND("user_email_verification_send"),
+        USER_PASSWORD_RESET_SEND("user_password_reset_send");
+
+        private final String value;
+    }
+
     public static String getTokenFromPath(final String path) {
         if (path == null || path.isEmpty())
             return null;
@@ -0,0 +1,22 @@
+package com.mewebstudio.javaspringbootboilerplate.util;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@RequiredArgsConstructor
+public final class CursorPage<T> {
+    private final List<T> items;
+
+    /**
+     * Cursor of the next page, null on the last page.
+     */
+    private final String nextCursor;
+
+    /**
+     * Total number of rows, null when it was not requested.
+     */
+    private final Long total;
+}
@@ -0,0 +1,58 @@
+package com.mewebstudio.javaspringbootboilerplate.util;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Opaque continuation token of a keyset page: the sort column and direction it was issued for, plus the sort value
+ * and id of the last row returned. Clients must treat the encoded form as an opaque string.
+ */
+@Getter
+@RequiredArgsConstructor
+public final class KeysetCursor {
+    private static final String SEPARATOR = "|";
+
+    private static final int PARTS = 4;
+
+    private final String sortBy;
+
+    private final String sort;
+
+    private final UUID id;
+
+    private final String value;
+
+    /**
+     * Encode the cursor as URL safe base64.
+     *
+     * @return String
+     */
+    public String encode() {
+        String raw = String.join(SEPARATOR, sortBy, sort, id.toString(), value);
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor produced by {@link #encode()}.
+     *
+     * @param token String
+     * @return KeysetCursor
+     * @throws IllegalArgumentException when the token is malformed
+     */
+    public static KeysetCursor decode(final String token) {
+        String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        // The value is the last part so it may contain the separator itself.
+        String[] parts = raw.split(Pattern.quote(SEPARATOR), PARTS);
+        if (parts.length != PARTS) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+
+        return new KeysetCursor(parts[0], parts[1], UUID.fromString(parts[2]), parts[PARTS - 1]);
+    }
+}
@@ -0,0 +1,45 @@
+package com.mewebstudio.javaspringbootboilerplate.util;
+
+import com.mewebstudio.javaspringbootboilerplate.entity.specification.criteria.CursorPaginationCriteria;
+import com.mewebstudio.javaspringbootboilerplate.exception.BadRequestException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+
+import java.util.Arrays;
+
+@Slf4j
+public class KeysetRequestBuilder extends AbstractBaseSortDirection {
+    /**
+     * Largest page served, the default max-page-size of Spring Data's pageable resolver. Larger sizes are clamped.
+     */
+    public static final int MAX_SIZE = 2000;
+
+    private static final String ID_COLUMN = "id";
+
+    /**
+     * Build the sort of a keyset page. The id is always appended as a tiebreaker so the order is total and a cursor
+     * identifies exactly one position. A size above {@link #MAX_SIZE} is clamped in the criteria.
+     *
+     * @param paginationCriteria CursorPaginationCriteria
+     * @return Sort
+     */
+    public static Sort build(final CursorPaginationCriteria paginationCriteria) {
+        if (paginationCriteria.getSize() == null || paginationCriteria.getSize() < 1) {
+            log.warn("Page size is not valid");
+            throw new BadRequestException("Size must be greater than 0!");
+        }
+
+        if (paginationCriteria.getSize() > MAX_SIZE) {
+            paginationCriteria.setSize(MAX_SIZE);
+        }
+
+        Sort.Direction direction = getDirection(paginationCriteria.getSort());
+        String sortBy = paginationCriteria.getSortBy();
+        if (sortBy == null || ID_COLUMN.equals(sortBy)
+            || !Arrays.asList(paginationCriteria.getColumns()).contains(sortBy)) {
+            return Sort.by(direction, ID_COLUMN);
+        }
+
+        return Sort.by(direction, sortBy).and(Sort.by(direction, ID_COLUMN));
+    }
+}
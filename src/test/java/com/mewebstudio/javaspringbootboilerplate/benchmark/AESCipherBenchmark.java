@@ -0,0 +1,99 @@
+package com.mewebstudio.javaspringbootboilerplate.benchmark;
+
+import com.mewebstudio.javaspringbootboilerplate.Constants;
+import com.mewebstudio.javaspringbootboilerplate.service.AESCipherService;
+import com.mewebstudio.javaspringbootboilerplate.util.AESCipher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encryption throughput: {@code uncachedEcb} replays the previous {@link AESCipher}, which looked up a new
+ * {@code Cipher} and built a new key on every call, next to the cached legacy mode, the authenticated GCM mode and
+ * its batch form. Runs on four threads, so the per-thread cipher cache is exercised under contention.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class AESCipherBenchmark {
+    private static final String SECRET_KEY = Constants.APP_SECRET_KEY;
+
+    private static final int BATCH_SIZE = 100;
+
+    @Param({"16", "256"})
+    private int length;
+
+    private final AESCipherService aesCipherService = new AESCipherService();
+
+    private String plainText;
+
+    private List<String> plainTexts;
+
+    private String ecbText;
+
+    private String gcmText;
+
+    @Setup
+    public void setUp() throws Exception {
+        plainText = "x".repeat(length);
+        plainTexts = Collections.nCopies(BATCH_SIZE, plainText);
+        ecbText = AESCipher.encrypt(plainText, SECRET_KEY);
+        gcmText = AESCipher.encryptGcm(plainText, SECRET_KEY, 1);
+    }
+
+    @Benchmark
+    public String uncachedEcbEncrypt() throws Exception {
+        Cipher cipher = Cipher.getInstance("AES/ECB/PKCS5Padding");
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(SECRET_KEY.getBytes(StandardCharsets.UTF_8), "AES"));
+
+        return Base64.getEncoder().encodeToString(cipher.doFinal(plainText.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Benchmark
+    public String ecbEncrypt() throws Exception {
+        return aesCipherService.encrypt(plainText, SECRET_KEY);
+    }
+
+    @Benchmark
+    public String ecbDecrypt() throws Exception {
+        return aesCipherService.decrypt(ecbText, SECRET_KEY);
+    }
+
+    @Benchmark
+    public String gcmEncrypt() throws Exception {
+        return aesCipherService.encryptVersioned(plainText, SECRET_KEY, 1);
+    }
+
+    @Benchmark
+    public String gcmDecrypt() throws Exception {
+        return aesCipherService.decryptVersioned(gcmText, version -> SECRET_KEY);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<String> gcmEncryptBatch() throws Exception {
+        return aesCipherService.encryptAll(plainTexts, SECRET_KEY, 1);
+    }
+}
@@ -0,0 +1,107 @@
+package com.mewebstudio.javaspringbootboilerplate.benchmark;
+
+import com.mewebstudio.javaspringbootboilerplate.Constants;
+import com.mewebstudio.javaspringbootboilerplate.entity.JwtToken;
+import com.mewebstudio.javaspringbootboilerplate.security.JwtTokenProvider;
+import com.mewebstudio.javaspringbootboilerplate.service.JwtTokenService;
+import com.mewebstudio.javaspringbootboilerplate.service.TokenRevocationService;
+import com.mewebstudio.javaspringbootboilerplate.service.UserService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Per-request cost of the JWT validation done by the authentication filter.
+ * <p>
+ * {@code legacyValidation} replays the previous pipeline (three parses, each building a new parser and key),
+ * {@code singleParseValidation} runs the current one and {@code statelessValidation} the stateless mode, where a
+ * token that misses the revocation filter needs no lookup at all. Multiply the average time by the request rate to get the CPU
+ * spent on validation, e.g. 40 us/op at 5k req/s is 200 ms of CPU per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+    private static final String APP_SECRET = Constants.APP_SECRET_KEY;
+
+    private static final String USER_AGENT = "jmh";
+
+    private JwtTokenService jwtTokenService;
+
+    private TokenRevocationService tokenRevocationService;
+
+    private JwtTokenProvider jwtTokenProvider;
+
+    private JwtTokenProvider statelessJwtTokenProvider;
+
+    private MockHttpServletRequest request;
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        request = new MockHttpServletRequest();
+        request.addHeader("User-agent", USER_AGENT);
+
+        jwtTokenService = mock(JwtTokenService.class, withSettings().stubOnly());
+        tokenRevocationService = mock(TokenRevocationService.class, withSettings().stubOnly());
+        jwtTokenProvider = new JwtTokenProvider(APP_SECRET, 3_600_000L, 86_400_000L, 604_800_000L, false,
+            mock(UserService.class), jwtTokenService, tokenRevocationService, request);
+        statelessJwtTokenProvider = new JwtTokenProvider(APP_SECRET, 3_600_000L, 86_400_000L, 604_800_000L, true,
+            mock(UserService.class), jwtTokenService, tokenRevocationService, request);
+        token = jwtTokenProvider.generateJwt(UUID.randomUUID().toString());
+
+        when(jwtTokenService.findByTokenOrRefreshToken(token))
+            .thenReturn(JwtToken.builder().token(token).userAgent(USER_AGENT).build());
+    }
+
+    @Benchmark
+    public String singleParseValidation() {
+        jwtTokenProvider.validateToken(token, request);
+
+        return jwtTokenProvider.getUserIdFromRequest(request);
+    }
+
+    @Benchmark
+    public String statelessValidation() {
+        statelessJwtTokenProvider.validateToken(token, request);
+
+        return statelessJwtTokenProvider.getUserIdFromRequest(request);
+    }
+
+    @Benchmark
+    public String legacyValidation() {
+        legacyParse(token);
+        jwtTokenService.findByTokenOrRefreshToken(token);
+        boolean expired = legacyParse(token).getExpiration().before(new Date());
+
+        return expired ? null : legacyParse(token).getSubject();
+    }
+
+    private Claims legacyParse(final String jwt) {
+        return Jwts.parserBuilder().setSigningKey(Keys.hmacShaKeyFor(APP_SECRET.getBytes())).build()
+            .parseClaimsJws(jwt).getBody();
+    }
+}
@@ -0,0 +1,108 @@
+package com.mewebstudio.javaspringbootboilerplate.benchmark;
+
+import com.mewebstudio.javaspringbootboilerplate.config.AppConfig;
+import com.mewebstudio.javaspringbootboilerplate.service.MailTemplateService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.spring6.templateresolver.SpringResourceTemplateResolver;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Render time per mail: Thymeleaf with the parsed template cached, as the resolver is configured now, Thymeleaf
+ * parsing the template on every render, as with {@code spring.thymeleaf.cache: false}, and the compiled templates of
+ * {@link MailTemplateService}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MailTemplateBenchmark {
+    private static final String TEMPLATE = "mail/user-email-verification";
+
+    private static final Map<String, String> VARIABLES = Map.of(
+        "name", "Ada",
+        "lastName", "Lovelace",
+        "fullName", "Lovelace Ada",
+        "url", "http://localhost:3000/auth/email-verification/0b6f1d5e-7f0e-4a43-9a51-4f0b1c2d3e4f"
+    );
+
+    @Param({"en", "tr"})
+    private String language;
+
+    private Locale locale;
+
+    private SpringTemplateEngine cachedEngine;
+
+    private SpringTemplateEngine uncachedEngine;
+
+    private MailTemplateService mailTemplateService;
+
+    @Setup
+    public void setUp() {
+        locale = Locale.forLanguageTag(language);
+        cachedEngine = templateEngine(true);
+        uncachedEngine = templateEngine(false);
+        mailTemplateService = new MailTemplateService("AppName", "http://localhost:8080", "http://localhost:3000",
+            "sender@example.com", new String[]{language}, language, cachedEngine);
+        mailTemplateService.precompile(TEMPLATE, VARIABLES.keySet());
+    }
+
+    @Benchmark
+    public String thymeleafUncached() {
+        return uncachedEngine.process(TEMPLATE, context());
+    }
+
+    @Benchmark
+    public String thymeleafCached() {
+        return cachedEngine.process(TEMPLATE, context());
+    }
+
+    @Benchmark
+    public String compiled() {
+        return mailTemplateService.render(TEMPLATE, locale, VARIABLES);
+    }
+
+    private Context context() {
+        Context ctx = new Context(locale);
+        ctx.setVariable("SENDER_ADDRESS", "sender@example.com");
+        ctx.setVariable("APP_NAME", "AppName");
+        ctx.setVariable("APP_URL", "http://localhost:8080");
+        ctx.setVariable("FRONTEND_URL", "http://localhost:3000");
+        VARIABLES.forEach(ctx::setVariable);
+
+        return ctx;
+    }
+
+    private static SpringTemplateEngine templateEngine(final boolean cacheable) {
+        ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasename("locales.messages");
+        messageSource.setDefaultEncoding(StandardCharsets.UTF_8.name());
+        SpringResourceTemplateResolver templateResolver = new AppConfig().htmlTemplateResolver();
+        templateResolver.setApplicationContext(new GenericApplicationContext());
+        templateResolver.setCacheable(cacheable);
+        SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.addTemplateResolver(templateResolver);
+        templateEngine.setTemplateEngineMessageSource(messageSource);
+
+        return templateEngine;
+    }
+}
@@ -0,0 +1,93 @@
+package com.mewebstudio.javaspringbootboilerplate.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.mewebstudio.javaspringbootboilerplate.dto.ws.WsRequestBody;
+import com.mewebstudio.javaspringbootboilerplate.service.websocket.WebSocketCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.TextMessage;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode cost of a private message frame in the JSON text and CBOR binary wire formats.
+ * <p>
+ * {@code jsonEncode}/{@code cborEncode} bind the request directly, {@code jsonDecode}/{@code cborDecode} run the
+ * handler's decode path and {@code cborTranscode} is the extra work the outbound queue does once per frame when at
+ * least one binary session receives it. The setup prints both payload sizes, as those matter more than CPU for
+ * mobile clients.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WebSocketCodecBenchmark {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final CBORMapper cborMapper = new CBORMapper();
+
+    private final WebSocketCodec codec = new WebSocketCodec(objectMapper);
+
+    private WsRequestBody body;
+
+    private String json;
+
+    private TextMessage textMessage;
+
+    private BinaryMessage binaryMessage;
+
+    @Setup
+    public void setUp() throws IOException {
+        body = new WsRequestBody();
+        body.setFrom(UUID.randomUUID().toString());
+        body.setTo(UUID.randomUUID().toString());
+        body.setType("private");
+        body.setContent("Are we still on for the review at three?");
+        body.setDate(System.currentTimeMillis());
+
+        json = objectMapper.writeValueAsString(body);
+        textMessage = new TextMessage(json);
+        binaryMessage = new BinaryMessage(cborMapper.writeValueAsBytes(body));
+        System.out.printf("%nPayload size: json=%d bytes, cbor=%d bytes%n", textMessage.getPayloadLength(),
+            binaryMessage.getPayloadLength());
+    }
+
+    @Benchmark
+    public String jsonEncode() throws IOException {
+        return objectMapper.writeValueAsString(body);
+    }
+
+    @Benchmark
+    public byte[] cborEncode() throws IOException {
+        return cborMapper.writeValueAsBytes(body);
+    }
+
+    @Benchmark
+    public WsRequestBody jsonDecode() throws IOException {
+        return codec.decode(textMessage);
+    }
+
+    @Benchmark
+    public WsRequestBody cborDecode() throws IOException {
+        return codec.decode(binaryMessage);
+    }
+
+    @Benchmark
+    public BinaryMessage cborTranscode() throws IOException {
+        return codec.toBinary(json);
+    }
+}
@@ -0,0 +1,138 @@
+package com.mewebstudio.javaspringbootboilerplate.benchmark;
+
+import com.mewebstudio.javaspringbootboilerplate.dto.ws.WebsocketIdentifier;
+import com.mewebstudio.javaspringbootboilerplate.service.websocket.WebSocketSessionRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.socket.adapter.standard.StandardWebSocketSession;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Footprint and lookup cost of the per-user session cache.
+ * <p>
+ * The setup fills {@link WebSocketSessionRegistry} and the obvious alternative, a concurrent set per user, with the
+ * same sessions and prints the heap each structure retains per session, not counting the sessions themselves. The
+ * benchmarks compare the lookup done for every private message and the add/remove pair done for every connection.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class WebSocketSessionRegistryBenchmark {
+    @Param({"100000"})
+    private int users;
+
+    @Param({"1", "3"})
+    private int sessionsPerUser;
+
+    private WebsocketIdentifier[][] identifiers;
+
+    private WebSocketSessionRegistry registry;
+
+    private Map<String, Set<WebsocketIdentifier>> setPerUser;
+
+    @Setup
+    public void setUp() {
+        identifiers = new WebsocketIdentifier[users][sessionsPerUser];
+        for (int user = 0; user < users; user++) {
+            for (int session = 0; session < sessionsPerUser; session++) {
+                WebsocketIdentifier identifier = new WebsocketIdentifier();
+                identifier.setUserId("user-" + user);
+                identifier.setSession(new StandardWebSocketSession(null, null, null, null));
+                identifiers[user][session] = identifier;
+            }
+        }
+
+        long sessions = (long) users * sessionsPerUser;
+        registry = retained("registry", sessions, () -> {
+            WebSocketSessionRegistry filled = new WebSocketSessionRegistry();
+            for (WebsocketIdentifier[] userSessions : identifiers) {
+                for (WebsocketIdentifier identifier : userSessions) {
+                    filled.add(identifier);
+                }
+            }
+            return filled;
+        });
+        setPerUser = retained("set per user", sessions, () -> {
+            Map<String, Set<WebsocketIdentifier>> filled = new ConcurrentHashMap<>();
+            for (WebsocketIdentifier[] userSessions : identifiers) {
+                for (WebsocketIdentifier identifier : userSessions) {
+                    filled.computeIfAbsent(identifier.getUserId(), userId -> ConcurrentHashMap.newKeySet())
+                        .add(identifier);
+                }
+            }
+            return filled;
+        });
+    }
+
+    @Benchmark
+    public List<WebsocketIdentifier> registryLookup() {
+        return registry.get(randomUser()[0].getUserId());
+    }
+
+    @Benchmark
+    public Set<WebsocketIdentifier> setPerUserLookup() {
+        return setPerUser.get(randomUser()[0].getUserId());
+    }
+
+    @Benchmark
+    public boolean registryAddRemove() {
+        WebsocketIdentifier identifier = randomUser()[0];
+        registry.remove(identifier);
+        registry.add(identifier);
+
+        return identifier.getSession() != null;
+    }
+
+    @Benchmark
+    public boolean setPerUserAddRemove() {
+        WebsocketIdentifier identifier = randomUser()[0];
+        setPerUser.computeIfPresent(identifier.getUserId(), (userId, set) -> {
+            set.remove(identifier);
+            return set.isEmpty() ? null : set;
+        });
+
+        return setPerUser.computeIfAbsent(identifier.getUserId(), userId -> ConcurrentHashMap.newKeySet())
+            .add(identifier);
+    }
+
+    private WebsocketIdentifier[] randomUser() {
+        return identifiers[ThreadLocalRandom.current().nextInt(users)];
+    }
+
+    private static <T> T retained(final String name, final long sessions, final Supplier<T> fill) {
+        long before = usedHeap();
+        T filled = fill.get();
+        long after = usedHeap();
+        System.out.printf("%n%s: %d bytes per session%n", name, (after - before) / sessions);
+
+        return filled;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
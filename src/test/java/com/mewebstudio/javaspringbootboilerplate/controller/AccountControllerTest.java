@@ -4,6 +4,7 @@ import com.mewebstudio.javaspringbootboilerplate.dto.request.user.UpdatePassword
 import com.mewebstudio.javaspringbootboilerplate.dto.response.SuccessResponse;
 import com.mewebstudio.javaspringbootboilerplate.dto.response.user.UserResponse;
 import com.mewebstudio.javaspringbootboilerplate.entity.User;
+import com.mewebstudio.javaspringbootboilerplate.repository.projection.UserView;
 import com.mewebstudio.javaspringbootboilerplate.service.MessageSourceService;
 import com.mewebstudio.javaspringbootboilerplate.service.UserService;
 import org.instancio.Instancio;
@@ -44,17 +45,19 @@ class AccountControllerTest {
     @DisplayName("Test for get me")
     void given_whenMe_thenAssertBody() {
         // Given
-        when(userService.getUser()).thenReturn(user);
+        UserView userView = Instancio.create(UserView.class);
+        when(userService.getUserView()).thenReturn(userView);
         // When
         ResponseEntity<UserResponse> response = accountController.me();
         // Then
         assertNotNull(response);
         assertNotNull(response.getBody());
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals(user.getId().toString(), response.getBody().getId());
-        assertEquals(user.getEmail(), response.getBody().getEmail());
-        assertEquals(user.getName(), response.getBody().getName());
-        assertEquals(user.getLastName(), response.getBody().getLastName());
+        assertEquals(userView.id().toString(), response.getBody().getId());
+        assertEquals(userView.email(), response.getBody().getEmail());
+        assertEquals(userView.name(), response.getBody().getName());
+        assertEquals(userView.lastName(), response.getBody().getLastName());
+        assertEquals(userView.roles(), response.getBody().getRoles());
     }
 
     @Test
@@ -2,16 +2,22 @@ package com.mewebstudio.javaspringbootboilerplate.controller.admin;
 
 import com.mewebstudio.javaspringbootboilerplate.dto.request.user.CreateUserRequest;
 import com.mewebstudio.javaspringbootboilerplate.dto.request.user.UpdateUserRequest;
+import com.mewebstudio.javaspringbootboilerplate.dto.response.user.UserImportResponse;
 import com.mewebstudio.javaspringbootboilerplate.dto.response.user.UserResponse;
+import com.mewebstudio.javaspringbootboilerplate.dto.response.user.UsersCursorPaginationResponse;
 import com.mewebstudio.javaspringbootboilerplate.dto.response.user.UsersPaginationResponse;
 import com.mewebstudio.javaspringbootboilerplate.entity.User;
+import com.mewebstudio.javaspringbootboilerplate.entity.specification.criteria.CursorPaginationCriteria;
 import com.mewebstudio.javaspringbootboilerplate.entity.specification.criteria.PaginationCriteria;
 import com.mewebstudio.javaspringbootboilerplate.entity.specification.criteria.UserCriteria;
 import com.mewebstudio.javaspringbootboilerplate.exception.BadRequestException;
 import com.mewebstudio.javaspringbootboilerplate.exception.NotFoundException;
+import com.mewebstudio.javaspringbootboilerplate.repository.projection.UserView;
 import com.mewebstudio.javaspringbootboilerplate.service.MessageSourceService;
+import com.mewebstudio.javaspringbootboilerplate.service.UserImportService;
 import com.mewebstudio.javaspringbootboilerplate.service.UserService;
 import com.mewebstudio.javaspringbootboilerplate.util.Constants;
+import com.mewebstudio.javaspringbootboilerplate.util.CursorPage;
 import jakarta.servlet.http.HttpServletRequest;
 import org.instancio.Instancio;
 import org.junit.jupiter.api.BeforeEach;
@@ -27,6 +33,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BeanPropertyBindingResult;
 import org.springframework.validation.BindException;
@@ -34,6 +41,9 @@ import org.springframework.validation.BindingResult;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.util.List;
 
@@ -52,6 +62,9 @@ class UserControllerTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private UserImportService userImportService;
+
     @Mock
     private MessageSourceService messageSourceService;
 
@@ -65,6 +78,8 @@ class UserControllerTest {
 
     private final User user = Instancio.create(User.class);
 
+    private final UserView userView = Instancio.create(UserView.class);
+
     @Nested
     @DisplayName("Test class for users list scenarios")
     public class ListTest {
@@ -74,7 +89,7 @@ class UserControllerTest {
         @DisplayName("Happy path")
         void given_whenList_thenAssertBody() {
             // Given
-            Page<User> page = new PageImpl<>(List.of(user));
+            Page<UserView> page = new PageImpl<>(List.of(userView));
             when(userService.findAll(any(UserCriteria.class), any(PaginationCriteria.class)))
                 .thenReturn(page);
             // When
@@ -87,10 +102,11 @@ class UserControllerTest {
             assertEquals(1, response.getBody().getPage());
             assertEquals(1, response.getBody().getPages());
             assertEquals(1, response.getBody().getTotal());
-            assertEquals(user.getId().toString(), response.getBody().getItems().get(0).getId());
-            assertEquals(user.getEmail(), response.getBody().getItems().get(0).getEmail());
-            assertEquals(user.getName(), response.getBody().getItems().get(0).getName());
-            assertEquals(user.getLastName(), response.getBody().getItems().get(0).getLastName());
+            assertEquals(userView.id().toString(), response.getBody().getItems().get(0).getId());
+            assertEquals(userView.email(), response.getBody().getItems().get(0).getEmail());
+            assertEquals(userView.name(), response.getBody().getItems().get(0).getName());
+            assertEquals(userView.lastName(), response.getBody().getItems().get(0).getLastName());
+            assertEquals(userView.roles(), response.getBody().getItems().get(0).getRoles());
         }
 
         @Test
@@ -107,6 +123,42 @@ class UserControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("Test class for users cursor list scenarios")
+    public class CursorListTest {
+        private final List<String> roles = List.of(Constants.RoleEnum.USER.toString());
+
+        @Test
+        @DisplayName("Happy path")
+        void given_whenCursorList_thenAssertBody() {
+            // Given
+            when(userService.findAll(any(UserCriteria.class), any(CursorPaginationCriteria.class)))
+                .thenReturn(new CursorPage<>(List.of(userView), "next", 10L));
+            // When
+            ResponseEntity<UsersCursorPaginationResponse> response = userController.cursorList(roles, null,
+                null, null, null, null, null, 1, "createdAt", "asc", "exact");
+            // Then
+            assertNotNull(response);
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertNotNull(response.getBody());
+            assertEquals(1, response.getBody().getSize());
+            assertEquals("next", response.getBody().getNextCursor());
+            assertEquals(10L, response.getBody().getTotal());
+            assertEquals(userView.id().toString(), response.getBody().getItems().get(0).getId());
+        }
+
+        @Test
+        @DisplayName("When sorting by a nullable column then throw BadRequestException")
+        void given_whenNullableSortColumn_thenThrowBadRequestException() {
+            // When
+            Executable executable = () -> userController.cursorList(roles, null,
+                null, null, null, null, null, 1,
+                "blockedAt", "asc", "none");
+            // Then
+            assertThrows(BadRequestException.class, executable);
+        }
+    }
+
     @Nested
     @DisplayName("Test class for user create scenarios")
     public class CreateTest {
@@ -242,4 +294,25 @@ class UserControllerTest {
             assertThrows(NotFoundException.class, executable);
         }
     }
+
+    @Nested
+    @DisplayName("Test class for user import scenarios")
+    public class ImportTest {
+        @Test
+        @DisplayName("Happy path")
+        void given_whenImportUsers_thenAssertBody() throws IOException {
+            // Given
+            InputStream inputStream = new ByteArrayInputStream(new byte[0]);
+            UserImportResponse importResponse = UserImportResponse.builder().total(0L).imported(0L).failed(0L)
+                .errors(List.of()).build();
+            when(userImportService.importUsers(inputStream, MediaType.APPLICATION_NDJSON)).thenReturn(importResponse);
+            // When
+            ResponseEntity<UserImportResponse> response = userController.importUsers(
+                MediaType.APPLICATION_NDJSON_VALUE, inputStream);
+            // Then
+            assertNotNull(response);
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals(importResponse, response.getBody());
+        }
+    }
 }
@@ -6,6 +6,7 @@ import com.mewebstudio.javaspringbootboilerplate.dto.request.user.UpdatePassword
 import com.mewebstudio.javaspringbootboilerplate.entity.User;
 import com.mewebstudio.javaspringbootboilerplate.exception.AppExceptionHandler;
 import com.mewebstudio.javaspringbootboilerplate.exception.BadRequestException;
+import com.mewebstudio.javaspringbootboilerplate.repository.projection.UserView;
 import com.mewebstudio.javaspringbootboilerplate.service.MessageSourceService;
 import com.mewebstudio.javaspringbootboilerplate.service.UserService;
 import org.instancio.Instancio;
@@ -70,15 +71,16 @@ class AccountControllerMvcIT {
         void given_whenMe_thenAssertBody() throws Exception {
             // Given
             RequestBuilder requestBuilder = MockMvcRequestBuilders.get("/account/me");
-            when(userService.getUser()).thenReturn(user);
+            UserView userView = Instancio.create(UserView.class);
+            when(userService.getUserView()).thenReturn(userView);
             // When
             ResultActions perform = mockMvc.perform(requestBuilder);
             // Then
             perform.andExpect(status().isOk());
-            perform.andExpect(MockMvcResultMatchers.jsonPath("$.id", equalTo(user.getId().toString())));
-            perform.andExpect(MockMvcResultMatchers.jsonPath("$.email", equalTo(user.getEmail())));
-            perform.andExpect(MockMvcResultMatchers.jsonPath("$.name", equalTo(user.getName())));
-            perform.andExpect(MockMvcResultMatchers.jsonPath("$.lastName", equalTo(user.getLastName())));
+            perform.andExpect(MockMvcResultMatchers.jsonPath("$.id", equalTo(userView.id().toString())));
+            perform.andExpect(MockMvcResultMatchers.jsonPath("$.email", equalTo(userView.email())));
+            perform.andExpect(MockMvcResultMatchers.jsonPath("$.name", equalTo(userView.name())));
+            perform.andExpect(MockMvcResultMatchers.jsonPath("$.lastName", equalTo(userView.lastName())));
         }
 
         @Test
@@ -86,7 +88,7 @@ class AccountControllerMvcIT {
         void given_whenMe_thenShouldThrowException() throws Exception {
             // Given
             RequestBuilder requestBuilder = MockMvcRequestBuilders.get("/account/me");
-            when(userService.getUser()).thenThrow(new BadRequestException());
+            when(userService.getUserView()).thenThrow(new BadRequestException());
             // When
             ResultActions perform = mockMvc.perform(requestBuilder);
             // Then
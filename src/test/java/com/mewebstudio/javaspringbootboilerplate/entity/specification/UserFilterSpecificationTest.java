@@ -0,0 +1,155 @@
+package com.mewebstudio.javaspringbootboilerplate.entity.specification;
+
+import com.mewebstudio.javaspringbootboilerplate.entity.Role;
+import com.mewebstudio.javaspringbootboilerplate.entity.User;
+import com.mewebstudio.javaspringbootboilerplate.entity.specification.criteria.UserCriteria;
+import com.mewebstudio.javaspringbootboilerplate.util.Constants;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyChar;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Tag("unit")
+@DisplayName("Unit tests for UserFilterSpecification")
+class UserFilterSpecificationTest {
+    @Mock
+    private Root<User> root;
+
+    @Mock
+    private CriteriaQuery<Object> query;
+
+    @Mock
+    private CriteriaBuilder builder;
+
+    @Mock
+    private Path<Object> path;
+
+    @Mock
+    private Expression<String> lower;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(root.get(anyString())).thenReturn(path);
+        when(builder.lower(any())).thenReturn(lower);
+    }
+
+    private void search(final String q) {
+        new UserFilterSpecification(UserCriteria.builder().q(q).build()).toPredicate(root, query, builder);
+    }
+
+    @Nested
+    @DisplayName("Test class for role filter scenarios")
+    class RoleTest {
+        @Mock
+        private Subquery<Integer> subquery;
+
+        @Mock
+        private Root<User> correlated;
+
+        @Mock
+        private Join<User, Role> roleJoin;
+
+        @Mock
+        private Path<Object> rolePath;
+
+        @Test
+        @DisplayName("Roles are filtered with EXISTS and no DISTINCT")
+        void givenRoles_whenToPredicate_thenExistsSubquery() {
+            // Given
+            MockitoAnnotations.openMocks(this);
+            List<Constants.RoleEnum> roles = List.of(Constants.RoleEnum.ADMIN);
+            when(query.subquery(Integer.class)).thenReturn(subquery);
+            when(subquery.correlate(root)).thenReturn(correlated);
+            when(correlated.<User, Role>join("roles")).thenReturn(roleJoin);
+            when(roleJoin.get("name")).thenReturn(rolePath);
+            when(subquery.select(any())).thenReturn(subquery);
+            // When
+            new UserFilterSpecification(UserCriteria.builder().roles(roles).build()).toPredicate(root, query, builder);
+            // Then
+            verify(rolePath, times(1)).in(roles);
+            verify(builder, times(1)).exists(subquery);
+            verify(root, never()).join(anyString());
+            verify(query, never()).distinct(anyBoolean());
+        }
+    }
+
+    @Nested
+    @DisplayName("Test class for free-text search scenarios")
+    class SearchTest {
+        @Test
+        @DisplayName("UUID is matched on the primary key")
+        void givenUuid_whenToPredicate_thenIdEquality() {
+            // Given
+            UUID id = UUID.randomUUID();
+            // When
+            search(id.toString().toUpperCase());
+            // Then
+            verify(builder, times(1)).equal(path, id);
+            verify(builder, never()).like(any(), anyString(), anyChar());
+        }
+
+        @Test
+        @DisplayName("E-mail is matched as a prefix")
+        void givenEmail_whenToPredicate_thenEmailPrefix() {
+            // When
+            search(" John@Example ");
+            // Then
+            verify(root, times(1)).get("email");
+            verify(builder, times(1)).like(lower, "john@example%", '\\');
+            verify(builder, never()).or(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Domain without a local part is matched as a substring")
+        void givenDomain_whenToPredicate_thenSubstring() {
+            // When
+            search("@example.com");
+            // Then
+            verify(builder, times(3)).like(eq(lower), eq("%@example.com%"), eq('\\'));
+            verify(builder, never()).like(lower, "@example.com%", '\\');
+        }
+
+        @Test
+        @DisplayName("Keyword is matched as an escaped substring")
+        void givenKeyword_whenToPredicate_thenEscapedSubstring() {
+            // When
+            search("50%_off");
+            // Then
+            verify(builder, times(3)).like(eq(lower), eq("%50\\%\\_off%"), eq('\\'));
+            verify(root, never()).get("id");
+        }
+
+        @Test
+        @DisplayName("Blank keyword is ignored")
+        void givenBlank_whenToPredicate_thenNoSearch() {
+            // When
+            search("  ");
+            // Then
+            verify(builder, never()).like(any(), anyString(), anyChar());
+        }
+    }
+}
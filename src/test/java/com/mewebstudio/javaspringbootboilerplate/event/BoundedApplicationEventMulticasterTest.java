@@ -0,0 +1,232 @@
+package com.mewebstudio.javaspringbootboilerplate.event;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ApplicationEventMulticaster;
+import org.springframework.context.event.GenericApplicationListener;
+import org.springframework.context.support.AbstractApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.ResolvableType;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("unit")
+@DisplayName("Unit tests for BoundedApplicationEventMulticaster")
+class BoundedApplicationEventMulticasterTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private BoundedApplicationEventMulticaster multicaster;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        multicaster.shutdown();
+    }
+
+    private BoundedApplicationEventMulticaster create(final int perTypeConcurrency, final int capacity) {
+        multicaster = new BoundedApplicationEventMulticaster(4, perTypeConcurrency, capacity, 5_000);
+        multicaster.bindTo(meterRegistry);
+
+        return multicaster;
+    }
+
+    private static ApplicationListener<ApplicationEvent> on(final Class<? extends ApplicationEvent> type,
+                                                            final Consumer<ApplicationEvent> consumer) {
+        return new GenericApplicationListener() {
+            @Override
+            public boolean supportsEventType(final ResolvableType eventType) {
+                return type.isAssignableFrom(eventType.toClass());
+            }
+
+            @Override
+            public void onApplicationEvent(final ApplicationEvent event) {
+                consumer.accept(event);
+            }
+        };
+    }
+
+    private ApplicationListener<ApplicationEvent> blocking(final AtomicInteger running,
+                                                           final AtomicInteger maxRunning) {
+        return on(FirstEvent.class, event -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+        });
+    }
+
+    private double lanePending(final Class<?> type) {
+        return meterRegistry.get("event.multicaster.lane.pending").tag("type", type.getSimpleName()).gauge().value();
+    }
+
+    private static void await(final BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    @Test
+    @DisplayName("Calls of one event type never run above the per-type limit")
+    void givenBurstOfOneType_whenMulticast_thenLimitedPerType() throws InterruptedException {
+        // Given
+        create(1, 100);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        multicaster.addApplicationListener(blocking(running, maxRunning));
+        // When
+        for (int i = 0; i < 3; i++) {
+            multicaster.multicastEvent(new FirstEvent());
+        }
+        // Then
+        await(() -> running.get() == 1);
+        assertEquals(2, lanePending(FirstEvent.class));
+        assertEquals(3, meterRegistry.get("event.multicaster.pending").gauge().value());
+        release.countDown();
+        await(() -> meterRegistry.get("event.multicaster.pending").gauge().value() == 0);
+        assertEquals(1, maxRunning.get());
+    }
+
+    @Test
+    @DisplayName("A busy event type does not hold back other event types")
+    void givenBusyType_whenOtherTypePublished_thenDelivered() throws InterruptedException {
+        // Given
+        create(1, 100);
+        AtomicInteger running = new AtomicInteger();
+        multicaster.addApplicationListener(blocking(running, new AtomicInteger()));
+        CountDownLatch delivered = new CountDownLatch(1);
+        multicaster.addApplicationListener(on(SecondEvent.class, event -> delivered.countDown()));
+        multicaster.multicastEvent(new FirstEvent());
+        multicaster.multicastEvent(new FirstEvent());
+        await(() -> running.get() == 1);
+        // When
+        multicaster.multicastEvent(new SecondEvent());
+        // Then
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("When the lanes are full the publisher runs the listener itself")
+    void givenFullLanes_whenMulticast_thenRunOnCaller() throws InterruptedException {
+        // Given
+        create(1, 1);
+        AtomicInteger running = new AtomicInteger();
+        multicaster.addApplicationListener(blocking(running, new AtomicInteger()));
+        AtomicReference<Thread> deliveredOn = new AtomicReference<>();
+        multicaster.addApplicationListener(on(SecondEvent.class, event -> deliveredOn.set(Thread.currentThread())));
+        multicaster.multicastEvent(new FirstEvent());
+        await(() -> running.get() == 1);
+        // When
+        multicaster.multicastEvent(new SecondEvent());
+        // Then
+        assertEquals(Thread.currentThread(), deliveredOn.get());
+        assertEquals(1, meterRegistry.get("event.multicaster.caller.runs").functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("A failing listener is logged and does not reach the publisher or the other listeners")
+    void givenFailingListener_whenMulticast_thenOthersDelivered() throws InterruptedException {
+        // Given
+        create(2, 100);
+        CountDownLatch delivered = new CountDownLatch(1);
+        multicaster.addApplicationListener(event -> {
+            throw new IllegalStateException("listener failed");
+        });
+        multicaster.addApplicationListener(event -> delivered.countDown());
+        // When
+        assertDoesNotThrow(() -> multicaster.multicastEvent(new FirstEvent()));
+        // Then
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Shutdown waits for pending calls before stopping the pool")
+    void givenPendingCalls_whenShutdown_thenDrained() {
+        // Given
+        create(1, 100);
+        AtomicInteger delivered = new AtomicInteger();
+        AtomicReference<Thread> lastThread = new AtomicReference<>();
+        multicaster.addApplicationListener(event -> {
+            try {
+                TimeUnit.MILLISECONDS.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            lastThread.set(Thread.currentThread());
+            delivered.incrementAndGet();
+        });
+        for (int i = 0; i < 5; i++) {
+            multicaster.multicastEvent(new FirstEvent());
+        }
+        // When
+        multicaster.shutdown();
+        // Then
+        assertEquals(5, delivered.get());
+        assertNotEquals(Thread.currentThread(), lastThread.get());
+    }
+
+    @Test
+    @DisplayName("Closing the context drains pending calls before any bean is destroyed")
+    void givenPendingCalls_whenContextClosed_thenDrainedBeforeBeansDestroyed() {
+        // Given
+        AtomicInteger delivered = new AtomicInteger();
+        AtomicInteger deliveredAtDestroy = new AtomicInteger(-1);
+        GenericApplicationContext context = new GenericApplicationContext();
+        context.registerBean(AbstractApplicationContext.APPLICATION_EVENT_MULTICASTER_BEAN_NAME,
+            ApplicationEventMulticaster.class, () -> create(1, 100));
+        context.registerBean("listenerDependency", DisposableBean.class,
+            () -> () -> deliveredAtDestroy.set(delivered.get()));
+        context.refresh();
+        multicaster.addApplicationListener(on(FirstEvent.class, event -> {
+            try {
+                TimeUnit.MILLISECONDS.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            delivered.incrementAndGet();
+        }));
+        for (int i = 0; i < 5; i++) {
+            context.publishEvent(new FirstEvent());
+        }
+        // When
+        context.close();
+        // Then
+        assertEquals(5, deliveredAtDestroy.get());
+        assertFalse(multicaster.isRunning());
+    }
+
+    private static final class FirstEvent extends ApplicationEvent {
+        FirstEvent() {
+            super("first");
+        }
+    }
+
+    private static final class SecondEvent extends ApplicationEvent {
+        SecondEvent() {
+            super("second");
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.mewebstudio.javaspringbootboilerplate.loadtest;
+
+import com.mewebstudio.javaspringbootboilerplate.service.websocket.WebSocketRouter;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Single-node stand-in for the Redis router: presence is kept in memory and there is no other node to forward to,
+ * so the load test measures the websocket path of one node without a Redis server.
+ */
+public class InMemoryWebSocketRouter implements WebSocketRouter {
+    private final Set<String> onlineUsers = ConcurrentHashMap.newKeySet();
+
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    @Override
+    public void setDelivery(final Delivery delivery) {
+        // Nothing is routed from other nodes.
+    }
+
+    @Override
+    public void setLocalUsers(final Supplier<Set<String>> localUsers) {
+        // Presence is never dropped behind this node's back.
+    }
+
+    @Override
+    public boolean register(final String userId) {
+        return onlineUsers.add(userId);
+    }
+
+    @Override
+    public boolean unregister(final String userId) {
+        return onlineUsers.remove(userId);
+    }
+
+    @Override
+    public Set<String> getOnlineUsers() {
+        return Set.copyOf(onlineUsers);
+    }
+
+    @Override
+    public boolean forward(final String userId, final String payload, final String key) {
+        return false;
+    }
+
+    @Override
+    public void broadcast(final String payload, final String key) {
+        // No other nodes receive the broadcast.
+    }
+
+    @Override
+    public String broadcastVersioned(final String versionKey, final String logKey, final int retained,
+                                     final String template, final String placeholder) {
+        long version = versions.computeIfAbsent(versionKey, k -> new AtomicLong()).incrementAndGet();
+
+        return template.replaceFirst(Pattern.quote(placeholder), Long.toString(version));
+    }
+}
@@ -0,0 +1,304 @@
+package com.mewebstudio.javaspringbootboilerplate.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mewebstudio.javaspringbootboilerplate.security.JwtTokenProvider;
+import com.mewebstudio.javaspringbootboilerplate.service.websocket.WebSocketBroadcaster;
+import com.mewebstudio.javaspringbootboilerplate.service.websocket.WebSocketCacheService;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Websocket load generator. Starts {@link WebSocketLoadTestServer} on a random port, opens {@code sessions}
+ * connections with minted tokens ({@code connect-concurrency} at a time), then for {@code duration} seconds sends private messages at {@code rate} per second
+ * while {@code churn} sessions per second log out and are replaced by new users. Reports the connect rate, the
+ * private message latency, the presence fan-out latency and the heap per connection.
+ * <p>
+ * Client and server share the JVM, so latencies include the client's own work and the heap figure covers both ends
+ * of a connection; compare runs of the same build settings rather than reading them as absolute numbers. With
+ * {@code max-p99-ms} set the process exits with 1 when the private message p99 exceeds it, so a run can gate changes
+ * to {@code WebSocketCacheService}.
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *   -Dexec.args="-Xmx2g -cp %classpath com.mewebstudio.javaspringbootboilerplate.loadtest.WebSocketLoadGenerator \
+ *   --sessions=2000 --duration=30 --rate=5000 --churn=20 --max-p99-ms=50"
+ * </pre>
+ */
+public final class WebSocketLoadGenerator {
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private static final int SEND_TIME_LIMIT_MS = 10_000;
+
+    private static final int BUFFER_SIZE_LIMIT = 512 * 1024;
+
+    private static final double MIB = 1024 * 1024;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final StandardWebSocketClient client = new StandardWebSocketClient();
+
+    private final Recorder connectLatency = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+
+    private final Recorder messageLatency = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+
+    private final Recorder fanOutLatency = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+
+    private final Map<String, Long> loggedOutAt = new ConcurrentHashMap<>();
+
+    private final AtomicLong sent = new AtomicLong();
+
+    private final AtomicLong received = new AtomicLong();
+
+    private final AtomicLong errors = new AtomicLong();
+
+    private final Map<CloseStatus, AtomicLong> serverCloses = new ConcurrentHashMap<>();
+
+    private final AtomicLong userSequence = new AtomicLong();
+
+    private final Map<String, String> options;
+
+    private final JwtTokenProvider jwtTokenProvider;
+
+    private final String url;
+
+    private WebSocketLoadGenerator(final Map<String, String> options, final JwtTokenProvider jwtTokenProvider,
+                                   final int port) {
+        this.options = options;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.url = "ws://localhost:" + port + "/ws/";
+    }
+
+    public static void main(final String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] option = arg.replaceFirst("^--", "").split("=", 2);
+            options.put(option[0], option.length > 1 ? option[1] : "true");
+        }
+
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        ServletWebServerApplicationContext context = (ServletWebServerApplicationContext) new SpringApplicationBuilder(
+            WebSocketLoadTestServer.class)
+            .run("--server.port=0", "--spring.main.banner-mode=off", "--spring.docker.compose.enabled=false",
+                "--logging.level.root=warn", "--logging.level.com.mewebstudio=warn");
+        boolean passed;
+        try {
+            passed = new WebSocketLoadGenerator(options, context.getBean(JwtTokenProvider.class),
+                context.getWebServer().getPort()).run(context);
+        } finally {
+            context.close();
+        }
+
+        System.exit(passed ? 0 : 1);
+    }
+
+    private int option(final String name, final int defaultValue) {
+        return Integer.parseInt(options.getOrDefault(name, String.valueOf(defaultValue)));
+    }
+
+    private boolean run(final ServletWebServerApplicationContext context) throws Exception {
+        int sessions = option("sessions", 1_000);
+        int duration = option("duration", 30);
+        int rate = option("rate", 2_000);
+        int churn = option("churn", 10);
+        int concurrency = option("connect-concurrency", 32);
+        WebSocketCacheService cacheService = context.getBean(WebSocketCacheService.class);
+
+        long heapBefore = usedHeap();
+        AtomicReferenceArray<Client> clients = new AtomicReferenceArray<>(sessions);
+        ExecutorService connector = Executors.newFixedThreadPool(concurrency);
+        long connectStart = System.nanoTime();
+        try {
+            List<Future<?>> connects = new ArrayList<>(sessions);
+            for (int i = 0; i < sessions; i++) {
+                int index = i;
+                connects.add(connector.submit(() -> {
+                    clients.set(index, connect());
+                    return null;
+                }));
+            }
+            for (Future<?> connect : connects) {
+                connect.get();
+            }
+        } finally {
+            connector.shutdown();
+        }
+        double connectSeconds = (System.nanoTime() - connectStart) / 1e9;
+        awaitSessions(cacheService, sessions);
+        long heapPerConnection = (usedHeap() - heapBefore) / sessions;
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, rate);
+        long churnEvery = churn > 0 ? Math.max(1, rate / churn) : Long.MAX_VALUE;
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(duration);
+        long next = System.nanoTime();
+        for (long tick = 1; System.nanoTime() < end; tick++) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            Client from = clients.get(random.nextInt(sessions));
+            Client to = clients.get(random.nextInt(sessions));
+            send(from, to.userId);
+            if (tick % churnEvery == 0) {
+                int replaced = random.nextInt(sessions);
+                clients.set(replaced, logout(clients.get(replaced)));
+            }
+
+            next += intervalNanos;
+            long sleep = next - System.nanoTime();
+            if (sleep > 0) {
+                TimeUnit.NANOSECONDS.sleep(sleep);
+            }
+        }
+        TimeUnit.SECONDS.sleep(1);
+
+        Histogram messages = messageLatency.getIntervalHistogram();
+        report(sessions, connectSeconds, heapPerConnection, messages,
+            context.getBean(WebSocketBroadcaster.class).getMetrics().getDropped());
+        for (int i = 0; i < sessions; i++) {
+            clients.get(i).session.close();
+        }
+
+        int maxP99 = option("max-p99-ms", 0);
+        return maxP99 <= 0 || messages.getValueAtPercentile(99) <= TimeUnit.MILLISECONDS.toMicros(maxP99);
+    }
+
+    private Client connect() throws Exception {
+        String userId = "load-" + userSequence.incrementAndGet();
+        long start = System.nanoTime();
+        WebSocketSession session = client.execute(new ClientHandler(), url + jwtTokenProvider.generateJwt(userId))
+            .get(SEND_TIME_LIMIT_MS, TimeUnit.MILLISECONDS);
+        connectLatency.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+
+        return new Client(userId, new ConcurrentWebSocketSessionDecorator(session, SEND_TIME_LIMIT_MS,
+            BUFFER_SIZE_LIMIT));
+    }
+
+    /**
+     * Log a user out and connect a new one in its place; the other sessions record when the leave reaches them.
+     */
+    private Client logout(final Client client) throws Exception {
+        loggedOutAt.put(client.userId, System.nanoTime());
+        client.session.close(CloseStatus.NORMAL);
+
+        return connect();
+    }
+
+    private void send(final Client from, final String to) {
+        try {
+            Map<String, Object> body = Map.of("type", "private", "to", to, "content", String.valueOf(System.nanoTime()));
+            from.session.sendMessage(new TextMessage(objectMapper.writeValueAsString(body)));
+            sent.incrementAndGet();
+        } catch (Exception e) {
+            errors.incrementAndGet();
+        }
+    }
+
+    private static void awaitSessions(final WebSocketCacheService cacheService, final int sessions)
+        throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(SEND_TIME_LIMIT_MS);
+        while (cacheService.getAllWebSocketSession().size() < sessions && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        for (int i = 0; i < 2; i++) {
+            System.gc();
+            TimeUnit.MILLISECONDS.sleep(100);
+        }
+
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private void report(final int sessions, final double connectSeconds, final long heapPerConnection,
+                        final Histogram messages, final double dropped) {
+        System.out.printf("%nSessions: %d, connected in %.2f s (%.0f/s)%n", sessions, connectSeconds,
+            sessions / connectSeconds);
+        print("Connect latency", connectLatency.getIntervalHistogram());
+        System.out.printf("Messages: sent %d, received %d, send errors %d, dropped by outbound queues %.0f%n",
+            sent.get(), received.get(), errors.get(), dropped);
+        print("Private message latency", messages);
+        System.out.printf("Sessions closed by the server: %s%n", serverCloses);
+        print("Presence fan-out latency", fanOutLatency.getIntervalHistogram());
+        System.out.printf("Heap per connection (client + server): %.1f KiB, total heap %.0f MiB%n",
+            heapPerConnection / 1024.0, ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() / MIB);
+    }
+
+    private static void print(final String name, final Histogram histogram) {
+        System.out.printf("%s (ms): count %d, p50 %.2f, p90 %.2f, p99 %.2f, p99.9 %.2f, max %.2f%n", name,
+            histogram.getTotalCount(), histogram.getValueAtPercentile(50) / 1e3,
+            histogram.getValueAtPercentile(90) / 1e3, histogram.getValueAtPercentile(99) / 1e3,
+            histogram.getValueAtPercentile(99.9) / 1e3, histogram.getMaxValue() / 1e3);
+    }
+
+    private record Client(String userId, WebSocketSession session) {
+    }
+
+    /**
+     * Records the latency of the private messages and of the presence deltas announcing a logout. Frames are taken in
+     * parts, as presence snapshot pages exceed the client's 8 KiB text buffer.
+     */
+    private final class ClientHandler extends TextWebSocketHandler {
+        private final StringBuilder partial = new StringBuilder();
+
+        @Override
+        public boolean supportsPartialMessages() {
+            return true;
+        }
+
+        @Override
+        protected void handleTextMessage(final WebSocketSession session, final TextMessage message) throws Exception {
+            long now = System.nanoTime();
+            if (!message.isLast() || !partial.isEmpty()) {
+                partial.append(message.getPayload());
+                if (!message.isLast()) {
+                    return;
+                }
+            }
+
+            String payload = partial.isEmpty() ? message.getPayload() : partial.toString();
+            partial.setLength(0);
+            JsonNode frame = objectMapper.readTree(payload);
+            String type = frame.path("type").asText();
+            if ("private".equals(type)) {
+                received.incrementAndGet();
+                messageLatency.recordValue(TimeUnit.NANOSECONDS.toMicros(now - frame.path("content").asLong()));
+            } else if ("presence-delta".equals(type)) {
+                for (JsonNode left : frame.path("left")) {
+                    Long at = loggedOutAt.get(left.asText());
+                    if (at != null) {
+                        fanOutLatency.recordValue(TimeUnit.NANOSECONDS.toMicros(now - at));
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void afterConnectionClosed(final WebSocketSession session, final CloseStatus status) {
+            if (!CloseStatus.NORMAL.equals(status)) {
+                serverCloses.computeIfAbsent(status, key -> new AtomicLong()).incrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.mewebstudio.javaspringbootboilerplate.loadtest;
+
+import com.mewebstudio.javaspringbootboilerplate.Constants;
+import com.mewebstudio.javaspringbootboilerplate.config.WebsocketConfig;
+import com.mewebstudio.javaspringbootboilerplate.security.JwtTokenProvider;
+import com.mewebstudio.javaspringbootboilerplate.service.JwtTokenService;
+import com.mewebstudio.javaspringbootboilerplate.service.TokenRevocationService;
+import com.mewebstudio.javaspringbootboilerplate.service.UserService;
+import com.mewebstudio.javaspringbootboilerplate.service.websocket.PresenceService;
+import com.mewebstudio.javaspringbootboilerplate.service.websocket.WebSocketBroadcaster;
+import com.mewebstudio.javaspringbootboilerplate.service.websocket.WebSocketCacheService;
+import com.mewebstudio.javaspringbootboilerplate.service.websocket.WebSocketCodec;
+import com.mewebstudio.javaspringbootboilerplate.service.websocket.WebSocketHeartbeat;
+import com.mewebstudio.javaspringbootboilerplate.service.websocket.WebSocketInterceptor;
+import com.mewebstudio.javaspringbootboilerplate.service.websocket.WebSocketLifecycleDispatcher;
+import com.mewebstudio.javaspringbootboilerplate.service.websocket.WebSocketRouter;
+import com.mewebstudio.javaspringbootboilerplate.service.websocket.WebsocketChannelHandler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.websocket.servlet.WebSocketServletAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Embedded server for the load test: the production websocket handler, cache, broadcaster and presence service on
+ * Tomcat, without the database. Redis is replaced by {@link InMemoryWebSocketRouter} and a stub template, and tokens
+ * are validated in stateless mode so no token store is needed.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableScheduling
+@ImportAutoConfiguration({
+    PropertyPlaceholderAutoConfiguration.class,
+    JacksonAutoConfiguration.class,
+    ServletWebServerFactoryAutoConfiguration.class,
+    DispatcherServletAutoConfiguration.class,
+    WebSocketServletAutoConfiguration.class
+})
+@Import({
+    WebsocketConfig.class,
+    WebsocketChannelHandler.class,
+    WebSocketInterceptor.class,
+    WebSocketCacheService.class,
+    WebSocketBroadcaster.class,
+    WebSocketCodec.class,
+    WebSocketLifecycleDispatcher.class,
+    WebSocketHeartbeat.class,
+    PresenceService.class
+})
+public class WebSocketLoadTestServer {
+    private static final long TOKEN_EXPIRES_IN = 3_600_000L;
+
+    @Bean
+    MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+
+    @Bean
+    WebSocketRouter webSocketRouter() {
+        return new InMemoryWebSocketRouter();
+    }
+
+    @Bean
+    @SuppressWarnings("unchecked")
+    StringRedisTemplate stringRedisTemplate() {
+        StringRedisTemplate template = mock(StringRedisTemplate.class, withSettings().stubOnly());
+        when(template.opsForValue()).thenReturn(mock(ValueOperations.class, withSettings().stubOnly()));
+        when(template.opsForZSet()).thenReturn(mock(ZSetOperations.class, withSettings().stubOnly()));
+
+        return template;
+    }
+
+    @Bean
+    JwtTokenProvider jwtTokenProvider() {
+        return new JwtTokenProvider(Constants.APP_SECRET_KEY, TOKEN_EXPIRES_IN, TOKEN_EXPIRES_IN, TOKEN_EXPIRES_IN,
+            true, mock(UserService.class), mock(JwtTokenService.class),
+            mock(TokenRevocationService.class, withSettings().stubOnly()), mock(HttpServletRequest.class));
+    }
+}
@@ -0,0 +1,79 @@
+package com.mewebstudio.javaspringbootboilerplate.repository;
+
+import com.mewebstudio.javaspringbootboilerplate.dto.response.auth.PasswordResetResponse;
+import com.mewebstudio.javaspringbootboilerplate.entity.PasswordResetToken;
+import com.mewebstudio.javaspringbootboilerplate.entity.Role;
+import com.mewebstudio.javaspringbootboilerplate.entity.User;
+import com.mewebstudio.javaspringbootboilerplate.util.Constants;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Tag("jpaIT")
+@DataJpaTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:password-reset;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+    "spring.liquibase.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.globally_quoted_identifiers_skip_column_definitions=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("JPA Integration Tests for PasswordResetTokenRepository")
+class PasswordResetTokenRepositoryJpaIT {
+    @Autowired
+    private PasswordResetTokenRepository passwordResetTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @BeforeEach
+    void setUp() {
+        User user = User.builder()
+            .email("user@example.com")
+            .password("secret")
+            .name("Name")
+            .lastName("Last")
+            .roles(new ArrayList<>(List.of(roleRepository.save(new Role(Constants.RoleEnum.USER)))))
+            .build();
+        user.setPasswordResetToken(PasswordResetToken.builder()
+            .user(user)
+            .token("token")
+            .expirationDate(new Date(System.currentTimeMillis() + 60_000))
+            .build());
+        userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordResetTokenRepository.deleteAll();
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("A token found outside a transaction converts with the roles of its user")
+    void givenToken_whenFindByTokenOutsideTransaction_thenConvertedWithRoles() {
+        // When
+        PasswordResetToken token = passwordResetTokenRepository.findByToken("token").orElseThrow();
+        PasswordResetResponse response = PasswordResetResponse.convert(token);
+        // Then
+        assertEquals(List.of(Constants.RoleEnum.USER.name()), response.getUser().getRoles());
+    }
+}
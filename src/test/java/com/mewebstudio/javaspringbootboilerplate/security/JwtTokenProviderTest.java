@@ -0,0 +1,157 @@
+package com.mewebstudio.javaspringbootboilerplate.security;
+
+import com.mewebstudio.javaspringbootboilerplate.Constants;
+import com.mewebstudio.javaspringbootboilerplate.entity.JwtToken;
+import com.mewebstudio.javaspringbootboilerplate.exception.NotFoundException;
+import com.mewebstudio.javaspringbootboilerplate.service.JwtTokenService;
+import com.mewebstudio.javaspringbootboilerplate.service.TokenRevocationService;
+import com.mewebstudio.javaspringbootboilerplate.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.Date;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Tag("unit")
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Unit tests for JwtTokenProvider")
+class JwtTokenProviderTest {
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private JwtTokenService jwtTokenService;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+
+    private final String userId = UUID.randomUUID().toString();
+
+    private JwtTokenProvider jwtTokenProvider;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        request.addHeader("User-agent", "junit");
+        jwtTokenProvider = new JwtTokenProvider(Constants.APP_SECRET_KEY, 60_000L, 120_000L, 240_000L, false,
+            userService, jwtTokenService, tokenRevocationService, request);
+        token = jwtTokenProvider.generateJwt(userId);
+    }
+
+    @Nested
+    @DisplayName("Test class for validateToken scenarios")
+    class ValidateTokenTest {
+        @Test
+        @DisplayName("Happy path")
+        void givenToken_whenValidateToken_thenClaimsStoredInRequest() {
+            // Given
+            when(jwtTokenService.findByTokenOrRefreshToken(token))
+                .thenReturn(JwtToken.builder().token(token).userAgent("junit").build());
+            // When
+            boolean result = jwtTokenProvider.validateToken(token, request);
+            // Then
+            assertTrue(result);
+            assertEquals(userId, jwtTokenProvider.getUserIdFromRequest(request));
+        }
+
+        @Test
+        @DisplayName("Token not found in store")
+        void givenUnknownToken_whenValidateToken_thenReturnFalse() {
+            // Given
+            when(jwtTokenService.findByTokenOrRefreshToken(token)).thenThrow(new NotFoundException("not found"));
+            // When
+            boolean result = jwtTokenProvider.validateToken(token, request);
+            // Then
+            assertFalse(result);
+            assertNotNull(request.getAttribute("notfound"));
+            assertNull(jwtTokenProvider.getUserIdFromRequest(request));
+        }
+
+        @Test
+        @DisplayName("Malformed token")
+        void givenMalformedToken_whenValidateToken_thenReturnFalse() {
+            // When
+            boolean result = jwtTokenProvider.validateToken("not-a-jwt", request);
+            // Then
+            assertFalse(result);
+            assertNotNull(request.getAttribute("invalid"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Test class for stateless validateToken scenarios")
+    class StatelessValidateTokenTest {
+        private JwtTokenProvider statelessJwtTokenProvider;
+
+        @BeforeEach
+        void setUp() {
+            statelessJwtTokenProvider = new JwtTokenProvider(Constants.APP_SECRET_KEY, 60_000L, 120_000L, 240_000L,
+                true, userService, jwtTokenService, tokenRevocationService, request);
+        }
+
+        @Test
+        @DisplayName("Happy path")
+        void givenToken_whenValidateToken_thenTokenStoreNotCalled() {
+            // When
+            boolean result = statelessJwtTokenProvider.validateToken(token, request);
+            // Then
+            assertTrue(result);
+            assertEquals(userId, statelessJwtTokenProvider.getUserIdFromRequest(request));
+            verify(jwtTokenService, never()).findByTokenOrRefreshToken(token);
+        }
+
+        @Test
+        @DisplayName("Revoked token")
+        void givenRevokedToken_whenValidateToken_thenReturnFalse() {
+            // Given
+            when(tokenRevocationService.isRevoked(anyString())).thenReturn(true);
+            // When
+            boolean result = statelessJwtTokenProvider.validateToken(token, request);
+            // Then
+            assertFalse(result);
+            assertNull(statelessJwtTokenProvider.getUserIdFromRequest(request));
+        }
+    }
+
+    @Test
+    @DisplayName("Test class for revoke scenarios")
+    void givenJwtToken_whenRevoke_thenBothTokensRevoked() {
+        // Given
+        String refreshToken = jwtTokenProvider.generateRefresh(userId);
+        // When
+        jwtTokenProvider.revoke(JwtToken.builder().token(token).refreshToken(refreshToken).build());
+        // Then
+        verify(tokenRevocationService, times(2)).revoke(anyString(), any(Date.class));
+    }
+
+    @Test
+    @DisplayName("Test class for getUserIdFromToken scenarios")
+    void givenToken_whenGetUserIdFromToken_thenAssertBody() {
+        // When
+        String result = jwtTokenProvider.getUserIdFromToken(token);
+        // Then
+        assertEquals(userId, result);
+    }
+}
@@ -5,11 +5,20 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @Tag("unit")
 @DisplayName("Unit tests for AESCipherService")
 class AESCipherServiceTest {
+    private static final String NEW_SECRET_KEY = "6v9y$B&E)H@McQfTjWnZr4u7x!z%C*F-";
+
+    private final Map<Integer, String> secretKeys = Map.of(0, Constants.APP_SECRET_KEY, 1, Constants.APP_SECRET_KEY,
+        2, NEW_SECRET_KEY);
+
     @Test
     @DisplayName("Test class for encryption and decryption scenarios")
     public void testEncryptAndDecrypt() throws Exception {
@@ -22,4 +31,32 @@ class AESCipherServiceTest {
 
         assertEquals(plainText, decryptedText);
     }
+
+    @Test
+    @DisplayName("Versioned texts are decrypted with the key of their version, legacy texts with the legacy key")
+    public void testDecryptVersioned() throws Exception {
+        AESCipherService aesCipherService = new AESCipherService();
+
+        String legacy = aesCipherService.encrypt("legacy", Constants.APP_SECRET_KEY);
+        String rotated = aesCipherService.encryptVersioned("rotated", NEW_SECRET_KEY, 2);
+
+        assertEquals("legacy", aesCipherService.decryptVersioned(legacy, secretKeys::get));
+        assertEquals("rotated", aesCipherService.decryptVersioned(rotated, secretKeys::get));
+        assertThrows(IllegalArgumentException.class, () -> aesCipherService.decryptVersioned(
+            aesCipherService.encryptVersioned("unknown", NEW_SECRET_KEY, 3), secretKeys::get));
+    }
+
+    @Test
+    @DisplayName("Batch decryption of mixed key versions keeps the order of the texts")
+    public void testEncryptAllAndDecryptAll() throws Exception {
+        AESCipherService aesCipherService = new AESCipherService();
+        List<String> encryptedTexts = new ArrayList<>(
+            aesCipherService.encryptAll(List.of("a", "b"), Constants.APP_SECRET_KEY, 1));
+        encryptedTexts.add(1, aesCipherService.encrypt("legacy", Constants.APP_SECRET_KEY));
+        encryptedTexts.add(aesCipherService.encryptVersioned("c", NEW_SECRET_KEY, 2));
+
+        List<String> plainTexts = aesCipherService.decryptAll(encryptedTexts, secretKeys::get);
+
+        assertEquals(List.of("a", "legacy", "b", "c"), plainTexts);
+    }
 }
@@ -205,6 +205,7 @@ class AuthServiceTest {
             assertNotNull(response);
             assertEquals("newToken", response.getToken());
             assertEquals("newRefresh", response.getRefreshToken());
+            verify(jwtTokenProvider, times(1)).revoke(oldToken);
         }
     }
 
@@ -259,6 +260,7 @@ class AuthServiceTest {
             verify(jwtTokenProvider, times(1)).extractJwtFromBearerString(bearerToken);
             verify(jwtTokenService, times(1)).findByTokenOrRefreshToken(token);
             verify(jwtTokenService, times(1)).delete(any());
+            verify(jwtTokenProvider, times(1)).revoke(jwtToken);
         }
 
         @Test
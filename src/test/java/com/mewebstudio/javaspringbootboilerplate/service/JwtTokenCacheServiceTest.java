@@ -0,0 +1,111 @@
+package com.mewebstudio.javaspringbootboilerplate.service;
+
+import com.mewebstudio.javaspringbootboilerplate.entity.JwtToken;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Tag("unit")
+@DisplayName("Unit tests for JwtTokenCacheService")
+class JwtTokenCacheServiceTest {
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private RedisMessageListenerContainer redisMessageListenerContainer;
+
+    private JwtTokenCacheService jwtTokenCacheService;
+
+    private final JwtToken jwtToken = JwtToken.builder()
+        .token("testToken")
+        .refreshToken("testRefreshToken")
+        .tokenTimeToLive(60_000L)
+        .build();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        jwtTokenCacheService = new JwtTokenCacheService(100L, 60_000L, stringRedisTemplate,
+            redisMessageListenerContainer, new SimpleMeterRegistry());
+        when(stringRedisTemplate.getExpire(anyString(), eq(TimeUnit.MILLISECONDS))).thenReturn(30_000L);
+    }
+
+    @Nested
+    @DisplayName("Test class for put scenarios")
+    class PutTest {
+        @Test
+        @DisplayName("Happy path")
+        void givenToken_whenPut_thenGetReturnsToken() {
+            // When
+            jwtTokenCacheService.put("testToken", jwtToken);
+            // Then
+            assertEquals(jwtToken, jwtTokenCacheService.get("testToken").orElseThrow());
+        }
+
+        @Test
+        @DisplayName("Redis key is gone")
+        void givenExpiredRedisKey_whenPut_thenNotCached() {
+            // Given
+            when(stringRedisTemplate.getExpire(anyString(), eq(TimeUnit.MILLISECONDS))).thenReturn(-2L);
+            // When
+            jwtTokenCacheService.put("testToken", jwtToken);
+            // Then
+            assertTrue(jwtTokenCacheService.get("testToken").isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("Test class for evict scenarios")
+    class EvictTest {
+        @Test
+        @DisplayName("Happy path")
+        void givenCachedToken_whenEvict_thenRemovedAndPublished() {
+            // Given
+            jwtTokenCacheService.put("testToken", jwtToken);
+            jwtTokenCacheService.put("testRefreshToken", jwtToken);
+            // When
+            jwtTokenCacheService.evict(jwtToken);
+            // Then
+            assertTrue(jwtTokenCacheService.get("testToken").isEmpty());
+            assertTrue(jwtTokenCacheService.get("testRefreshToken").isEmpty());
+            verify(stringRedisTemplate, times(1)).convertAndSend(eq("jwtTokens:invalidate"), anyString());
+        }
+
+        @Test
+        @DisplayName("Invalidation from another node")
+        void givenPublishedInvalidation_whenOnMessage_thenRemoved() {
+            // Given
+            jwtTokenCacheService.put("testToken", jwtToken);
+            ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+            jwtTokenCacheService.evict(jwtToken);
+            verify(stringRedisTemplate).convertAndSend(any(), captor.capture());
+            jwtTokenCacheService.put("testToken", jwtToken);
+            // When
+            jwtTokenCacheService.onMessage(new DefaultMessage("jwtTokens:invalidate".getBytes(StandardCharsets.UTF_8),
+                captor.getValue().getBytes(StandardCharsets.UTF_8)), null);
+            // Then
+            assertTrue(jwtTokenCacheService.get("testToken").isEmpty());
+        }
+    }
+}
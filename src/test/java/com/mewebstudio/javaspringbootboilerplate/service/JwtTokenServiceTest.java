@@ -27,6 +27,9 @@ class JwtTokenServiceTest {
     @Mock
     private JwtTokenRepository jwtTokenRepository;
 
+    @Mock
+    private JwtTokenCacheService jwtTokenCacheService;
+
     @Mock
     private MessageSourceService messageSourceService;
 
@@ -91,6 +94,19 @@ class JwtTokenServiceTest {
             // Then
             assertEquals(jwtToken, result);
             verify(jwtTokenRepository, times(1)).findByTokenOrRefreshToken(token, token);
+            verify(jwtTokenCacheService, times(1)).put(token, jwtToken);
+        }
+
+        @Test
+        @DisplayName("Near-cache hit")
+        void givenCachedToken_whenFindByTokenOrRefreshToken_thenRepositoryNotCalled() {
+            // Given
+            when(jwtTokenCacheService.get(token)).thenReturn(Optional.of(jwtToken));
+            // When
+            JwtToken result = jwtTokenService.findByTokenOrRefreshToken(token);
+            // Then
+            assertEquals(jwtToken, result);
+            verify(jwtTokenRepository, never()).findByTokenOrRefreshToken(token, token);
         }
 
         @Test
@@ -123,5 +139,6 @@ class JwtTokenServiceTest {
         jwtTokenService.delete(jwtToken);
         // Then
         verify(jwtTokenRepository, times(1)).delete(jwtToken);
+        verify(jwtTokenCacheService, times(1)).evict(jwtToken);
     }
 }
@@ -0,0 +1,231 @@
+package com.mewebstudio.javaspringbootboilerplate.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.mewebstudio.javaspringbootboilerplate.entity.MailOutbox;
+import com.mewebstudio.javaspringbootboilerplate.repository.MailOutboxRepository;
+import com.mewebstudio.javaspringbootboilerplate.util.Constants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.UnsupportedEncodingException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Tag("unit")
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Unit tests for MailOutboxService")
+class MailOutboxServiceTest {
+    @RegisterExtension
+    static final GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private static final int BATCH_SIZE = 10;
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private static final long RETRY_BACKOFF = 1_000;
+
+    @Mock
+    private MailOutboxRepository mailOutboxRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private MailOutboxService mailOutboxService;
+
+    @BeforeEach
+    void setUp() throws UnsupportedEncodingException {
+        mailOutboxService = create(ServerSetupTest.SMTP.getPort(), 0);
+        lenient().when(mailOutboxRepository.saveAll(anyIterable())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        mailOutboxService.shutdown();
+    }
+
+    private MailOutboxService create(final int port, final long maxPerSecond) throws UnsupportedEncodingException {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(port);
+
+        return new MailOutboxService(1, BATCH_SIZE, maxPerSecond, MAX_ATTEMPTS, RETRY_BACKOFF, 60_000, "AppName",
+            "sender@example.com", mailOutboxRepository, mailSender, transactionManager, meterRegistry);
+    }
+
+    private static List<MailOutbox> due(final int count, final int attempts) {
+        return IntStream.range(0, count).mapToObj(i -> {
+            MailOutbox mail = MailOutbox.builder()
+                .recipient("user" + i + "@example.com")
+                .recipientName("User " + i)
+                .subject("Subject " + i)
+                .body("<p>Body " + i + "</p>")
+                .status(Constants.MailOutboxStatusEnum.PENDING)
+                .attempts(attempts)
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
+            mail.setId(UUID.randomUUID());
+
+            return mail;
+        }).toList();
+    }
+
+    private double counter(final String name) {
+        return meterRegistry.get("mail.outbox." + name).counter().count();
+    }
+
+    @Test
+    @DisplayName("A queued mail is stored as pending and due right away")
+    void givenMail_whenEnqueue_thenSavedPending() {
+        // Given
+        when(mailOutboxRepository.save(any(MailOutbox.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        // When
+        MailOutbox mail = mailOutboxService.enqueue("user@example.com", "User", "Subject", "<p>Body</p>");
+        // Then
+        assertEquals(Constants.MailOutboxStatusEnum.PENDING, mail.getStatus());
+        assertEquals(0, mail.getAttempts());
+        assertNotNull(mail.getNextAttemptAt());
+    }
+
+    @Test
+    @DisplayName("A due batch is sent over SMTP and deleted from the outbox")
+    void givenDueBatch_whenDrain_thenSentAndDeleted() throws Exception {
+        // Given
+        List<MailOutbox> batch = due(3, 0);
+        when(mailOutboxRepository.findDueForUpdate(any(LocalDateTime.class), anyInt())).thenReturn(batch);
+        // When
+        int claimed = mailOutboxService.drain();
+        // Then
+        assertEquals(3, claimed);
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(3, received.length);
+        assertEquals("Subject 0", received[0].getSubject());
+        batch.forEach(mail -> {
+            assertEquals(1, mail.getAttempts());
+            assertTrue(mail.getNextAttemptAt().isAfter(LocalDateTime.now()));
+        });
+        verify(mailOutboxRepository).deleteAllByIdInBatch(batch.stream().map(MailOutbox::getId).toList());
+        assertEquals(3, counter("sent"));
+        assertEquals(0, counter("failed"));
+    }
+
+    @Test
+    @DisplayName("When the SMTP server is unreachable the batch is retried later")
+    void givenServerDown_whenDrain_thenRescheduledWithBackoff() throws Exception {
+        // Given
+        mailOutboxService = create(ServerSetupTest.SMTP.getPort() + 1, 0);
+        List<MailOutbox> batch = due(2, 1);
+        when(mailOutboxRepository.findDueForUpdate(any(LocalDateTime.class), anyInt())).thenReturn(batch);
+        // When
+        mailOutboxService.drain();
+        // Then
+        verify(mailOutboxRepository, never()).deleteAllByIdInBatch(any());
+        batch.forEach(mail -> {
+            assertEquals(2, mail.getAttempts());
+            assertEquals(Constants.MailOutboxStatusEnum.PENDING, mail.getStatus());
+            assertNotNull(mail.getLastError());
+            assertTrue(mail.getNextAttemptAt().isAfter(LocalDateTime.now().plusNanos(RETRY_BACKOFF * 1_000_000)));
+        });
+        assertEquals(2, counter("failed"));
+        assertEquals(0, counter("dead"));
+    }
+
+    @Test
+    @DisplayName("A mail that fails its last attempt is marked failed")
+    void givenLastAttempt_whenDrainFails_thenMarkedFailed() throws Exception {
+        // Given
+        mailOutboxService = create(ServerSetupTest.SMTP.getPort() + 1, 0);
+        List<MailOutbox> batch = due(1, MAX_ATTEMPTS - 1);
+        when(mailOutboxRepository.findDueForUpdate(any(LocalDateTime.class), anyInt())).thenReturn(batch);
+        // When
+        mailOutboxService.drain();
+        // Then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Iterable<MailOutbox>> captor = ArgumentCaptor.forClass(Iterable.class);
+        verify(mailOutboxRepository, times(2)).saveAll(captor.capture());
+        MailOutbox mail = captor.getValue().iterator().next();
+        assertEquals(Constants.MailOutboxStatusEnum.FAILED, mail.getStatus());
+        assertEquals(1, counter("dead"));
+    }
+
+    @Test
+    @DisplayName("A mail due again after its last attempt is marked failed when claimed, not sent")
+    void givenExhaustedMail_whenClaimed_thenMarkedFailedWithoutSending() {
+        // Given
+        List<MailOutbox> exhausted = due(1, MAX_ATTEMPTS);
+        List<MailOutbox> fresh = due(1, 0);
+        when(mailOutboxRepository.findDueForUpdate(any(LocalDateTime.class), anyInt()))
+            .thenReturn(List.of(exhausted.get(0), fresh.get(0)));
+        // When
+        int claimed = mailOutboxService.drain();
+        // Then
+        assertEquals(1, claimed);
+        assertEquals(1, greenMail.getReceivedMessages().length);
+        assertEquals(Constants.MailOutboxStatusEnum.FAILED, exhausted.get(0).getStatus());
+        assertEquals(MAX_ATTEMPTS, exhausted.get(0).getAttempts());
+        verify(mailOutboxRepository).deleteAllByIdInBatch(List.of(fresh.get(0).getId()));
+        assertEquals(1, counter("dead"));
+        assertEquals(1, counter("sent"));
+    }
+
+    @Test
+    @DisplayName("Batches are spaced out to the configured send rate")
+    void givenRateLimit_whenDrainTwice_thenSecondBatchWaits() throws Exception {
+        // Given
+        mailOutboxService = create(ServerSetupTest.SMTP.getPort(), 20);
+        when(mailOutboxRepository.findDueForUpdate(any(LocalDateTime.class), anyInt()))
+            .thenReturn(due(5, 0), due(5, 0));
+        // When
+        long start = System.nanoTime();
+        mailOutboxService.drain();
+        mailOutboxService.drain();
+        long elapsed = System.nanoTime() - start;
+        // Then
+        assertEquals(10, greenMail.getReceivedMessages().length);
+        assertTrue(elapsed >= 250_000_000L, "two batches took " + elapsed + " ns");
+    }
+
+    @Test
+    @DisplayName("Polling publishes the backlog and the age of the oldest pending mail")
+    void givenBacklog_whenPoll_thenGaugesUpdated() {
+        // Given
+        when(mailOutboxRepository.countByStatus(Constants.MailOutboxStatusEnum.PENDING)).thenReturn(4L);
+        when(mailOutboxRepository.findOldestCreatedAtByStatus(Constants.MailOutboxStatusEnum.PENDING))
+            .thenReturn(LocalDateTime.now().minusSeconds(30));
+        // When
+        mailOutboxService.poll();
+        // Then
+        assertEquals(4, meterRegistry.get("mail.outbox.pending").gauge().value());
+        assertTrue(meterRegistry.get("mail.outbox.lag").gauge().value() >= 30_000);
+        verify(mailOutboxRepository, timeout(1000)).findDueForUpdate(any(), anyInt());
+    }
+}
@@ -1,31 +1,27 @@
 package com.mewebstudio.javaspringbootboilerplate.service;
 
 import com.mewebstudio.javaspringbootboilerplate.entity.EmailVerificationToken;
+import com.mewebstudio.javaspringbootboilerplate.entity.PasswordResetToken;
 import com.mewebstudio.javaspringbootboilerplate.entity.User;
-import jakarta.mail.MessagingException;
-import jakarta.mail.Session;
-import jakarta.mail.internet.MimeMessage;
 import org.instancio.Instancio;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.mail.MailSendException;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.JavaMailSenderImpl;
-import org.thymeleaf.context.Context;
-import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.springframework.dao.DataAccessResourceFailureException;
 
-import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.doNothing;
-import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -34,40 +30,32 @@ import static org.mockito.Mockito.when;
 @Tag("unit")
 @DisplayName("Unit tests for MailSenderService")
 class MailSenderServiceTest {
-    @InjectMocks
     private MailSenderService mailSenderService;
 
     @Mock
-    private JavaMailSender mailSender;
+    private MailOutboxService mailOutboxService;
 
     @Mock
-    private SpringTemplateEngine templateEngine;
+    private MailTemplateService mailTemplateService;
 
     @Mock
     private MessageSourceService messageSourceService;
 
-    private final JavaMailSenderImpl javaMailSender = new JavaMailSenderImpl();
-
-    private final MimeMessage mimeMessage = new MimeMessage((Session) null);
-
     private final User user = Instancio.create(User.class);
 
     private final EmailVerificationToken emailVerificationToken = Instancio.create(EmailVerificationToken.class);
 
+    private final PasswordResetToken passwordResetToken = Instancio.create(PasswordResetToken.class);
+
     @BeforeEach
-    void setUp() throws MessagingException {
+    void setUp() {
         MockitoAnnotations.openMocks(this);
+        mailSenderService = new MailSenderService("http://localhost:3000", messageSourceService, mailTemplateService,
+            mailOutboxService);
         user.setEmailVerificationToken(emailVerificationToken);
+        user.setPasswordResetToken(passwordResetToken);
 
-        javaMailSender.setHost("localhost");
-        javaMailSender.setPort(25);
-
-        mimeMessage.setSubject("Email Verification");
-        mimeMessage.setText("Email content");
-        mimeMessage.setRecipients(MimeMessage.RecipientType.TO, user.getEmail());
-
-        lenient().when(templateEngine.process(anyString(), any(Context.class))).thenReturn("Email content");
-        lenient().when(messageSourceService.get("email_verification")).thenReturn("Email Verification");
+        lenient().when(mailTemplateService.render(anyString(), any(Locale.class), anyMap())).thenReturn("Email content");
     }
 
     @Nested
@@ -75,72 +63,62 @@ class MailSenderServiceTest {
     class SendUserEmailVerificationTest {
         private final String subject = "Email Verification";
 
-        @BeforeEach
-        void setUp() {
-            lenient().when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-        }
-
         @Test
         @DisplayName("Test sendUserEmailVerification scenario")
         void given_whenSendUserEmailVerification_thenAssertBody() {
             // Given
             when(messageSourceService.get("email_verification")).thenReturn(subject);
-            doNothing().when(mailSender).send(any(MimeMessage.class));
             // When
             mailSenderService.sendUserEmailVerification(user);
             // Then
-            verify(templateEngine, times(1)).process(eq("mail/user-email-verification"),
-                any(Context.class));
-            verify(mailSender, times(1)).send(any(MimeMessage.class));
+            verify(mailTemplateService, times(1)).render(eq("mail/user-email-verification"), any(Locale.class),
+                eq(Map.of("name", user.getName(), "lastName", user.getLastName(), "fullName", user.getFullName(),
+                    "url", "http://localhost:3000/auth/email-verification/" + emailVerificationToken.getToken())));
+            verify(mailOutboxService, times(1)).enqueue(user.getEmail(), user.getName(), subject, "Email content");
         }
 
         @Test
-        @DisplayName("Test sendUserEmailVerification throw exception scenario")
-        void given_whenSendUserEmailVerification_thenVerifyErrorHandling() {
+        @DisplayName("Test sendUserEmailVerification outbox failure scenario")
+        void given_whenSendUserEmailVerification_thenOutboxFailurePropagated() {
             // Given
             when(messageSourceService.get("email_verification")).thenReturn(subject);
-            doThrow(new MailSendException("Mail send failed")).when(mailSender).send(mimeMessage);
+            when(mailOutboxService.enqueue(anyString(), anyString(), anyString(), anyString()))
+                .thenThrow(new DataAccessResourceFailureException("Database down"));
             // When
-            assertDoesNotThrow(() -> mailSenderService.sendUserEmailVerification(user));
+            assertThrows(DataAccessResourceFailureException.class,
+                () -> mailSenderService.sendUserEmailVerification(user));
             // Then
-            // Verify that the error is handled gracefully in sendUserEmailVerification
+            // The failure reaches the caller instead of being logged as a sent mail
         }
     }
 
+    @Test
+    @DisplayName("Test precompileTemplates scenario")
+    void given_whenPrecompileTemplates_thenBothTemplatesCompiled() {
+        // When
+        mailSenderService.precompileTemplates();
+        // Then
+        List<String> variables = List.of("name", "lastName", "fullName", "url");
+        verify(mailTemplateService).precompile("mail/user-email-verification", variables);
+        verify(mailTemplateService).precompile("mail/user-reset-password", variables);
+    }
+
     @Nested
     @DisplayName("Test class for sendUserPasswordReset scenarios")
     class SendUserPasswordResetTest {
         private final String subject = "Reset Password";
 
-        @BeforeEach
-        void setUp() {
-            lenient().when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-        }
-
         @Test
         @DisplayName("Test sendUserPasswordReset scenario")
         void given_whenSendUserPasswordReset_thenAssertBody() {
             // Given
             when(messageSourceService.get("password_reset")).thenReturn(subject);
-            doNothing().when(mailSender).send(any(MimeMessage.class));
             // When
             mailSenderService.sendUserPasswordReset(user);
             // Then
-            verify(templateEngine, times(1)).process(eq("mail/user-reset-password"),
-                any(Context.class));
-            verify(mailSender, times(1)).send(any(MimeMessage.class));
-        }
-
-        @Test
-        @DisplayName("Test sendUserPasswordReset throw exception scenario")
-        void given_whenSendUserPasswordReset_thenVerifyErrorHandling() {
-            // Given
-            when(messageSourceService.get("password_reset")).thenReturn(subject);
-            doThrow(new MailSendException("Mail send failed")).when(mailSender).send(mimeMessage);
-            // When
-            assertDoesNotThrow(() -> mailSenderService.sendUserPasswordReset(user));
-            // Then
-            // Verify that the error is handled gracefully in sendUserEmailVerification
+            verify(mailTemplateService, times(1)).render(eq("mail/user-reset-password"), any(Locale.class),
+                anyMap());
+            verify(mailOutboxService, times(1)).enqueue(user.getEmail(), user.getName(), subject, "Email content");
         }
     }
 }
@@ -0,0 +1,139 @@
+package com.mewebstudio.javaspringbootboilerplate.service;
+
+import com.mewebstudio.javaspringbootboilerplate.config.AppConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.context.IContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.spring6.templateresolver.SpringResourceTemplateResolver;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@Tag("unit")
+@DisplayName("Unit tests for MailTemplateService")
+class MailTemplateServiceTest {
+    private static final String TEMPLATE = "mail/user-email-verification";
+
+    private static final Map<String, String> VARIABLES = Map.of(
+        "name", "Ada <script>",
+        "lastName", "O'Brien & Co",
+        "fullName", "O'Brien & Co Ada <script>",
+        "url", "http://localhost:3000/auth/email-verification/a\"b"
+    );
+
+    private SpringTemplateEngine templateEngine;
+
+    private MailTemplateService mailTemplateService;
+
+    @BeforeEach
+    void setUp() {
+        ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasename("locales.messages");
+        messageSource.setDefaultEncoding(StandardCharsets.UTF_8.name());
+        SpringResourceTemplateResolver templateResolver = new AppConfig().htmlTemplateResolver();
+        templateResolver.setApplicationContext(new GenericApplicationContext());
+        templateEngine = spy(new SpringTemplateEngine());
+        templateEngine.addTemplateResolver(templateResolver);
+        templateEngine.setTemplateEngineMessageSource(messageSource);
+        mailTemplateService = new MailTemplateService("AppName", "http://localhost:8080", "http://localhost:3000",
+            "sender@example.com", new String[]{"en", "tr"}, "en", templateEngine);
+    }
+
+    private String thymeleaf(final String template, final Locale locale, final Map<String, String> variables) {
+        Context ctx = new Context(locale);
+        ctx.setVariable("SENDER_ADDRESS", "sender@example.com");
+        ctx.setVariable("APP_NAME", "AppName");
+        ctx.setVariable("APP_URL", "http://localhost:8080");
+        ctx.setVariable("FRONTEND_URL", "http://localhost:3000");
+        variables.forEach(ctx::setVariable);
+
+        return templateEngine.process(template, ctx);
+    }
+
+    @Test
+    @DisplayName("A compiled template renders exactly what Thymeleaf renders, in every locale")
+    void givenCompiledTemplate_whenRender_thenSameAsThymeleaf() {
+        // Given
+        mailTemplateService.precompile(TEMPLATE, VARIABLES.keySet());
+        for (Locale locale : List.of(Locale.ENGLISH, Locale.forLanguageTag("tr"))) {
+            // When
+            String html = mailTemplateService.render(TEMPLATE, locale, VARIABLES);
+            // Then
+            assertEquals(thymeleaf(TEMPLATE, locale, VARIABLES), html);
+            assertTrue(html.contains("Ada &lt;script&gt;"));
+        }
+        assertTrue(mailTemplateService.render(TEMPLATE, Locale.forLanguageTag("tr"), VARIABLES).contains("Selam"));
+    }
+
+    @Test
+    @DisplayName("A precompiled template is rendered without Thymeleaf")
+    void givenPrecompiledTemplate_whenRender_thenEngineNotCalled() {
+        // Given
+        mailTemplateService.precompile(TEMPLATE, VARIABLES.keySet());
+        clearInvocations(templateEngine);
+        // When
+        mailTemplateService.render(TEMPLATE, Locale.ENGLISH, VARIABLES);
+        // Then
+        verify(templateEngine, never()).process(anyString(), any(IContext.class));
+    }
+
+    @Test
+    @DisplayName("A regional variant of a configured locale uses the compiled template of its language")
+    void givenRegionalLocale_whenRender_thenLanguageTemplateUsed() {
+        // Given
+        mailTemplateService.precompile(TEMPLATE, VARIABLES.keySet());
+        clearInvocations(templateEngine);
+        // When
+        String html = mailTemplateService.render(TEMPLATE, Locale.forLanguageTag("tr-TR"), VARIABLES);
+        // Then
+        verify(templateEngine, never()).process(anyString(), any(IContext.class));
+        assertEquals(thymeleaf(TEMPLATE, Locale.forLanguageTag("tr"), VARIABLES), html);
+    }
+
+    @Test
+    @DisplayName("Locales outside the configured ones render the default locale without compiling anything")
+    void givenOtherLocales_whenRender_thenDefaultLocaleTemplateUsed() {
+        // Given
+        mailTemplateService.precompile(TEMPLATE, VARIABLES.keySet());
+        clearInvocations(templateEngine);
+        // When
+        List<String> htmls = List.of("de", "x-private", "zz-ZZ", "en-GB").stream()
+            .map(tag -> mailTemplateService.render(TEMPLATE, Locale.forLanguageTag(tag), VARIABLES))
+            .toList();
+        // Then
+        verify(templateEngine, never()).process(anyString(), any(IContext.class));
+        htmls.forEach(html -> assertEquals(thymeleaf(TEMPLATE, Locale.ENGLISH, VARIABLES), html));
+    }
+
+    @Test
+    @DisplayName("A template that transforms a variable keeps being rendered by Thymeleaf")
+    void givenTransformingTemplate_whenRender_thenRenderedByThymeleaf() {
+        // Given
+        String template = "mail/test-uppercase-name";
+        mailTemplateService.precompile(template, List.of("name"));
+        clearInvocations(templateEngine);
+        // When
+        String html = mailTemplateService.render(template, Locale.ENGLISH, Map.of("name", "ada"));
+        // Then
+        assertTrue(html.contains("ADA"));
+        verify(templateEngine, times(1)).process(anyString(), any(IContext.class));
+    }
+}
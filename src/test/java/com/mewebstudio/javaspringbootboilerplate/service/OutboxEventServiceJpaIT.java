@@ -0,0 +1,154 @@
+package com.mewebstudio.javaspringbootboilerplate.service;
+
+import com.mewebstudio.javaspringbootboilerplate.entity.EmailVerificationToken;
+import com.mewebstudio.javaspringbootboilerplate.entity.MailOutbox;
+import com.mewebstudio.javaspringbootboilerplate.entity.OutboxEvent;
+import com.mewebstudio.javaspringbootboilerplate.entity.User;
+import com.mewebstudio.javaspringbootboilerplate.event.Listener;
+import com.mewebstudio.javaspringbootboilerplate.event.UserEmailVerificationSendEvent;
+import com.mewebstudio.javaspringbootboilerplate.repository.EmailVerificationTokenRepository;
+import com.mewebstudio.javaspringbootboilerplate.repository.MailOutboxRepository;
+import com.mewebstudio.javaspringbootboilerplate.repository.OutboxEventRepository;
+import com.mewebstudio.javaspringbootboilerplate.repository.UserRepository;
+import com.mewebstudio.javaspringbootboilerplate.util.Constants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@Tag("jpaIT")
+@DataJpaTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:outbox;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+    "spring.liquibase.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.globally_quoted_identifiers_skip_column_definitions=true",
+    "app.outbox.batch-size=10",
+    "app.outbox.max-attempts=" + OutboxEventServiceJpaIT.MAX_ATTEMPTS
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({OutboxEventService.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("JPA Integration Tests for OutboxEventService")
+class OutboxEventServiceJpaIT {
+    static final int MAX_ATTEMPTS = 2;
+
+    @Autowired
+    private OutboxEventService outboxEventService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private MailOutboxRepository mailOutboxRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EmailVerificationTokenRepository emailVerificationTokenRepository;
+
+    @Autowired
+    private SimpleMeterRegistry meterRegistry;
+
+    @MockBean
+    private Listener listener;
+
+    private User poison;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        poison = createUser("poison@example.com");
+        user = createUser("user@example.com");
+        outboxEventService.add(Constants.OutboxEventTypeEnum.USER_EMAIL_VERIFICATION_SEND, poison.getId());
+        outboxEventService.add(Constants.OutboxEventTypeEnum.USER_EMAIL_VERIFICATION_SEND, user.getId());
+
+        // The mail of the poison user has a recipient longer than the column, so its insert only fails at flush.
+        doAnswer(invocation -> {
+            User recipient = invocation.<UserEmailVerificationSendEvent>getArgument(0).getUser();
+            mailOutboxRepository.save(MailOutbox.builder()
+                .recipient(recipient.getId().equals(poison.getId()) ? "x".repeat(300) : recipient.getEmail())
+                .subject("Verify")
+                .body("body")
+                .status(Constants.MailOutboxStatusEnum.PENDING)
+                .nextAttemptAt(LocalDateTime.now())
+                .build());
+            return null;
+        }).when(listener).onUserEmailVerificationSendEvent(any(UserEmailVerificationSendEvent.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxEventRepository.deleteAll();
+        mailOutboxRepository.deleteAll();
+        emailVerificationTokenRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    private User createUser(final String email) {
+        User created = User.builder()
+            .email(email)
+            .password("secret")
+            .name("Name")
+            .lastName("Last")
+            .build();
+        created.setEmailVerificationToken(EmailVerificationToken.builder()
+            .user(created)
+            .token(email)
+            .expirationDate(new Date(System.currentTimeMillis() + 60_000))
+            .build());
+
+        return userRepository.save(created);
+    }
+
+    @Test
+    @DisplayName("A save failing at flush rolls back only its own event, and its attempt is kept")
+    void givenFailingSave_whenRelayBatch_thenOtherEventsCommittedAndAttemptRecorded() {
+        // When
+        int handled = outboxEventService.relayBatch();
+        // Then
+        assertEquals(1, handled);
+        List<MailOutbox> mails = mailOutboxRepository.findAll();
+        assertEquals(1, mails.size());
+        assertEquals(user.getEmail(), mails.get(0).getRecipient());
+        List<OutboxEvent> events = outboxEventRepository.findAll();
+        assertEquals(1, events.size());
+        assertEquals(poison.getId(), events.get(0).getAggregateId());
+        assertEquals(1, events.get(0).getAttempts());
+        assertNotNull(events.get(0).getLastError());
+    }
+
+    @Test
+    @DisplayName("A poison event is dropped after its last attempt instead of blocking the outbox")
+    void givenPoisonEvent_whenRelayedUntilLastAttempt_thenDropped() {
+        // When
+        for (int i = 0; i < MAX_ATTEMPTS; i++) {
+            outboxEventService.relayBatch();
+        }
+        // Then
+        assertTrue(outboxEventRepository.findAll().isEmpty());
+        assertEquals(1, mailOutboxRepository.count());
+        assertEquals(1, meterRegistry.get("outbox.events.dead").counter().count());
+    }
+}
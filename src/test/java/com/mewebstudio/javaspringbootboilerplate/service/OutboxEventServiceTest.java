@@ -0,0 +1,260 @@
+package com.mewebstudio.javaspringbootboilerplate.service;
+
+import com.mewebstudio.javaspringbootboilerplate.entity.EmailVerificationToken;
+import com.mewebstudio.javaspringbootboilerplate.entity.OutboxEvent;
+import com.mewebstudio.javaspringbootboilerplate.entity.PasswordResetToken;
+import com.mewebstudio.javaspringbootboilerplate.entity.User;
+import com.mewebstudio.javaspringbootboilerplate.event.Listener;
+import com.mewebstudio.javaspringbootboilerplate.event.UserEmailVerificationSendEvent;
+import com.mewebstudio.javaspringbootboilerplate.event.UserPasswordResetSendEvent;
+import com.mewebstudio.javaspringbootboilerplate.repository.OutboxEventRepository;
+import com.mewebstudio.javaspringbootboilerplate.repository.UserRepository;
+import com.mewebstudio.javaspringbootboilerplate.util.Constants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Tag("unit")
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Unit tests for OutboxEventService")
+class OutboxEventServiceTest {
+    private static final int BATCH_SIZE = 2;
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private static final long LEASE = 60_000;
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private Listener listener;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private OutboxEventService outboxEventService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        outboxEventService = new OutboxEventService(BATCH_SIZE, MAX_ATTEMPTS, LEASE, outboxEventRepository,
+            userRepository, listener, transactionManager, meterRegistry);
+        user = new User();
+        user.setId(UUID.randomUUID());
+        user.setEmailVerificationToken(new EmailVerificationToken());
+        user.setPasswordResetToken(new PasswordResetToken());
+    }
+
+    @AfterEach
+    void tearDown() {
+        LocaleContextHolder.resetLocaleContext();
+    }
+
+    private OutboxEvent event(final Constants.OutboxEventTypeEnum type, final UUID aggregateId, final int attempts) {
+        OutboxEvent event = OutboxEvent.builder().type(type).aggregateId(aggregateId).locale("tr").attempts(attempts)
+            .nextAttemptAt(LocalDateTime.now()).build();
+        event.setId(UUID.randomUUID());
+
+        return event;
+    }
+
+    @SafeVarargs
+    private void givenDue(final List<OutboxEvent> events, final List<OutboxEvent>... next) {
+        when(outboxEventRepository.findDueForUpdate(any(LocalDateTime.class), eq(BATCH_SIZE))).thenReturn(events, next);
+        when(outboxEventRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        lenient().when(outboxEventRepository.deleteClaimed(any(UUID.class), anyInt())).thenReturn(1);
+    }
+
+    private double counter(final String name) {
+        return meterRegistry.get("outbox.events." + name).counter().count();
+    }
+
+    @Test
+    @DisplayName("An event is stored with the locale of the request")
+    void givenRequestLocale_whenAdd_thenStoredWithLocale() {
+        // Given
+        LocaleContextHolder.setLocale(Locale.forLanguageTag("tr"));
+        when(outboxEventRepository.save(any(OutboxEvent.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        // When
+        OutboxEvent event = outboxEventService.add(Constants.OutboxEventTypeEnum.USER_PASSWORD_RESET_SEND,
+            user.getId());
+        // Then
+        assertEquals(Constants.OutboxEventTypeEnum.USER_PASSWORD_RESET_SEND, event.getType());
+        assertEquals(user.getId(), event.getAggregateId());
+        assertEquals("tr", event.getLocale());
+        assertNotNull(event.getNextAttemptAt());
+    }
+
+    @Test
+    @DisplayName("Claimed events are leased, handed to the listener in their locale and deleted")
+    void givenEvents_whenRelayBatch_thenDispatchedAndDeleted() {
+        // Given
+        List<OutboxEvent> events = List.of(
+            event(Constants.OutboxEventTypeEnum.USER_EMAIL_VERIFICATION_SEND, user.getId(), 0),
+            event(Constants.OutboxEventTypeEnum.USER_PASSWORD_RESET_SEND, user.getId(), 0));
+        givenDue(events);
+        when(userRepository.findAllById(List.of(user.getId()))).thenReturn(List.of(user));
+        AtomicReference<Locale> locale = new AtomicReference<>();
+        doAnswer(invocation -> {
+            locale.set(LocaleContextHolder.getLocale());
+            return null;
+        }).when(listener).onUserEmailVerificationSendEvent(any(UserEmailVerificationSendEvent.class));
+        // When
+        int handled = outboxEventService.relayBatch();
+        // Then
+        assertEquals(2, handled);
+        assertEquals(Locale.forLanguageTag("tr"), locale.get());
+        assertEquals(1, events.get(0).getAttempts());
+        assertTrue(events.get(0).getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(30)));
+        verify(listener).onUserPasswordResetSendEvent(any(UserPasswordResetSendEvent.class));
+        verify(outboxEventRepository).deleteClaimed(events.get(0).getId(), 1);
+        verify(outboxEventRepository).deleteClaimed(events.get(1).getId(), 1);
+        verify(outboxEventRepository, times(2)).flush();
+        assertEquals(2, counter("relayed"));
+    }
+
+    @Test
+    @DisplayName("An event of a deleted user is dropped without calling the listener")
+    void givenDeletedUser_whenRelayBatch_thenDeletedWithoutDispatch() {
+        // Given
+        List<OutboxEvent> events = List.of(
+            event(Constants.OutboxEventTypeEnum.USER_EMAIL_VERIFICATION_SEND, UUID.randomUUID(), 0));
+        givenDue(events);
+        // When
+        outboxEventService.relayBatch();
+        // Then
+        verify(listener, never()).onUserEmailVerificationSendEvent(any());
+        verify(outboxEventRepository).deleteClaimed(events.get(0).getId(), 1);
+    }
+
+    @Test
+    @DisplayName("An event claimed again by another relay is not handed to the listener twice")
+    void givenReclaimedEvent_whenRelayBatch_thenSkipped() {
+        // Given
+        OutboxEvent event = event(Constants.OutboxEventTypeEnum.USER_EMAIL_VERIFICATION_SEND, user.getId(), 0);
+        givenDue(List.of(event));
+        when(userRepository.findAllById(List.of(user.getId()))).thenReturn(List.of(user));
+        when(outboxEventRepository.deleteClaimed(event.getId(), 1)).thenReturn(0);
+        // When
+        int handled = outboxEventService.relayBatch();
+        // Then
+        assertEquals(0, handled);
+        verify(listener, never()).onUserEmailVerificationSendEvent(any());
+        assertEquals(0, counter("relayed"));
+    }
+
+    @Test
+    @DisplayName("A failing event fails alone and its error is recorded in a new transaction")
+    void givenFailingListener_whenRelayBatch_thenOthersHandledAndErrorRecorded() {
+        // Given
+        OutboxEvent retried = event(Constants.OutboxEventTypeEnum.USER_EMAIL_VERIFICATION_SEND, user.getId(), 0);
+        OutboxEvent passed = event(Constants.OutboxEventTypeEnum.USER_PASSWORD_RESET_SEND, user.getId(), 0);
+        givenDue(List.of(retried, passed));
+        when(userRepository.findAllById(List.of(user.getId()))).thenReturn(List.of(user));
+        doThrow(new IllegalStateException("template error")).when(listener)
+            .onUserEmailVerificationSendEvent(any(UserEmailVerificationSendEvent.class));
+        OutboxEvent stored = event(Constants.OutboxEventTypeEnum.USER_EMAIL_VERIFICATION_SEND, user.getId(), 1);
+        stored.setNextAttemptAt(LocalDateTime.now().plusMinutes(1));
+        when(outboxEventRepository.findById(retried.getId())).thenReturn(Optional.of(stored));
+        // When
+        int handled = outboxEventService.relayBatch();
+        // Then
+        assertEquals(1, handled);
+        verify(transactionManager, times(3)).getTransaction(argThat(definition ->
+            definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+        assertEquals("IllegalStateException: template error", stored.getLastError());
+        assertFalse(stored.getNextAttemptAt().isAfter(LocalDateTime.now()));
+        verify(outboxEventRepository).deleteClaimed(passed.getId(), 1);
+        assertEquals(1, counter("relayed"));
+        assertEquals(1, counter("failed"));
+        assertEquals(0, counter("dead"));
+    }
+
+    @Test
+    @DisplayName("A failing event is dropped after its last attempt")
+    void givenLastAttemptFails_whenRelayBatch_thenDropped() {
+        // Given
+        OutboxEvent dropped = event(Constants.OutboxEventTypeEnum.USER_EMAIL_VERIFICATION_SEND, user.getId(),
+            MAX_ATTEMPTS - 1);
+        givenDue(List.of(dropped));
+        when(userRepository.findAllById(List.of(user.getId()))).thenReturn(List.of(user));
+        doThrow(new IllegalStateException("template error")).when(listener)
+            .onUserEmailVerificationSendEvent(any(UserEmailVerificationSendEvent.class));
+        // When
+        int handled = outboxEventService.relayBatch();
+        // Then
+        assertEquals(0, handled);
+        verify(outboxEventRepository, times(2)).deleteClaimed(dropped.getId(), MAX_ATTEMPTS);
+        assertEquals(1, counter("dead"));
+    }
+
+    @Test
+    @DisplayName("An event that ran out of attempts without a recorded failure is dropped when claimed")
+    void givenExhaustedEvent_whenRelayBatch_thenDroppedOnClaim() {
+        // Given
+        OutboxEvent exhausted = event(Constants.OutboxEventTypeEnum.USER_EMAIL_VERIFICATION_SEND, user.getId(),
+            MAX_ATTEMPTS);
+        givenDue(List.of(exhausted));
+        // When
+        int handled = outboxEventService.relayBatch();
+        // Then
+        assertEquals(0, handled);
+        verify(outboxEventRepository).deleteAllInBatch(List.of(exhausted));
+        verify(listener, never()).onUserEmailVerificationSendEvent(any());
+        assertEquals(1, counter("dead"));
+    }
+
+    @Test
+    @DisplayName("The relay keeps going while batches come back full")
+    void givenFullBatch_whenRelay_thenNextBatchRelayed() {
+        // Given
+        givenDue(List.of(event(Constants.OutboxEventTypeEnum.USER_EMAIL_VERIFICATION_SEND, user.getId(), 0),
+            event(Constants.OutboxEventTypeEnum.USER_EMAIL_VERIFICATION_SEND, user.getId(), 0)), List.of());
+        when(userRepository.findAllById(List.of(user.getId()))).thenReturn(List.of(user));
+        // When
+        outboxEventService.relay();
+        // Then
+        verify(outboxEventRepository, times(2)).findDueForUpdate(any(LocalDateTime.class), eq(BATCH_SIZE));
+        verify(outboxEventRepository, times(2)).deleteClaimed(any(UUID.class), eq(1));
+    }
+}
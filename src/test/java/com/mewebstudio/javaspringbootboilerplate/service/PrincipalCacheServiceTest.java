@@ -0,0 +1,102 @@
+package com.mewebstudio.javaspringbootboilerplate.service;
+
+import com.mewebstudio.javaspringbootboilerplate.entity.User;
+import com.mewebstudio.javaspringbootboilerplate.security.JwtUserDetails;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.instancio.Instancio;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@Tag("unit")
+@DisplayName("Unit tests for PrincipalCacheService")
+class PrincipalCacheServiceTest {
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private RedisMessageListenerContainer redisMessageListenerContainer;
+
+    private PrincipalCacheService principalCacheService;
+
+    private final User user = Instancio.create(User.class);
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        principalCacheService = new PrincipalCacheService(100L, 60_000L, stringRedisTemplate,
+            redisMessageListenerContainer, new SimpleMeterRegistry());
+    }
+
+    private JwtUserDetails load(final String id) {
+        loads.incrementAndGet();
+
+        return JwtUserDetails.create(user);
+    }
+
+    @Nested
+    @DisplayName("Test class for get scenarios")
+    class GetTest {
+        @Test
+        @DisplayName("Happy path")
+        void givenCachedPrincipal_whenGet_thenLoadedOnce() {
+            // Given
+            String id = user.getId().toString();
+            JwtUserDetails first = principalCacheService.get(id, PrincipalCacheServiceTest.this::load);
+            // When
+            JwtUserDetails result = principalCacheService.get(id, PrincipalCacheServiceTest.this::load);
+            // Then
+            assertSame(first, result);
+            assertEquals(1, loads.get());
+        }
+    }
+
+    @Nested
+    @DisplayName("Test class for evict scenarios")
+    class EvictTest {
+        @Test
+        @DisplayName("Happy path")
+        void givenCachedPrincipal_whenEvict_thenReloadedAndPublished() {
+            // Given
+            String id = user.getId().toString();
+            principalCacheService.get(id, PrincipalCacheServiceTest.this::load);
+            // When
+            principalCacheService.evict(id);
+            principalCacheService.get(id, PrincipalCacheServiceTest.this::load);
+            // Then
+            assertEquals(2, loads.get());
+            verify(stringRedisTemplate, times(1)).convertAndSend("principals:invalidate", id);
+        }
+
+        @Test
+        @DisplayName("Invalidation from another node")
+        void givenPublishedInvalidation_whenOnMessage_thenReloaded() {
+            // Given
+            String id = user.getId().toString();
+            principalCacheService.get(id, PrincipalCacheServiceTest.this::load);
+            // When
+            principalCacheService.onMessage(new DefaultMessage("principals:invalidate".getBytes(StandardCharsets.UTF_8),
+                id.getBytes(StandardCharsets.UTF_8)), null);
+            principalCacheService.get(id, PrincipalCacheServiceTest.this::load);
+            // Then
+            assertEquals(2, loads.get());
+        }
+    }
+}
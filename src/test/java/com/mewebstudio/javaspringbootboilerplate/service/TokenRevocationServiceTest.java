@@ -0,0 +1,121 @@
+package com.mewebstudio.javaspringbootboilerplate.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Tag("unit")
+@DisplayName("Unit tests for TokenRevocationService")
+class TokenRevocationServiceTest {
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+
+    @Mock
+    private RedisMessageListenerContainer redisMessageListenerContainer;
+
+    private TokenRevocationService tokenRevocationService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(stringRedisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(zSetOperations.range("jwtTokens:revoked", 0, -1)).thenReturn(Set.of("revoked"));
+        tokenRevocationService = new TokenRevocationService(1_000, 0.01, stringRedisTemplate,
+            redisMessageListenerContainer);
+        tokenRevocationService.load();
+    }
+
+    @Nested
+    @DisplayName("Test class for isRevoked scenarios")
+    class IsRevokedTest {
+        @Test
+        @DisplayName("Filter miss")
+        void givenUnknownId_whenIsRevoked_thenRedisNotCalled() {
+            // When
+            boolean result = tokenRevocationService.isRevoked("valid");
+            // Then
+            assertFalse(result);
+            verify(zSetOperations, never()).score(anyString(), anyString());
+        }
+
+        @Test
+        @DisplayName("Filter hit")
+        void givenRevokedId_whenIsRevoked_thenConfirmedInRedis() {
+            // Given
+            when(zSetOperations.score("jwtTokens:revoked", "revoked")).thenReturn(1.0);
+            // When
+            boolean result = tokenRevocationService.isRevoked("revoked");
+            // Then
+            assertTrue(result);
+        }
+    }
+
+    @Nested
+    @DisplayName("Test class for revoke scenarios")
+    class RevokeTest {
+        @Test
+        @DisplayName("Happy path")
+        void givenId_whenRevoke_thenStoredAndPublished() {
+            // Given
+            Date expiration = new Date(System.currentTimeMillis() + 60_000);
+            // When
+            tokenRevocationService.revoke("jti", expiration);
+            // Then
+            verify(zSetOperations, times(1)).add("jwtTokens:revoked", "jti", expiration.getTime());
+            verify(stringRedisTemplate, times(1)).convertAndSend("jwtTokens:revoke", "jti");
+        }
+
+        @Test
+        @DisplayName("Revocation from another node")
+        void givenPublishedId_whenOnMessage_thenFilterHit() {
+            // Given
+            when(zSetOperations.score("jwtTokens:revoked", "jti")).thenReturn(1.0);
+            // When
+            tokenRevocationService.onMessage(new DefaultMessage("jwtTokens:revoke".getBytes(StandardCharsets.UTF_8),
+                "jti".getBytes(StandardCharsets.UTF_8)), null);
+            // Then
+            assertTrue(tokenRevocationService.isRevoked("jti"));
+        }
+    }
+
+    @Test
+    @DisplayName("An id revoked while the filter is rebuilt is kept after the swap")
+    void givenIdPublishedDuringRebuild_whenRebuilt_thenFilterHit() {
+        // Given
+        when(zSetOperations.range("jwtTokens:revoked", 0, -1)).thenAnswer(invocation -> {
+            tokenRevocationService.onMessage(new DefaultMessage("jwtTokens:revoke".getBytes(StandardCharsets.UTF_8),
+                "late".getBytes(StandardCharsets.UTF_8)), null);
+            return Set.of("early");
+        });
+        when(zSetOperations.score("jwtTokens:revoked", "late")).thenReturn(1.0);
+        // When
+        tokenRevocationService.rebuild();
+        // Then
+        assertTrue(tokenRevocationService.isRevoked("late"));
+        assertFalse(tokenRevocationService.isRevoked("unknown"));
+        verify(zSetOperations, never()).score("jwtTokens:revoked", "unknown");
+    }
+}
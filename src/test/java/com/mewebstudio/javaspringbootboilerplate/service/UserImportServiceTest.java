@@ -0,0 +1,158 @@
+package com.mewebstudio.javaspringbootboilerplate.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mewebstudio.javaspringbootboilerplate.dto.response.user.UserImportResponse;
+import com.mewebstudio.javaspringbootboilerplate.entity.Role;
+import com.mewebstudio.javaspringbootboilerplate.entity.User;
+import com.mewebstudio.javaspringbootboilerplate.repository.UserRepository;
+import com.mewebstudio.javaspringbootboilerplate.util.Constants;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Tag("unit")
+@DisplayName("Unit tests for UserImportService")
+class UserImportServiceTest {
+    private static final String PASSWORD = "P@ssw0rd123.";
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RoleService roleService;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private MessageSourceService messageSourceService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UserImportService userImportService;
+
+    private AutoCloseable mocks;
+
+    @BeforeEach
+    void setUp() {
+        mocks = MockitoAnnotations.openMocks(this);
+        when(messageSourceService.get(anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+        when(roleService.findByName(any(Constants.RoleEnum.class))).thenReturn(Role.builder().build());
+        when(userRepository.findEmailsByEmailIn(anyCollection())).thenReturn(Set.of("taken@example.com"));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        userImportService.shutdown();
+        mocks.close();
+    }
+
+    private UserImportService createService(final int batchSize) {
+        userImportService = new UserImportService(batchSize, 2, 10, userRepository, roleService, passwordEncoder,
+            Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(), messageSourceService,
+            entityManager, transactionManager);
+
+        return userImportService;
+    }
+
+    private UserImportResponse importUsers(final UserImportService service, final String body,
+                                           final MediaType contentType) throws IOException {
+        return service.importUsers(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), contentType);
+    }
+
+    @Nested
+    @DisplayName("Test class for CSV import scenarios")
+    class CsvImportTest {
+        @Test
+        @DisplayName("Happy path with rejected rows")
+        void givenCsv_whenImportUsers_thenValidRowsPersisted() throws IOException {
+            // Given
+            String csv = String.join("\n",
+                "email,password,name,lastName,roles,isEmailVerified,isBlocked",
+                String.format("john@example.com,%s,John,Doe,USER|ADMIN,true,false", PASSWORD),
+                String.format("john@example.com,%s,John,Doe,USER,false,false", PASSWORD),
+                String.format("taken@example.com,%s,Jane,Doe,USER,false,false", PASSWORD),
+                String.format("invalid,%s,Jim,Doe,USER,false,false", PASSWORD),
+                "\"broken,row"
+            );
+            // When
+            UserImportResponse response = importUsers(createService(100), csv,
+                MediaType.parseMediaType(UserImportService.TEXT_CSV_VALUE));
+            // Then
+            assertNotNull(response);
+            assertEquals(5, response.getTotal());
+            assertEquals(1, response.getImported());
+            assertEquals(4, response.getFailed());
+            assertEquals(4, response.getErrors().size());
+            assertEquals("duplicate_email_in_import", response.getErrors().stream()
+                .filter(error -> error.getLine() == 3L).findFirst().orElseThrow().getMessage());
+            assertEquals("unique_email", response.getErrors().stream()
+                .filter(error -> error.getLine() == 4L).findFirst().orElseThrow().getMessage());
+            verify(userRepository, times(1)).findEmailsByEmailIn(anyCollection());
+
+            ArgumentCaptor<User> captor = ArgumentCaptor.forClass(User.class);
+            verify(entityManager, times(1)).persist(captor.capture());
+            assertEquals("john@example.com", captor.getValue().getEmail());
+            assertEquals("encodedPassword", captor.getValue().getPassword());
+            assertEquals(2, captor.getValue().getRoles().size());
+            assertNotNull(captor.getValue().getEmailVerifiedAt());
+        }
+    }
+
+    @Nested
+    @DisplayName("Test class for NDJSON import scenarios")
+    class NdjsonImportTest {
+        @Test
+        @DisplayName("Happy path")
+        void givenNdjson_whenImportUsers_thenEveryBatchPersisted() throws IOException {
+            // Given
+            String ndjson = String.join("\n",
+                String.format("{\"email\":\"a@example.com\",\"password\":\"%s\",\"name\":\"A\",\"lastName\":\"B\","
+                    + "\"roles\":[\"USER\"]}", PASSWORD),
+                String.format("{\"email\":\"b@example.com\",\"password\":\"%s\",\"name\":\"B\",\"lastName\":\"C\","
+                    + "\"roles\":[\"USER\"]}", PASSWORD),
+                "not json"
+            );
+            // When
+            UserImportResponse response = importUsers(createService(1), ndjson, MediaType.APPLICATION_NDJSON);
+            // Then
+            assertEquals(3, response.getTotal());
+            assertEquals(2, response.getImported());
+            assertEquals(1, response.getFailed());
+            assertEquals("invalid_import_row", response.getErrors().get(0).getMessage());
+            verify(userRepository, times(2)).findEmailsByEmailIn(anyCollection());
+            verify(entityManager, times(2)).persist(any(User.class));
+            verify(roleService, times(1)).findByName(Constants.RoleEnum.USER);
+        }
+    }
+}
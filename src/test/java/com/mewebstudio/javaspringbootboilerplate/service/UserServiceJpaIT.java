@@ -0,0 +1,145 @@
+package com.mewebstudio.javaspringbootboilerplate.service;
+
+import com.mewebstudio.javaspringbootboilerplate.entity.Role;
+import com.mewebstudio.javaspringbootboilerplate.entity.User;
+import com.mewebstudio.javaspringbootboilerplate.entity.specification.criteria.CursorPaginationCriteria;
+import com.mewebstudio.javaspringbootboilerplate.entity.specification.criteria.PaginationCriteria;
+import com.mewebstudio.javaspringbootboilerplate.entity.specification.criteria.UserCriteria;
+import com.mewebstudio.javaspringbootboilerplate.repository.projection.UserView;
+import com.mewebstudio.javaspringbootboilerplate.util.Constants;
+import com.mewebstudio.javaspringbootboilerplate.util.CursorPage;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Tag("jpaIT")
+@DataJpaTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:users;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+    "spring.liquibase.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.globally_quoted_identifiers_skip_column_definitions=true",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(UserService.class)
+@DisplayName("JPA Integration Tests for UserService")
+class UserServiceJpaIT {
+    private static final int PAGE_SIZE = 20;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+
+    @MockBean
+    private RoleService roleService;
+
+    @MockBean
+    private EmailVerificationTokenService emailVerificationTokenService;
+
+    @MockBean
+    private PasswordResetTokenService passwordResetTokenService;
+
+    @MockBean
+    private PrincipalCacheService principalCacheService;
+
+    @MockBean
+    private MessageSourceService messageSourceService;
+
+    @MockBean
+    private OutboxEventService outboxEventService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Role admin = entityManager.persist(new Role(Constants.RoleEnum.ADMIN));
+        Role user = entityManager.persist(new Role(Constants.RoleEnum.USER));
+        for (int i = 0; i < PAGE_SIZE * 2; i++) {
+            List<Role> roles = new ArrayList<>(List.of(user));
+            if (i % 2 == 0) {
+                roles.add(admin);
+            }
+
+            entityManager.persist(User.builder()
+                .email(String.format("user%d@example.com", i))
+                .password("secret")
+                .name("Name")
+                .lastName("Last")
+                .roles(roles)
+                .build());
+        }
+
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TestTransaction.start();
+        entityManager.getEntityManager().createNativeQuery("DELETE FROM \"user_roles\"").executeUpdate();
+        entityManager.getEntityManager().createQuery("DELETE FROM User").executeUpdate();
+        entityManager.getEntityManager().createQuery("DELETE FROM Role").executeUpdate();
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+    }
+
+    @Test
+    @DisplayName("Offset page selects the views and their roles with one query each")
+    void givenPage_whenFindAll_thenViewsAndRolesSelected() {
+        // When
+        Page<UserView> users = userService.findAll(UserCriteria.builder().build(),
+            PaginationCriteria.builder().page(1).size(PAGE_SIZE).build());
+        // Then
+        assertEquals(PAGE_SIZE, users.getContent().size());
+        assertEquals(PAGE_SIZE * 3 / 2, users.stream().mapToInt(user -> user.roles().size()).sum());
+        // page, count, roles
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("Cursor page selects the views and their roles with one query each")
+    void givenCursorPage_whenFindAll_thenViewsAndRolesSelected() {
+        // When
+        CursorPage<UserView> users = userService.findAll(UserCriteria.builder().build(),
+            CursorPaginationCriteria.builder().size(PAGE_SIZE).sortBy("createdAt").sort("asc")
+                .columns(new String[]{"createdAt"}).build());
+        // Then
+        assertEquals(PAGE_SIZE, users.getItems().size());
+        assertEquals(PAGE_SIZE * 3 / 2, users.getItems().stream().mapToInt(user -> user.roles().size()).sum());
+        // page, roles
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+}
@@ -8,15 +8,18 @@ import com.mewebstudio.javaspringbootboilerplate.dto.request.user.UpdateUserRequ
 import com.mewebstudio.javaspringbootboilerplate.entity.PasswordResetToken;
 import com.mewebstudio.javaspringbootboilerplate.entity.User;
 import com.mewebstudio.javaspringbootboilerplate.entity.specification.UserFilterSpecification;
+import com.mewebstudio.javaspringbootboilerplate.entity.specification.criteria.CursorPaginationCriteria;
 import com.mewebstudio.javaspringbootboilerplate.entity.specification.criteria.PaginationCriteria;
 import com.mewebstudio.javaspringbootboilerplate.entity.specification.criteria.UserCriteria;
-import com.mewebstudio.javaspringbootboilerplate.event.UserEmailVerificationSendEvent;
-import com.mewebstudio.javaspringbootboilerplate.event.UserPasswordResetSendEvent;
 import com.mewebstudio.javaspringbootboilerplate.exception.BadRequestException;
 import com.mewebstudio.javaspringbootboilerplate.exception.NotFoundException;
 import com.mewebstudio.javaspringbootboilerplate.repository.UserRepository;
+import com.mewebstudio.javaspringbootboilerplate.repository.projection.UserView;
 import com.mewebstudio.javaspringbootboilerplate.security.JwtUserDetails;
 import com.mewebstudio.javaspringbootboilerplate.util.Constants;
+import com.mewebstudio.javaspringbootboilerplate.util.CursorPage;
+import com.mewebstudio.javaspringbootboilerplate.util.KeysetCursor;
+import com.mewebstudio.javaspringbootboilerplate.util.KeysetRequestBuilder;
 import org.instancio.Instancio;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -29,10 +32,11 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
@@ -48,11 +52,14 @@ import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -79,7 +86,10 @@ class UserServiceTest {
     private PasswordResetTokenService passwordResetTokenService;
 
     @Mock
-    private ApplicationEventPublisher eventPublisher;
+    private PrincipalCacheService principalCacheService;
+
+    @Mock
+    private OutboxEventService outboxEventService;
 
     @Mock
     private MessageSourceService messageSourceService;
@@ -94,6 +104,8 @@ class UserServiceTest {
 
     private final JwtUserDetails jwtUserDetails = JwtUserDetails.create(user);
 
+    private final UserView userView = Instancio.create(UserView.class);
+
     @BeforeEach
     void setUp() {
         SecurityContextHolder.setContext(securityContext);
@@ -140,6 +152,34 @@ class UserServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Test class for getUserView scenarios")
+    class GetUserViewTest {
+        @Test
+        @DisplayName("Happy path")
+        void given_whenGetUserView_thenAssertBody() {
+            // Given
+            when(userRepository.findViewById(UUID.fromString(jwtUserDetails.getId())))
+                .thenReturn(Optional.of(userView));
+            // When
+            UserView result = userService.getUserView();
+            // Then
+            assertEquals(userView, result);
+            verify(userRepository, never()).findById(any(UUID.class));
+        }
+
+        @Test
+        @DisplayName("When user not found")
+        void given_whenGetUserViewNotFound_thenShouldThrowBadCredentialsException() {
+            // Given
+            when(userRepository.findViewById(UUID.fromString(jwtUserDetails.getId()))).thenReturn(Optional.empty());
+            // When
+            Executable executable = () -> userService.getUserView();
+            // Then
+            assertThrows(BadCredentialsException.class, executable);
+        }
+    }
+
     @Nested
     @DisplayName("Test class for count scenarios")
     class CountTest {
@@ -163,22 +203,103 @@ class UserServiceTest {
         @DisplayName("Happy path")
         void given_whenFindAllWithPagination_thenAssertBody() {
             // Given
-            Page<User> users = new PageImpl<>(List.of(user));
-            when(userRepository.findAll(any(UserFilterSpecification.class), any(Pageable.class)))
+            Page<UserView> users = new PageImpl<>(List.of(userView));
+            when(userRepository.findAllViews(any(Specification.class), any(Pageable.class)))
                 .thenReturn(users);
             // When
-            Page<User> results = userService.findAll(Instancio.create(UserCriteria.class),
+            Page<UserView> results = userService.findAll(Instancio.create(UserCriteria.class),
                 PaginationCriteria.builder().page(1).size(1).build());
             // Then
             assertNotNull(results);
             assertEquals(1, results.getTotalElements());
             assertEquals(1, results.getTotalPages());
             assertEquals(1, results.getContent().size());
-            assertEquals(user, results.getContent().get(0));
-            assertEquals(user.getEmail(), results.getContent().get(0).getEmail());
-            assertEquals(user.getName(), results.getContent().get(0).getName());
-            assertEquals(user.getLastName(), results.getContent().get(0).getLastName());
-            assertEquals(user.getRoles(), results.getContent().get(0).getRoles());
+            assertEquals(userView, results.getContent().get(0));
+            verify(userRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("Test class for findAll with cursor pagination scenarios")
+    class FindAllWithCursorPaginationTest {
+        private final String[] columns = new String[]{"id", "createdAt"};
+
+        @Test
+        @DisplayName("Happy path")
+        void given_whenFindAllWithCursorPagination_thenAssertBody() {
+            // Given
+            UserView next = Instancio.create(UserView.class);
+            when(userRepository.findAllViews(any(Specification.class), any(Sort.class), eq(2)))
+                .thenReturn(List.of(userView, next));
+            // When
+            CursorPage<UserView> results = userService.findAll(Instancio.create(UserCriteria.class),
+                CursorPaginationCriteria.builder().size(1).sortBy("createdAt").sort("desc").columns(columns).build());
+            // Then
+            assertEquals(List.of(userView), results.getItems());
+            assertNull(results.getTotal());
+            KeysetCursor cursor = KeysetCursor.decode(results.getNextCursor());
+            assertEquals("createdAt", cursor.getSortBy());
+            assertEquals("desc", cursor.getSort());
+            assertEquals(userView.id(), cursor.getId());
+            assertEquals(userView.createdAt().toString(), cursor.getValue());
+            verify(userRepository, never()).count(any(UserFilterSpecification.class));
+        }
+
+        @Test
+        @DisplayName("Last page with estimated total")
+        void givenCursor_whenFindAllWithCursorPagination_thenNoNextCursor() {
+            // Given
+            String token = new KeysetCursor("createdAt", "asc", user.getId(), user.getCreatedAt().toString()).encode();
+            when(userRepository.findAllViews(any(Specification.class), any(Sort.class), eq(2)))
+                .thenReturn(List.of(userView));
+            when(userRepository.estimateCount()).thenReturn(42L);
+            // When
+            CursorPage<UserView> results = userService.findAll(null, CursorPaginationCriteria.builder().cursor(token)
+                .size(1).sortBy("createdAt").sort("asc").columns(columns).count(Constants.CountEnum.ESTIMATE)
+                .build());
+            // Then
+            assertNull(results.getNextCursor());
+            assertEquals(42L, results.getTotal());
+        }
+
+        @Test
+        @DisplayName("Size above the limit is clamped")
+        void givenHugeSize_whenFindAllWithCursorPagination_thenSizeClamped() {
+            // Given
+            CursorPaginationCriteria criteria = CursorPaginationCriteria.builder().size(Integer.MAX_VALUE)
+                .sortBy("createdAt").sort("asc").columns(columns).build();
+            when(userRepository.findAllViews(any(Specification.class), any(Sort.class),
+                eq(KeysetRequestBuilder.MAX_SIZE + 1))).thenReturn(List.of(userView));
+            // When
+            CursorPage<UserView> results = userService.findAll(null, criteria);
+            // Then
+            assertEquals(KeysetRequestBuilder.MAX_SIZE, criteria.getSize());
+            assertEquals(List.of(userView), results.getItems());
+        }
+
+        @Test
+        @DisplayName("When cursor was issued for another order then throw BadRequestException")
+        void givenForeignCursor_whenFindAllWithCursorPagination_thenThrowBadRequestException() {
+            // Given
+            String token = new KeysetCursor("createdAt", "desc", user.getId(), user.getCreatedAt().toString()).encode();
+            CursorPaginationCriteria criteria = CursorPaginationCriteria.builder().cursor(token).size(1)
+                .sortBy("createdAt").sort("asc").columns(columns).build();
+            // When
+            Executable executable = () -> userService.findAll(null, criteria);
+            // Then
+            assertThrows(BadRequestException.class, executable);
+        }
+
+        @Test
+        @DisplayName("When cursor is malformed then throw BadRequestException")
+        void givenMalformedCursor_whenFindAllWithCursorPagination_thenThrowBadRequestException() {
+            // Given
+            CursorPaginationCriteria criteria = CursorPaginationCriteria.builder().cursor("not-a-cursor").size(1)
+                .sortBy("createdAt").sort("asc").columns(columns).build();
+            // When
+            Executable executable = () -> userService.findAll(null, criteria);
+            // Then
+            assertThrows(BadRequestException.class, executable);
         }
     }
 
@@ -399,6 +520,7 @@ class UserServiceTest {
             User result = userService.update(user.getId().toString(), request);
             // Then
             assertNotNull(result);
+            verify(principalCacheService, Mockito.times(1)).evict(user.getId().toString());
         }
 
         @Test
@@ -438,6 +560,7 @@ class UserServiceTest {
             User result = userService.updatePassword(request);
             // Then
             assertNotNull(result);
+            verify(principalCacheService, Mockito.times(1)).evict(user.getId().toString());
         }
 
         @Test
@@ -474,6 +597,7 @@ class UserServiceTest {
             userService.resetPassword(token, request);
             // Then
             verify(passwordResetTokenService, Mockito.times(1)).deleteByUserId(user.getId());
+            verify(principalCacheService, Mockito.times(1)).evict(user.getId().toString());
         }
     }
 
@@ -486,12 +610,11 @@ class UserServiceTest {
             // Given
             user.setEmailVerifiedAt(null);
             when(userRepository.findById(any(UUID.class))).thenReturn(Optional.of(user));
-            doNothing().when(eventPublisher).publishEvent(any(UserEmailVerificationSendEvent.class));
             // When
             userService.resendEmailVerificationMail();
             // Then
-            verify(eventPublisher, Mockito.times(1))
-                .publishEvent(any(UserEmailVerificationSendEvent.class));
+            verify(outboxEventService, Mockito.times(1))
+                .add(Constants.OutboxEventTypeEnum.USER_EMAIL_VERIFICATION_SEND, user.getId());
         }
 
         @Test
@@ -575,13 +698,12 @@ class UserServiceTest {
         void given_whenSendEmailPasswordResetMail_thenAssertBody() {
             // Given
             when(userRepository.findByEmail(any(String.class))).thenReturn(Optional.of(user));
-            doNothing().when(eventPublisher).publishEvent(any(UserPasswordResetSendEvent.class));
             when(passwordResetTokenService.create(any(User.class))).thenReturn(user.getPasswordResetToken());
             // When
             userService.sendEmailPasswordResetMail(user.getEmail());
             // Then
-            verify(eventPublisher, Mockito.times(1))
-                .publishEvent(any(UserPasswordResetSendEvent.class));
+            verify(outboxEventService, Mockito.times(1))
+                .add(Constants.OutboxEventTypeEnum.USER_PASSWORD_RESET_SEND, user.getId());
         }
 
         @Test
@@ -608,6 +730,7 @@ class UserServiceTest {
             userService.delete(user.getId().toString());
             // Then
             verify(userRepository, Mockito.times(1)).delete(user);
+            verify(principalCacheService, Mockito.times(1)).evict(user.getId().toString());
         }
 
         @Test
@@ -0,0 +1,210 @@
+package com.mewebstudio.javaspringbootboilerplate.service.websocket;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mewebstudio.javaspringbootboilerplate.dto.ws.WebsocketIdentifier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Tag("unit")
+@DisplayName("Unit tests for PresenceService")
+class PresenceServiceTest {
+    private static final String DELTAS_KEY = "websockets:presence:deltas";
+
+    private static final String VERSION_KEY = "websockets:presence:version";
+
+    @Mock
+    private WebSocketCacheService webSocketCacheService;
+
+    @Mock
+    private WebSocketRouter webSocketRouter;
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final WebsocketIdentifier session = new WebsocketIdentifier();
+
+    private PresenceService presenceService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(stringRedisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(valueOperations.get(VERSION_KEY)).thenReturn("7");
+        session.setUserId("a");
+        presenceService = new PresenceService(2, 100, webSocketCacheService, webSocketRouter, stringRedisTemplate,
+            objectMapper);
+    }
+
+    private List<JsonNode> sent(final int frames) throws Exception {
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(webSocketCacheService, times(frames)).sendFrame(eq(session), captor.capture(), anyString());
+
+        List<JsonNode> nodes = new ArrayList<>();
+        for (String payload : captor.getAllValues()) {
+            nodes.add(objectMapper.readTree(payload));
+        }
+
+        return nodes;
+    }
+
+    private static Set<ZSetOperations.TypedTuple<String>> deltas(final long... versions) {
+        Set<ZSetOperations.TypedTuple<String>> deltas = new LinkedHashSet<>();
+        for (long version : versions) {
+            deltas.add(new DefaultTypedTuple<>("d" + version, (double) version));
+        }
+
+        return deltas;
+    }
+
+    @Nested
+    @DisplayName("Snapshot")
+    class SnapshotTest {
+        @Test
+        @DisplayName("A new session gets the online users in pages at the current version")
+        void givenOnlineUsers_whenSendSnapshot_thenSnapshotPaged() throws Exception {
+            // Given
+            when(webSocketRouter.getOnlineUsers()).thenReturn(new LinkedHashSet<>(List.of("a", "b", "c")));
+            // When
+            presenceService.sendSnapshot(session);
+            // Then
+            List<JsonNode> pages = sent(2);
+            assertEquals("presence-snapshot", pages.get(0).get("type").asText());
+            assertEquals(7, pages.get(0).get("version").asLong());
+            assertEquals(2, pages.get(0).get("pages").asInt());
+            assertEquals(List.of("a", "b"), objectMapper.convertValue(pages.get(0).get("users"), List.class));
+            assertEquals(List.of("c"), objectMapper.convertValue(pages.get(1).get("users"), List.class));
+            verify(webSocketCacheService).sendFrame(eq(session), anyString(), eq("presence-snapshot:1"));
+            verify(webSocketCacheService).sendFrame(eq(session), anyString(), eq("presence-snapshot:2"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Flush")
+    class FlushTest {
+        @Test
+        @DisplayName("Joins and leaves of one interval are coalesced into one versioned delta")
+        void givenChanges_whenFlush_thenOneDeltaBroadcast() throws Exception {
+            // Given
+            when(webSocketRouter.getOnlineUsers()).thenReturn(Set.of());
+            presenceService.join("a");
+            presenceService.join("b");
+            presenceService.leave("a");
+            presenceService.leave("c");
+            // When
+            presenceService.flush();
+            presenceService.flush();
+            // Then
+            ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+            verify(webSocketCacheService).broadcastVersionedFrame(eq(VERSION_KEY), eq(DELTAS_KEY), eq(100),
+                captor.capture(), eq(String.valueOf(Long.MIN_VALUE)));
+            JsonNode delta = objectMapper.readTree(captor.getValue());
+            assertEquals("presence-delta", delta.get("type").asText());
+            assertEquals(Long.MIN_VALUE, delta.get("version").asLong());
+            assertEquals(List.of("b"), objectMapper.convertValue(delta.get("joined"), List.class));
+            assertEquals(List.of("a", "c"), objectMapper.convertValue(delta.get("left"), List.class));
+            assertEquals(1, captor.getValue().split(String.valueOf(Long.MIN_VALUE), -1).length - 1);
+        }
+
+        @Test
+        @DisplayName("Nothing is published without changes")
+        void givenNoChanges_whenFlush_thenNothingPublished() {
+            // When
+            presenceService.flush();
+            // Then
+            verify(webSocketCacheService, never()).broadcastVersionedFrame(anyString(), anyString(), anyInt(),
+                anyString(), anyString());
+        }
+    }
+
+    @Nested
+    @DisplayName("Resync")
+    class ResyncTest {
+        @Test
+        @DisplayName("Retained deltas after the client version are resent")
+        void givenRetainedDeltas_whenResync_thenDeltasSent() {
+            // Given
+            when(zSetOperations.rangeByScoreWithScores(DELTAS_KEY, 6, Double.MAX_VALUE))
+                .thenReturn(deltas(6, 7));
+            // When
+            presenceService.resync(session, 5);
+            // Then
+            verify(webSocketCacheService).sendFrame(eq(session), eq("d6"), isNull());
+            verify(webSocketCacheService).sendFrame(eq(session), eq("d7"), isNull());
+            verify(webSocketRouter, never()).getOnlineUsers();
+        }
+
+        @Test
+        @DisplayName("A client behind the retained deltas gets a new snapshot")
+        void givenVersionTooOld_whenResync_thenSnapshotSent() throws Exception {
+            // Given
+            when(zSetOperations.rangeByScoreWithScores(DELTAS_KEY, 2, Double.MAX_VALUE))
+                .thenReturn(deltas(4, 5, 6, 7));
+            when(webSocketRouter.getOnlineUsers()).thenReturn(Set.of("b"));
+            // When
+            presenceService.resync(session, 1);
+            // Then
+            assertEquals("presence-snapshot", sent(1).get(0).get("type").asText());
+        }
+
+        @Test
+        @DisplayName("A client whose deltas have a gap gets a new snapshot instead of a late delta it would discard")
+        void givenGapInDeltas_whenResync_thenSnapshotSent() throws Exception {
+            // Given
+            when(zSetOperations.rangeByScoreWithScores(DELTAS_KEY, 6, Double.MAX_VALUE))
+                .thenReturn(deltas(7));
+            when(webSocketRouter.getOnlineUsers()).thenReturn(Set.of("b"));
+            // When
+            presenceService.resync(session, 5);
+            // Then
+            assertEquals("presence-snapshot", sent(1).get(0).get("type").asText());
+            verify(webSocketCacheService, never()).sendFrame(eq(session), eq("d7"), isNull());
+        }
+
+        @Test
+        @DisplayName("A client at the current version gets nothing")
+        void givenCurrentVersion_whenResync_thenNothingSent() {
+            // When
+            presenceService.resync(session, 7);
+            // Then
+            verify(webSocketCacheService, never()).sendFrame(any(WebsocketIdentifier.class), any(), any());
+            verify(zSetOperations, never()).rangeByScoreWithScores(anyString(), anyDouble(), anyDouble());
+        }
+    }
+}
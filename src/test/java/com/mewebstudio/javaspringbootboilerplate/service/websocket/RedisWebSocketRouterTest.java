@@ -0,0 +1,243 @@
+package com.mewebstudio.javaspringbootboilerplate.service.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Tag("unit")
+@DisplayName("Unit tests for RedisWebSocketRouter")
+class RedisWebSocketRouterTest {
+    private static final String PRESENCE_KEY = "websockets:presence";
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    @Mock
+    private SetOperations<String, String> setOperations;
+
+    @Mock
+    private RedisMessageListenerContainer redisMessageListenerContainer;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private RedisWebSocketRouter router;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(stringRedisTemplate.<Object, Object>opsForHash()).thenReturn(hashOperations);
+        when(stringRedisTemplate.opsForSet()).thenReturn(setOperations);
+        router = new RedisWebSocketRouter("node-a", 1_000, stringRedisTemplate, objectMapper,
+            redisMessageListenerContainer);
+    }
+
+    private String published(final String channel) {
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(stringRedisTemplate).convertAndSend(eq(channel), captor.capture());
+
+        return captor.getValue();
+    }
+
+    @Test
+    @DisplayName("Register adds this node to the nodes of the user")
+    void givenUserOnAnotherNode_whenRegister_thenNotFirst() {
+        // Given
+        when(stringRedisTemplate.execute(any(RedisScript.class), eq(List.of(PRESENCE_KEY,
+            "websockets:node:node-a:users", "websockets:user:user-1:nodes")), eq("user-1"), eq("node-a")))
+            .thenReturn(2L);
+        // When
+        boolean first = router.register("user-1");
+        // Then
+        assertFalse(first);
+    }
+
+    @Test
+    @DisplayName("Unregister reports the user offline only with its last node")
+    void givenUser_whenUnregister_thenOfflineWithLastNode() {
+        // Given
+        List<String> keys = List.of(PRESENCE_KEY, "websockets:node:node-a:users", "websockets:user:user-1:nodes");
+        when(stringRedisTemplate.execute(any(RedisScript.class), eq(keys), eq("user-1"), eq("node-a")))
+            .thenReturn(1L, 0L);
+        // When
+        boolean offlineWhileOnOtherNode = router.unregister("user-1");
+        boolean offline = router.unregister("user-1");
+        // Then
+        assertFalse(offlineWhileOnOtherNode);
+        assertTrue(offline);
+    }
+
+    @Nested
+    @DisplayName("Test class for forward scenarios")
+    class ForwardTest {
+        @Test
+        @DisplayName("Frame is published to every other node of the user")
+        void givenUserOnSeveralNodes_whenForward_thenPublishedToOtherNodes() throws Exception {
+            // Given
+            when(setOperations.members("websockets:user:user-1:nodes")).thenReturn(Set.of("node-a", "node-b"));
+            when(stringRedisTemplate.convertAndSend(eq("websockets:route:node-b"), anyString())).thenReturn(1L);
+            // When
+            boolean result = router.forward("user-1", "{}", "key");
+            // Then
+            assertTrue(result);
+            RedisWebSocketRouter.Envelope envelope = objectMapper.readValue(published("websockets:route:node-b"),
+                RedisWebSocketRouter.Envelope.class);
+            assertEquals(new RedisWebSocketRouter.Envelope("node-a", "user-1", "key", "{}"), envelope);
+            verify(stringRedisTemplate, never()).convertAndSend(eq("websockets:route:node-a"), anyString());
+        }
+
+        @Test
+        @DisplayName("Offline user is not published")
+        void givenOfflineUser_whenForward_thenFalse() {
+            // When
+            boolean result = router.forward("user-1", "{}", null);
+            // Then
+            assertFalse(result);
+            verify(stringRedisTemplate, never()).convertAndSend(anyString(), anyString());
+        }
+
+        @Test
+        @DisplayName("User of a node without subscribers is unregistered")
+        void givenDeadNode_whenForward_thenUnregistered() {
+            // Given
+            when(setOperations.members("websockets:user:user-1:nodes")).thenReturn(Set.of("node-b"));
+            when(stringRedisTemplate.convertAndSend(eq("websockets:route:node-b"), anyString())).thenReturn(0L);
+            // When
+            boolean result = router.forward("user-1", "{}", null);
+            // Then
+            assertFalse(result);
+            verify(stringRedisTemplate).execute(any(RedisScript.class), eq(List.of(PRESENCE_KEY,
+                "websockets:node:node-b:users", "websockets:user:user-1:nodes")), eq("user-1"), eq("node-b"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Test class for onMessage scenarios")
+    class OnMessageTest {
+        private final WebSocketRouter.Delivery delivery = mock(WebSocketRouter.Delivery.class);
+
+        private DefaultMessage message(final RedisWebSocketRouter.Envelope envelope) throws Exception {
+            return new DefaultMessage("channel".getBytes(StandardCharsets.UTF_8),
+                objectMapper.writeValueAsBytes(envelope));
+        }
+
+        @Test
+        @DisplayName("Routed frame is delivered locally")
+        void givenRoutedFrame_whenOnMessage_thenDelivered() throws Exception {
+            // Given
+            router.setDelivery(delivery);
+            // When
+            router.onMessage(message(new RedisWebSocketRouter.Envelope("node-b", "user-1", null, "{}")), null);
+            // Then
+            verify(delivery).deliver("user-1", "{}", null);
+        }
+
+        @Test
+        @DisplayName("Own broadcast is not delivered twice")
+        void givenOwnBroadcast_whenOnMessage_thenSkipped() throws Exception {
+            // Given
+            router.setDelivery(delivery);
+            // When
+            router.onMessage(message(new RedisWebSocketRouter.Envelope("node-a", null, "k", "{}")), null);
+            // Then
+            verify(delivery, never()).deliver(any(), anyString(), any());
+        }
+    }
+
+    @Test
+    @DisplayName("A versioned broadcast is versioned, logged and published by one script")
+    void givenTemplate_whenBroadcastVersioned_thenOneScript() {
+        // Given
+        when(stringRedisTemplate.execute(any(RedisScript.class), eq(List.of("version", "log",
+            "websockets:broadcast")), eq("{\"version\":-1}"), eq("-1"), eq("100"), eq("node-a")))
+            .thenReturn("{\"version\":8}");
+        // When
+        String frame = router.broadcastVersioned("version", "log", 100, "{\"version\":-1}", "-1");
+        // Then
+        assertEquals("{\"version\":8}", frame);
+        verify(stringRedisTemplate, never()).convertAndSend(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Heartbeat removes the users of expired nodes")
+    void givenExpiredNode_whenHeartbeat_thenItsUsersRemoved() {
+        // Given
+        when(setOperations.members("websockets:nodes")).thenReturn(Set.of("node-a", "node-b"));
+        when(stringRedisTemplate.hasKey("websockets:node:node-a:alive")).thenReturn(true);
+        when(stringRedisTemplate.hasKey("websockets:node:node-b:alive")).thenReturn(false);
+        when(setOperations.members("websockets:node:node-b:users")).thenReturn(Set.of("user-2"));
+        when(stringRedisTemplate.execute(any(RedisScript.class), eq(List.of("websockets:node:node-a:alive",
+            "websockets:nodes")), eq("node-a"), eq("3000"))).thenReturn(1L);
+        // When
+        router.heartbeat();
+        // Then
+        verify(stringRedisTemplate).execute(any(RedisScript.class), eq(List.of("websockets:node:node-a:alive",
+            "websockets:nodes")), eq("node-a"), eq("3000"));
+        verify(stringRedisTemplate).execute(any(RedisScript.class), eq(List.of(PRESENCE_KEY,
+            "websockets:node:node-b:users", "websockets:user:user-2:nodes")), eq("user-2"), eq("node-b"));
+        verify(setOperations).remove("websockets:nodes", "node-b");
+        verify(setOperations, never()).remove("websockets:nodes", "node-a");
+        verify(stringRedisTemplate).delete(List.of("websockets:node:node-b:users", "websockets:node:node-b:alive"));
+    }
+
+    @Test
+    @DisplayName("Heartbeat registers the local users again when this node was taken for dead")
+    void givenOwnHeartbeatExpired_whenHeartbeat_thenLocalUsersRegisteredAgain() {
+        // Given
+        router.setLocalUsers(() -> Set.of("user-1"));
+        when(setOperations.members("websockets:nodes")).thenReturn(Set.of("node-a"));
+        when(stringRedisTemplate.hasKey("websockets:node:node-a:alive")).thenReturn(true);
+        when(stringRedisTemplate.execute(any(RedisScript.class), eq(List.of("websockets:node:node-a:alive",
+            "websockets:nodes")), eq("node-a"), eq("3000"))).thenReturn(0L);
+        // When
+        router.heartbeat();
+        // Then
+        verify(stringRedisTemplate).execute(any(RedisScript.class), eq(List.of(PRESENCE_KEY,
+            "websockets:node:node-a:users", "websockets:user:user-1:nodes")), eq("user-1"), eq("node-a"));
+    }
+
+    @Test
+    @DisplayName("Heartbeat leaves the registrations alone while this node is alive")
+    void givenOwnHeartbeatAlive_whenHeartbeat_thenNothingRegistered() {
+        // Given
+        router.setLocalUsers(() -> Set.of("user-1"));
+        when(setOperations.members("websockets:nodes")).thenReturn(Set.of("node-a"));
+        when(stringRedisTemplate.hasKey("websockets:node:node-a:alive")).thenReturn(true);
+        when(stringRedisTemplate.execute(any(RedisScript.class), eq(List.of("websockets:node:node-a:alive",
+            "websockets:nodes")), eq("node-a"), eq("3000"))).thenReturn(1L);
+        // When
+        router.heartbeat();
+        // Then
+        verify(stringRedisTemplate, never()).execute(any(RedisScript.class), eq(List.of(PRESENCE_KEY,
+            "websockets:node:node-a:users", "websockets:user:user-1:nodes")), eq("user-1"), eq("node-a"));
+    }
+}
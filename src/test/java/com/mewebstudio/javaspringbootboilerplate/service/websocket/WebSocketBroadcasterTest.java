@@ -0,0 +1,97 @@
+package com.mewebstudio.javaspringbootboilerplate.service.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Tag("unit")
+@DisplayName("Unit tests for WebSocketBroadcaster")
+class WebSocketBroadcasterTest {
+    private final WebSocketBroadcaster webSocketBroadcaster = new WebSocketBroadcaster(2, 1, 16, 4, 5000, "drop-oldest",
+        new SimpleMeterRegistry(), new WebSocketCodec(new ObjectMapper()));
+
+    @AfterEach
+    void tearDown() {
+        webSocketBroadcaster.shutdown();
+    }
+
+    @Test
+    @DisplayName("Same frame is sent to every session")
+    void givenSessions_whenBroadcast_thenSameFrameSentToAll() throws IOException {
+        // Given
+        List<WebSocketSession> sessions = IntStream.range(0, 5).mapToObj(i -> mock(WebSocketSession.class)).toList();
+        TextMessage message = new TextMessage("payload");
+        // When
+        webSocketBroadcaster.broadcast(sessions.stream().map(webSocketBroadcaster::open).toList(),
+            new WebSocketOutbound.Frame(message, null));
+        // Then
+        for (WebSocketSession session : sessions) {
+            verify(session, timeout(1000)).sendMessage(message);
+        }
+    }
+
+    @Test
+    @DisplayName("Binary sessions share one CBOR encoding of the frame")
+    void givenBinarySessions_whenBroadcast_thenSameBinaryFrameSentToAll() throws IOException {
+        // Given
+        List<WebSocketSession> sessions = IntStream.range(0, 3).mapToObj(i -> mock(WebSocketSession.class)).toList();
+        sessions.forEach(session -> when(session.getAcceptedProtocol()).thenReturn(WebSocketCodec.CBOR_PROTOCOL));
+        // When
+        webSocketBroadcaster.broadcast(sessions.stream().map(webSocketBroadcaster::open).toList(),
+            new WebSocketOutbound.Frame(new TextMessage("{\"type\":\"private\"}"), null));
+        // Then
+        ArgumentCaptor<BinaryMessage> captor = ArgumentCaptor.forClass(BinaryMessage.class);
+        for (WebSocketSession session : sessions) {
+            verify(session, timeout(1000)).sendMessage(captor.capture());
+        }
+        assertEquals(1, captor.getAllValues().stream().distinct().count());
+    }
+
+    @Test
+    @DisplayName("A session close that blocks does not hold up the caller")
+    void givenBlockingClose_whenClose_thenReturnsImmediately() throws Exception {
+        // Given
+        WebSocketSession session = mock(WebSocketSession.class);
+        CountDownLatch released = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            released.await();
+            return null;
+        }).when(session).close(CloseStatus.SESSION_NOT_RELIABLE);
+        // When
+        assertTimeoutPreemptively(Duration.ofSeconds(1),
+            () -> webSocketBroadcaster.close(session, CloseStatus.SESSION_NOT_RELIABLE));
+        // Then
+        verify(session, timeout(1000)).close(CloseStatus.SESSION_NOT_RELIABLE);
+        released.countDown();
+    }
+
+    @Test
+    @DisplayName("When overflow policy is unknown then throw IllegalArgumentException")
+    void givenUnknownPolicy_whenCreate_thenThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new WebSocketBroadcaster(1, 1, 1, 1, 5000, "block",
+            new SimpleMeterRegistry(), new WebSocketCodec(new ObjectMapper())));
+    }
+}
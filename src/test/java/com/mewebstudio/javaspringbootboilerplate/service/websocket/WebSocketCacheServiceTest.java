@@ -4,6 +4,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mewebstudio.javaspringbootboilerplate.dto.ws.WebsocketIdentifier;
 import com.mewebstudio.javaspringbootboilerplate.dto.ws.WsRequestBody;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.instancio.Instancio;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -13,21 +14,28 @@ import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.junit.jupiter.api.function.Executable;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 import java.io.IOException;
-import java.util.Map;
-import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @Tag("unit")
 @ExtendWith(MockitoExtension.class)
@@ -37,6 +45,9 @@ class WebSocketCacheServiceTest {
     @InjectMocks private WebSocketCacheService webSocketCacheService;
     @Mock private WebSocketSession webSocketSession;
     @Mock private ObjectMapper objectMapper;
+    @Spy private WebSocketBroadcaster webSocketBroadcaster = new WebSocketBroadcaster(1, 1, 16, 16, 5000, "coalesce",
+        new SimpleMeterRegistry(), new WebSocketCodec(new ObjectMapper()));
+    @Mock private WebSocketRouter webSocketRouter;
 
     private final WebsocketIdentifier websocketIdentifier = Instancio.create(WebsocketIdentifier.class);
 
@@ -50,7 +61,7 @@ class WebSocketCacheServiceTest {
     @Order(1)
     void given_whenGetAllWebSocketSession_thenAssertResult() {
         // When
-        Map<String, WebsocketIdentifier> result = webSocketCacheService.getAllWebSocketSession();
+        List<WebsocketIdentifier> result = webSocketCacheService.getAllWebSocketSession();
         // Then
         assertEquals(0, result.size());
     }
@@ -59,27 +70,140 @@ class WebSocketCacheServiceTest {
     @Order(2)
     void given_whenPut_thenAssertResult() throws IOException {
         // Given
+        when(webSocketRouter.register(websocketIdentifier.getUserId())).thenReturn(true);
         // When
-        webSocketCacheService.put(websocketIdentifier);
+        boolean first = webSocketCacheService.put(websocketIdentifier);
         // Then
-        verify(webSocketSession, Mockito.times(2)).sendMessage(any(TextMessage.class));
+        assertTrue(first);
+        verify(webSocketRouter).register(websocketIdentifier.getUserId());
+        assertEquals(List.of(websocketIdentifier), webSocketCacheService.getSessions(websocketIdentifier.getUserId()));
     }
 
     @Test
     @Order(3)
-    void given_whenGetOrDefault_thenAssertResult() {
+    void given_whenGetSessions_thenAssertResult() {
         // When
-        WebsocketIdentifier result = webSocketCacheService.getOrDefault("key");
+        List<WebsocketIdentifier> result = webSocketCacheService.getSessions("key");
         // Then
-        assertNull(result);
+        assertTrue(result.isEmpty());
+        assertNull(webSocketCacheService.getSession("key", webSocketSession));
     }
 
     @Test
     @Order(4)
     void given_whenDeleteSession_thenAssertResult(){
+        // Given
+        WebsocketIdentifier unknown = new WebsocketIdentifier();
+        unknown.setUserId("key");
+        unknown.setSession(webSocketSession);
+        // When
+        boolean result = webSocketCacheService.deleteSession(unknown);
+        // Then
+        assertFalse(result);
+        verify(webSocketRouter, Mockito.never()).unregister("key");
+    }
+
+    @Test
+    @Order(5)
+    void givenRemoteRecipient_whenSendPrivateMessage_thenForwarded() {
+        // Given
+        WsRequestBody requestBody = new WsRequestBody();
+        requestBody.setTo("remote-user");
+        // When
+        webSocketCacheService.sendPrivateMessage(requestBody);
+        // Then
+        verify(webSocketRouter).forward("remote-user", "writeValueAsString", null);
+    }
+
+    @Test
+    @Order(6)
+    void givenTemplate_whenBroadcastVersionedFrame_thenStampedFrameSentLocally() throws IOException {
+        // Given
+        webSocketCacheService.put(websocketIdentifier);
+        when(webSocketRouter.broadcastVersioned("version", "log", 10, "frame-?", "?")).thenReturn("frame-8");
+        // When
+        webSocketCacheService.broadcastVersionedFrame("version", "log", 10, "frame-?", "?");
+        // Then
+        verify(webSocketSession, Mockito.timeout(1000)).sendMessage(new TextMessage("frame-8"));
+        verify(webSocketRouter, Mockito.never()).broadcast(any(), any());
+    }
+
+    @Test
+    @Order(7)
+    void givenExpiredToken_whenCloseExpired_thenSessionClosed() throws IOException {
+        // Given
+        websocketIdentifier.setExpiresAt(Instant.now().minusSeconds(1));
+        webSocketCacheService.put(websocketIdentifier);
+        CountDownLatch released = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            released.await();
+            return null;
+        }).when(webSocketSession).close(CloseStatus.POLICY_VIOLATION);
+        // When
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> webSocketCacheService.closeExpired());
+        // Then
+        verify(webSocketSession, Mockito.timeout(1000)).close(CloseStatus.POLICY_VIOLATION);
+        released.countDown();
+    }
+
+    @Test
+    @Order(8)
+    void givenValidToken_whenCloseExpired_thenSessionKept() throws IOException {
+        // Given
+        websocketIdentifier.setExpiresAt(Instant.now().plusSeconds(60));
+        webSocketCacheService.put(websocketIdentifier);
+        // When
+        webSocketCacheService.closeExpired();
+        // Then
+        verify(webSocketSession, Mockito.never()).close(any(CloseStatus.class));
+    }
+
+    @Test
+    @Order(9)
+    void givenTwoSessionsOfUser_whenSendPrivateMessageAndClose_thenFannedOutAndOtherKept() throws IOException {
+        // Given
+        WebSocketSession otherSession = Mockito.mock(WebSocketSession.class);
+        WebsocketIdentifier first = new WebsocketIdentifier();
+        first.setUserId("multi-device-user");
+        first.setSession(webSocketSession);
+        WebsocketIdentifier second = new WebsocketIdentifier();
+        second.setUserId("multi-device-user");
+        second.setSession(otherSession);
+        when(webSocketRouter.register("multi-device-user")).thenReturn(true);
+        when(webSocketRouter.unregister("multi-device-user")).thenReturn(true);
+        assertTrue(webSocketCacheService.put(first));
+        assertFalse(webSocketCacheService.put(second));
+        WsRequestBody requestBody = new WsRequestBody();
+        requestBody.setTo("multi-device-user");
+        // When
+        webSocketCacheService.sendPrivateMessage(requestBody);
+        // Then
+        verify(webSocketSession, Mockito.timeout(1000)).sendMessage(new TextMessage("writeValueAsString"));
+        verify(otherSession, Mockito.timeout(1000)).sendMessage(new TextMessage("writeValueAsString"));
+        verify(webSocketRouter).forward("multi-device-user", "writeValueAsString", null);
+        assertFalse(webSocketCacheService.deleteSession(first));
+        assertTrue(first.getOutbound().isClosed());
+        assertEquals(List.of(second), webSocketCacheService.getSessions("multi-device-user"));
+        verify(webSocketRouter, Mockito.never()).unregister("multi-device-user");
+        assertTrue(webSocketCacheService.deleteSession(second));
+        verify(webSocketRouter).unregister("multi-device-user");
+    }
+
+    @Test
+    @Order(10)
+    void givenUserOnAnotherNode_whenLastLocalSessionDeleted_thenStillOnline() {
+        // Given
+        WebsocketIdentifier local = new WebsocketIdentifier();
+        local.setUserId("roaming-user");
+        local.setSession(webSocketSession);
+        when(webSocketRouter.register("roaming-user")).thenReturn(false);
+        when(webSocketRouter.unregister("roaming-user")).thenReturn(false);
         // When
-        Executable result = () -> webSocketCacheService.deleteSession("key");
+        boolean joined = webSocketCacheService.put(local);
+        boolean left = webSocketCacheService.deleteSession(local);
         // Then
-        assertDoesNotThrow(result);
+        assertFalse(joined);
+        assertFalse(left);
+        verify(webSocketRouter).unregister("roaming-user");
     }
 }
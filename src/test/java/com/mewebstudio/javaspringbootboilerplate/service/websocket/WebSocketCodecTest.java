@@ -0,0 +1,72 @@
+package com.mewebstudio.javaspringbootboilerplate.service.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.mewebstudio.javaspringbootboilerplate.dto.ws.WsRequestBody;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@Tag("unit")
+@DisplayName("Unit tests for WebSocketCodec")
+class WebSocketCodecTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final WebSocketCodec codec = new WebSocketCodec(objectMapper);
+
+    @Test
+    @DisplayName("Only sessions that negotiated cbor are binary")
+    void givenAcceptedProtocol_whenIsBinary_thenOnlyCbor() {
+        // Given
+        WebSocketSession cbor = mock(WebSocketSession.class);
+        when(cbor.getAcceptedProtocol()).thenReturn(WebSocketCodec.CBOR_PROTOCOL);
+        WebSocketSession text = mock(WebSocketSession.class);
+        // When
+        // Then
+        assertTrue(codec.isBinary(cbor));
+        assertFalse(codec.isBinary(text));
+    }
+
+    @Test
+    @DisplayName("Binary frames decode to the same request as JSON frames")
+    void givenCborFrame_whenDecode_thenSameAsJson() throws IOException {
+        // Given
+        Map<String, Object> body = Map.of("to", "user-b", "content", "hello", "type", "private", "date", 1L);
+        byte[] cbor = new CBORMapper().writeValueAsBytes(body);
+        ByteBuffer sliced = ByteBuffer.allocate(cbor.length + 2).put((byte) 0).put(cbor).put((byte) 0)
+            .position(1).limit(cbor.length + 1).slice();
+        // When
+        WsRequestBody fromJson = codec.decode(new TextMessage(objectMapper.writeValueAsString(body)));
+        WsRequestBody fromCbor = codec.decode(new BinaryMessage(sliced));
+        // Then
+        assertEquals(fromJson.getTo(), fromCbor.getTo());
+        assertEquals(fromJson.getContent(), fromCbor.getContent());
+        assertEquals(fromJson.getType(), fromCbor.getType());
+        assertEquals(fromJson.getDate(), fromCbor.getDate());
+    }
+
+    @Test
+    @DisplayName("JSON frames are transcoded to smaller CBOR frames with the same fields")
+    void givenJsonFrame_whenToBinary_thenCborWithSameFields() throws IOException {
+        // Given
+        String json = "{\"type\":\"presence-delta\",\"version\":42,\"joined\":[\"a\",\"b\"],\"left\":[],\"date\":1}";
+        // When
+        BinaryMessage binary = codec.toBinary(json);
+        // Then
+        assertEquals(objectMapper.readTree(json), new CBORMapper().readTree(binary.getPayload().array()));
+        assertTrue(binary.getPayloadLength() < json.length());
+    }
+}
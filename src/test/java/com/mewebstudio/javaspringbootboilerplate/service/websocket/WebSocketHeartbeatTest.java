@@ -0,0 +1,147 @@
+package com.mewebstudio.javaspringbootboilerplate.service.websocket;
+
+import com.mewebstudio.javaspringbootboilerplate.dto.ws.WebsocketIdentifier;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Tag("unit")
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Unit tests for WebSocketHeartbeat")
+class WebSocketHeartbeatTest {
+    private static final long TICK = 1_000;
+
+    private static final long PING_INTERVAL = 2_000;
+
+    private static final long TIMEOUT = 60_000;
+
+    @Mock
+    private WebSocketLifecycleDispatcher webSocketLifecycleDispatcher;
+
+    @Mock
+    private WebSocketBroadcaster webSocketBroadcaster;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private WebSocketHeartbeat create(final long timeout, final int evictBatchSize) {
+        return new WebSocketHeartbeat(TICK, PING_INTERVAL, timeout, evictBatchSize, webSocketLifecycleDispatcher,
+            webSocketBroadcaster, meterRegistry);
+    }
+
+    private static WebsocketIdentifier identifier(final String id) {
+        WebSocketSession session = mock(WebSocketSession.class);
+        lenient().when(session.getId()).thenReturn(id);
+        WebsocketIdentifier identifier = new WebsocketIdentifier();
+        identifier.setUserId(id);
+        identifier.setSession(session);
+        identifier.setOutbound(mock(WebSocketOutbound.class));
+
+        return identifier;
+    }
+
+    private double sessions() {
+        return meterRegistry.get("websocket.heartbeat.sessions").gauge().value();
+    }
+
+    @Test
+    @DisplayName("A session is pinged once per rotation of the wheel")
+    void givenSession_whenWheelRotates_thenPingedOnce() {
+        // Given
+        WebSocketHeartbeat heartbeat = create(TIMEOUT, 10);
+        WebsocketIdentifier identifier = identifier("a");
+        when(identifier.getOutbound().ping()).thenReturn(true);
+        heartbeat.register(identifier);
+        // When
+        heartbeat.tick();
+        verify(identifier.getOutbound(), never()).ping();
+        heartbeat.tick();
+        // Then
+        verify(identifier.getOutbound(), times(1)).ping();
+        assertEquals(1, meterRegistry.get("websocket.heartbeat.pings").counter().count());
+        assertEquals(1, sessions());
+    }
+
+    @Test
+    @DisplayName("A session with nothing inbound within the timeout is closed and removed")
+    void givenSilentSession_whenDue_thenEvicted() {
+        // Given
+        WebSocketHeartbeat heartbeat = create(0, 10);
+        WebsocketIdentifier identifier = identifier("a");
+        heartbeat.register(identifier);
+        // When
+        heartbeat.tick();
+        heartbeat.tick();
+        // Then
+        verify(identifier.getOutbound(), never()).ping();
+        verify(identifier.getOutbound()).close(CloseStatus.SESSION_NOT_RELIABLE);
+        verify(webSocketLifecycleDispatcher).disconnected(identifier);
+        assertEquals(0, sessions());
+    }
+
+    @Test
+    @DisplayName("A reaped session without an outbound queue is closed on the broadcaster's close pool")
+    void givenSilentSessionWithoutOutbound_whenDue_thenClosedByBroadcaster() throws IOException {
+        // Given
+        WebSocketHeartbeat heartbeat = create(0, 10);
+        WebsocketIdentifier identifier = identifier("a");
+        identifier.setOutbound(null);
+        heartbeat.register(identifier);
+        // When
+        heartbeat.tick();
+        heartbeat.tick();
+        // Then
+        verify(webSocketBroadcaster).close(identifier.getSession(), CloseStatus.SESSION_NOT_RELIABLE);
+        verify(identifier.getSession(), never()).close(CloseStatus.SESSION_NOT_RELIABLE);
+        verify(webSocketLifecycleDispatcher).disconnected(identifier);
+    }
+
+    @Test
+    @DisplayName("Reaped sessions are closed one batch per tick")
+    void givenManySilentSessions_whenDue_thenEvictedInBatches() {
+        // Given
+        WebSocketHeartbeat heartbeat = create(0, 2);
+        for (String id : new String[]{"a", "b", "c"}) {
+            heartbeat.register(identifier(id));
+        }
+        // When
+        heartbeat.tick();
+        heartbeat.tick();
+        // Then
+        assertEquals(2, meterRegistry.get("websocket.heartbeat.evicted").counter().count());
+        heartbeat.tick();
+        assertEquals(3, meterRegistry.get("websocket.heartbeat.evicted").counter().count());
+    }
+
+    @Test
+    @DisplayName("An unregistered session leaves the wheel right away")
+    void givenClosedSession_whenUnregister_thenNotPinged() {
+        // Given
+        WebSocketHeartbeat heartbeat = create(TIMEOUT, 10);
+        WebsocketIdentifier identifier = identifier("a");
+        heartbeat.register(identifier);
+        // When
+        heartbeat.unregister(identifier.getSession());
+        heartbeat.tick();
+        heartbeat.tick();
+        // Then
+        assertEquals(0, sessions());
+        verify(identifier.getOutbound(), never()).ping();
+        verify(webSocketLifecycleDispatcher, never()).disconnected(identifier);
+    }
+}
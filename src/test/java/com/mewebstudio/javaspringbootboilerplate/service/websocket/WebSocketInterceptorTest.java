@@ -1,6 +1,8 @@
 package com.mewebstudio.javaspringbootboilerplate.service.websocket;
 
 import com.mewebstudio.javaspringbootboilerplate.security.JwtTokenProvider;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Tag;
@@ -13,11 +15,16 @@ import org.springframework.http.server.ServerHttpRequest;
 import org.springframework.http.server.ServerHttpResponse;
 import org.springframework.web.socket.WebSocketHandler;
 import java.net.URI;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -42,8 +49,10 @@ public class WebSocketInterceptorTest {
         @Test
         void givenServerHttpRequestAndServerHttpResponseAndWebSocketHandlerAndMapAttributes_whenBeforeHandshake_thenAssertBody() {
             // Given
+            Date expiration = Date.from(Instant.now().plusSeconds(60).truncatedTo(ChronoUnit.SECONDS));
             when(request.getURI()).thenReturn(URI.create("/websocket/someToken"));
-            when(jwtTokenProvider.validateToken("someToken", false)).thenReturn(true);
+            when(jwtTokenProvider.validateAndGetClaims("someToken", false))
+                .thenReturn(Jwts.claims().setSubject("user-id").setExpiration(expiration));
 
             // When
             Map<String, Object> attributes = new HashMap<>();
@@ -51,13 +60,16 @@ public class WebSocketInterceptorTest {
 
             // Then
             assertTrue(result);
+            assertEquals("user-id", attributes.get(WebSocketInterceptor.USER_ID_ATTRIBUTE));
+            assertEquals("someToken", attributes.get(WebSocketInterceptor.TOKEN_ATTRIBUTE));
+            assertEquals(expiration.toInstant(), attributes.get(WebSocketInterceptor.EXPIRES_AT_ATTRIBUTE));
         }
 
         @Test
         void givenServerHttpRequestAndServerHttpResponseAndWebSocketHandlerAndMapAttributes_whenBeforeHandshake_thenInValidToken() {
             // Given
             when(request.getURI()).thenReturn(URI.create("/websocket/invalidToken"));
-            when(jwtTokenProvider.validateToken("invalidToken", false)).thenReturn(false);
+            when(jwtTokenProvider.validateAndGetClaims("invalidToken", false)).thenReturn(null);
 
             // When
             Map<String, Object> attributes = new HashMap<>();
@@ -65,6 +77,23 @@ public class WebSocketInterceptorTest {
 
             // Then
             assertFalse(result);
+            assertTrue(attributes.isEmpty());
+        }
+
+        @Test
+        void givenServerHttpRequestAndServerHttpResponseAndWebSocketHandlerAndMapAttributes_whenBeforeHandshake_thenMalformedToken() {
+            // Given
+            when(request.getURI()).thenReturn(URI.create("/websocket/malformedToken"));
+            when(jwtTokenProvider.validateAndGetClaims("malformedToken", false))
+                .thenThrow(new MalformedJwtException("malformed"));
+
+            // When
+            Map<String, Object> attributes = new HashMap<>();
+            boolean result = webSocketInterceptor.beforeHandshake(request, response, wsHandler, attributes);
+
+            // Then
+            assertFalse(result);
+            assertTrue(attributes.isEmpty());
         }
 
         @Test
@@ -79,7 +108,7 @@ public class WebSocketInterceptorTest {
             // Then
             assertFalse(result);
             assertTrue(attributes.isEmpty());
-            verify(jwtTokenProvider, never()).validateToken(anyString());
+            verify(jwtTokenProvider, never()).validateAndGetClaims(anyString(), anyBoolean());
         }
     }
 
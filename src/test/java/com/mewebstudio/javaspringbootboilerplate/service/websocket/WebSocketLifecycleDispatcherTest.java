@@ -0,0 +1,212 @@
+package com.mewebstudio.javaspringbootboilerplate.service.websocket;
+
+import com.mewebstudio.javaspringbootboilerplate.dto.ws.WebsocketIdentifier;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Tag("unit")
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Unit tests for WebSocketLifecycleDispatcher")
+class WebSocketLifecycleDispatcherTest {
+    @Mock
+    private WebSocketCacheService webSocketCacheService;
+
+    @Mock
+    private PresenceService presenceService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final CountDownLatch started = new CountDownLatch(1);
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private WebSocketLifecycleDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+    }
+
+    private static WebsocketIdentifier identifier(final String userId) {
+        WebSocketSession session = mock(WebSocketSession.class);
+        lenient().when(session.getId()).thenReturn(UUID.randomUUID().toString());
+        WebsocketIdentifier identifier = new WebsocketIdentifier();
+        identifier.setUserId(userId);
+        identifier.setSession(session);
+
+        return identifier;
+    }
+
+    /**
+     * Single stripe whose worker is held on a first connect, so the events queued after it stay pending until
+     * {@link #drain()}.
+     */
+    private void createBlocked(final int capacity) throws InterruptedException {
+        dispatcher = new WebSocketLifecycleDispatcher(1, capacity, webSocketCacheService, presenceService,
+            meterRegistry);
+        WebsocketIdentifier blocker = identifier("blocker");
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return false;
+        }).when(webSocketCacheService).put(blocker);
+        dispatcher.connected(blocker);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Release the worker and wait until a disconnect queued last has been applied, which means every event before it
+     * has been applied as well.
+     */
+    private void drain() throws InterruptedException {
+        CountDownLatch drained = new CountDownLatch(1);
+        WebsocketIdentifier sentinel = identifier("sentinel");
+        doAnswer(invocation -> {
+            drained.countDown();
+            return false;
+        }).when(webSocketCacheService).deleteSession(sentinel);
+        dispatcher.disconnected(sentinel);
+        release.countDown();
+        assertTrue(drained.await(5, TimeUnit.SECONDS));
+        dispatcher.shutdown();
+    }
+
+    @Test
+    @DisplayName("The first session of a user joins presence and gets a snapshot off the calling thread")
+    void givenFirstSession_whenDrained_thenJoined() throws InterruptedException {
+        // Given
+        createBlocked(10);
+        WebsocketIdentifier identifier = identifier("user");
+        when(webSocketCacheService.put(identifier)).thenReturn(true);
+        // When
+        dispatcher.connected(identifier);
+        assertEquals(1, meterRegistry.get("websocket.lifecycle.pending").gauge().value());
+        drain();
+        // Then
+        verify(presenceService).join("user");
+        verify(presenceService).sendSnapshot(identifier);
+    }
+
+    @Test
+    @DisplayName("Another session of an online user only gets a snapshot")
+    void givenOnlineUser_whenAnotherSession_thenSnapshotOnly() throws InterruptedException {
+        // Given
+        createBlocked(10);
+        WebsocketIdentifier identifier = identifier("user");
+        when(webSocketCacheService.put(identifier)).thenReturn(false);
+        // When
+        dispatcher.connected(identifier);
+        drain();
+        // Then
+        verify(presenceService, never()).join("user");
+        verify(presenceService).sendSnapshot(identifier);
+    }
+
+    @Test
+    @DisplayName("A disconnect cancels the pending connect of the same session")
+    void givenPendingConnect_whenDisconnectSameSession_thenNothingApplied() throws InterruptedException {
+        // Given
+        createBlocked(10);
+        WebsocketIdentifier identifier = identifier("user");
+        // When
+        dispatcher.connected(identifier);
+        dispatcher.disconnected(identifier);
+        drain();
+        // Then
+        verify(webSocketCacheService, never()).put(identifier);
+        verify(webSocketCacheService, never()).deleteSession(identifier);
+        verify(presenceService, never()).sendSnapshot(identifier);
+        assertEquals(1, meterRegistry.get("websocket.lifecycle.coalesced").counter().count());
+    }
+
+    @Test
+    @DisplayName("Events of different sessions of a user are all applied in order")
+    void givenTwoSessions_whenDisconnectAndConnect_thenBothApplied() throws InterruptedException {
+        // Given
+        createBlocked(10);
+        WebsocketIdentifier previous = identifier("user");
+        WebsocketIdentifier next = identifier("user");
+        // When
+        dispatcher.disconnected(previous);
+        dispatcher.connected(next);
+        drain();
+        // Then
+        InOrder inOrder = inOrder(webSocketCacheService);
+        inOrder.verify(webSocketCacheService).deleteSession(previous);
+        inOrder.verify(webSocketCacheService).put(next);
+    }
+
+    @Test
+    @DisplayName("Closing the last session of a user leaves presence")
+    void givenLastSession_whenDisconnect_thenLeft() throws InterruptedException {
+        // Given
+        createBlocked(10);
+        WebsocketIdentifier identifier = identifier("user");
+        when(webSocketCacheService.deleteSession(identifier)).thenReturn(true);
+        // When
+        dispatcher.disconnected(identifier);
+        drain();
+        // Then
+        verify(presenceService).leave("user");
+    }
+
+    @Test
+    @DisplayName("Closing one of several sessions keeps the user online")
+    void givenOtherSessions_whenDisconnect_thenStillOnline() throws InterruptedException {
+        // Given
+        createBlocked(10);
+        WebsocketIdentifier identifier = identifier("user");
+        when(webSocketCacheService.deleteSession(identifier)).thenReturn(false);
+        // When
+        dispatcher.disconnected(identifier);
+        drain();
+        // Then
+        verify(webSocketCacheService).deleteSession(identifier);
+        verify(presenceService, never()).leave("user");
+    }
+
+    @Test
+    @DisplayName("Connects over capacity are refused while disconnects are still accepted")
+    void givenFullStripe_whenConnect_thenRefused() throws InterruptedException, IOException {
+        // Given
+        createBlocked(1);
+        WebsocketIdentifier accepted = identifier("accepted");
+        WebsocketIdentifier refused = identifier("refused");
+        WebsocketIdentifier closed = identifier("closed");
+        // When
+        dispatcher.connected(accepted);
+        dispatcher.connected(refused);
+        dispatcher.disconnected(closed);
+        drain();
+        // Then
+        verify(refused.getSession()).close(CloseStatus.SERVICE_OVERLOAD);
+        verify(webSocketCacheService, never()).put(refused);
+        verify(webSocketCacheService).put(accepted);
+        verify(webSocketCacheService).deleteSession(closed);
+        assertEquals(1, meterRegistry.get("websocket.lifecycle.rejected").counter().count());
+    }
+}
@@ -0,0 +1,265 @@
+package com.mewebstudio.javaspringbootboilerplate.service.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.PingMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@Tag("unit")
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Unit tests for WebSocketOutbound")
+class WebSocketOutboundTest {
+    @Mock
+    private WebSocketSession session;
+
+    private final List<Runnable> tasks = new ArrayList<>();
+
+    private Executor closer = Runnable::run;
+
+    private WebSocketOutboundMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new WebSocketOutboundMetrics(new SimpleMeterRegistry());
+    }
+
+    private WebSocketOutbound create(final WebSocketOutbound.OverflowPolicy policy) {
+        return create(policy, 5000);
+    }
+
+    private WebSocketOutbound create(final WebSocketOutbound.OverflowPolicy policy, final long sendTimeLimit) {
+        return new WebSocketOutbound(session, 2, 10, sendTimeLimit, policy, tasks::add, closer,
+            metrics, new WebSocketCodec(new ObjectMapper()));
+    }
+
+    private static WebSocketOutbound.Frame frame(final String payload, final String key) {
+        return new WebSocketOutbound.Frame(new TextMessage(payload), key);
+    }
+
+    private List<String> drain() throws IOException {
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+
+        ArgumentCaptor<TextMessage> captor = ArgumentCaptor.forClass(TextMessage.class);
+        verify(session, atLeast(0)).sendMessage(captor.capture());
+
+        return captor.getAllValues().stream().map(TextMessage::getPayload).toList();
+    }
+
+    @Test
+    @DisplayName("Frames are written in order by a single drain task")
+    void givenFrames_whenOffer_thenOneDrainTaskInOrder() throws IOException {
+        // Given
+        WebSocketOutbound outbound = create(WebSocketOutbound.OverflowPolicy.DROP_OLDEST);
+        // When
+        outbound.offer(frame("a", null));
+        outbound.offer(frame("b", null));
+        // Then
+        assertEquals(1, tasks.size());
+        assertEquals(2, metrics.getQueued());
+        assertEquals(List.of("a", "b"), drain());
+        assertEquals(0, metrics.getQueued());
+    }
+
+    @Test
+    @DisplayName("Failing send does not stop the drain")
+    void givenFailingSend_whenDrain_thenNextFrameSent() throws IOException {
+        // Given
+        WebSocketOutbound outbound = create(WebSocketOutbound.OverflowPolicy.DROP_OLDEST);
+        doThrow(new IOException("broken pipe")).when(session).sendMessage(new TextMessage("a"));
+        outbound.offer(frame("a", null));
+        outbound.offer(frame("b", null));
+        // When
+        List<String> sent = drain();
+        // Then
+        assertEquals(List.of("a", "b"), sent);
+    }
+
+    @Test
+    @DisplayName("A write stuck past the send time limit closes the session on the next offer")
+    void givenStuckWrite_whenOffer_thenSessionClosed() throws Exception {
+        // Given
+        WebSocketOutbound outbound = create(WebSocketOutbound.OverflowPolicy.DROP_OLDEST, 1);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            writing.countDown();
+            released.await();
+            return null;
+        }).when(session).sendMessage(new TextMessage("a"));
+        outbound.offer(frame("a", null));
+        Thread writer = new Thread(tasks.remove(0));
+        writer.start();
+        writing.await();
+        Thread.sleep(10);
+        // When
+        boolean queued = outbound.offer(frame("b", null));
+        // Then
+        released.countDown();
+        writer.join();
+        assertFalse(queued);
+        assertTrue(outbound.isClosed());
+        verify(session, times(1)).close(CloseStatus.SESSION_NOT_RELIABLE);
+        verify(session, never()).sendMessage(new TextMessage("b"));
+    }
+
+    @Test
+    @DisplayName("An offer on a session whose write is stuck returns at once and leaves the close to the executor")
+    void givenStuckWriteAndClose_whenOffer_thenReturnsImmediately() throws Exception {
+        // Given
+        List<Runnable> closes = new ArrayList<>();
+        closer = closes::add;
+        WebSocketOutbound outbound = create(WebSocketOutbound.OverflowPolicy.DROP_OLDEST, 1);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            writing.countDown();
+            released.await();
+            return null;
+        }).when(session).sendMessage(new TextMessage("a"));
+        doAnswer(invocation -> {
+            released.await();
+            return null;
+        }).when(session).close(CloseStatus.SESSION_NOT_RELIABLE);
+        outbound.offer(frame("a", null));
+        Thread writer = new Thread(tasks.remove(0));
+        writer.start();
+        writing.await();
+        Thread.sleep(10);
+        // When
+        boolean queued = assertTimeoutPreemptively(Duration.ofSeconds(1), () -> outbound.offer(frame("b", null)));
+        // Then
+        assertFalse(queued);
+        assertTrue(outbound.isClosed());
+        assertEquals(1, closes.size());
+        verify(session, never()).close(any(CloseStatus.class));
+        released.countDown();
+        closes.remove(0).run();
+        writer.join();
+        verify(session, times(1)).close(CloseStatus.SESSION_NOT_RELIABLE);
+    }
+
+    @Test
+    @DisplayName("Closing gives the queued frames back to the gauge and refuses later offers")
+    void givenQueuedFrames_whenRelease_thenGaugeCleared() {
+        // Given
+        WebSocketOutbound outbound = create(WebSocketOutbound.OverflowPolicy.COALESCE);
+        outbound.offer(frame("login", "presence:1"));
+        outbound.offer(frame("a", null));
+        // When
+        outbound.release();
+        // Then
+        assertFalse(outbound.offer(frame("logout", "presence:1")));
+        assertEquals(0, metrics.getQueued());
+        assertEquals(0, outbound.size());
+    }
+
+    @Test
+    @DisplayName("Pings are written behind the queued frames and coalesce with a queued ping")
+    void givenQueuedFrame_whenPing_thenPingWrittenAfterIt() throws IOException {
+        // Given
+        WebSocketOutbound outbound = create(WebSocketOutbound.OverflowPolicy.COALESCE);
+        outbound.offer(frame("a", null));
+        // When
+        assertTrue(outbound.ping());
+        assertTrue(outbound.ping());
+        // Then
+        assertEquals(List.of("a"), drain());
+        verify(session, times(1)).sendMessage(any(PingMessage.class));
+    }
+
+    @Nested
+    @DisplayName("Test class for overflow scenarios")
+    class OverflowTest {
+        @Test
+        @DisplayName("Drop oldest keeps the newest frames")
+        void givenFullQueue_whenDropOldest_thenOldestDropped() throws IOException {
+            // Given
+            WebSocketOutbound outbound = create(WebSocketOutbound.OverflowPolicy.DROP_OLDEST);
+            outbound.offer(frame("a", null));
+            outbound.offer(frame("b", null));
+            // When
+            assertTrue(outbound.offer(frame("c", null)));
+            // Then
+            assertEquals(1.0, metrics.getDropped());
+            assertEquals(List.of("b", "c"), drain());
+        }
+
+        @Test
+        @DisplayName("Coalesce replaces the queued frame with the same key")
+        void givenSameKey_whenCoalesce_thenReplacedInPlace() throws IOException {
+            // Given
+            WebSocketOutbound outbound = create(WebSocketOutbound.OverflowPolicy.COALESCE);
+            outbound.offer(frame("login", "presence:1"));
+            outbound.offer(frame("private", null));
+            // When
+            assertTrue(outbound.offer(frame("logout", "presence:1")));
+            // Then
+            assertEquals(0.0, metrics.getDropped());
+            assertEquals(List.of("logout", "private"), drain());
+        }
+
+        @Test
+        @DisplayName("Coalesce does not replace a keyed frame that was already dropped")
+        void givenKeyedFrameDropped_whenCoalesce_thenAppended() throws IOException {
+            // Given
+            WebSocketOutbound outbound = create(WebSocketOutbound.OverflowPolicy.COALESCE);
+            outbound.offer(frame("login", "presence:1"));
+            outbound.offer(frame("a", null));
+            outbound.offer(frame("b", null));
+            // When
+            assertTrue(outbound.offer(frame("logout", "presence:1")));
+            // Then
+            assertEquals(2.0, metrics.getDropped());
+            assertEquals(List.of("b", "logout"), drain());
+        }
+
+        @Test
+        @DisplayName("Disconnect closes the session and drops the queue")
+        void givenFullQueue_whenDisconnect_thenSessionClosed() throws IOException {
+            // Given
+            WebSocketOutbound outbound = create(WebSocketOutbound.OverflowPolicy.DISCONNECT);
+            outbound.offer(frame("a", null));
+            outbound.offer(frame("b", null));
+            // When
+            assertFalse(outbound.offer(frame("c", null)));
+            // Then
+            verify(session, times(1)).close(CloseStatus.SESSION_NOT_RELIABLE);
+            assertTrue(outbound.isClosed());
+            assertEquals(0, metrics.getQueued());
+            drain();
+            verify(session, never()).sendMessage(new TextMessage("a"));
+        }
+    }
+}
@@ -1,9 +1,7 @@
 package com.mewebstudio.javaspringbootboilerplate.service.websocket;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mewebstudio.javaspringbootboilerplate.dto.ws.WebsocketIdentifier;
 import com.mewebstudio.javaspringbootboilerplate.dto.ws.WsRequestBody;
-import com.mewebstudio.javaspringbootboilerplate.security.JwtTokenProvider;
 import org.instancio.Instancio;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -14,15 +12,21 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.socket.BinaryMessage;
 import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.PongMessage;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 import java.io.IOException;
-import java.net.URI;
-import java.net.URISyntaxException;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @Tag("unit")
@@ -31,35 +35,28 @@ import static org.mockito.Mockito.when;
 class WebsocketChannelHandlerTest {
     @InjectMocks private WebsocketChannelHandler websocketChannelHandler;
     @Mock private WebSocketCacheService webSocketCacheService;
-    @Mock private ObjectMapper objectMapper;
-    @Mock private JwtTokenProvider jwtTokenProvider;
+    @Mock private WebSocketCodec webSocketCodec;
+    @Mock private PresenceService presenceService;
+    @Mock private WebSocketLifecycleDispatcher webSocketLifecycleDispatcher;
+    @Mock private WebSocketHeartbeat webSocketHeartbeat;
     @Mock private WebSocketSession webSocketSession;
 
-    private URI uri;
+    private final Map<String, Object> attributes = new HashMap<>();
 
     @BeforeEach
-    void setUp() throws URISyntaxException {
-        uri = new URI("http://localhost:8080/ws/token-is-here");
-        lenient().when(webSocketSession.getUri()).thenReturn(uri);
+    void setUp() {
+        attributes.put(WebSocketInterceptor.USER_ID_ATTRIBUTE, "user-id");
+        attributes.put(WebSocketInterceptor.TOKEN_ATTRIBUTE, "token-is-here");
+        attributes.put(WebSocketInterceptor.EXPIRES_AT_ATTRIBUTE, Instant.now().plusSeconds(60));
+        lenient().when(webSocketSession.getAttributes()).thenReturn(attributes);
     }
 
     @Nested
     class AfterConnectionEstablished {
         @Test
-        void givenWebSocketSession_whenAfterConnectionEstablishedWithNullUri_thenAssertResult() throws IOException {
+        void givenWebSocketSession_whenAfterConnectionEstablishedWithNullWebsocketIdentifier_thenAssertResult() throws IOException {
             // Given
-            when(webSocketSession.getUri()).thenReturn(null);
-            // When
-            websocketChannelHandler.afterConnectionEstablished(webSocketSession);
-            // Then
-            verify(webSocketSession).close(CloseStatus.BAD_DATA);
-        }
-
-        @Test
-        void givenWebSocketSession_whenAfterConnectionEstablishedWithNullWebsocketIdentifier_thenAssertResult() throws IOException, URISyntaxException {
-            // Given
-            uri = new URI("http://localhost:8080/ws");
-            lenient().when(webSocketSession.getUri()).thenReturn(uri);
+            attributes.clear();
             // When
             websocketChannelHandler.afterConnectionEstablished(webSocketSession);
             // Then
@@ -69,31 +66,21 @@ class WebsocketChannelHandlerTest {
         @Test
         void givenWebSocketSession_whenAfterConnectionEstablished_thenAssertResult() throws IOException{
             // Given
-            when(jwtTokenProvider.getUserIdFromToken("token-is-here")).thenReturn("user-id");
             // When
             websocketChannelHandler.afterConnectionEstablished(webSocketSession);
             // Then
-            verify(webSocketCacheService).put(any(WebsocketIdentifier.class));
+            verify(webSocketLifecycleDispatcher).connected(any(WebsocketIdentifier.class));
+            verify(webSocketHeartbeat).register(any(WebsocketIdentifier.class));
+            verifyNoInteractions(webSocketCacheService, presenceService);
         }
     }
 
     @Nested
     class AfterConnectionClosed {
         @Test
-        void givenWebSocketSessionAndCloseStatus_whenAfterConnectionClosedWithNullUri_thenAssertResult() throws IOException {
+        void givenWebSocketSessionAndCloseStatus_whenAfterConnectionClosedWithNullWebsocketIdentifier_thenAssertResult() throws IOException {
             // Given
-            when(webSocketSession.getUri()).thenReturn(null);
-            // When
-            websocketChannelHandler.afterConnectionClosed(webSocketSession, CloseStatus.BAD_DATA);
-            // Then
-            verify(webSocketSession).close(CloseStatus.BAD_DATA);
-        }
-
-        @Test
-        void givenWebSocketSessionAndCloseStatus_whenAfterConnectionClosedWithNullWebsocketIdentifier_thenAssertResult() throws IOException, URISyntaxException {
-            // Given
-            uri = new URI("http://localhost:8080/ws");
-            lenient().when(webSocketSession.getUri()).thenReturn(uri);
+            attributes.clear();
             // When
             websocketChannelHandler.afterConnectionClosed(webSocketSession, CloseStatus.BAD_DATA);
             // Then
@@ -103,11 +90,12 @@ class WebsocketChannelHandlerTest {
         @Test
         void givenWebSocketSessionAndCloseStatus_whenAfterConnectionClosed_thenAssertResult() throws IOException{
             // Given
-            when(jwtTokenProvider.getUserIdFromToken("token-is-here")).thenReturn("user-id");
             // When
             websocketChannelHandler.afterConnectionClosed(webSocketSession, CloseStatus.BAD_DATA);
             // Then
-            verify(webSocketCacheService).deleteSession("user-id");
+            verify(webSocketLifecycleDispatcher).disconnected(any(WebsocketIdentifier.class));
+            verify(webSocketHeartbeat).unregister(webSocketSession);
+            verifyNoInteractions(webSocketCacheService, presenceService);
         }
     }
 
@@ -117,58 +105,75 @@ class WebsocketChannelHandlerTest {
         private final WsRequestBody wsRequestBody = Instancio.create(WsRequestBody.class);
 
         @Test
-        void givenWebSocketSessionAndTextMessage_whenHandleTextMessageWithNullUri_thenAssertResult() throws IOException {
+        void givenWebSocketSessionAndTextMessage_whenAfterConnectionClosedWithNullWebsocketIdentifier_thenAssertResult() throws IOException {
             // Given
-            when(webSocketSession.getUri()).thenReturn(null);
+            attributes.clear();
             // When
             websocketChannelHandler.handleTextMessage(webSocketSession, textMessage);
             // Then
-            verify(webSocketSession).close(CloseStatus.BAD_DATA);
+            verify(webSocketSession).close(CloseStatus.NOT_ACCEPTABLE);
         }
 
         @Test
-        void givenWebSocketSessionAndTextMessage_whenAfterConnectionClosedWithNullWebsocketIdentifier_thenAssertResult() throws IOException, URISyntaxException {
+        void givenWebSocketSessionAndTextMessage_whenAfterConnectionClosedWithTypeIsNull_thenAssertResult() throws IOException{
             // Given
-            uri = new URI("http://localhost:8080/ws");
-            lenient().when(webSocketSession.getUri()).thenReturn(uri);
+            wsRequestBody.setType(null);
+            when(webSocketCodec.decode(textMessage)).thenReturn(wsRequestBody);
             // When
             websocketChannelHandler.handleTextMessage(webSocketSession, textMessage);
             // Then
-            verify(webSocketSession).close(CloseStatus.NOT_ACCEPTABLE);
+            verify(webSocketCacheService).reply(eq(webSocketSession), eq("user-id"), anyString());
         }
 
         @Test
-        void givenWebSocketSessionAndTextMessage_whenAfterConnectionClosedWithTypeIsNull_thenAssertResult() throws IOException{
+        void givenWebSocketSessionAndTextMessage_whenAfterConnectionClosedWithTypeIsNotPrivate_thenAssertResult() throws IOException{
             // Given
-            when(jwtTokenProvider.getUserIdFromToken("token-is-here")).thenReturn("user-id");
-            wsRequestBody.setType(null);
-            when(objectMapper.readValue(textMessage.getPayload(), WsRequestBody.class)).thenReturn(wsRequestBody);
+            when(webSocketCodec.decode(textMessage)).thenReturn(wsRequestBody);
             // When
             websocketChannelHandler.handleTextMessage(webSocketSession, textMessage);
             // Then
-            verify(webSocketSession).sendMessage(any(TextMessage.class));
+            verify(webSocketCacheService).reply(eq(webSocketSession), eq("user-id"), anyString());
         }
 
         @Test
-        void givenWebSocketSessionAndTextMessage_whenAfterConnectionClosedWithTypeIsNotPrivate_thenAssertResult() throws IOException{
+        void givenWebSocketSessionAndTextMessage_whenAfterConnectionClosedWithTypeIsPrivate_thenAssertResult() throws IOException{
             // Given
-            when(jwtTokenProvider.getUserIdFromToken("token-is-here")).thenReturn("user-id");
-            when(objectMapper.readValue(textMessage.getPayload(), WsRequestBody.class)).thenReturn(wsRequestBody);
+            wsRequestBody.setType("private");
+            when(webSocketCodec.decode(textMessage)).thenReturn(wsRequestBody);
             // When
             websocketChannelHandler.handleTextMessage(webSocketSession, textMessage);
             // Then
-            verify(webSocketSession).sendMessage(any(TextMessage.class));
+            verify(webSocketCacheService).sendPrivateMessage(wsRequestBody);
         }
 
         @Test
-        void givenWebSocketSessionAndTextMessage_whenAfterConnectionClosedWithTypeIsPrivate_thenAssertResult() throws IOException{
+        void givenWebSocketSessionAndTextMessage_whenHandleTextMessageWithTypeIsPresenceSync_thenAssertResult() throws IOException{
             // Given
-            when(jwtTokenProvider.getUserIdFromToken("token-is-here")).thenReturn("user-id");
-            wsRequestBody.setType("private");
-            when(objectMapper.readValue(textMessage.getPayload(), WsRequestBody.class)).thenReturn(wsRequestBody);
+            wsRequestBody.setType("presence-sync");
+            wsRequestBody.setContent("42");
+            WebsocketIdentifier cached = new WebsocketIdentifier();
+            when(webSocketCodec.decode(textMessage)).thenReturn(wsRequestBody);
+            when(webSocketCacheService.getSession("user-id", webSocketSession)).thenReturn(cached);
             // When
             websocketChannelHandler.handleTextMessage(webSocketSession, textMessage);
             // Then
+            verify(presenceService).resync(cached, 42L);
+        }
+    }
+
+    @Nested
+    class HandleBinaryMessage {
+        private final BinaryMessage binaryMessage = new BinaryMessage(new byte[]{1, 2, 3});
+        private final WsRequestBody wsRequestBody = Instancio.create(WsRequestBody.class);
+
+        @Test
+        void givenWebSocketSessionAndBinaryMessage_whenHandleBinaryMessageWithTypeIsPrivate_thenAssertResult() throws IOException{
+            // Given
+            wsRequestBody.setType("private");
+            when(webSocketCodec.decode(binaryMessage)).thenReturn(wsRequestBody);
+            // When
+            websocketChannelHandler.handleBinaryMessage(webSocketSession, binaryMessage);
+            // Then
             verify(webSocketCacheService).sendPrivateMessage(wsRequestBody);
         }
     }
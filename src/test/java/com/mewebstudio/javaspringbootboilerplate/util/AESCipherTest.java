@@ -5,7 +5,17 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @Tag("unit")
 @DisplayName("Unit tests for AESCipher")
@@ -20,4 +30,60 @@ public class AESCipherTest {
 
         assertEquals(plainText, decryptedText);
     }
+
+    @Test
+    @DisplayName("Legacy mode keeps the output of a fresh ECB cipher")
+    public void testLegacyOutputUnchanged() throws Exception {
+        String plainText = "Hello, World!";
+        Cipher cipher = Cipher.getInstance("AES/ECB/PKCS5Padding");
+        cipher.init(Cipher.ENCRYPT_MODE,
+            new SecretKeySpec(Constants.APP_SECRET_KEY.getBytes(StandardCharsets.UTF_8), "AES"));
+        String expected = Base64.getEncoder()
+            .encodeToString(cipher.doFinal(plainText.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(expected, AESCipher.encrypt(plainText, Constants.APP_SECRET_KEY));
+        assertEquals(AESCipher.LEGACY_KEY_VERSION, AESCipher.keyVersion(expected));
+    }
+
+    @Test
+    @DisplayName("GCM mode uses a random IV and writes the key version to the header")
+    public void testGcmEncryptionAndDecryption() throws Exception {
+        String plainText = "Merhaba, Dünya!";
+
+        String encryptedText = AESCipher.encryptGcm(plainText, Constants.APP_SECRET_KEY, 12);
+
+        assertTrue(encryptedText.startsWith("v12:"));
+        assertEquals(12, AESCipher.keyVersion(encryptedText));
+        assertNotEquals(encryptedText, AESCipher.encryptGcm(plainText, Constants.APP_SECRET_KEY, 12));
+        assertEquals(plainText, AESCipher.decryptGcm(encryptedText, Constants.APP_SECRET_KEY));
+    }
+
+    @Test
+    @DisplayName("GCM mode rejects a tampered text")
+    public void testGcmTamperedText() throws Exception {
+        String encryptedText = AESCipher.encryptGcm("Hello, World!", Constants.APP_SECRET_KEY, 1);
+        byte[] bytes = Base64.getDecoder().decode(encryptedText.substring(3));
+        bytes[bytes.length - 1] ^= 1;
+        String tampered = "v1:" + Base64.getEncoder().encodeToString(bytes);
+
+        assertThrows(AEADBadTagException.class, () -> AESCipher.decryptGcm(tampered, Constants.APP_SECRET_KEY));
+        assertEquals("Hello, World!", AESCipher.decryptGcm(encryptedText, Constants.APP_SECRET_KEY));
+    }
+
+    @Test
+    @DisplayName("GCM batch keeps the order of the texts")
+    public void testGcmBatch() throws Exception {
+        List<String> plainTexts = List.of("first", "", "third");
+
+        List<String> encryptedTexts = AESCipher.encryptGcm(plainTexts, Constants.APP_SECRET_KEY, 1);
+
+        assertEquals(plainTexts, AESCipher.decryptGcm(encryptedTexts, Constants.APP_SECRET_KEY));
+    }
+
+    @Test
+    @DisplayName("Key versions below one are rejected")
+    public void testInvalidKeyVersion() {
+        assertThrows(IllegalArgumentException.class,
+            () -> AESCipher.encryptGcm("Hello, World!", Constants.APP_SECRET_KEY, AESCipher.LEGACY_KEY_VERSION));
+    }
 }
@@ -0,0 +1,158 @@
+-- Query plans and latency of the admin users list before and after the role filter moved from a JOIN + DISTINCT
+-- to a correlated EXISTS. Each UserCriteria combination runs the first page and the pagination count, the way
+-- Spring Data issues them. Seed the database with users-seed.sql first, then:
+--   psql "$DB_URL" -f src/test/resources/benchmark/user-filter-explain.sql > explain.txt
+\set ON_ERROR_STOP on
+\timing on
+
+\echo '=== roles=USER,ADMIN: before ==='
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT DISTINCT u.*
+FROM users u
+         JOIN user_roles ur ON ur.user_id = u.id
+         JOIN roles r ON r.id = ur.role_id
+WHERE r.name IN ('USER', 'ADMIN')
+ORDER BY u.created_at
+LIMIT 20;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(DISTINCT u.id)
+FROM users u
+         JOIN user_roles ur ON ur.user_id = u.id
+         JOIN roles r ON r.id = ur.role_id
+WHERE r.name IN ('USER', 'ADMIN');
+
+\echo '=== roles=USER,ADMIN: after ==='
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT u.*
+FROM users u
+WHERE EXISTS (SELECT 1
+              FROM user_roles ur
+                       JOIN roles r ON r.id = ur.role_id
+              WHERE ur.user_id = u.id
+                AND r.name IN ('USER', 'ADMIN'))
+ORDER BY u.created_at
+LIMIT 20;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(u.id)
+FROM users u
+WHERE EXISTS (SELECT 1
+              FROM user_roles ur
+                       JOIN roles r ON r.id = ur.role_id
+              WHERE ur.user_id = u.id
+                AND r.name IN ('USER', 'ADMIN'));
+
+\echo '=== roles=ADMIN, isBlocked=false: before ==='
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT DISTINCT u.*
+FROM users u
+         JOIN user_roles ur ON ur.user_id = u.id
+         JOIN roles r ON r.id = ur.role_id
+WHERE r.name IN ('ADMIN')
+  AND u.blocked_at IS NULL
+ORDER BY u.created_at
+LIMIT 20;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(DISTINCT u.id)
+FROM users u
+         JOIN user_roles ur ON ur.user_id = u.id
+         JOIN roles r ON r.id = ur.role_id
+WHERE r.name IN ('ADMIN')
+  AND u.blocked_at IS NULL;
+
+\echo '=== roles=ADMIN, isBlocked=false: after ==='
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT u.*
+FROM users u
+WHERE EXISTS (SELECT 1
+              FROM user_roles ur
+                       JOIN roles r ON r.id = ur.role_id
+              WHERE ur.user_id = u.id
+                AND r.name IN ('ADMIN'))
+  AND u.blocked_at IS NULL
+ORDER BY u.created_at
+LIMIT 20;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(u.id)
+FROM users u
+WHERE EXISTS (SELECT 1
+              FROM user_roles ur
+                       JOIN roles r ON r.id = ur.role_id
+              WHERE ur.user_id = u.id
+                AND r.name IN ('ADMIN'))
+  AND u.blocked_at IS NULL;
+
+\echo '=== roles=USER, createdAt range, isAvatar=true: before ==='
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT DISTINCT u.*
+FROM users u
+         JOIN user_roles ur ON ur.user_id = u.id
+         JOIN roles r ON r.id = ur.role_id
+WHERE r.name IN ('USER')
+  AND u.created_at >= now() - interval '7 days'
+  AND u.created_at <= now()
+  AND u.avatar IS NOT NULL
+ORDER BY u.created_at
+LIMIT 20;
+
+\echo '=== roles=USER, createdAt range, isAvatar=true: after ==='
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT u.*
+FROM users u
+WHERE EXISTS (SELECT 1
+              FROM user_roles ur
+                       JOIN roles r ON r.id = ur.role_id
+              WHERE ur.user_id = u.id
+                AND r.name IN ('USER'))
+  AND u.created_at >= now() - interval '7 days'
+  AND u.created_at <= now()
+  AND u.avatar IS NOT NULL
+ORDER BY u.created_at
+LIMIT 20;
+
+\echo '=== q=name42: before ==='
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT DISTINCT u.*
+FROM users u
+WHERE lower(u.email) LIKE '%name42%'
+   OR lower(u.name) LIKE '%name42%'
+   OR lower(u.last_name) LIKE '%name42%'
+ORDER BY u.created_at
+LIMIT 20;
+
+\echo '=== q=name42: after ==='
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT u.*
+FROM users u
+WHERE lower(u.email) LIKE '%name42%'
+   OR lower(u.name) LIKE '%name42%'
+   OR lower(u.last_name) LIKE '%name42%'
+ORDER BY u.created_at
+LIMIT 20;
+
+\echo '=== roles=ADMIN, q=user1: before ==='
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT DISTINCT u.*
+FROM users u
+         JOIN user_roles ur ON ur.user_id = u.id
+         JOIN roles r ON r.id = ur.role_id
+WHERE r.name IN ('ADMIN')
+  AND (lower(u.email) LIKE '%user1%' OR lower(u.name) LIKE '%user1%' OR lower(u.last_name) LIKE '%user1%')
+ORDER BY u.created_at
+LIMIT 20;
+
+\echo '=== roles=ADMIN, q=user1: after ==='
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT u.*
+FROM users u
+WHERE EXISTS (SELECT 1
+              FROM user_roles ur
+                       JOIN roles r ON r.id = ur.role_id
+              WHERE ur.user_id = u.id
+                AND r.name IN ('ADMIN'))
+  AND (lower(u.email) LIKE '%user1%' OR lower(u.name) LIKE '%user1%' OR lower(u.last_name) LIKE '%user1%')
+ORDER BY u.created_at
+LIMIT 20;
@@ -0,0 +1,47 @@
+-- Seeds users for the query benchmarks in this directory.
+-- Run against a database migrated by Liquibase, e.g.:
+--   psql "$DB_URL" -v users=1000000 -f src/test/resources/benchmark/users-seed.sql
+\if :{?users}
+\else
+    \set users 1000000
+\endif
+
+INSERT INTO roles (id, name, created_at, updated_at)
+VALUES (gen_random_uuid(), 'ADMIN', now(), now()),
+       (gen_random_uuid(), 'USER', now(), now())
+ON CONFLICT (name) DO NOTHING;
+
+-- Every 3rd user has an avatar, every 50th is blocked, every 4th has a verified e-mail.
+INSERT INTO users (id, email, password, name, last_name, avatar, email_verified_at, blocked_at, created_at,
+                   updated_at)
+SELECT gen_random_uuid(),
+       'user' || i || '@example.com',
+       '$2a$10$7EqJtq98hPqEX7fNZaFWoO5h7n1sBvE1mHvI1Fh5rQ8KxbZ5S0WVa',
+       'Name' || (i % 5000),
+       'Last' || (i % 7000),
+       CASE WHEN i % 3 = 0 THEN 'https://example.com/avatar/' || i || '.png' END,
+       CASE WHEN i % 4 = 0 THEN now() - make_interval(secs => i) END,
+       CASE WHEN i % 50 = 0 THEN now() - make_interval(secs => i) END,
+       now() - make_interval(secs => i),
+       now() - make_interval(secs => i)
+FROM generate_series(1, :users) AS s(i);
+
+-- Everyone is a USER, every 100th user is also an ADMIN so role filters have to deal with multiple roles.
+INSERT INTO user_roles (user_id, role_id)
+SELECT u.id, r.id
+FROM users u
+         CROSS JOIN roles r
+WHERE r.name = 'USER'
+ON CONFLICT DO NOTHING;
+
+INSERT INTO user_roles (user_id, role_id)
+SELECT u.id, r.id
+FROM users u
+         CROSS JOIN roles r
+WHERE r.name = 'ADMIN'
+  AND u.email LIKE 'user%00@example.com'
+ON CONFLICT DO NOTHING;
+
+ANALYZE users;
+ANALYZE user_roles;
+ANALYZE roles;